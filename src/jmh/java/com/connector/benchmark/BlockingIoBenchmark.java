@@ -0,0 +1,89 @@
+package com.connector.benchmark;
+
+import com.connector.repository.IoExecutors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput of blocking calls (GitHub page fetches, Firestore commits) on platform vs virtual threads
+ * Each invocation issues {@code calls} simulated RPCs of {@code latencyMicros}, at most {@code maxInFlight}
+ * at a time, the way GitHubApiClient and FirestoreIssueRepository bound their calls.
+ * "virtual" only differs from "platform" when run on Java 21+ (build with -Pjava21,benchmarks).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockingIoBenchmark {
+    
+    @Param({"platform", "virtual"})
+    private String threads;
+    
+    @Param({"8", "256"})
+    private int maxInFlight;
+    
+    @Param({"1000"})
+    private long latencyMicros;
+    
+    @Param({"512"})
+    private int calls;
+    
+    private ExecutorService executor;
+    private Semaphore permits;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = IoExecutors.newExecutor("benchmark-io", maxInFlight, "virtual".equals(threads));
+        permits = new Semaphore(maxInFlight);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Benchmark
+    public long blockingCalls() throws Exception {
+        List<Future<Long>> futures = new ArrayList<>(calls);
+        for (int i = 0; i < calls; i++) {
+            futures.add(executor.submit(this::rpc));
+        }
+        long total = 0;
+        for (Future<Long> future : futures) {
+            total += future.get();
+        }
+        return total;
+    }
+    
+    private long rpc() throws InterruptedException {
+        permits.acquire();
+        try {
+            long start = System.nanoTime();
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+            return System.nanoTime() - start;
+        } finally {
+            permits.release();
+        }
+    }
+}
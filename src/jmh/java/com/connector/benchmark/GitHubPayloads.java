@@ -0,0 +1,56 @@
+package com.connector.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Builds GitHub issue list payloads for benchmarks
+ * Every issue is a copy of a full REST API issue object (user, labels, milestone, reactions, body)
+ * with a distinct id, number, title and timestamps
+ */
+public final class GitHubPayloads {
+    
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final DateTimeFormatter GITHUB_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2020, 1, 1, 0, 0);
+    
+    private GitHubPayloads() {
+    }
+    
+    /**
+     * @param issueCount number of issues in the page
+     * @return UTF-8 JSON array as returned by GET /repos/{owner}/{repo}/issues
+     */
+    public static byte[] issuesPage(int issueCount) throws IOException {
+        ObjectNode template = loadTemplate();
+        ArrayNode page = OBJECT_MAPPER.createArrayNode();
+        for (int i = 0; i < issueCount; i++) {
+            ObjectNode issue = template.deepCopy();
+            long id = 1_000_000L + i;
+            issue.put("id", id);
+            issue.put("number", i + 1);
+            issue.put("title", "Issue " + (i + 1) + ": " + template.get("title").asText());
+            issue.put("html_url", "https://github.com/octo-org/octo-repo/issues/" + (i + 1));
+            issue.put("created_at", EPOCH.plusMinutes(i).format(GITHUB_TIMESTAMP));
+            issue.put("updated_at", EPOCH.plusMinutes(i).plusHours(6).format(GITHUB_TIMESTAMP));
+            issue.put("state", i % 3 == 0 ? "closed" : "open");
+            page.add(issue);
+        }
+        return OBJECT_MAPPER.writeValueAsBytes(page);
+    }
+    
+    private static ObjectNode loadTemplate() throws IOException {
+        try (InputStream in = GitHubPayloads.class.getResourceAsStream("/github-issue-template.json")) {
+            if (in == null) {
+                throw new IOException("github-issue-template.json not found on the benchmark classpath");
+            }
+            return (ObjectNode) OBJECT_MAPPER.readTree(in);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.connector.benchmark;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.BidiStreamingCallable;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.ServerStreamingCallable;
+import com.google.api.gax.rpc.StreamController;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.cloud.NoCredentials;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+import com.google.cloud.firestore.spi.v1.FirestoreRpc;
+import com.google.cloud.firestore.v1.FirestoreClient;
+import com.google.firestore.v1.BatchGetDocumentsRequest;
+import com.google.firestore.v1.BatchGetDocumentsResponse;
+import com.google.firestore.v1.BatchWriteRequest;
+import com.google.firestore.v1.BatchWriteResponse;
+import com.google.firestore.v1.BeginTransactionRequest;
+import com.google.firestore.v1.BeginTransactionResponse;
+import com.google.firestore.v1.CommitRequest;
+import com.google.firestore.v1.CommitResponse;
+import com.google.firestore.v1.Document;
+import com.google.firestore.v1.ListCollectionIdsRequest;
+import com.google.firestore.v1.ListDocumentsRequest;
+import com.google.firestore.v1.ListenRequest;
+import com.google.firestore.v1.ListenResponse;
+import com.google.firestore.v1.PartitionQueryRequest;
+import com.google.firestore.v1.RollbackRequest;
+import com.google.firestore.v1.RunQueryRequest;
+import com.google.firestore.v1.RunQueryResponse;
+import com.google.firestore.v1.Write;
+import com.google.firestore.v1.WriteResult;
+import com.google.protobuf.Empty;
+import com.google.protobuf.Timestamp;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory Firestore for benchmarks
+ * A real Firestore client whose RPC layer keeps documents in a map instead of calling the service, so callers pay
+ * the client's own encoding and decoding but no network. Only the RPCs the issue repository's write path uses are
+ * served: multi-document reads (with their field mask) and batch commits (creates and masked updates; preconditions
+ * are not checked). Every RPC is counted and can complete after a fixed latency.
+ */
+public class InMemoryFirestore {
+    
+    private final Map<String, Document> documents = new ConcurrentHashMap<>();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong clock = new AtomicLong(1_700_000_000L);
+    private final long rpcLatencyNanos;
+    private final ScheduledExecutorService executor;
+    private final Firestore firestore;
+    
+    public InMemoryFirestore(long rpcLatencyMicros) {
+        this.rpcLatencyNanos = TimeUnit.MICROSECONDS.toNanos(rpcLatencyMicros);
+        // Completions run the repository's follow-up stages, as the client's gRPC threads do
+        this.executor = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "firestore-rpc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.firestore = FirestoreOptions.newBuilder()
+                .setProjectId("benchmark")
+                .setCredentials(NoCredentials.getInstance())
+                .setServiceRpcFactory(options -> new Rpc())
+                .build()
+                .getService();
+    }
+    
+    public Firestore getFirestore() {
+        return firestore;
+    }
+    
+    /** Multi-document reads served so far */
+    public long getReadCount() {
+        return reads.get();
+    }
+    
+    /** Batch commits served so far */
+    public long getCommitCount() {
+        return commits.get();
+    }
+    
+    public void shutdown() throws Exception {
+        firestore.close();
+        executor.shutdownNow();
+    }
+    
+    private BatchGetDocumentsResponse.Builder read(String name, BatchGetDocumentsRequest request) {
+        BatchGetDocumentsResponse.Builder response = BatchGetDocumentsResponse.newBuilder().setReadTime(now());
+        Document document = documents.get(name);
+        if (document == null) {
+            return response.setMissing(name);
+        }
+        if (request.hasMask()) {
+            Document.Builder projected = document.toBuilder().clearFields();
+            for (String field : request.getMask().getFieldPathsList()) {
+                if (document.containsFields(field)) {
+                    projected.putFields(field, document.getFieldsOrThrow(field));
+                }
+            }
+            document = projected.build();
+        }
+        return response.setFound(document);
+    }
+    
+    private CommitResponse commit(CommitRequest request) {
+        Timestamp commitTime = tick();
+        CommitResponse.Builder response = CommitResponse.newBuilder().setCommitTime(commitTime);
+        for (Write write : request.getWritesList()) {
+            Document update = write.getUpdate();
+            documents.compute(update.getName(), (name, stored) -> {
+                Document.Builder document = stored == null || !write.hasUpdateMask()
+                        ? update.toBuilder().clearFields().setCreateTime(commitTime) : stored.toBuilder();
+                if (write.hasUpdateMask()) {
+                    // Masked fields absent from the update are deletes
+                    for (String field : write.getUpdateMask().getFieldPathsList()) {
+                        if (update.containsFields(field)) {
+                            document.putFields(field, update.getFieldsOrThrow(field));
+                        } else {
+                            document.removeFields(field);
+                        }
+                    }
+                } else {
+                    document.putAllFields(update.getFieldsMap());
+                }
+                return document.setUpdateTime(commitTime).build();
+            });
+            response.addWriteResults(WriteResult.newBuilder().setUpdateTime(commitTime));
+        }
+        return response.build();
+    }
+    
+    private Timestamp now() {
+        return Timestamp.newBuilder().setSeconds(clock.get()).build();
+    }
+    
+    private Timestamp tick() {
+        return Timestamp.newBuilder().setSeconds(clock.incrementAndGet()).build();
+    }
+    
+    private void afterLatency(Runnable response) {
+        if (rpcLatencyNanos == 0) {
+            response.run();
+        } else {
+            executor.schedule(response, rpcLatencyNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * The RPC layer behind the client; RPCs outside the write path fail as unsupported
+     */
+    private final class Rpc implements FirestoreRpc {
+        
+        @Override
+        public UnaryCallable<CommitRequest, CommitResponse> commitCallable() {
+            return new UnaryCallable<>() {
+                @Override
+                public ApiFuture<CommitResponse> futureCall(CommitRequest request, ApiCallContext context) {
+                    commits.incrementAndGet();
+                    CommitResponse response = commit(request);
+                    if (rpcLatencyNanos == 0) {
+                        return ApiFutures.immediateFuture(response);
+                    }
+                    SettableApiFuture<CommitResponse> future = SettableApiFuture.create();
+                    afterLatency(() -> future.set(response));
+                    return future;
+                }
+            };
+        }
+        
+        @Override
+        public ServerStreamingCallable<BatchGetDocumentsRequest, BatchGetDocumentsResponse> batchGetDocumentsCallable() {
+            return new ServerStreamingCallable<>() {
+                @Override
+                public void call(BatchGetDocumentsRequest request, ResponseObserver<BatchGetDocumentsResponse> observer,
+                        ApiCallContext context) {
+                    reads.incrementAndGet();
+                    observer.onStart(new NoFlowControl());
+                    afterLatency(() -> {
+                        for (String name : request.getDocumentsList()) {
+                            observer.onResponse(read(name, request).build());
+                        }
+                        observer.onComplete();
+                    });
+                }
+            };
+        }
+        
+        @Override
+        public ScheduledExecutorService getExecutor() {
+            return executor;
+        }
+        
+        @Override
+        public UnaryCallable<BatchWriteRequest, BatchWriteResponse> batchWriteCallable() {
+            throw new UnsupportedOperationException("batchWrite");
+        }
+        
+        @Override
+        public ServerStreamingCallable<RunQueryRequest, RunQueryResponse> runQueryCallable() {
+            throw new UnsupportedOperationException("runQuery");
+        }
+        
+        @Override
+        public UnaryCallable<BeginTransactionRequest, BeginTransactionResponse> beginTransactionCallable() {
+            throw new UnsupportedOperationException("beginTransaction");
+        }
+        
+        @Override
+        public UnaryCallable<RollbackRequest, Empty> rollbackCallable() {
+            throw new UnsupportedOperationException("rollback");
+        }
+        
+        @Override
+        public UnaryCallable<ListCollectionIdsRequest, FirestoreClient.ListCollectionIdsPagedResponse> listCollectionIdsPagedCallable() {
+            throw new UnsupportedOperationException("listCollectionIds");
+        }
+        
+        @Override
+        public UnaryCallable<PartitionQueryRequest, FirestoreClient.PartitionQueryPagedResponse> partitionQueryPagedCallable() {
+            throw new UnsupportedOperationException("partitionQuery");
+        }
+        
+        @Override
+        public UnaryCallable<ListDocumentsRequest, FirestoreClient.ListDocumentsPagedResponse> listDocumentsPagedCallable() {
+            throw new UnsupportedOperationException("listDocuments");
+        }
+        
+        @Override
+        public BidiStreamingCallable<ListenRequest, ListenResponse> listenCallable() {
+            throw new UnsupportedOperationException("listen");
+        }
+        
+        @Override
+        public void shutdownNow() {
+        }
+        
+        @Override
+        public void shutdown() {
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+    
+    /**
+     * Responses are pushed as soon as they are ready, whatever the observer requests
+     */
+    private static final class NoFlowControl implements StreamController {
+        
+        @Override
+        public void cancel() {
+        }
+        
+        @Override
+        public void disableAutoInboundFlowControl() {
+        }
+        
+        @Override
+        public void request(int count) {
+        }
+    }
+}
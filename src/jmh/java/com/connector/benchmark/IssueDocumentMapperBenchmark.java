@@ -0,0 +1,52 @@
+package com.connector.benchmark;
+
+import com.connector.model.Issue;
+import com.connector.repository.IssueDocumentMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issue <-> Firestore document conversion cost per issue
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IssueDocumentMapperBenchmark {
+    
+    private Issue issue;
+    private Map<String, Object> document;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        issue = new Issue(1_000_001L, "Found a bug in the sync pipeline when pages arrive out of order", createdAt,
+                "open", "https://github.com/octo-org/octo-repo/issues/1347", "octo-org/octo-repo", createdAt.plusHours(6));
+        document = IssueDocumentMapper.toDocument(issue);
+    }
+    
+    @Benchmark
+    public Map<String, Object> toDocument() {
+        return IssueDocumentMapper.toDocument(issue);
+    }
+    
+    @Benchmark
+    public Issue fromDocument() {
+        return IssueDocumentMapper.fromDocument(document, issue.getId());
+    }
+}
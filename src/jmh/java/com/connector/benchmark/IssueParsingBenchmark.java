@@ -0,0 +1,83 @@
+package com.connector.benchmark;
+
+import com.connector.model.Issue;
+import com.connector.repository.GitHubIssueParser;
+import com.connector.repository.RepositoryException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming GitHubIssueParser against the previous org.json DOM path
+ * Run with the GC profiler (the default for -Pbenchmarks) to compare gc.alloc.rate.norm per page
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IssueParsingBenchmark {
+    
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final String REPOSITORY = "octo-org/octo-repo";
+    
+    @Param({"100", "10000"})
+    private int issueCount;
+    
+    private byte[] payload;
+    private GitHubIssueParser parser;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        payload = GitHubPayloads.issuesPage(issueCount);
+        parser = new GitHubIssueParser();
+    }
+    
+    @Benchmark
+    public List<Issue> streamingBytes() throws RepositoryException {
+        return parser.parseIssues(payload, REPOSITORY);
+    }
+    
+    @Benchmark
+    public List<Issue> streamingInputStream() throws RepositoryException {
+        return parser.parseIssues(new ByteArrayInputStream(payload), REPOSITORY);
+    }
+    
+    /**
+     * The pre-streaming path: decode the body to a String, build a full JSONArray DOM, copy six fields
+     */
+    @Benchmark
+    public List<Issue> orgJsonDom() {
+        JSONArray issuesArray = new JSONArray(new String(payload, StandardCharsets.UTF_8));
+        List<Issue> issues = new ArrayList<>();
+        for (int i = 0; i < issuesArray.length(); i++) {
+            JSONObject issueJson = issuesArray.getJSONObject(i);
+            LocalDateTime createdAt = LocalDateTime.parse(issueJson.getString("created_at").replace("Z", ""), DATE_TIME_FORMATTER);
+            LocalDateTime updatedAt = LocalDateTime.parse(issueJson.getString("updated_at").replace("Z", ""), DATE_TIME_FORMATTER);
+            issues.add(new Issue(issueJson.getLong("id"), issueJson.getString("title"), createdAt,
+                    issueJson.getString("state"), issueJson.getString("html_url"), REPOSITORY, updatedAt));
+        }
+        return issues;
+    }
+}
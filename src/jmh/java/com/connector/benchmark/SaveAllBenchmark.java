@@ -0,0 +1,119 @@
+package com.connector.benchmark;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.model.Issue;
+import com.connector.repository.BatchSaveResult;
+import com.connector.repository.FirestoreIssueRepository;
+import com.connector.repository.IssueIdIndex;
+import com.connector.repository.IssueWriteAheadLog;
+import com.connector.repository.RepositoryException;
+import com.connector.repository.RetryHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FirestoreIssueRepository.saveAll, with its real chunking and change detection, over an in-memory Firestore
+ * Invocations alternate between two versions of the input that share their first half and differ in the second,
+ * so every call skips half the issues as unchanged and updates the other half without resetting the store.
+ * rpcLatencyMicros completes each read and commit after a fixed delay to approximate a remote Firestore; with a
+ * complete ID index only the changed half is read. RPCs per call are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveAllBenchmark {
+    
+    @Param({"100", "10000"})
+    private int issueCount;
+    
+    @Param({"0", "200"})
+    private long rpcLatencyMicros;
+    
+    @Param({"complete", "disabled"})
+    private String idIndex;
+    
+    private InMemoryFirestore firestore;
+    private FirestoreIssueRepository repository;
+    private List<Issue> versionA;
+    private List<Issue> versionB;
+    /** RPCs of the setup save, left out of the per-call counts */
+    private long storedReads;
+    private long storedCommits;
+    private long calls;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, RepositoryException {
+        ConnectorConfig config = ConnectorConfig.builder()
+                .firestoreCollection("github_issues")
+                .firestoreBatchSize(500)
+                .build();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        IssueIdIndex index = new IssueIdIndex("complete".equals(idIndex), "");
+        index.load();
+        index.markComplete();
+        firestore = new InMemoryFirestore(rpcLatencyMicros);
+        
+        repository = new FirestoreIssueRepository();
+        ReflectionTestUtils.setField(repository, "config", config);
+        ReflectionTestUtils.setField(repository, "firestore", firestore.getFirestore());
+        ReflectionTestUtils.setField(repository, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(repository, "idIndex", index);
+        ReflectionTestUtils.setField(repository, "writeAheadLog", new IssueWriteAheadLog(""));
+        ReflectionTestUtils.setField(repository, "retryHandler", new RetryHandler(config, meterRegistry));
+        repository.initialize();
+        
+        versionA = new ArrayList<>(issueCount);
+        versionB = new ArrayList<>(issueCount);
+        for (int i = 0; i < issueCount; i++) {
+            Issue issue = issue(i, "open");
+            versionA.add(issue);
+            versionB.add(i < issueCount / 2 ? issue : issue(i, "closed"));
+        }
+        repository.saveAll(versionB);
+        storedReads = firestore.getReadCount();
+        storedCommits = firestore.getCommitCount();
+        calls = 0;
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        System.out.printf("%n%d reads and %d commits per saveAll%n", (firestore.getReadCount() - storedReads) / Math.max(1, calls),
+                (firestore.getCommitCount() - storedCommits) / Math.max(1, calls));
+        repository.shutdown();
+        firestore.shutdown();
+    }
+    
+    @Benchmark
+    public BatchSaveResult saveAll() throws RepositoryException {
+        return repository.saveAll(calls++ % 2 == 0 ? versionA : versionB);
+    }
+    
+    private static Issue issue(int i, String state) {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i);
+        return new Issue(1_000_000L + i, "Issue " + i, createdAt, state,
+                "https://github.com/octo-org/octo-repo/issues/" + i, "octo-org/octo-repo", createdAt);
+    }
+}
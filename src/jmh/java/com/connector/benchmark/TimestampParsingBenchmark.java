@@ -0,0 +1,57 @@
+package com.connector.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the timestamp parsing done per issue on the GitHub and Firestore read paths,
+ * alongside the java.time alternatives
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampParsingBenchmark {
+    
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    
+    private final String githubTimestamp = "2024-01-02T03:04:05Z";
+    private final String storedTimestamp = "2024-01-02T03:04:05";
+    
+    /** GitHubIssueParser: strip the zone designator, then parse as a local date-time */
+    @Benchmark
+    public LocalDateTime githubStripZone() {
+        return LocalDateTime.parse(githubTimestamp.replace("Z", ""), DATE_TIME_FORMATTER);
+    }
+    
+    /** IssueDocumentMapper: stored documents keep ISO local date-time strings */
+    @Benchmark
+    public LocalDateTime firestoreStoredString() {
+        return LocalDateTime.parse(storedTimestamp, DATE_TIME_FORMATTER);
+    }
+    
+    @Benchmark
+    public Instant instantParse() {
+        return Instant.parse(githubTimestamp);
+    }
+    
+    @Benchmark
+    public OffsetDateTime offsetDateTimeParse() {
+        return OffsetDateTime.parse(githubTimestamp);
+    }
+}
@@ -16,7 +16,8 @@ public class GitHubFirebaseConnectorApplication {
         SpringApplication.run(GitHubFirebaseConnectorApplication.class, args);
         log.info("GitHub-Firebase Connector Application started successfully");
         log.info("Available endpoints:");
-        log.info("  POST /api/v1/sync - Sync GitHub issues to Firestore");
+        log.info("  POST /api/v1/sync - Queue a sync of GitHub issues to Firestore");
+        log.info("  GET  /api/v1/sync/{jobId} - Sync job status and progress");
         log.info("  GET  /api/v1/issues - Get all issues from Firestore");
         log.info("  GET  /api/v1/issues/{id}/exists - Check if issue exists");
         log.info("  GET  /api/v1/health - Application health status");
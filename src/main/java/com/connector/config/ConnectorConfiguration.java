@@ -1,12 +1,19 @@
 package com.connector.config;
 
 import com.connector.model.ConnectorConfig;
+import com.connector.repository.GitHubHttpClients;
 import com.connector.repository.RetryHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 /**
  * Spring configuration for connector components
  */
@@ -14,15 +21,168 @@ import org.springframework.context.annotation.Configuration;
 @Slf4j
 public class ConnectorConfiguration {
     
-    @Value("${connector.github.repository}")
+    @Value("${connector.github.repository:}")
     private String githubRepository;
     
+    @Value("${connector.github.repositories:}")
+    private List<String> githubRepositories;
+    
+    @Value("${connector.github.organization:}")
+    private String githubOrganization;
+    
+    @Value("${connector.github.api.url:https://api.github.com}")
+    private String githubApiUrl;
+    
+    @Value("${connector.github.fetch.mode:rest}")
+    private String githubFetchMode;
+    
+    @Value("${connector.github.graphql.url:}")
+    private String githubGraphqlUrl;
+    
+    @Value("${connector.github.token:}")
+    private String githubToken;
+    
     @Value("${connector.max.issues:5}")
     private int maxIssues;
     
+    @Value("${connector.github.page.size:100}")
+    private int githubPageSize;
+    
+    @Value("${connector.github.fetch.parallelism:4}")
+    private int githubFetchParallelism;
+    
+    @Value("${connector.github.max.in.flight.requests:8}")
+    private int githubMaxInFlightRequests;
+    
+    @Value("${connector.github.rate.limit.burst:100}")
+    private int githubRateLimitBurst;
+    
+    @Value("${connector.github.rate.limit.max.wait.ms:900000}")
+    private long githubRateLimitMaxWaitMs;
+    
+    @Value("${connector.github.http.max.connections:20}")
+    private int githubHttpMaxConnections;
+    
+    @Value("${connector.github.http.max.connections.per.route:10}")
+    private int githubHttpMaxConnectionsPerRoute;
+    
+    @Value("${connector.github.http.connect.timeout.ms:5000}")
+    private int githubHttpConnectTimeoutMs;
+    
+    @Value("${connector.github.http.read.timeout.ms:30000}")
+    private int githubHttpReadTimeoutMs;
+    
+    @Value("${connector.github.http.keep.alive.ms:30000}")
+    private long githubHttpKeepAliveMs;
+    
+    @Value("${connector.github.cache.max.entries:256}")
+    private int githubCacheMaxEntries;
+    
+    @Value("${connector.github.cache.max.bytes:33554432}")
+    private long githubCacheMaxBytes;
+    
+    @Value("${connector.github.cache.file:}")
+    private String githubCacheFile;
+    
+    @Value("${connector.github.cache.persist.interval.ms:60000}")
+    private long githubCachePersistIntervalMs;
+    
     @Value("${connector.firestore.collection:github_issues}")
     private String firestoreCollection;
     
+    @Value("${connector.firestore.batch.size:500}")
+    private int firestoreBatchSize;
+    
+    @Value("${connector.firestore.stream.chunk.size:500}")
+    private int firestoreStreamChunkSize;
+    
+    @Value("${connector.firestore.max.in.flight.chunks:4}")
+    private int firestoreMaxInFlightChunks;
+    
+    @Value("${connector.index.enabled:true}")
+    private boolean idIndexEnabled;
+    
+    @Value("${connector.index.file:}")
+    private String idIndexFile;
+    
+    @Value("${connector.cache.issues.max.entries:10000}")
+    private long issueCacheMaxEntries;
+    
+    @Value("${connector.cache.issues.ttl.seconds:60}")
+    private long issueCacheTtlSeconds;
+    
+    @Value("${connector.firestore.metadata.collection:connector_metadata}")
+    private String firestoreMetadataCollection;
+    
+    @Value("${connector.sync.incremental:false}")
+    private boolean incrementalSync;
+    
+    @Value("${connector.sync.worker.threads:2}")
+    private int syncWorkerThreads;
+    
+    @Value("${connector.sync.repository.concurrency:4}")
+    private int syncRepositoryConcurrency;
+    
+    @Value("${connector.sync.queue.capacity:16}")
+    private int syncQueueCapacity;
+    
+    @Value("${connector.sync.job.history.size:100}")
+    private int syncJobHistorySize;
+    
+    @Value("${connector.sync.pipeline.writers:2}")
+    private int syncPipelineWriters;
+    
+    @Value("${connector.sync.pipeline.queue.capacity:4}")
+    private int syncPipelineQueueCapacity;
+    
+    @Value("${connector.poll.enabled:false}")
+    private boolean pollEnabled;
+    
+    @Value("${connector.poll.min.interval.seconds:60}")
+    private long pollMinIntervalSeconds;
+    
+    @Value("${connector.poll.max.interval.seconds:3600}")
+    private long pollMaxIntervalSeconds;
+    
+    @Value("${connector.poll.backoff.multiplier:2.0}")
+    private double pollBackoffMultiplier;
+    
+    @Value("${connector.poll.jitter:0.2}")
+    private double pollJitter;
+    
+    @Value("${connector.backfill.initial.ops.per.second:500}")
+    private int backfillInitialOpsPerSecond;
+    
+    @Value("${connector.backfill.max.ops.per.second:0}")
+    private int backfillMaxOpsPerSecond;
+    
+    @Value("${connector.backfill.checkpoint.pages:10}")
+    private int backfillCheckpointPages;
+    
+    @Value("${connector.migration.page.size:500}")
+    private int migrationPageSize;
+    
+    @Value("${connector.wal.file:}")
+    private String walFile;
+    
+    @Value("${connector.wal.replay.interval.ms:5000}")
+    private long walReplayIntervalMs;
+    
+    @Value("${connector.webhook.secret:}")
+    private String webhookSecret;
+    
+    @Value("${connector.webhook.batch.max.events:100}")
+    private int webhookBatchMaxEvents;
+    
+    @Value("${connector.webhook.batch.flush.ms:1000}")
+    private long webhookBatchFlushMs;
+    
+    @Value("${connector.webhook.delivery.cache.size:10000}")
+    private int webhookDeliveryCacheSize;
+    
+    @Value("${connector.threads.virtual.enabled:${spring.threads.virtual.enabled:false}}")
+    private boolean virtualThreadsEnabled;
+    
     @Value("${connector.service.account.path}")
     private String serviceAccountPath;
     
@@ -32,25 +192,107 @@ public class ConnectorConfiguration {
     @Value("${connector.retry.delay.ms:1000}")
     private long retryDelayMs;
     
+    @Value("${connector.retry.max.delay.ms:30000}")
+    private long retryMaxDelayMs;
+    
+    @Value("${connector.retry.budget.ratio:0.2}")
+    private double retryBudgetRatio;
+    
+    @Value("${connector.circuit.failure.threshold:5}")
+    private int circuitFailureThreshold;
+    
+    @Value("${connector.circuit.open.ms:30000}")
+    private long circuitOpenMs;
+    
+    @Value("${connector.concurrency.latency.tolerance:2.0}")
+    private double concurrencyLatencyTolerance;
+    
     @Bean
     public ConnectorConfig connectorConfig() {
         ConnectorConfig config = ConnectorConfig.builder()
                 .githubRepository(githubRepository)
+                .githubRepositories(githubRepositories)
+                .githubOrganization(githubOrganization)
+                .githubApiUrl(githubApiUrl)
+                .githubFetchMode(githubFetchMode)
+                .githubGraphqlUrl(githubGraphqlUrl)
+                .githubToken(githubToken)
                 .maxIssues(maxIssues)
+                .githubPageSize(githubPageSize)
+                .githubFetchParallelism(githubFetchParallelism)
+                .githubMaxInFlightRequests(githubMaxInFlightRequests)
+                .githubRateLimitBurst(githubRateLimitBurst)
+                .githubRateLimitMaxWaitMs(githubRateLimitMaxWaitMs)
+                .githubHttpMaxConnections(githubHttpMaxConnections)
+                .githubHttpMaxConnectionsPerRoute(githubHttpMaxConnectionsPerRoute)
+                .githubHttpConnectTimeoutMs(githubHttpConnectTimeoutMs)
+                .githubHttpReadTimeoutMs(githubHttpReadTimeoutMs)
+                .githubHttpKeepAliveMs(githubHttpKeepAliveMs)
+                .githubCacheMaxEntries(githubCacheMaxEntries)
+                .githubCacheMaxBytes(githubCacheMaxBytes)
+                .githubCacheFile(githubCacheFile)
+                .githubCachePersistIntervalMs(githubCachePersistIntervalMs)
                 .firestoreCollection(firestoreCollection)
+                .firestoreBatchSize(firestoreBatchSize)
+                .firestoreStreamChunkSize(firestoreStreamChunkSize)
+                .firestoreMaxInFlightChunks(firestoreMaxInFlightChunks)
+                .idIndexEnabled(idIndexEnabled)
+                .idIndexFile(idIndexFile)
+                .issueCacheMaxEntries(issueCacheMaxEntries)
+                .issueCacheTtlSeconds(issueCacheTtlSeconds)
+                .firestoreMetadataCollection(firestoreMetadataCollection)
+                .incrementalSync(incrementalSync)
+                .syncWorkerThreads(syncWorkerThreads)
+                .syncRepositoryConcurrency(syncRepositoryConcurrency)
+                .syncQueueCapacity(syncQueueCapacity)
+                .syncJobHistorySize(syncJobHistorySize)
+                .syncPipelineWriters(syncPipelineWriters)
+                .syncPipelineQueueCapacity(syncPipelineQueueCapacity)
+                .pollEnabled(pollEnabled)
+                .pollMinIntervalSeconds(pollMinIntervalSeconds)
+                .pollMaxIntervalSeconds(pollMaxIntervalSeconds)
+                .pollBackoffMultiplier(pollBackoffMultiplier)
+                .pollJitter(pollJitter)
+                .backfillInitialOpsPerSecond(backfillInitialOpsPerSecond)
+                .backfillMaxOpsPerSecond(backfillMaxOpsPerSecond)
+                .backfillCheckpointPages(backfillCheckpointPages)
+                .migrationPageSize(migrationPageSize)
+                .walFile(walFile)
+                .walReplayIntervalMs(walReplayIntervalMs)
+                .webhookSecret(webhookSecret)
+                .webhookBatchMaxEvents(webhookBatchMaxEvents)
+                .webhookBatchFlushMs(webhookBatchFlushMs)
+                .webhookDeliveryCacheSize(webhookDeliveryCacheSize)
+                .virtualThreadsEnabled(virtualThreadsEnabled)
                 .serviceAccountPath(serviceAccountPath)
                 .maxRetries(maxRetries)
                 .retryDelayMs(retryDelayMs)
+                .retryMaxDelayMs(retryMaxDelayMs)
+                .retryBudgetRatio(retryBudgetRatio)
+                .circuitFailureThreshold(circuitFailureThreshold)
+                .circuitOpenMs(circuitOpenMs)
+                .concurrencyLatencyTolerance(concurrencyLatencyTolerance)
                 .build();
         
-        log.info("Connector configuration loaded: repository={}, maxIssues={}, collection={}", 
-                config.getGithubRepository(), config.getMaxIssues(), config.getFirestoreCollection());
+        log.info("Connector configuration loaded: repository={}, repositories={}, organization={}, maxIssues={}, collection={}", 
+                config.getGithubRepository(), config.getGithubRepositories(), config.getGithubOrganization(),
+                config.getMaxIssues(), config.getFirestoreCollection());
         
         return config;
     }
     
+    /**
+     * Pooled HTTP client shared by every GitHub request, with its connection pool exposed as metrics
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient githubHttpClient(ConnectorConfig config, MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = GitHubHttpClients.connectionManager(config);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "github").bindTo(meterRegistry);
+        return GitHubHttpClients.create(config, connectionManager);
+    }
+    
     @Bean
-    public RetryHandler retryHandler(ConnectorConfig config) {
-        return new RetryHandler(config.getMaxRetries(), config.getRetryDelayMs());
+    public RetryHandler retryHandler(ConnectorConfig config, MeterRegistry meterRegistry) {
+        return new RetryHandler(config, meterRegistry);
     }
 }
@@ -0,0 +1,76 @@
+package com.connector.config;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.repository.RepositoryException;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.auth.oauth2.ServiceAccountCredentials;
+import com.google.cloud.firestore.Firestore;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.cloud.FirestoreClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Spring configuration for the shared Firestore client
+ */
+@Configuration
+@Slf4j
+public class FirestoreConfiguration {
+    
+    @Bean
+    public Firestore firestore(ConnectorConfig config) {
+        try {
+            return initializeFirestore(config);
+        } catch (RepositoryException e) {
+            throw new RuntimeException("Failed to initialize Firestore repository", e);
+        }
+    }
+    
+    /**
+     * Initialize Firestore connection using Firebase Admin SDK
+     */
+    private Firestore initializeFirestore(ConnectorConfig config) throws RepositoryException {
+        try {
+            // Initialize Firebase if not already initialized
+            if (FirebaseApp.getApps().isEmpty()) {
+                FileInputStream serviceAccount = new FileInputStream(config.getServiceAccountPath());
+                GoogleCredentials credentials = GoogleCredentials.fromStream(serviceAccount);
+                
+                // Extract project ID from credentials
+                String projectId = extractProjectIdFromCredentials(credentials);
+                
+                FirebaseOptions options = FirebaseOptions.builder()
+                        .setCredentials(credentials)
+                        .setProjectId(projectId)
+                        .build();
+                FirebaseApp.initializeApp(options);
+            }
+            
+            return FirestoreClient.getFirestore();
+            
+        } catch (IOException e) {
+            log.error("Failed to initialize Firestore: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to initialize Firestore. Please check your service account file.", e);
+        } catch (Exception e) {
+            log.error("Invalid service account configuration: {}", e.getMessage(), e);
+            throw new RepositoryException("Invalid service account configuration. Please verify your serviceAccount.json file has valid credentials.", e);
+        }
+    }
+    
+    /**
+     * Extract project ID from Google credentials
+     */
+    private String extractProjectIdFromCredentials(GoogleCredentials credentials) throws RepositoryException {
+        if (credentials instanceof ServiceAccountCredentials) {
+            ServiceAccountCredentials serviceAccountCredentials = (ServiceAccountCredentials) credentials;
+            return serviceAccountCredentials.getProjectId();
+        } else {
+            throw new RepositoryException("Invalid credentials type. Expected ServiceAccountCredentials.");
+        }
+    }
+}
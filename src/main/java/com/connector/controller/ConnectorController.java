@@ -1,15 +1,30 @@
 package com.connector.controller;
 
 import com.connector.model.Issue;
+import com.connector.repository.IssueSlice;
+import com.connector.service.BackfillProgress;
+import com.connector.service.BackfillService;
+import com.connector.service.ConnectorException;
 import com.connector.service.ConnectorService;
-import com.connector.service.SyncResult;
+import com.connector.service.SchemaMigrationProgress;
+import com.connector.service.SchemaMigrationService;
+import com.connector.service.SyncJob;
+import com.connector.service.SyncJobService;
+import com.connector.service.WebhookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * REST Controller for GitHub-Firebase connector operations
@@ -21,37 +36,158 @@ import java.util.List;
 @Slf4j
 public class ConnectorController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_LOOKUP_IDS = 1000;
+    
     private final ConnectorService connectorService;
+    private final SyncJobService syncJobService;
+    private final BackfillService backfillService;
+    private final WebhookService webhookService;
+    private final SchemaMigrationService schemaMigrationService;
+    private final ObjectMapper objectMapper;
     
     /**
-     * Sync GitHub issues to Firestore
-     * POST /api/v1/sync
+     * Queue a sync of GitHub issues to Firestore; joins the running job if one exists
+     * POST /api/v1/sync?repository=owner/name (omit repository to sync every configured repository)
      */
     @PostMapping("/sync")
-    public ResponseEntity<ApiResponse<SyncResult>> syncIssues() {
+    public ResponseEntity<ApiResponse<SyncJob>> syncIssues(@RequestParam(required = false) String repository) {
         try {
-            log.info("REST API: Starting manual sync operation");
-            SyncResult result = connectorService.syncIssues();
-            log.info("REST API: Sync completed successfully - {} issues processed", result.getTotalIssuesFetched());
-            return ResponseEntity.ok(ApiResponse.success("Sync completed successfully", result));
+            log.info("REST API: Queueing sync operation for {}", repository != null ? repository : "all repositories");
+            SyncJob job = repository != null && !repository.isBlank() 
+                    ? syncJobService.submit(repository.trim()) : syncJobService.submit();
+            log.info("REST API: Sync job {} is {}", job.getJobId(), job.getStatus());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/sync/" + job.getJobId()))
+                    .body(ApiResponse.success("Sync job accepted", job));
         } catch (Exception e) {
-            log.error("REST API: Sync operation failed", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("Sync operation failed: " + e.getMessage()));
+            log.error("REST API: Failed to queue sync operation", e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Failed to queue sync: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get the status and progress of a sync job
+     * GET /api/v1/sync/{jobId}
+     */
+    @GetMapping("/sync/{jobId}")
+    public ResponseEntity<ApiResponse<SyncJob>> getSyncJob(@PathVariable String jobId) {
+        return syncJobService.findJob(jobId)
+                .map(job -> ResponseEntity.ok(ApiResponse.success("Sync job " + job.getStatus(), job)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Sync job not found: " + jobId)));
+    }
+    
+    /**
+     * Queue a BulkWriter backfill of a repository, resuming from its checkpoint if an earlier one was interrupted
+     * POST /api/v1/backfill?repository=owner/name (omit repository for the configured one)
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<ApiResponse<BackfillProgress>> backfill(@RequestParam(required = false) String repository) {
+        try {
+            BackfillProgress progress = backfillService.submit(repository);
+            log.info("REST API: Backfill of {} is {}", progress.getRepository(), progress.getStatus());
+            return ResponseEntity.accepted()
+                    .body(ApiResponse.success("Backfill accepted", progress));
+        } catch (Exception e) {
+            log.error("REST API: Failed to queue backfill", e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Failed to queue backfill: " + e.getMessage()));
         }
     }
     
     /**
-     * Get all issues from Firestore
-     * GET /api/v1/issues
+     * Get the progress and throughput of the latest backfill of a repository
+     * GET /api/v1/backfill?repository=owner/name
+     */
+    @GetMapping("/backfill")
+    public ResponseEntity<ApiResponse<BackfillProgress>> getBackfill(@RequestParam(required = false) String repository) {
+        return backfillService.findProgress(repository)
+                .map(progress -> ResponseEntity.ok(ApiResponse.success("Backfill " + progress.getStatus(), progress)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("No backfill found for " + (repository != null ? repository : "the configured repository"))));
+    }
+    
+    /**
+     * Queue a migration of stored issue documents to the current schema version; joins a running one
+     * POST /api/v1/migrations/schema
+     */
+    @PostMapping("/migrations/schema")
+    public ResponseEntity<ApiResponse<SchemaMigrationProgress>> migrateSchema() {
+        try {
+            SchemaMigrationProgress progress = schemaMigrationService.submit();
+            log.info("REST API: Schema migration is {}", progress.getStatus());
+            return ResponseEntity.accepted()
+                    .body(ApiResponse.success("Schema migration accepted", progress));
+        } catch (Exception e) {
+            log.error("REST API: Failed to queue schema migration", e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Failed to queue schema migration: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get the progress of the latest schema migration
+     * GET /api/v1/migrations/schema
+     */
+    @GetMapping("/migrations/schema")
+    public ResponseEntity<ApiResponse<SchemaMigrationProgress>> getSchemaMigration() {
+        return schemaMigrationService.findProgress()
+                .map(progress -> ResponseEntity.ok(ApiResponse.success("Schema migration " + progress.getStatus(), progress)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("No schema migration has run")));
+    }
+    
+    /**
+     * Receive a GitHub webhook delivery; issues events are written in batches shortly after being accepted
+     * POST /api/v1/webhooks/github with the X-Hub-Signature-256, X-GitHub-Event and X-GitHub-Delivery headers
+     */
+    @PostMapping("/webhooks/github")
+    public ResponseEntity<ApiResponse<WebhookService.Outcome>> receiveWebhook(
+            @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+            @RequestHeader(value = "X-GitHub-Event", required = false) String event,
+            @RequestHeader(value = "X-GitHub-Delivery", required = false) String deliveryId,
+            @RequestBody byte[] body) {
+        if (!webhookService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Webhooks are disabled: connector.webhook.secret is not set"));
+        }
+        if (!webhookService.verifySignature(body, signature)) {
+            log.warn("REST API: Rejected webhook delivery {} with an invalid signature", deliveryId);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid webhook signature"));
+        }
+        try {
+            WebhookService.Outcome outcome = webhookService.handle(event, deliveryId, body);
+            log.info("REST API: Webhook delivery {} ({}) {}", deliveryId, event, outcome);
+            return outcome == WebhookService.Outcome.ACCEPTED
+                    ? ResponseEntity.accepted().body(ApiResponse.success("Webhook accepted", outcome))
+                    : ResponseEntity.ok(ApiResponse.success("Webhook " + outcome.name().toLowerCase(), outcome));
+        } catch (ConnectorException e) {
+            log.error("REST API: Failed to handle webhook delivery {}", deliveryId, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get one page of issues from Firestore; pass the returned nextPageToken to fetch the next page
+     * GET /api/v1/issues?limit=100&pageToken=...
      */
     @GetMapping("/issues")
-    public ResponseEntity<ApiResponse<List<Issue>>> getAllIssues() {
+    public ResponseEntity<ApiResponse<IssueSlice>> getIssues(
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String pageToken) {
         try {
-            log.info("REST API: Retrieving all issues from Firestore");
-            List<Issue> issues = connectorService.getAllIssues();
-            log.info("REST API: Retrieved {} issues from Firestore", issues.size());
-            return ResponseEntity.ok(ApiResponse.success("Issues retrieved successfully", issues));
+            log.info("REST API: Retrieving up to {} issues from Firestore", limit);
+            IssueSlice slice = connectorService.getIssuesPage(limit, pageToken);
+            log.info("REST API: Retrieved {} issues from Firestore", slice.getIssues().size());
+            return ResponseEntity.ok(ApiResponse.success("Issues retrieved successfully", slice));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             log.error("REST API: Failed to retrieve issues", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -60,21 +196,71 @@ public class ConnectorController {
     }
     
     /**
-     * Check if a specific issue exists in Firestore
+     * Stream every issue as newline-delimited JSON, written chunk by chunk as Firestore returns them
+     * GET /api/v1/issues with Accept: application/x-ndjson
+     */
+    @GetMapping(value = "/issues", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamIssues() {
+        log.info("REST API: Streaming all issues from Firestore");
+        StreamingResponseBody body = out -> {
+            try {
+                connectorService.streamAllIssues(issues -> {
+                    for (Issue issue : issues) {
+                        out.write(objectMapper.writeValueAsBytes(issue));
+                        out.write('\n');
+                    }
+                    out.flush();
+                });
+            } catch (ConnectorException e) {
+                // Headers are already sent, so the failure can only be signalled by cutting the stream short
+                log.error("REST API: Failed to stream issues", e);
+                throw new IOException("Failed to stream issues", e);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+    
+    /**
+     * Look up issues by ID; the Firestore reads are issued concurrently and the request thread is released
+     * while they run
+     * GET /api/v1/issues/lookup?ids=1,2,3
+     */
+    @GetMapping("/issues/lookup")
+    public CompletableFuture<ResponseEntity<ApiResponse<List<Issue>>>> lookupIssues(@RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_LOOKUP_IDS) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Between 1 and " + MAX_LOOKUP_IDS + " issue IDs are required")));
+        }
+        log.info("REST API: Looking up {} issues", ids.size());
+        return connectorService.findIssuesAsync(ids)
+                .thenApply(issues -> {
+                    log.info("REST API: Found {} of {} issues", issues.size(), ids.size());
+                    return ResponseEntity.ok(ApiResponse.success("Issues retrieved successfully", issues));
+                })
+                .exceptionally(e -> {
+                    log.error("REST API: Failed to look up issues", e);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(ApiResponse.error("Failed to retrieve issues: " + rootMessage(e)));
+                });
+    }
+    
+    /**
+     * Check if a specific issue exists in Firestore; completes asynchronously, without holding the request thread
      * GET /api/v1/issues/{issueId}/exists
      */
     @GetMapping("/issues/{issueId}/exists")
-    public ResponseEntity<ApiResponse<Boolean>> checkIssueExists(@PathVariable Long issueId) {
-        try {
-            log.info("REST API: Checking existence of issue {}", issueId);
-            boolean exists = connectorService.issueExists(issueId);
-            log.info("REST API: Issue {} exists: {}", issueId, exists);
-            return ResponseEntity.ok(ApiResponse.success("Issue existence checked", exists));
-        } catch (Exception e) {
-            log.error("REST API: Failed to check issue existence for ID {}", issueId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("Failed to check issue existence: " + e.getMessage()));
-        }
+    public CompletableFuture<ResponseEntity<ApiResponse<Boolean>>> checkIssueExists(@PathVariable Long issueId) {
+        log.info("REST API: Checking existence of issue {}", issueId);
+        return connectorService.issueExistsAsync(issueId)
+                .thenApply(exists -> {
+                    log.info("REST API: Issue {} exists: {}", issueId, exists);
+                    return ResponseEntity.ok(ApiResponse.success("Issue existence checked", exists));
+                })
+                .exceptionally(e -> {
+                    log.error("REST API: Failed to check issue existence for ID {}", issueId, e);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(ApiResponse.error("Failed to check issue existence: " + rootMessage(e)));
+                });
     }
     
     /**
@@ -95,6 +281,13 @@ public class ConnectorController {
         }
     }
     
+    /**
+     * Message of the failure behind the CompletionException a failed stage is reported with
+     */
+    private static String rootMessage(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+    }
+    
     /**
      * Health status response model
      */
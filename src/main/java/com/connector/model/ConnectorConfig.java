@@ -5,6 +5,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuration class for connector settings
  */
@@ -15,13 +18,125 @@ import lombok.NoArgsConstructor;
 public class ConnectorConfig {
     private String githubRepository;
     @Builder.Default
+    private List<String> githubRepositories = new ArrayList<>();
+    @Builder.Default
+    private String githubOrganization = "";
+    @Builder.Default
+    private String githubApiUrl = "https://api.github.com";
+    @Builder.Default
+    private String githubFetchMode = "rest";
+    @Builder.Default
+    private String githubGraphqlUrl = "";
+    @Builder.Default
+    private String githubToken = "";
+    @Builder.Default
     private int maxIssues = 5;
     @Builder.Default
+    private int githubPageSize = 100;
+    @Builder.Default
+    private int githubFetchParallelism = 4;
+    @Builder.Default
+    private int githubMaxInFlightRequests = 8;
+    @Builder.Default
+    private int githubRateLimitBurst = 100;
+    @Builder.Default
+    private long githubRateLimitMaxWaitMs = 900_000;
+    @Builder.Default
+    private int githubHttpMaxConnections = 20;
+    @Builder.Default
+    private int githubHttpMaxConnectionsPerRoute = 10;
+    @Builder.Default
+    private int githubHttpConnectTimeoutMs = 5_000;
+    @Builder.Default
+    private int githubHttpReadTimeoutMs = 30_000;
+    @Builder.Default
+    private long githubHttpKeepAliveMs = 30_000;
+    @Builder.Default
+    private int githubCacheMaxEntries = 256;
+    @Builder.Default
+    private long githubCacheMaxBytes = 32L * 1024 * 1024;
+    @Builder.Default
+    private String githubCacheFile = "";
+    @Builder.Default
+    private long githubCachePersistIntervalMs = 60_000;
+    @Builder.Default
     private String firestoreCollection = "github_issues";
     @Builder.Default
+    private int firestoreBatchSize = 500;
+    @Builder.Default
+    private int firestoreStreamChunkSize = 500;
+    @Builder.Default
+    private int firestoreMaxInFlightChunks = 4;
+    @Builder.Default
+    private boolean idIndexEnabled = true;
+    @Builder.Default
+    private String idIndexFile = "";
+    @Builder.Default
+    private long issueCacheMaxEntries = 10_000;
+    @Builder.Default
+    private long issueCacheTtlSeconds = 60;
+    @Builder.Default
+    private String firestoreMetadataCollection = "connector_metadata";
+    @Builder.Default
+    private boolean incrementalSync = false;
+    @Builder.Default
+    private int syncWorkerThreads = 2;
+    @Builder.Default
+    private int syncRepositoryConcurrency = 4;
+    @Builder.Default
+    private int syncQueueCapacity = 16;
+    @Builder.Default
+    private int syncJobHistorySize = 100;
+    @Builder.Default
+    private int syncPipelineWriters = 2;
+    @Builder.Default
+    private int syncPipelineQueueCapacity = 4;
+    @Builder.Default
+    private boolean pollEnabled = false;
+    @Builder.Default
+    private long pollMinIntervalSeconds = 60;
+    @Builder.Default
+    private long pollMaxIntervalSeconds = 3600;
+    @Builder.Default
+    private double pollBackoffMultiplier = 2.0;
+    @Builder.Default
+    private double pollJitter = 0.2;
+    @Builder.Default
+    private int backfillInitialOpsPerSecond = 500;
+    @Builder.Default
+    private int backfillMaxOpsPerSecond = 0;
+    @Builder.Default
+    private int backfillCheckpointPages = 10;
+    @Builder.Default
+    private int migrationPageSize = 500;
+    @Builder.Default
+    private String walFile = "";
+    @Builder.Default
+    private long walReplayIntervalMs = 5000;
+    @Builder.Default
+    private String webhookSecret = "";
+    @Builder.Default
+    private int webhookBatchMaxEvents = 100;
+    @Builder.Default
+    private long webhookBatchFlushMs = 1000;
+    @Builder.Default
+    private int webhookDeliveryCacheSize = 10000;
+    @Builder.Default
+    private boolean virtualThreadsEnabled = false;
+    @Builder.Default
     private String serviceAccountPath = "";
     @Builder.Default
     private int maxRetries = 3;
     @Builder.Default
     private long retryDelayMs = 1000;
+    @Builder.Default
+    private long retryMaxDelayMs = 30000;
+    @Builder.Default
+    private double retryBudgetRatio = 0.2;
+    @Builder.Default
+    private int circuitFailureThreshold = 5;
+    @Builder.Default
+    private long circuitOpenMs = 30000;
+    @Builder.Default
+    private double concurrencyLatencyTolerance = 2.0;
 }
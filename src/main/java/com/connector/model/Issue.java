@@ -19,5 +19,6 @@ public class Issue {
     private String state;
     private String htmlUrl;
     private String repository;
+    private LocalDateTime updatedAt;
 }
 
@@ -0,0 +1,113 @@
+package com.connector.repository;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * AIMD concurrency limit for calls to one target
+ * The limit starts at the configured maximum. A call that completes within latencyTolerance times the
+ * baseline latency adds 1/limit, about one slot per round trip; a slower call or a failure multiplies the
+ * limit by 0.75, at most once per baseline latency so a burst of slow calls counts as one signal, down to 1.
+ * The baseline is a slow moving average of successful call latency, so it follows lasting shifts.
+ * Waiters are served in arrival order; a lock rather than a monitor keeps virtual threads unpinned.
+ */
+final class AdaptiveConcurrencyLimit {
+    
+    private static final double DECREASE_FACTOR = 0.75;
+    private static final double BASELINE_WEIGHT = 0.05;
+    
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition slotAvailable = lock.newCondition();
+    
+    private double limit;
+    private int inFlight;
+    /** Smoothed latency of successful calls; 0 until the first one */
+    private double baselineNanos;
+    private long lastDecreaseNanos;
+    
+    AdaptiveConcurrencyLimit(int maxLimit, double latencyTolerance, LongSupplier clock) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.latencyTolerance = Math.max(1.0, latencyTolerance);
+        this.clock = clock;
+        this.limit = this.maxLimit;
+        this.lastDecreaseNanos = clock.getAsLong();
+    }
+    
+    /**
+     * Block until fewer calls than the current limit are in flight
+     */
+    void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= getLimitLocked()) {
+                slotAvailable.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            slotAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Adjust the limit from the outcome of one call
+     * @param latencyNanos how long the call took
+     * @param dropped true if the call failed or was throttled
+     */
+    void onSample(long latencyNanos, boolean dropped) {
+        lock.lock();
+        try {
+            boolean slow = baselineNanos > 0 && latencyNanos > latencyTolerance * baselineNanos;
+            long now = clock.getAsLong();
+            if (dropped || slow) {
+                if (now - lastDecreaseNanos >= baselineNanos) {
+                    limit = Math.max(1, limit * DECREASE_FACTOR);
+                    lastDecreaseNanos = now;
+                }
+            } else {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+                slotAvailable.signalAll();
+            }
+            if (!dropped) {
+                baselineNanos = baselineNanos == 0 ? latencyNanos : baselineNanos + BASELINE_WEIGHT * (latencyNanos - baselineNanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    int getLimit() {
+        lock.lock();
+        try {
+            return getLimitLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private int getLimitLocked() {
+        return (int) limit;
+    }
+}
@@ -0,0 +1,44 @@
+package com.connector.repository;
+
+import com.connector.model.Issue;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of IssueRepository
+ * Operations return as soon as their RPCs are issued, so a caller can keep many of them in flight
+ * without a thread parked on each; failures complete the future with a RepositoryException
+ */
+public interface AsyncIssueRepository extends IssueRepository {
+    
+    /**
+     * Find an issue by its ID
+     * @param id the issue ID
+     * @return future of an Optional containing the issue if found
+     */
+    CompletableFuture<Optional<Issue>> findByIdAsync(Long id);
+    
+    /**
+     * Check if an issue exists by its ID, reading no issue fields
+     * @param id the issue ID
+     * @return future of true if the issue exists
+     */
+    CompletableFuture<Boolean> existsByIdAsync(Long id);
+    
+    /**
+     * Find several issues by ID with multi-document reads issued concurrently
+     * @param ids the issue IDs; repeats are looked up once
+     * @return future of the issues found, keyed by ID in request order; missing IDs have no entry
+     */
+    CompletableFuture<Map<Long, Issue>> findByIdsAsync(Collection<Long> ids);
+    
+    /**
+     * Save multiple issues in batch, skipping issues that are unchanged; chunks are committed concurrently
+     * @param issues list of issues to save
+     * @return future of the saved issues and per-chunk statistics
+     */
+    CompletableFuture<BatchSaveResult> saveAllAsync(List<Issue> issues);
+}
@@ -0,0 +1,65 @@
+package com.connector.repository;
+
+import com.connector.model.Issue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a batched save operation
+ * Aggregates the outcome of every chunk committed to the repository; savedIssues holds every
+ * issue written, whether inserted or updated. Deferred issues failed to commit but are held in the
+ * write-ahead log, which replays them once Firestore recovers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSaveResult {
+    private List<Issue> savedIssues = new ArrayList<>();
+    private int insertedCount;
+    private int updatedCount;
+    private int unchangedCount;
+    private int failedCount;
+    private int deferredCount;
+    private List<ChunkResult> chunks = new ArrayList<>();
+    
+    /**
+     * Record the outcome of a single chunk
+     */
+    public void addChunk(ChunkResult chunk) {
+        chunks.add(chunk);
+        insertedCount += chunk.getInserted();
+        updatedCount += chunk.getUpdated();
+        unchangedCount += chunk.getUnchanged();
+        failedCount += chunk.getFailed();
+        deferredCount += chunk.getDeferred();
+    }
+    
+    /**
+     * Outcome of a single chunk (at most one multi-document read plus one batch commit)
+     * Unchanged issues match the stored content hash, or repeat an issue earlier in the same save
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChunkResult {
+        private int chunkIndex;
+        private int requested;
+        private int inserted;
+        private int updated;
+        private int unchanged;
+        private int failed;
+        private int deferred;
+        
+        public ChunkResult(int chunkIndex, int requested, int inserted, int updated, int unchanged, int failed) {
+            this(chunkIndex, requested, inserted, updated, unchanged, failed, 0);
+        }
+        
+        public int getWritten() {
+            return inserted + updated;
+        }
+    }
+}
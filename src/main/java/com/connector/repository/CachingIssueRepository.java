@@ -0,0 +1,258 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.model.Issue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read-through cache in front of FirestoreIssueRepository for issue lookups, blocking or async
+ * Caches misses as well as hits; writes made through this process refresh or evict the cache once they have
+ * committed, writes from elsewhere become visible once the entry expires. A read that was in flight when an
+ * issue was written may have seen the older version, so async reads only fill the cache if no write of the
+ * issue was recorded since they started; blocking loads need no such check, as Caffeine holds an eviction
+ * of the key until its load has finished.
+ */
+@Component
+@Primary
+@Slf4j
+public class CachingIssueRepository implements AsyncIssueRepository {
+    
+    /** Write stamps are kept per stripe of IDs; a write to any ID in a stripe holds back its in-flight reads */
+    private static final int WRITE_STAMP_STRIPES = 1024;
+    
+    private final AsyncIssueRepository delegate;
+    private final Cache<Long, Optional<Issue>> cache;
+    private final AtomicLongArray writeStamps = new AtomicLongArray(WRITE_STAMP_STRIPES);
+    
+    @Autowired
+    public CachingIssueRepository(FirestoreIssueRepository delegate, ConnectorConfig config, MeterRegistry meterRegistry) {
+        this(delegate, config, meterRegistry, Ticker.systemTicker());
+    }
+    
+    CachingIssueRepository(AsyncIssueRepository delegate, ConnectorConfig config, MeterRegistry meterRegistry, Ticker ticker) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, config.getIssueCacheMaxEntries()))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(0, config.getIssueCacheTtlSeconds())))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "issues");
+    }
+    
+    @Override
+    public Issue save(Issue issue) throws RepositoryException {
+        Issue saved = delegate.save(issue);
+        recordWrite(saved.getId());
+        cache.put(saved.getId(), Optional.of(saved));
+        return saved;
+    }
+    
+    @Override
+    public Optional<Issue> findById(Long id) throws RepositoryException {
+        try {
+            return cache.get(id, key -> {
+                try {
+                    return delegate.findById(key);
+                } catch (RepositoryException e) {
+                    throw new LookupFailure(e);
+                }
+            });
+        } catch (LookupFailure e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Answered from the cache entry findById uses when there is one; otherwise the delegate's ID-only read
+     * answers, and only a miss is cached since no issue was read
+     */
+    @Override
+    public boolean existsById(Long id) throws RepositoryException {
+        Optional<Issue> cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached.isPresent();
+        }
+        long stamp = writeStamp(id);
+        boolean exists = delegate.existsById(id);
+        if (!exists) {
+            putUnlessWritten(id, Optional.empty(), stamp);
+        }
+        return exists;
+    }
+    
+    /**
+     * Issues that were written are cached; the rest are evicted, since skipping them as unchanged
+     * means Firestore holds a document a cached miss may not know about
+     */
+    @Override
+    public BatchSaveResult saveAll(List<Issue> issues) throws RepositoryException {
+        return refresh(issues, delegate.saveAll(issues));
+    }
+    
+    @Override
+    public CompletableFuture<Optional<Issue>> findByIdAsync(Long id) {
+        Optional<Issue> cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long stamp = writeStamp(id);
+        return delegate.findByIdAsync(id).thenApply(found -> {
+            putUnlessWritten(id, found, stamp);
+            return found;
+        });
+    }
+    
+    /**
+     * The async counterpart of existsById, with the same use of the cache
+     */
+    @Override
+    public CompletableFuture<Boolean> existsByIdAsync(Long id) {
+        Optional<Issue> cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.isPresent());
+        }
+        long stamp = writeStamp(id);
+        return delegate.existsByIdAsync(id).thenApply(exists -> {
+            if (!exists) {
+                putUnlessWritten(id, Optional.empty(), stamp);
+            }
+            return exists;
+        });
+    }
+    
+    /**
+     * Cached IDs are answered locally; only the misses are read, in one call to the delegate
+     */
+    @Override
+    public CompletableFuture<Map<Long, Issue>> findByIdsAsync(Collection<Long> ids) {
+        Map<Long, Optional<Issue>> cached = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        Map<Long, Long> stamps = new HashMap<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Optional<Issue> entry = cache.getIfPresent(id);
+            if (entry != null) {
+                cached.put(id, entry);
+            } else {
+                misses.add(id);
+                stamps.put(id, writeStamp(id));
+            }
+        }
+        CompletableFuture<Map<Long, Issue>> loaded = misses.isEmpty() 
+                ? CompletableFuture.completedFuture(Map.of()) : delegate.findByIdsAsync(misses);
+        return loaded.thenApply(found -> {
+            Map<Long, Issue> issues = new LinkedHashMap<>();
+            for (Long id : new LinkedHashSet<>(ids)) {
+                Optional<Issue> entry = cached.get(id);
+                if (entry == null) {
+                    entry = Optional.ofNullable(found.get(id));
+                    putUnlessWritten(id, entry, stamps.get(id));
+                }
+                entry.ifPresent(issue -> issues.put(id, issue));
+            }
+            return issues;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<BatchSaveResult> saveAllAsync(List<Issue> issues) {
+        return delegate.saveAllAsync(issues).thenApply(result -> refresh(issues, result));
+    }
+    
+    /**
+     * Evict issues written without going through this repository, such as replays and backfills
+     */
+    public void invalidate(Collection<Long> ids) {
+        for (Long id : ids) {
+            recordWrite(id);
+        }
+        cache.invalidateAll(ids);
+    }
+    
+    /**
+     * Called once the write has committed, so reads started after it see the new version
+     */
+    private BatchSaveResult refresh(List<Issue> issues, BatchSaveResult result) {
+        for (Issue issue : issues) {
+            recordWrite(issue.getId());
+            cache.invalidate(issue.getId());
+        }
+        for (Issue saved : result.getSavedIssues()) {
+            cache.put(saved.getId(), Optional.of(saved));
+        }
+        return result;
+    }
+    
+    private long writeStamp(Long id) {
+        return writeStamps.get(stripe(id));
+    }
+    
+    /**
+     * Stamp the issue's stripe before its entry is evicted, so a read already in flight cannot put it back
+     */
+    private void recordWrite(Long id) {
+        writeStamps.incrementAndGet(stripe(id));
+    }
+    
+    /**
+     * Cache what a read found, unless the issue may have been written since the read took its stamp
+     */
+    private void putUnlessWritten(Long id, Optional<Issue> found, long stamp) {
+        cache.asMap().compute(id, (key, current) -> writeStamp(key) == stamp ? found : current);
+    }
+    
+    private static int stripe(Long id) {
+        return Math.floorMod(Long.hashCode(id), WRITE_STAMP_STRIPES);
+    }
+    
+    @Override
+    public List<Issue> findAll() throws RepositoryException {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public IssueSlice findPage(int limit, String pageToken) throws RepositoryException {
+        return delegate.findPage(limit, pageToken);
+    }
+    
+    @Override
+    public void streamAll(IssueChunkHandler handler) throws RepositoryException, IOException {
+        delegate.streamAll(handler);
+    }
+    
+    /**
+     * Carries a checked lookup failure out of the cache loader
+     */
+    private static class LookupFailure extends RuntimeException {
+        
+        LookupFailure(RepositoryException cause) {
+            super(cause);
+        }
+        
+        @Override
+        public synchronized RepositoryException getCause() {
+            return (RepositoryException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.connector.repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker for one downstream target
+ * Opens after failureThreshold failed attempts in a row and rejects calls until the open interval has passed,
+ * then lets a single trial call through (half-open): success closes the circuit, failure opens it again.
+ */
+@Slf4j
+final class CircuitBreaker {
+    
+    enum State { CLOSED, HALF_OPEN, OPEN }
+    
+    private final String target;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+    
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+    
+    CircuitBreaker(String target, int failureThreshold, long openMs, LongSupplier clock) {
+        this.target = target;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = Math.max(0, openMs) * 1_000_000;
+        this.clock = clock;
+    }
+    
+    /**
+     * Whether a call may go ahead; moves an open circuit to half-open once the open interval has passed
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN && clock.getAsLong() - openedAtNanos >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+    
+    /**
+     * The target answered; a call that started before the circuit opened does not close it
+     */
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            log.info("Circuit for {} closed after a successful trial call", target);
+            state = State.CLOSED;
+            trialInFlight = false;
+        }
+    }
+    
+    synchronized void onFailure() {
+        if (state == State.OPEN) {
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            log.warn("Circuit for {} opened after {} consecutive failures; failing calls fast for {}ms", 
+                    target, consecutiveFailures, openNanos / 1_000_000);
+            state = State.OPEN;
+            openedAtNanos = clock.getAsLong();
+            trialInFlight = false;
+        }
+    }
+    
+    synchronized State getState() {
+        return state;
+    }
+}
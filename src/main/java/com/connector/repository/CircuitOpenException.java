@@ -0,0 +1,11 @@
+package com.connector.repository;
+
+/**
+ * Thrown without calling a target whose circuit breaker is open
+ */
+public class CircuitOpenException extends RepositoryException {
+    
+    public CircuitOpenException(String target, Throwable lastFailure) {
+        super("Circuit for " + target + " is open; call rejected", lastFailure);
+    }
+}
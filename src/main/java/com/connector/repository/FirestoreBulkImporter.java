@@ -0,0 +1,222 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.model.Issue;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.BulkWriterOptions;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.WriteResult;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * High-throughput issue writes for backfilling a collection, through Firestore's BulkWriter
+ * BulkWriter packs writes into parallel batches, ramps its rate up from the initial ops/sec by 50% every
+ * 5 minutes (the 500/50/5 rule) up to the configured cap, and retries failed documents on its own.
+ * Each page's stored versions are read first, with the same guards as saveAll: an issue that is unchanged or
+ * stored with a newer updated_at is skipped, new issues are created and changed ones are updated on condition
+ * that the stored document has not changed since it was read. Polling, webhooks and write-ahead log replay
+ * can therefore run during a backfill; a write that loses the race to one of them is skipped, not retried.
+ * Written issues are evicted from the issue lookup cache, which BulkWriter bypasses.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FirestoreBulkImporter {
+    
+    private final Firestore firestore;
+    private final ConnectorConfig config;
+    private final IssueIdIndex idIndex;
+    private final CachingIssueRepository issueCache;
+    private final MeterRegistry meterRegistry;
+    
+    /**
+     * Open a BulkWriter configured from connector.backfill.*; close the session to finish its writes
+     */
+    public Session open() {
+        int initialOpsPerSecond = Math.max(1, config.getBackfillInitialOpsPerSecond());
+        BulkWriterOptions.Builder options = BulkWriterOptions.builder().setThrottlingEnabled(true);
+        if (config.getBackfillMaxOpsPerSecond() > 0) {
+            initialOpsPerSecond = Math.min(initialOpsPerSecond, config.getBackfillMaxOpsPerSecond());
+            options.setMaxOpsPerSecond(config.getBackfillMaxOpsPerSecond());
+        }
+        options.setInitialOpsPerSecond(initialOpsPerSecond);
+        return new Session(firestore.bulkWriter(options.build()), firestore.collection(config.getFirestoreCollection()));
+    }
+    
+    /**
+     * One BulkWriter and the outcome of the writes queued on it
+     * Counts cover writes that have settled, i.e. succeeded, lost a race to another writer or exhausted their
+     * retries; flush settles all of them. Issues skipped without a write count as skipped straight away.
+     */
+    public final class Session implements AutoCloseable {
+        
+        private final BulkWriter writer;
+        private final CollectionReference collection;
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        /** Writes queued since the last flush, completing once their counts are recorded; guarded by this */
+        private List<ApiFuture<Void>> unsettled = new ArrayList<>();
+        private final Counter writtenCounter = backfillCounter("written");
+        private final Counter failedCounter = backfillCounter("failed");
+        private final Counter skippedCounter = backfillCounter("skipped");
+        
+        private Session(BulkWriter writer, CollectionReference collection) {
+            this.writer = writer;
+            this.collection = collection;
+        }
+        
+        /**
+         * Read the issues' stored versions, then queue a guarded write for each one that is new or changed;
+         * returns once BulkWriter has buffered them, before they are committed
+         * @throws RepositoryException if the stored versions cannot be read; nothing is queued
+         */
+        public void write(List<Issue> issues) throws RepositoryException {
+            Map<String, DocumentSnapshot> stored = readStored(issues);
+            List<ApiFuture<Void>> settled = new ArrayList<>(issues.size());
+            for (Issue issue : issues) {
+                long contentHash = IssueDocumentMapper.contentHash(issue);
+                DocumentReference docRef = collection.document(issue.getId().toString());
+                DocumentSnapshot snapshot = stored.get(docRef.getId());
+                ApiFuture<WriteResult> result;
+                if (snapshot == null) {
+                    result = writer.create(docRef, IssueDocumentMapper.toDocument(issue));
+                } else if (FirestoreIssueRepository.storedContentHash(snapshot) == contentHash
+                        || FirestoreIssueRepository.isNewer(IssueDocumentMapper.updatedAt(snapshot.getData()), issue.getUpdatedAt())) {
+                    // Never put an older version back, nor point the index at its hash
+                    idIndex.put(issue.getId(), FirestoreIssueRepository.storedContentHash(snapshot));
+                    skip();
+                    continue;
+                } else {
+                    result = writer.update(docRef, IssueDocumentMapper.toUpdate(issue), Precondition.updatedAt(snapshot.getUpdateTime()));
+                }
+                ApiFuture<Void> success = ApiFutures.transform(result, writeResult -> {
+                    written.incrementAndGet();
+                    writtenCounter.increment();
+                    idIndex.put(issue.getId(), contentHash);
+                    issueCache.invalidate(List.of(issue.getId()));
+                    return null;
+                }, MoreExecutors.directExecutor());
+                settled.add(ApiFutures.catching(success, Throwable.class, e -> {
+                    if (FirestoreIssueRepository.isWriteConflict(e)) {
+                        log.debug("Skipping issue {}: another writer stored it while the backfill was writing it", issue.getId());
+                        skip();
+                        return null;
+                    }
+                    failed.incrementAndGet();
+                    failedCounter.increment();
+                    log.warn("Failed to write issue {} after retries: {}", issue.getId(), e.getMessage());
+                    return null;
+                }, MoreExecutors.directExecutor()));
+            }
+            synchronized (this) {
+                unsettled.addAll(settled);
+            }
+        }
+        
+        /**
+         * Stored hash, updated_at and update time of the issues that already exist, by document ID
+         */
+        private Map<String, DocumentSnapshot> readStored(List<Issue> issues) throws RepositoryException {
+            if (issues.isEmpty()) {
+                return Map.of();
+            }
+            DocumentReference[] refs = issues.stream()
+                    .map(issue -> collection.document(issue.getId().toString()))
+                    .toArray(DocumentReference[]::new);
+            try {
+                Map<String, DocumentSnapshot> stored = new HashMap<>();
+                for (DocumentSnapshot snapshot : firestore.getAll(refs, FirestoreIssueRepository.STORED_VERSION_MASK).get()) {
+                    if (snapshot.exists()) {
+                        stored.put(snapshot.getId(), snapshot);
+                    }
+                }
+                return stored;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RepositoryException("Interrupted while reading stored issues", e);
+            } catch (ExecutionException e) {
+                throw new RepositoryException("Failed to read stored issues", e.getCause());
+            }
+        }
+        
+        private void skip() {
+            skipped.incrementAndGet();
+            skippedCounter.increment();
+        }
+        
+        /**
+         * Send every buffered write and wait until all queued writes have settled
+         * @throws RepositoryException if interrupted while waiting
+         */
+        public void flush() throws RepositoryException {
+            List<ApiFuture<Void>> pending;
+            synchronized (this) {
+                pending = unsettled;
+                unsettled = new ArrayList<>();
+            }
+            try {
+                writer.flush().get();
+                ApiFutures.allAsList(pending).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RepositoryException("Interrupted while flushing bulk writes", e);
+            } catch (ExecutionException e) {
+                throw new RepositoryException("Failed to flush bulk writes", e.getCause());
+            }
+        }
+        
+        public long getWritten() {
+            return written.get();
+        }
+        
+        public long getFailed() {
+            return failed.get();
+        }
+        
+        /** Issues left as stored: unchanged, stored with a newer updated_at, or written by another writer first */
+        public long getSkipped() {
+            return skipped.get();
+        }
+        
+        /**
+         * Wait for the remaining writes and release the BulkWriter
+         */
+        @Override
+        public void close() throws RepositoryException {
+            try {
+                writer.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RepositoryException("Interrupted while closing bulk writer", e);
+            } catch (ExecutionException e) {
+                throw new RepositoryException("Failed to close bulk writer", e.getCause());
+            }
+        }
+    }
+    
+    private Counter backfillCounter(String result) {
+        return Counter.builder("connector.backfill.issues")
+                .description("Issues written by backfills, skipped in favour of the stored version, or failed after BulkWriter's retries")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
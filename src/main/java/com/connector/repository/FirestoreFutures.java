@@ -0,0 +1,50 @@
+package com.connector.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Adapts Firestore's ApiFutures to CompletableFutures without parking a thread on each RPC
+ */
+final class FirestoreFutures {
+    
+    private FirestoreFutures() {
+    }
+    
+    /**
+     * Complete a CompletableFuture from an ApiFuture; callbacks run on the thread that completes the RPC,
+     * and cancelling the returned future cancels the RPC
+     */
+    static <T> CompletableFuture<T> toCompletableFuture(ApiFuture<T> apiFuture) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        ApiFutures.addCallback(apiFuture, new ApiFutureCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+            
+            @Override
+            public void onFailure(Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        future.whenComplete((result, e) -> {
+            if (future.isCancelled()) {
+                apiFuture.cancel(true);
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * The failure behind a CompletionException raised by a dependent stage
+     */
+    static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
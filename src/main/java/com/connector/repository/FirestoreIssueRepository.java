@@ -3,84 +3,121 @@ package com.connector.repository;
 import com.connector.model.Issue;
 import com.connector.model.ConnectorConfig;
 import com.google.api.core.ApiFuture;
-import com.google.auth.oauth2.GoogleCredentials;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.CollectionReference;
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.DocumentReference;
 import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
 import com.google.cloud.firestore.WriteResult;
-import com.google.firebase.FirebaseApp;
-import com.google.firebase.FirebaseOptions;
-import com.google.firebase.cloud.FirestoreClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
-import java.io.FileInputStream;
+import javax.annotation.PreDestroy;
 import java.io.IOException;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
-import com.google.auth.oauth2.ServiceAccountCredentials;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Firestore implementation of IssueRepository
- * Handles duplicate detection and batch operations
+ * Firestore implementation of IssueRepository, with non-blocking variants adapting Firestore's ApiFutures
+ * Handles change detection (content hashes) and batch operations
  */
 @Component
 @Slf4j
-public class FirestoreIssueRepository implements IssueRepository {
+public class FirestoreIssueRepository implements AsyncIssueRepository {
     
-    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    /** Firestore limits a single batch commit to 500 writes */
+    private static final int MAX_BATCH_SIZE = 500;
+    /** Upper bound on issues returned by one findPage call */
+    private static final int MAX_PAGE_SIZE = 1000;
+    /** Document names per query while bootstrapping the ID index */
+    private static final int KEY_SCAN_PAGE_SIZE = 1000;
+    /** Issue reads skip the content hash; projections of either schema's fields */
+    private static final FieldMask ISSUE_MASK = FieldMask.of(IssueDocumentMapper.ISSUE_FIELDS.toArray(new String[0]));
+    private static final FieldPath[] ISSUE_FIELD_PATHS = IssueDocumentMapper.ISSUE_FIELDS.stream()
+            .map(FieldPath::of).toArray(FieldPath[]::new);
+    /** Change detection reads only the stored content hash and updated_at */
+    static final FieldMask STORED_VERSION_MASK = FieldMask.of(Stream.concat(
+            IssueDocumentMapper.CONTENT_HASH_FIELDS.stream(), IssueDocumentMapper.UPDATED_AT_FIELDS.stream()).toArray(String[]::new));
+    /** Attempts at a chunk whose commit keeps losing write races to other writers */
+    private static final int MAX_CONFLICT_ATTEMPTS = 3;
+    /** Existence checks read a single small field; the snapshot exists whether or not the field is set */
+    private static final FieldMask EXISTS_MASK = FieldMask.of(IssueDocumentMapper.SCHEMA_VERSION_FIELD);
     
-    private Firestore firestore;
     private String collectionName;
     
+    @Autowired
+    private Firestore firestore;
+    
     @Autowired
     private ConnectorConfig config;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private IssueIdIndex idIndex;
+    
+    @Autowired
+    private IssueWriteAheadLog writeAheadLog;
+    
+    @Autowired
+    private RetryHandler retryHandler;
+    
+    /** Runs the chunks of a saveAll concurrently; null until initialized */
+    private ExecutorService chunkExecutor;
+    /** Chunk commits in flight across all saveAll calls, shrinking while commits slow down */
+    private AdaptiveConcurrencyLimit chunkLimit;
+    /** Guards the one-off index bootstrap; a lock rather than a monitor so virtual threads are not pinned */
+    private final ReentrantLock bootstrapLock = new ReentrantLock();
+    
     @PostConstruct
     public void initialize() {
         this.collectionName = config.getFirestoreCollection();
-        try {
-            this.firestore = initializeFirestore(config);
-        } catch (RepositoryException e) {
-            throw new RuntimeException("Failed to initialize Firestore repository", e);
-        }
+        int maxInFlight = Math.max(1, config.getFirestoreMaxInFlightChunks());
+        this.chunkLimit = retryHandler.concurrencyLimit(RetryHandler.FIRESTORE, maxInFlight);
+        this.chunkExecutor = IoExecutors.newExecutor("firestore-chunk", maxInFlight, config.isVirtualThreadsEnabled());
     }
     
-    /**
-     * Initialize Firestore connection using Firebase Admin SDK
-     */
-    private Firestore initializeFirestore(ConnectorConfig config) throws RepositoryException {
-        try {
-            // Initialize Firebase if not already initialized
-            if (FirebaseApp.getApps().isEmpty()) {
-                FileInputStream serviceAccount = new FileInputStream(config.getServiceAccountPath());
-                GoogleCredentials credentials = GoogleCredentials.fromStream(serviceAccount);
-                
-                // Extract project ID from credentials
-                String projectId = extractProjectIdFromCredentials(credentials);
-                
-                FirebaseOptions options = FirebaseOptions.builder()
-                        .setCredentials(credentials)
-                        .setProjectId(projectId)
-                        .build();
-                FirebaseApp.initializeApp(options);
-            }
-            
-            return FirestoreClient.getFirestore();
-            
-        } catch (IOException e) {
-            log.error("Failed to initialize Firestore: {}", e.getMessage(), e);
-            throw new RepositoryException("Failed to initialize Firestore. Please check your service account file.", e);
-        } catch (Exception e) {
-            log.error("Invalid service account configuration: {}", e.getMessage(), e);
-            throw new RepositoryException("Invalid service account configuration. Please verify your serviceAccount.json file has valid credentials.", e);
+    @PreDestroy
+    public void shutdown() {
+        if (chunkExecutor != null) {
+            chunkExecutor.shutdownNow();
         }
     }
     
@@ -89,10 +126,9 @@ public class FirestoreIssueRepository implements IssueRepository {
         try {
             DocumentReference docRef = firestore.collection(collectionName).document(issue.getId().toString());
             
-            Map<String, Object> data = convertIssueToMap(issue);
-            ApiFuture<WriteResult> result = docRef.set(data);
-            
-            WriteResult writeResult = result.get();
+            Map<String, Object> data = IssueDocumentMapper.toDocument(issue);
+            WriteResult writeResult = awaitRpc("set", () -> docRef.set(data));
+            idIndex.put(issue.getId(), IssueDocumentMapper.contentHash(issue));
             log.info("Successfully saved issue {} at {}", issue.getId(), writeResult.getUpdateTime());
             
             return issue;
@@ -107,11 +143,10 @@ public class FirestoreIssueRepository implements IssueRepository {
     public Optional<Issue> findById(Long id) throws RepositoryException {
         try {
             DocumentReference docRef = firestore.collection(collectionName).document(id.toString());
-            ApiFuture<DocumentSnapshot> future = docRef.get();
-            DocumentSnapshot document = future.get();
+            DocumentSnapshot document = awaitRpc("get", () -> docRef.get(ISSUE_MASK));
             
             if (document.exists()) {
-                Issue issue = convertMapToIssue(document.getData(), id);
+                Issue issue = IssueDocumentMapper.fromDocument(document.getData(), id);
                 return Optional.of(issue);
             } else {
                 return Optional.empty();
@@ -127,8 +162,7 @@ public class FirestoreIssueRepository implements IssueRepository {
     public boolean existsById(Long id) throws RepositoryException {
         try {
             DocumentReference docRef = firestore.collection(collectionName).document(id.toString());
-            ApiFuture<DocumentSnapshot> future = docRef.get();
-            DocumentSnapshot document = future.get();
+            DocumentSnapshot document = awaitRpc("get", () -> docRef.get(EXISTS_MASK));
             
             return document.exists();
             
@@ -139,43 +173,475 @@ public class FirestoreIssueRepository implements IssueRepository {
     }
     
     @Override
-    public List<Issue> saveAll(List<Issue> issues) throws RepositoryException {
-        List<Issue> savedIssues = new ArrayList<>();
-        int duplicateCount = 0;
+    public CompletableFuture<Optional<Issue>> findByIdAsync(Long id) {
+        DocumentReference docRef = firestore.collection(collectionName).document(id.toString());
+        return rpcAsync("get", () -> docRef.get(ISSUE_MASK)).handle((document, e) -> {
+            if (e != null) {
+                log.error("Failed to find issue {}: {}", id, FirestoreFutures.unwrap(e).getMessage());
+                throw repositoryFailure("Failed to find issue", e);
+            }
+            return document.exists() ? Optional.of(IssueDocumentMapper.fromDocument(document.getData(), id)) : Optional.empty();
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> existsByIdAsync(Long id) {
+        DocumentReference docRef = firestore.collection(collectionName).document(id.toString());
+        return rpcAsync("get", () -> docRef.get(EXISTS_MASK)).handle((document, e) -> {
+            if (e != null) {
+                log.error("Failed to check existence of issue {}: {}", id, FirestoreFutures.unwrap(e).getMessage());
+                throw repositoryFailure("Failed to check existence of issue", e);
+            }
+            return document.exists();
+        });
+    }
+    
+    /**
+     * One multi-document read per MAX_BATCH_SIZE IDs, all issued before any of them is awaited
+     */
+    @Override
+    public CompletableFuture<Map<Long, Issue>> findByIdsAsync(Collection<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        CollectionReference collection = firestore.collection(collectionName);
+        List<CompletableFuture<List<DocumentSnapshot>>> reads = new ArrayList<>();
+        for (int start = 0; start < distinctIds.size(); start += MAX_BATCH_SIZE) {
+            DocumentReference[] refs = distinctIds.subList(start, Math.min(start + MAX_BATCH_SIZE, distinctIds.size())).stream()
+                    .map(id -> collection.document(id.toString()))
+                    .toArray(DocumentReference[]::new);
+            reads.add(rpcAsync("get_all", () -> firestore.getAll(refs, ISSUE_MASK)));
+        }
+        return CompletableFuture.allOf(reads.toArray(new CompletableFuture[0])).handle((done, e) -> {
+            if (e != null) {
+                log.error("Failed to find {} issues: {}", distinctIds.size(), FirestoreFutures.unwrap(e).getMessage());
+                throw repositoryFailure("Failed to find issues", e);
+            }
+            Map<Long, Issue> issues = new LinkedHashMap<>();
+            for (CompletableFuture<List<DocumentSnapshot>> read : reads) {
+                for (DocumentSnapshot snapshot : read.join()) {
+                    if (snapshot.exists()) {
+                        long id = Long.parseLong(snapshot.getId());
+                        issues.put(id, IssueDocumentMapper.fromDocument(snapshot.getData(), id));
+                    }
+                }
+            }
+            return issues;
+        });
+    }
+    
+    /**
+     * Save issues in chunks of at most one batch commit each
+     * Chunks run concurrently (bounded by the shared in-flight limit) and are joined before returning;
+     * results are reported in input order
+     */
+    @Override
+    public BatchSaveResult saveAll(List<Issue> issues) throws RepositoryException {
+        return saveChunks(new ChunkedSave(issues, writeAheadLog.isEnabled()));
+    }
+    
+    /**
+     * Save issues taken from the write-ahead log, without logging them again; the caller acknowledges them
+     * @throws RepositoryException if a chunk failed, caused by that chunk's failure, so the caller can tell a
+     *         write Firestore will never accept from an outage
+     */
+    BatchSaveResult replay(List<Issue> issues) throws RepositoryException {
+        ChunkedSave save = new ChunkedSave(issues, false);
+        BatchSaveResult result = saveChunks(save);
+        if (save.failure() != null) {
+            throw new RepositoryException("Failed to replay " + result.getFailedCount() + " issues", save.failure());
+        }
+        return result;
+    }
+    
+    private BatchSaveResult saveChunks(ChunkedSave save) throws RepositoryException {
+        bootstrapIdIndex();
+        List<Callable<BatchSaveResult.ChunkResult>> tasks = new ArrayList<>();
+        for (int chunkIndex = 0; chunkIndex < save.chunkCount(); chunkIndex++) {
+            int index = chunkIndex;
+            tasks.add(() -> saveChunk(save, index));
+        }
+        return save.complete(runChunks(tasks));
+    }
+    
+    /**
+     * Save issues in chunks without blocking the caller
+     * Chunks run in up to firestoreMaxInFlightChunks lanes, each chunk starting when the one a lane-width
+     * before it completes; the limit applies per call, since no permit is held across RPC callbacks
+     */
+    @Override
+    public CompletableFuture<BatchSaveResult> saveAllAsync(List<Issue> issues) {
+        CompletableFuture<Void> bootstrap = idIndex.isEnabled() && !idIndex.isComplete() && chunkExecutor != null
+                ? CompletableFuture.runAsync(() -> {
+                    try {
+                        bootstrapIdIndex();
+                    } catch (RepositoryException e) {
+                        throw new CompletionException(e);
+                    }
+                }, chunkExecutor)
+                : CompletableFuture.completedFuture(null);
+        return bootstrap.thenCompose(ignored -> {
+            ChunkedSave save = new ChunkedSave(issues, writeAheadLog.isEnabled());
+            int lanes = Math.max(1, config.getFirestoreMaxInFlightChunks());
+            List<CompletableFuture<BatchSaveResult.ChunkResult>> chunks = new ArrayList<>();
+            for (int chunkIndex = 0; chunkIndex < save.chunkCount(); chunkIndex++) {
+                int index = chunkIndex;
+                CompletableFuture<?> previous = chunkIndex < lanes 
+                        ? CompletableFuture.completedFuture(null) : chunks.get(chunkIndex - lanes);
+                chunks.add(previous.thenCompose(done -> saveChunkAsync(save, index)));
+            }
+            return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                    .thenApply(done -> save.complete(chunks.stream().map(CompletableFuture::join).collect(Collectors.toList())));
+        });
+    }
+    
+    /**
+     * Run chunk saves on the chunk executor, or inline for a single chunk, and wait for all of them
+     * If one fails unexpectedly the others are cancelled, so no chunk outlives the saveAll call
+     */
+    private List<BatchSaveResult.ChunkResult> runChunks(List<Callable<BatchSaveResult.ChunkResult>> tasks) 
+            throws RepositoryException {
+        List<BatchSaveResult.ChunkResult> results = new ArrayList<>();
+        if (tasks.size() <= 1 || chunkExecutor == null) {
+            for (Callable<BatchSaveResult.ChunkResult> task : tasks) {
+                results.add(callChunk(task));
+            }
+            return results;
+        }
         
-        for (Issue issue : issues) {
-            try {
-                // Check if issue already exists
-                if (existsById(issue.getId())) {
-                    log.info("Skipping duplicate issue: {} - {}", issue.getId(), issue.getTitle());
-                    duplicateCount++;
+        List<Future<BatchSaveResult.ChunkResult>> futures = new ArrayList<>();
+        try {
+            for (Callable<BatchSaveResult.ChunkResult> task : tasks) {
+                futures.add(chunkExecutor.submit(() -> callChunk(task)));
+            }
+            for (Future<BatchSaveResult.ChunkResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("Interrupted while saving issues", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RepositoryException) {
+                throw (RepositoryException) e.getCause();
+            }
+            throw new RepositoryException("Failed to save issues", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+    
+    private BatchSaveResult.ChunkResult callChunk(Callable<BatchSaveResult.ChunkResult> task) throws RepositoryException {
+        try {
+            chunkLimit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("Interrupted while waiting to save issues", e);
+        }
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            BatchSaveResult.ChunkResult result = task.call();
+            dropped = result.getFailed() > 0;
+            return result;
+        } catch (RepositoryException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RepositoryException("Failed to save issues", e);
+        } finally {
+            chunkLimit.onSample(System.nanoTime() - start, dropped);
+            chunkLimit.release();
+        }
+    }
+    
+    /**
+     * Save a single chunk, blocking until its commit completes
+     */
+    private BatchSaveResult.ChunkResult saveChunk(ChunkedSave save, int chunkIndex) throws RepositoryException {
+        try {
+            return saveChunkAsync(save, chunkIndex).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("Interrupted while saving issues", e);
+        } catch (ExecutionException e) {
+            throw new RepositoryException("Failed to save issues", e.getCause());
+        }
+    }
+    
+    /**
+     * Save a single chunk. Once the local index is complete it answers for every ID: issues it knows to be
+     * unchanged are skipped and issues it does not know are new, both without a read. Only the issues it
+     * knows with a different hash, or every issue while the index is incomplete or disabled, are read in one
+     * multi-document read of their stored hash and updated_at. One batch commit then creates
+     * the new issues and updates the changed ones, each update conditioned on the update time read, and skips
+     * issues whose stored version was updated more recently, so an older version never replaces a newer one.
+     * A commit that loses that race to another writer is attempted again after reading every issue it would
+     * write, so the older copy is dropped rather than failing the chunk. Any other failed read or commit
+     * completes the future normally with the chunk counted as failed, or as deferred when its issues are
+     * held in the write-ahead log.
+     */
+    private CompletableFuture<BatchSaveResult.ChunkResult> saveChunkAsync(ChunkedSave save, int chunkIndex) {
+        List<Issue> chunk = save.chunk(chunkIndex);
+        long[] logged = writeAhead(save, chunkIndex);
+        AtomicInteger unchanged = new AtomicInteger();
+        return writeChunk(save, chunkIndex, false, unchanged, 1).thenApply(result -> {
+            writeAheadLog.acknowledge(logged);
+            return result;
+        }).exceptionally(e -> {
+            save.fail(FirestoreFutures.unwrap(e));
+            log.warn("Failed to save chunk {} ({} issues): {}", chunkIndex, chunk.size(), FirestoreFutures.unwrap(e).getMessage());
+            if (logged.length > 0) {
+                writeAheadLog.release(logged);
+                return new BatchSaveResult.ChunkResult(chunkIndex, chunk.size(), 0, 0, chunk.size() - logged.length, 0, logged.length);
+            }
+            // Continue with other chunks even if one fails
+            return new BatchSaveResult.ChunkResult(chunkIndex, chunk.size(), 0, 0, unchanged.get(), chunk.size() - unchanged.get());
+        });
+    }
+    
+    /**
+     * One attempt at reading and committing a chunk
+     * @param readAll read every issue that may be written, even those the index believes are new
+     * @param unchanged issues skipped by this attempt, for the failure accounting of the last one
+     */
+    private CompletableFuture<BatchSaveResult.ChunkResult> writeChunk(ChunkedSave save, int chunkIndex, boolean readAll, 
+            AtomicInteger unchanged, int attempt) {
+        List<Issue> chunk = save.chunk(chunkIndex);
+        int offset = save.offset(chunkIndex);
+        CollectionReference collection = firestore.collection(collectionName);
+        DocumentReference[] docRefs = new DocumentReference[chunk.size()];
+        boolean[] indexedUnchanged = new boolean[chunk.size()];
+        List<DocumentReference> readRefs = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            long id = chunk.get(i).getId();
+            docRefs[i] = collection.document(Long.toString(id));
+            boolean indexedNew = false;
+            if (idIndex.isComplete() && idIndex.contains(id)) {
+                indexedUnchanged[i] = idIndex.hashOf(id) == IssueDocumentMapper.contentHash(chunk.get(i));
+            } else {
+                indexedNew = idIndex.isComplete() && !readAll;
+            }
+            if (!indexedUnchanged[i] && !indexedNew && !save.isRepeated(offset + i)) {
+                readRefs.add(docRefs[i]);
+            }
+        }
+        DocumentReference[] refs = readRefs.toArray(new DocumentReference[0]);
+        indexLookupCounter("known").increment(chunk.size() - refs.length);
+        indexLookupCounter("unknown").increment(refs.length);
+        CompletableFuture<List<DocumentSnapshot>> reads = refs.length == 0 
+                ? CompletableFuture.completedFuture(List.of()) : rpcAsync("get_all", () -> firestore.getAll(refs, STORED_VERSION_MASK));
+        unchanged.set(0);
+        CompletableFuture<BatchSaveResult.ChunkResult> written = reads.thenCompose(snapshots -> {
+            Map<String, DocumentSnapshot> stored = new HashMap<>();
+            for (DocumentSnapshot snapshot : snapshots) {
+                if (snapshot.exists()) {
+                    stored.put(snapshot.getId(), snapshot);
+                    idIndex.put(Long.parseLong(snapshot.getId()), storedContentHash(snapshot));
+                }
+            }
+            
+            WriteBatch batch = firestore.batch();
+            List<Issue> pending = new ArrayList<>();
+            Map<Long, Long> pendingHashes = new HashMap<>();
+            int inserted = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                Issue issue = chunk.get(i);
+                long contentHash = IssueDocumentMapper.contentHash(issue);
+                DocumentSnapshot snapshot = stored.get(docRefs[i].getId());
+                if (save.isRepeated(offset + i) || indexedUnchanged[i]
+                        || (snapshot != null && storedContentHash(snapshot) == contentHash)) {
+                    log.debug("Skipping unchanged issue: {} - {}", issue.getId(), issue.getTitle());
+                    unchanged.incrementAndGet();
                     continue;
                 }
-                
-                // Save new issue
-                save(issue);
-                savedIssues.add(issue);
-                log.info("Saved new issue: {} - {}", issue.getId(), issue.getTitle());
-            } catch (RepositoryException e) {
-                log.warn("Failed to save issue {}: {}", issue.getId(), e.getMessage());
-                // Continue with other issues even if one fails
+                if (snapshot != null && isNewer(IssueDocumentMapper.updatedAt(snapshot.getData()), issue.getUpdatedAt())) {
+                    log.debug("Skipping issue {}: the stored version is newer than the one updated at {}", 
+                            issue.getId(), issue.getUpdatedAt());
+                    unchanged.incrementAndGet();
+                    continue;
+                }
+                if (snapshot == null) {
+                    inserted++;
+                    batch.create(docRefs[i], IssueDocumentMapper.toDocument(issue));
+                } else {
+                    batch.update(docRefs[i], IssueDocumentMapper.toUpdate(issue), Precondition.updatedAt(snapshot.getUpdateTime()));
+                }
+                pending.add(issue);
+                pendingHashes.put(issue.getId(), contentHash);
             }
+            
+            CompletableFuture<Void> commit = CompletableFuture.completedFuture(null);
+            if (!pending.isEmpty()) {
+                batchSizeSummary().record(pending.size());
+                commit = rpcAsync("commit", batch::commit).thenRun(() -> idIndex.putAll(pendingHashes));
+            }
+            int insertedCount = inserted;
+            return commit.thenApply(done -> {
+                save.savedIssues(chunkIndex).addAll(pending);
+                int updated = pending.size() - insertedCount;
+                log.info("Committed chunk {}: {} inserted, {} updated, {} unchanged", 
+                        chunkIndex, insertedCount, updated, unchanged.get());
+                return new BatchSaveResult.ChunkResult(chunkIndex, chunk.size(), insertedCount, updated, unchanged.get(), 0);
+            });
+        });
+        if (attempt >= MAX_CONFLICT_ATTEMPTS) {
+            return written;
         }
+        return written.handle((result, e) -> {
+            if (e == null) {
+                return CompletableFuture.completedFuture(result);
+            }
+            if (!isWriteConflict(e)) {
+                return CompletableFuture.<BatchSaveResult.ChunkResult>failedFuture(e);
+            }
+            log.info("Chunk {} lost a write race on attempt {}; reading it again", chunkIndex, attempt);
+            writeConflictCounter().increment();
+            return writeChunk(save, chunkIndex, true, unchanged, attempt + 1);
+        }).thenCompose(result -> result);
+    }
+    
+    /**
+     * Whether a commit failed because another writer created or changed one of its documents after it was read
+     */
+    static boolean isWriteConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException) {
+                StatusCode.Code code = ((ApiException) cause).getStatusCode().getCode();
+                return code == StatusCode.Code.FAILED_PRECONDITION || code == StatusCode.Code.ALREADY_EXISTS;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Log the chunk's issues ahead of the write, leaving out repeats and issues the index knows are unchanged
+     * @return sequence numbers to acknowledge once committed; empty if the chunk is not logged
+     */
+    private long[] writeAhead(ChunkedSave save, int chunkIndex) {
+        if (!save.isLogged()) {
+            return new long[0];
+        }
+        List<Issue> chunk = save.chunk(chunkIndex);
+        List<Issue> changed = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Issue issue = chunk.get(i);
+            boolean unchanged = idIndex.isComplete() && idIndex.contains(issue.getId())
+                    && idIndex.hashOf(issue.getId()) == IssueDocumentMapper.contentHash(issue);
+            if (!save.isRepeated(save.offset(chunkIndex) + i) && !unchanged) {
+                changed.add(issue);
+            }
+        }
+        try {
+            return writeAheadLog.append(changed);
+        } catch (RepositoryException e) {
+            log.error("Saving chunk {} without the write-ahead log: {}", chunkIndex, e.getMessage());
+            return new long[0];
+        }
+    }
+    
+    /**
+     * One saveAll call split into chunks of at most one batch commit, shared by the blocking and async paths
+     */
+    private final class ChunkedSave {
+        
+        private final List<Issue> issues;
+        /** Whether chunks go through the write-ahead log */
+        private final boolean logged;
+        private final int chunkSize;
+        /** Repeats are resolved up front so every chunk can be saved independently */
+        private final boolean[] repeated;
+        private final List<List<Issue>> savedPerChunk = new ArrayList<>();
+        /** Failure of the first chunk that failed, if any */
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
         
-        log.info("Batch save completed. Saved {} new issues, skipped {} duplicates out of {} total issues", 
-                savedIssues.size(), duplicateCount, issues.size());
-        return savedIssues;
+        ChunkedSave(List<Issue> issues, boolean logged) {
+            this.issues = issues;
+            this.logged = logged;
+            this.chunkSize = Math.max(1, Math.min(config.getFirestoreBatchSize(), MAX_BATCH_SIZE));
+            this.repeated = new boolean[issues.size()];
+            Set<Long> seenIds = new HashSet<>();
+            for (int i = 0; i < issues.size(); i++) {
+                repeated[i] = !seenIds.add(issues.get(i).getId());
+            }
+            for (int i = 0; i < chunkCount(); i++) {
+                savedPerChunk.add(new ArrayList<>());
+            }
+        }
+        
+        boolean isLogged() {
+            return logged;
+        }
+        
+        int chunkCount() {
+            return (issues.size() + chunkSize - 1) / chunkSize;
+        }
+        
+        int offset(int chunkIndex) {
+            return chunkIndex * chunkSize;
+        }
+        
+        List<Issue> chunk(int chunkIndex) {
+            int start = offset(chunkIndex);
+            return issues.subList(start, Math.min(start + chunkSize, issues.size()));
+        }
+        
+        boolean isRepeated(int index) {
+            return repeated[index];
+        }
+        
+        List<Issue> savedIssues(int chunkIndex) {
+            return savedPerChunk.get(chunkIndex);
+        }
+        
+        void fail(Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+        
+        Throwable failure() {
+            return failure.get();
+        }
+        
+        /**
+         * Assemble the chunk results, which are in chunk order, into the result of the whole call
+         */
+        BatchSaveResult complete(List<BatchSaveResult.ChunkResult> chunkResults) {
+            BatchSaveResult result = new BatchSaveResult();
+            for (int i = 0; i < chunkResults.size(); i++) {
+                result.addChunk(chunkResults.get(i));
+                result.getSavedIssues().addAll(savedPerChunk.get(i));
+            }
+            log.info("Batch save completed. Inserted {}, updated {}, skipped {} unchanged, {} failed, {} deferred out of {} total issues in {} chunks", 
+                    result.getInsertedCount(), result.getUpdatedCount(), result.getUnchangedCount(), result.getFailedCount(), 
+                    result.getDeferredCount(), issues.size(), result.getChunks().size());
+            return result;
+        }
+    }
+    
+    /**
+     * Content hash stored with the document, in either schema; documents written before hashes were introduced have none
+     */
+    static long storedContentHash(DocumentSnapshot snapshot) {
+        Long storedHash = snapshot.getLong(IssueDocumentMapper.CONTENT_HASH_FIELD);
+        if (storedHash == null) {
+            storedHash = snapshot.getLong(IssueDocumentMapper.LEGACY_CONTENT_HASH_FIELD);
+        }
+        return storedHash != null ? storedHash : IssueIdIndex.NO_HASH;
+    }
+    
+    /**
+     * Whether a stored issue was updated after the one about to be written; unknown times never count as newer
+     */
+    static boolean isNewer(LocalDateTime storedUpdatedAt, LocalDateTime updatedAt) {
+        return storedUpdatedAt != null && updatedAt != null && storedUpdatedAt.isAfter(updatedAt);
     }
     
     @Override
     public List<Issue> findAll() throws RepositoryException {
         try {
-            ApiFuture<com.google.cloud.firestore.QuerySnapshot> future = 
-                firestore.collection(collectionName).get();
+            Query query = firestore.collection(collectionName).select(ISSUE_FIELD_PATHS);
+            QuerySnapshot snapshot = awaitRpc("query", query::get);
             
             List<Issue> issues = new ArrayList<>();
-            for (DocumentSnapshot document : future.get().getDocuments()) {
-                Issue issue = convertMapToIssue(document.getData(), Long.parseLong(document.getId()));
+            for (DocumentSnapshot document : snapshot.getDocuments()) {
+                Issue issue = IssueDocumentMapper.fromDocument(document.getData(), Long.parseLong(document.getId()));
                 issues.add(issue);
             }
             
@@ -187,44 +653,211 @@ public class FirestoreIssueRepository implements IssueRepository {
         }
     }
     
+    @Override
+    public IssueSlice findPage(int limit, String pageToken) throws RepositoryException {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String startAfterId = IssuePageToken.decode(pageToken);
+        try {
+            // One extra document tells whether another page follows without a second query
+            List<QueryDocumentSnapshot> documents = queryAfter(startAfterId, pageSize + 1);
+            boolean hasMore = documents.size() > pageSize;
+            List<QueryDocumentSnapshot> page = hasMore ? documents.subList(0, pageSize) : documents;
+            String nextPageToken = hasMore ? IssuePageToken.encode(page.get(page.size() - 1).getId()) : null;
+            return new IssueSlice(toIssues(page), nextPageToken);
+            
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Failed to find page of issues: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to find page of issues", e);
+        }
+    }
+    
+    @Override
+    public void streamAll(IssueChunkHandler handler) throws RepositoryException, IOException {
+        int chunkSize = Math.max(1, config.getFirestoreStreamChunkSize());
+        String startAfterId = null;
+        int streamed = 0;
+        try {
+            while (true) {
+                List<QueryDocumentSnapshot> documents = queryAfter(startAfterId, chunkSize);
+                if (documents.isEmpty()) {
+                    break;
+                }
+                handler.handle(toIssues(documents));
+                streamed += documents.size();
+                if (documents.size() < chunkSize) {
+                    break;
+                }
+                startAfterId = documents.get(documents.size() - 1).getId();
+            }
+            log.info("Streamed {} issues from Firestore", streamed);
+            
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Failed to stream issues after {} documents: {}", streamed, e.getMessage(), e);
+            throw new RepositoryException("Failed to stream issues", e);
+        }
+    }
+    
     /**
-     * Convert Issue object to Firestore Map
+     * Load every document ID and content hash into the local index once, with a projection scan of the collection
+     * (each document still counts as one read, which is why a file-backed index is kept across restarts)
      */
-    private Map<String, Object> convertIssueToMap(Issue issue) {
-        Map<String, Object> data = new HashMap<>();
-        data.put("id", issue.getId());
-        data.put("title", issue.getTitle());
-        data.put("created_at", issue.getCreatedAt().format(DATE_TIME_FORMATTER));
-        data.put("state", issue.getState());
-        data.put("html_url", issue.getHtmlUrl());
-        data.put("repository", issue.getRepository());
-        return data;
+    private void bootstrapIdIndex() throws RepositoryException {
+        if (!idIndex.isEnabled() || idIndex.isComplete()) {
+            return;
+        }
+        bootstrapLock.lock();
+        try {
+            if (idIndex.isComplete()) {
+                return;
+            }
+            long start = System.nanoTime();
+            CollectionReference collection = firestore.collection(collectionName);
+            String startAfterId = null;
+            int scanned = 0;
+            try {
+                while (true) {
+                    Query query = collection.select(FieldPath.documentId(), FieldPath.of(IssueDocumentMapper.CONTENT_HASH_FIELD),
+                                    FieldPath.of(IssueDocumentMapper.LEGACY_CONTENT_HASH_FIELD))
+                            .orderBy(FieldPath.documentId());
+                    if (startAfterId != null) {
+                        query = query.startAfter(collection.document(startAfterId));
+                    }
+                    Query pageQuery = query.limit(KEY_SCAN_PAGE_SIZE);
+                    List<QueryDocumentSnapshot> documents = awaitRpc("query", pageQuery::get).getDocuments();
+                    for (QueryDocumentSnapshot document : documents) {
+                        idIndex.put(Long.parseLong(document.getId()), storedContentHash(document));
+                    }
+                    scanned += documents.size();
+                    if (documents.size() < KEY_SCAN_PAGE_SIZE) {
+                        break;
+                    }
+                    startAfterId = documents.get(documents.size() - 1).getId();
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                log.error("Failed to bootstrap issue ID index after {} documents: {}", scanned, e.getMessage(), e);
+                throw new RepositoryException("Failed to bootstrap issue ID index", e);
+            }
+            idIndex.markComplete();
+            log.info("Bootstrapped issue ID index with {} IDs in {} ms", scanned, 
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            bootstrapLock.unlock();
+        }
     }
     
     /**
-     * Convert Firestore Map to Issue object
+     * Migrate one page of documents, in document ID order, to the current schema
+     * Each outdated document is rewritten from its own contents, which keeps its content hash, and its version 1
+     * fields are deleted. The writes are conditioned on the update time read, so an issue a sync rewrote in the
+     * meantime fails the page instead of being overwritten with older data; the caller retries the page.
+     * @param startAfterId last document ID of the previous page, or null to start at the beginning
+     * @param pageSize documents to read, at most one batch commit
+     * @throws RepositoryException if the page cannot be read or committed
      */
-    private Issue convertMapToIssue(Map<String, Object> data, Long id) {
-        String title = (String) data.get("title");
-        String createdAtStr = (String) data.get("created_at");
-        String state = (String) data.get("state");
-        String htmlUrl = (String) data.get("html_url");
-        String repository = (String) data.get("repository");
-        
-        java.time.LocalDateTime createdAt = java.time.LocalDateTime.parse(createdAtStr, DATE_TIME_FORMATTER);
-        
-        return new Issue(id, title, createdAt, state, htmlUrl, repository);
+    public SchemaMigrationPage migrateSchemaPage(String startAfterId, int pageSize) throws RepositoryException {
+        int limit = Math.max(1, Math.min(pageSize, MAX_BATCH_SIZE));
+        try {
+            CollectionReference collection = firestore.collection(collectionName);
+            Query query = collection.orderBy(FieldPath.documentId());
+            if (startAfterId != null) {
+                query = query.startAfter(collection.document(startAfterId));
+            }
+            Query pageQuery = query.limit(limit);
+            List<QueryDocumentSnapshot> documents = awaitRpc("query", pageQuery::get).getDocuments();
+            
+            WriteBatch batch = firestore.batch();
+            int migrated = 0;
+            for (QueryDocumentSnapshot document : documents) {
+                Map<String, Object> data = document.getData();
+                if (IssueDocumentMapper.schemaVersion(data) >= IssueDocumentMapper.SCHEMA_VERSION) {
+                    continue;
+                }
+                Map<String, Object> update = IssueDocumentMapper.toUpdate(
+                        IssueDocumentMapper.fromDocument(data, Long.parseLong(document.getId())));
+                batch.update(document.getReference(), update, Precondition.updatedAt(document.getUpdateTime()));
+                migrated++;
+            }
+            if (migrated > 0) {
+                awaitRpc("commit", batch::commit);
+            }
+            String lastDocumentId = documents.isEmpty() ? startAfterId : documents.get(documents.size() - 1).getId();
+            return new SchemaMigrationPage(documents.size(), migrated, lastDocumentId, documents.size() < limit);
+            
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Failed to migrate issues after document {}: {}", startAfterId, e.getMessage(), e);
+            throw new RepositoryException("Failed to migrate issues", e);
+        }
     }
     
     /**
-     * Extract project ID from Google credentials
+     * Read up to {@code limit} documents in document ID order, starting after the given ID
+     * Only the issue fields are transferred
      */
-    private String extractProjectIdFromCredentials(GoogleCredentials credentials) throws RepositoryException {
-        if (credentials instanceof ServiceAccountCredentials) {
-            ServiceAccountCredentials serviceAccountCredentials = (ServiceAccountCredentials) credentials;
-            return serviceAccountCredentials.getProjectId();
-        } else {
-            throw new RepositoryException("Invalid credentials type. Expected ServiceAccountCredentials.");
+    private List<QueryDocumentSnapshot> queryAfter(String startAfterId, int limit) 
+            throws InterruptedException, ExecutionException {
+        CollectionReference collection = firestore.collection(collectionName);
+        Query query = collection.select(ISSUE_FIELD_PATHS).orderBy(FieldPath.documentId());
+        if (startAfterId != null) {
+            query = query.startAfter(collection.document(startAfterId));
         }
+        Query pageQuery = query.limit(limit);
+        return awaitRpc("query", pageQuery::get).getDocuments();
+    }
+    
+    private static List<Issue> toIssues(List<QueryDocumentSnapshot> documents) {
+        List<Issue> issues = new ArrayList<>(documents.size());
+        for (QueryDocumentSnapshot document : documents) {
+            issues.add(IssueDocumentMapper.fromDocument(document.getData(), Long.parseLong(document.getId())));
+        }
+        return issues;
+    }
+    
+    /**
+     * Block on a Firestore RPC, recording its latency under connector.firestore.rpc tagged by operation and outcome
+     */
+    private <T> T awaitRpc(String operation, Supplier<ApiFuture<T>> rpc) throws InterruptedException, ExecutionException {
+        return rpcAsync(operation, rpc).get();
+    }
+    
+    /**
+     * Issue a Firestore RPC without waiting for it; its latency is recorded when it completes
+     * The RPC is not sent while Firestore's circuit is open, and its outcome feeds the breaker.
+     */
+    private <T> CompletableFuture<T> rpcAsync(String operation, Supplier<ApiFuture<T>> rpc) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future = retryHandler.callAsync(RetryHandler.FIRESTORE,
+                () -> FirestoreFutures.toCompletableFuture(rpc.get()));
+        return future.whenComplete((value, e) -> Timer.builder("connector.firestore.rpc")
+                .description("Latency of Firestore read and write RPCs")
+                .tag("operation", operation)
+                .tag("outcome", e == null ? "ok" : "error")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+    
+    /**
+     * Fail a dependent stage with a RepositoryException, as the blocking methods report the same failure
+     */
+    private static CompletionException repositoryFailure(String message, Throwable e) {
+        return new CompletionException(new RepositoryException(message, FirestoreFutures.unwrap(e)));
+    }
+    
+    private Counter indexLookupCounter(String result) {
+        return Counter.builder("connector.index.lookups")
+                .description("Change checks answered by the local index (known) or read from Firestore (unknown)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    private Counter writeConflictCounter() {
+        return Counter.builder("connector.firestore.write.conflicts")
+                .description("Chunk commits that lost a write race and were read again")
+                .register(meterRegistry);
+    }
+    
+    private DistributionSummary batchSizeSummary() {
+        return DistributionSummary.builder("connector.firestore.batch.size")
+                .description("Writes per committed Firestore batch")
+                .register(meterRegistry);
     }
 }
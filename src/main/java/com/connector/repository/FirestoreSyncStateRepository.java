@@ -0,0 +1,116 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.SetOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Firestore implementation of SyncStateRepository
+ * Keeps one small metadata document per GitHub repository
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FirestoreSyncStateRepository implements SyncStateRepository {
+    
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final String BACKFILL_CHECKPOINT_FIELD = "backfill_checkpoint";
+    
+    private final Firestore firestore;
+    private final ConnectorConfig config;
+    
+    @Override
+    public Optional<LocalDateTime> findWatermark(String repository) throws RepositoryException {
+        try {
+            DocumentSnapshot document = stateDocument(repository).get().get();
+            String watermark = document.exists() ? document.getString("last_updated_at") : null;
+            
+            return Optional.ofNullable(watermark).map(value -> LocalDateTime.parse(value, DATE_TIME_FORMATTER));
+            
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Failed to read sync state for {}: {}", repository, e.getMessage(), e);
+            throw new RepositoryException("Failed to read sync state", e);
+        }
+    }
+    
+    @Override
+    public void saveWatermark(String repository, LocalDateTime watermark) throws RepositoryException {
+        try {
+            Map<String, Object> data = new HashMap<>();
+            data.put("repository", repository);
+            data.put("last_updated_at", watermark.format(DATE_TIME_FORMATTER));
+            data.put("synced_at", LocalDateTime.now().format(DATE_TIME_FORMATTER));
+            
+            stateDocument(repository).set(data, SetOptions.merge()).get();
+            log.info("Advanced sync watermark for {} to {}", repository, watermark);
+            
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Failed to save sync state for {}: {}", repository, e.getMessage(), e);
+            throw new RepositoryException("Failed to save sync state", e);
+        }
+    }
+    
+    @Override
+    public Optional<LocalDateTime> findBackfillCheckpoint(String repository) throws RepositoryException {
+        try {
+            DocumentSnapshot document = stateDocument(repository).get().get();
+            String checkpoint = document.exists() ? document.getString(BACKFILL_CHECKPOINT_FIELD) : null;
+            
+            return Optional.ofNullable(checkpoint).map(value -> LocalDateTime.parse(value, DATE_TIME_FORMATTER));
+            
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Failed to read backfill checkpoint for {}: {}", repository, e.getMessage(), e);
+            throw new RepositoryException("Failed to read backfill checkpoint", e);
+        }
+    }
+    
+    @Override
+    public void saveBackfillCheckpoint(String repository, LocalDateTime checkpoint) throws RepositoryException {
+        try {
+            Map<String, Object> data = new HashMap<>();
+            data.put("repository", repository);
+            data.put(BACKFILL_CHECKPOINT_FIELD, checkpoint.format(DATE_TIME_FORMATTER));
+            
+            stateDocument(repository).set(data, SetOptions.merge()).get();
+            log.debug("Saved backfill checkpoint for {} at {}", repository, checkpoint);
+            
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Failed to save backfill checkpoint for {}: {}", repository, e.getMessage(), e);
+            throw new RepositoryException("Failed to save backfill checkpoint", e);
+        }
+    }
+    
+    @Override
+    public void clearBackfillCheckpoint(String repository) throws RepositoryException {
+        try {
+            Map<String, Object> data = new HashMap<>();
+            data.put(BACKFILL_CHECKPOINT_FIELD, FieldValue.delete());
+            
+            stateDocument(repository).set(data, SetOptions.merge()).get();
+            
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Failed to clear backfill checkpoint for {}: {}", repository, e.getMessage(), e);
+            throw new RepositoryException("Failed to clear backfill checkpoint", e);
+        }
+    }
+    
+    /**
+     * Document IDs cannot contain '/', so owner/name becomes owner:name
+     */
+    private DocumentReference stateDocument(String repository) {
+        return firestore.collection(config.getFirestoreMetadataCollection()).document(repository.replace('/', ':'));
+    }
+}
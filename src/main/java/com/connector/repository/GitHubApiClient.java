@@ -2,60 +2,395 @@ package com.connector.repository;
 
 import com.connector.model.Issue;
 import com.connector.model.ConnectorConfig;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.fluent.Executor;
 import org.apache.http.client.fluent.Request;
-import org.apache.http.client.fluent.Content;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * GitHub API client for fetching issues
- * Implements retry mechanism and proper error handling
+ * Implements retry mechanism, Link-header pagination and parallel page fetching
+ * Incremental REST crawls (sort=updated) are not fetched by page number: an issue updated mid-crawl moves to
+ * the end of that order and shifts every later issue back one place, so an issue could slip onto a page already
+ * fetched and be skipped while the watermark moved past it. Each request instead asks for issues updated at or
+ * after the last updated_at delivered, one page at a time; full crawls (sort=created) are still fetched in parallel
+ * With connector.github.fetch.mode=graphql issues come from the GraphQL API instead: only the stored fields,
+ * up to 100 issues per query, pages followed by cursor one at a time, and no pull requests mixed in
+ * One instance serves every repository, so concurrent syncs share its in-flight request limit
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class GitHubApiClient {
     
-    private static final String GITHUB_API_BASE = "https://api.github.com/repos/";
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final Pattern LINK_PATTERN = Pattern.compile("<([^>]+)>;\\s*rel=\"([^\"]+)\"");
+    private static final Pattern PAGE_PARAM_PATTERN = Pattern.compile("[?&]page=(\\d+)");
+    private static final String USER_AGENT = "GitHub-Firebase-Connector/1.0";
+    private static final String GRAPHQL_MODE = "graphql";
+    /** GitHub caps a GraphQL connection at 100 nodes per query */
+    private static final int GRAPHQL_MAX_PAGE_SIZE = 100;
+    private static final String ISSUES_QUERY = "query($owner: String!, $name: String!, $first: Int!, $after: String, "
+            + "$orderBy: IssueOrder, $filterBy: IssueFilters) { repository(owner: $owner, name: $name) { "
+            + "issues(first: $first, after: $after, orderBy: $orderBy, filterBy: $filterBy) { "
+            + "pageInfo { hasNextPage endCursor } nodes { databaseId title createdAt updatedAt state url } } } }";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
     
     private final ConnectorConfig config;
+    /** Executes requests on the shared pooled client, so connections are reused across pages */
+    private final Executor httpExecutor;
     private final RetryHandler retryHandler;
+    private final GitHubResponseCache responseCache;
+    private final GitHubIssueParser issueParser;
+    private final MeterRegistry meterRegistry;
+    private final GitHubRateLimiter rateLimiter;
+    
+    public GitHubApiClient(ConnectorConfig config, HttpClient httpClient, RetryHandler retryHandler, 
+                           GitHubResponseCache responseCache, GitHubIssueParser issueParser, 
+                           GitHubRateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.httpExecutor = Executor.newInstance(httpClient);
+        this.retryHandler = retryHandler;
+        this.responseCache = responseCache;
+        this.issueParser = issueParser;
+        this.meterRegistry = meterRegistry;
+        this.rateLimiter = rateLimiter;
+        // Fair and adaptive: one repository's parallel page fetches cannot starve the others, and fewer
+        // requests go out at once while GitHub slows down
+        retryHandler.concurrencyLimit(RetryHandler.GITHUB, Math.max(1, config.getGithubMaxInFlightRequests()));
+    }
     
     /**
      * Fetch recent issues from GitHub repository
-     * @return list of recent issues
+     * @return list of recent issues, up to the configured maximum
      * @throws RepositoryException if fetch operation fails
      */
     public List<Issue> fetchRecentIssues() throws RepositoryException {
-        String url = GITHUB_API_BASE + config.getGithubRepository() + 
-                    "/issues?per_page=" + config.getMaxIssues() + "&sort=created&direction=desc";
+        List<Issue> issues = new ArrayList<>();
+        fetchIssuePages(page -> issues.addAll(page.getIssues()));
+        return issues;
+    }
+    
+    /**
+     * List the full names (owner/name) of an organization's repositories, following rel="next" links
+     * @param organization GitHub organization login
+     * @throws RepositoryException if a page cannot be fetched or parsed
+     */
+    public List<String> fetchOrganizationRepositories(String organization) throws RepositoryException {
+        List<String> repositories = new ArrayList<>();
+        String url = config.getGithubApiUrl() + "/orgs/" + organization + "/repos?per_page=100&type=all";
+        while (url != null) {
+            PageResponse page = fetchPage(url);
+            repositories.addAll(issueParser.parseRepositoryNames(page.getBody()));
+            url = parseLinkHeader(page.getLinkHeader()).get("next");
+        }
+        log.info("Organization {} has {} repositories", organization, repositories.size());
+        return repositories;
+    }
+    
+    /**
+     * Crawl the repository's issues page by page, following the Link header.
+     * Once rel="last" reveals the page count, the remaining pages are fetched
+     * concurrently while still being delivered to the handler in page order.
+     * @param handler callback receiving each page on the calling thread
+     * @throws RepositoryException if a page cannot be fetched or the handler fails
+     */
+    public void fetchIssuePages(IssuePageHandler handler) throws RepositoryException {
+        fetchIssuePages(config.getGithubRepository(), null, handler);
+    }
+    
+    /**
+     * Crawl issues updated at or after {@code since}, oldest update first, each page requested from the last
+     * updated_at delivered. A null {@code since} crawls the newest created issues instead.
+     * @param since watermark from a previous sync, or null for a full crawl
+     * @param handler callback receiving each page on the calling thread
+     * @throws RepositoryException if a page cannot be fetched or the handler fails
+     */
+    public void fetchIssuePages(LocalDateTime since, IssuePageHandler handler) throws RepositoryException {
+        fetchIssuePages(config.getGithubRepository(), since, handler);
+    }
+    
+    /**
+     * Crawl the issues of the given repository
+     * @param repository repository in owner/name form
+     * @param since watermark from a previous sync, or null for a full crawl
+     * @param handler callback receiving each page on the calling thread
+     * @throws RepositoryException if a page cannot be fetched or the handler fails
+     */
+    public void fetchIssuePages(String repository, LocalDateTime since, IssuePageHandler handler) 
+            throws RepositoryException {
+        fetchIssuePages(repository, since, config.getMaxIssues(), handler);
+    }
+    
+    /**
+     * Crawl the issues of the given repository, up to an explicit issue limit instead of the configured one
+     * @param repository repository in owner/name form
+     * @param since watermark from a previous sync, or null for a full crawl
+     * @param maxIssues issues to deliver before stopping; 0 or less crawls every page
+     * @param handler callback receiving each page on the calling thread
+     * @throws RepositoryException if a page cannot be fetched or the handler fails
+     */
+    public void fetchIssuePages(String repository, LocalDateTime since, int maxIssues, IssuePageHandler handler) 
+            throws RepositoryException {
+        if (GRAPHQL_MODE.equalsIgnoreCase(config.getGithubFetchMode())) {
+            fetchIssuePagesWithGraphql(repository, since, maxIssues, handler);
+            return;
+        }
+        int pageSize = maxIssues > 0 ? Math.min(config.getGithubPageSize(), maxIssues) : config.getGithubPageSize();
+        int maxPages = maxIssues > 0 ? (maxIssues + pageSize - 1) / pageSize : Integer.MAX_VALUE;
+        if (since != null) {
+            fetchUpdatedPages(handler, repository, pageSize, since, maxPages, maxIssues > 0 ? maxIssues : -1);
+            return;
+        }
+        String query = buildIssuesQuery(pageSize, since);
+        
+        PageResponse firstPage = fetchPage(buildIssuesUrl(repository, query, 1));
+        int remaining = deliverPage(handler, repository, 1, firstPage, maxIssues);
         
+        Map<String, String> links = parseLinkHeader(firstPage.getLinkHeader());
+        if (remaining == 0 || !links.containsKey("next")) {
+            return;
+        }
+        
+        if (links.containsKey("last")) {
+            int lastPage = Math.min(extractPageNumber(links.get("last")), maxPages);
+            fetchRemainingPagesInParallel(handler, repository, query, 2, lastPage, remaining);
+        } else {
+            followNextLinks(handler, repository, links.get("next"), 2, maxPages, remaining);
+        }
+    }
+    
+    /**
+     * Crawl with the GraphQL API, following endCursor page by page; the same order and filters as the REST crawl
+     */
+    private void fetchIssuePagesWithGraphql(String repository, LocalDateTime since, int maxIssues, 
+                                            IssuePageHandler handler) throws RepositoryException {
+        int pageSize = Math.max(1, Math.min(config.getGithubPageSize(), GRAPHQL_MAX_PAGE_SIZE));
+        if (maxIssues > 0) {
+            pageSize = Math.min(pageSize, maxIssues);
+        }
+        int remaining = maxIssues > 0 ? maxIssues : -1;
+        int pageNumber = 1;
+        String cursor = null;
+        do {
+            PageResponse response = postQuery(buildIssuesQuery(repository, pageSize, since, cursor));
+            long parseStart = System.nanoTime();
+            IssueCursorPage page = issueParser.parseIssueConnection(response.getBody(), repository);
+            long parseNanos = System.nanoTime() - parseStart;
+            meterRegistry.timer("connector.github.page.parse").record(parseNanos, TimeUnit.NANOSECONDS);
+            
+            remaining = deliverIssues(handler, pageNumber++, page.getIssues(), response, parseNanos, remaining);
+            cursor = page.isHasNextPage() ? page.getEndCursor() : null;
+        } while (cursor != null && remaining != 0);
+    }
+    
+    /**
+     * Crawl issues updated at or after {@code since} by keyset rather than by offset: each page is requested with
+     * since set to the latest updated_at delivered so far. Issues delivered at exactly that time come back in the
+     * overlap and are dropped; a page that does not move past it (all one second, or all pull requests) is
+     * followed by the next page of the same request instead.
+     */
+    private void fetchUpdatedPages(IssuePageHandler handler, String repository, int pageSize, LocalDateTime since,
+                                   int maxPages, int remaining) throws RepositoryException {
+        LocalDateTime cursor = since;
+        int cursorPage = 1;
+        Set<Long> deliveredAtCursor = new HashSet<>();
+        for (int pageNumber = 1; pageNumber <= maxPages && remaining != 0; pageNumber++) {
+            PageResponse response = fetchPage(buildIssuesUrl(repository, buildIssuesQuery(pageSize, cursor), cursorPage));
+            long parseStart = System.nanoTime();
+            List<Issue> parsed = issueParser.parseIssues(response.getBody(), repository);
+            long parseNanos = System.nanoTime() - parseStart;
+            meterRegistry.timer("connector.github.page.parse").record(parseNanos, TimeUnit.NANOSECONDS);
+            
+            List<Issue> issues = new ArrayList<>(parsed.size());
+            for (Issue issue : parsed) {
+                if (!deliveredAtCursor.contains(issue.getId())) {
+                    issues.add(issue);
+                }
+            }
+            remaining = deliverIssues(handler, pageNumber, issues, response, parseNanos, remaining);
+            if (!parseLinkHeader(response.getLinkHeader()).containsKey("next")) {
+                return;
+            }
+            
+            LocalDateTime last = parsed.isEmpty() ? null : parsed.get(parsed.size() - 1).getUpdatedAt();
+            if (last == null || !last.isAfter(cursor)) {
+                cursorPage++;
+            } else {
+                cursor = last;
+                cursorPage = 1;
+                deliveredAtCursor.clear();
+            }
+            for (Issue issue : issues) {
+                if (cursor.equals(issue.getUpdatedAt())) {
+                    deliveredAtCursor.add(issue.getId());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Sequentially follow rel="next" links when the total page count is unknown
+     */
+    private void followNextLinks(IssuePageHandler handler, String repository, String nextUrl, int pageNumber, 
+                                 int maxPages, int remaining) throws RepositoryException {
+        while (nextUrl != null && pageNumber <= maxPages && remaining != 0) {
+            PageResponse page = fetchPage(nextUrl);
+            remaining = deliverPage(handler, repository, pageNumber++, page, remaining);
+            nextUrl = parseLinkHeader(page.getLinkHeader()).get("next");
+        }
+    }
+    
+    /**
+     * Fetch pages [firstPage, lastPage] on a worker pool, or one virtual thread per page when enabled.
+     * At most {@code githubFetchParallelism} pages are in flight; results are
+     * consumed strictly in page order so the handler sees a stable ordering.
+     */
+    private void fetchRemainingPagesInParallel(IssuePageHandler handler, String repository, String query, 
+                                               int firstPage, int lastPage, int remaining) throws RepositoryException {
+        int parallelism = Math.max(1, config.getGithubFetchParallelism());
+        ExecutorService executor = IoExecutors.newExecutor("github-fetch", parallelism, config.isVirtualThreadsEnabled());
+        Deque<Future<PageResponse>> inFlight = new ArrayDeque<>();
+        int nextToSubmit = firstPage;
+        
+        try {
+            for (int pageNumber = firstPage; pageNumber <= lastPage && remaining != 0; pageNumber++) {
+                while (nextToSubmit <= lastPage && inFlight.size() < parallelism) {
+                    String url = buildIssuesUrl(repository, query, nextToSubmit++);
+                    inFlight.addLast(executor.submit(() -> fetchPage(url)));
+                }
+                remaining = deliverPage(handler, repository, pageNumber, awaitPage(inFlight.removeFirst()), remaining);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private PageResponse awaitPage(Future<PageResponse> future) throws RepositoryException {
         try {
-            String response = retryHandler.executeWithRetry(() -> {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("Interrupted while fetching issues from GitHub", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RepositoryException) {
+                throw (RepositoryException) e.getCause();
+            }
+            throw new RepositoryException("Failed to fetch issues from GitHub", e.getCause());
+        }
+    }
+    
+    /**
+     * Parse a page and hand it to the handler, truncated to the remaining issue budget
+     * @return the remaining budget, or -1 when unbounded
+     */
+    private int deliverPage(IssuePageHandler handler, String repository, int pageNumber, PageResponse response,
+                            int remaining) throws RepositoryException {
+        long parseStart = System.nanoTime();
+        List<Issue> issues = issueParser.parseIssues(response.getBody(), repository);
+        long parseNanos = System.nanoTime() - parseStart;
+        meterRegistry.timer("connector.github.page.parse").record(parseNanos, TimeUnit.NANOSECONDS);
+        return deliverIssues(handler, pageNumber, issues, response, parseNanos, remaining);
+    }
+    
+    private static int deliverIssues(IssuePageHandler handler, int pageNumber, List<Issue> issues, PageResponse response,
+                                     long parseNanos, int remaining) throws RepositoryException {
+        if (remaining > 0 && issues.size() > remaining) {
+            issues = issues.subList(0, remaining);
+        }
+        handler.handle(new IssuePage(pageNumber, issues, response.isNotModified(), 
+                response.getFetchNanos(), parseNanos));
+        return remaining > 0 ? remaining - issues.size() : -1;
+    }
+    
+    /**
+     * Fetch a single page with retries, keeping the Link header for pagination.
+     * Pages seen before are revalidated with If-None-Match/If-Modified-Since; a 304
+     * is served from the response cache and does not count against the rate limit.
+     * Each HTTP attempt is timed separately and tagged with its outcome. The rate-limit governor is waited for
+     * before the attempt takes an in-flight slot, so the wait is neither timed nor sampled as GitHub latency.
+     */
+    private PageResponse fetchPage(String url) throws RepositoryException {
+        long fetchStart = System.nanoTime();
+        try {
+            PageResponse page = retryHandler.executeWithRetry(RetryHandler.GITHUB, rateLimiter::acquire, () -> {
                 log.info("Fetching issues from GitHub API: {}", url);
+                long attemptStart = System.nanoTime();
+                String outcome = "error";
                 try {
-                    Content content = Request.Get(url)
+                    GitHubResponseCache.CachedResponse cached = responseCache.get(url);
+                    Request request = authorize(Request.Get(url)
                             .addHeader("Accept", "application/vnd.github.v3+json")
-                            .addHeader("User-Agent", "GitHub-Firebase-Connector/1.0")
-                            .execute().returnContent();
-                    return content.asString();
+                            .addHeader("User-Agent", USER_AGENT));
+                    if (cached != null && cached.getEtag() != null) {
+                        request.addHeader("If-None-Match", cached.getEtag());
+                    }
+                    if (cached != null && cached.getLastModified() != null) {
+                        request.addHeader("If-Modified-Since", cached.getLastModified());
+                    }
+                    HttpResponse response = httpExecutor.execute(request).returnResponse();
+                    
+                    int status = response.getStatusLine().getStatusCode();
+                    if (isRateLimited(response)) {
+                        outcome = "rate_limited";
+                        rateLimiter.onRateLimited(response);
+                        throw new HttpResponseException(429, "GitHub rate limit exceeded (HTTP " + status + ")");
+                    }
+                    rateLimiter.update(response);
+                    if (status == HttpStatus.SC_NOT_MODIFIED && cached != null) {
+                        log.debug("GitHub page not modified, serving cached body: {}", url);
+                        outcome = "not_modified";
+                        return new PageResponse(cached.getBody(), cached.getLinkHeader(), true, 0);
+                    }
+                    if (status >= 300) {
+                        throw new HttpResponseException(status, response.getStatusLine().getReasonPhrase());
+                    }
+                    
+                    byte[] body = EntityUtils.toByteArray(response.getEntity());
+                    String linkHeader = headerValue(response, "Link");
+                    responseCache.put(url, new GitHubResponseCache.CachedResponse(
+                            headerValue(response, "ETag"), headerValue(response, "Last-Modified"), linkHeader, body));
+                    outcome = "ok";
+                    return new PageResponse(body, linkHeader, false, 0);
                 } catch (IOException e) {
                     throw new RuntimeException("Failed to execute HTTP request", e);
+                } finally {
+                    fetchTimer(outcome).record(System.nanoTime() - attemptStart, TimeUnit.NANOSECONDS);
                 }
             });
-            
-            return parseIssuesFromResponse(response, config.getGithubRepository());
-            
+            page.setFetchNanos(System.nanoTime() - fetchStart);
+            return page;
         } catch (Exception e) {
             log.error("Failed to fetch issues from GitHub: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to fetch issues from GitHub", e);
@@ -63,47 +398,179 @@ public class GitHubApiClient {
     }
     
     /**
-     * Parse issues from GitHub API response
+     * Send a GraphQL query with retries, going through the same rate-limit governor and in-flight limit as REST pages
+     * Queries are POSTs, so they are not revalidated from the response cache.
      */
-    private List<Issue> parseIssuesFromResponse(String response, String repository) throws RepositoryException {
+    private PageResponse postQuery(byte[] payload) throws RepositoryException {
+        String url = graphqlUrl();
+        long fetchStart = System.nanoTime();
         try {
-            JSONArray issuesArray = new JSONArray(response);
-            List<Issue> issues = new ArrayList<>();
-            
-            for (int i = 0; i < issuesArray.length(); i++) {
-                JSONObject issueJson = issuesArray.getJSONObject(i);
-                Issue issue = parseIssueFromJson(issueJson, repository);
-                issues.add(issue);
-            }
-            
-            log.info("Successfully parsed {} issues from GitHub response", issues.size());
-            return issues;
-            
+            PageResponse page = retryHandler.executeWithRetry(RetryHandler.GITHUB, rateLimiter::acquire, () -> {
+                log.info("Querying issues from GitHub GraphQL API: {}", url);
+                long attemptStart = System.nanoTime();
+                String outcome = "error";
+                try {
+                    Request request = authorize(Request.Post(url)
+                            .addHeader("Accept", "application/json")
+                            .addHeader("User-Agent", USER_AGENT)
+                            .bodyByteArray(payload, ContentType.APPLICATION_JSON));
+                    HttpResponse response = httpExecutor.execute(request).returnResponse();
+                    
+                    int status = response.getStatusLine().getStatusCode();
+                    if (isRateLimited(response)) {
+                        outcome = "rate_limited";
+                        rateLimiter.onRateLimited(response);
+                        throw new HttpResponseException(429, "GitHub rate limit exceeded (HTTP " + status + ")");
+                    }
+                    rateLimiter.update(response);
+                    if (status >= 300) {
+                        throw new HttpResponseException(status, response.getStatusLine().getReasonPhrase());
+                    }
+                    byte[] body = EntityUtils.toByteArray(response.getEntity());
+                    outcome = "ok";
+                    return new PageResponse(body, null, false, 0);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to execute HTTP request", e);
+                } finally {
+                    fetchTimer(outcome).record(System.nanoTime() - attemptStart, TimeUnit.NANOSECONDS);
+                }
+            });
+            page.setFetchNanos(System.nanoTime() - fetchStart);
+            return page;
         } catch (Exception e) {
-            log.error("Failed to parse GitHub response: {}", e.getMessage(), e);
-            throw new RepositoryException("Failed to parse GitHub response", e);
+            log.error("Failed to query issues from GitHub GraphQL API: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to fetch issues from GitHub", e);
         }
     }
     
     /**
-     * Parse a single issue from JSON
+     * Variables mirror the REST crawl: newest open issues first for a full crawl, and issues of any state
+     * updated since the watermark, oldest update first, for an incremental one
      */
-    private Issue parseIssueFromJson(JSONObject issueJson, String repository) throws RepositoryException {
-        try {
-            Long id = issueJson.getLong("id");
-            String title = issueJson.getString("title");
-            String createdAtStr = issueJson.getString("created_at");
-            String state = issueJson.getString("state");
-            String htmlUrl = issueJson.getString("html_url");
-            
-            // Parse the ISO 8601 date string
-            LocalDateTime createdAt = LocalDateTime.parse(createdAtStr.replace("Z", ""), DATE_TIME_FORMATTER);
-            
-            return new Issue(id, title, createdAt, state, htmlUrl, repository);
-            
-        } catch (Exception e) {
-            log.error("Failed to parse issue from JSON: {}", e.getMessage(), e);
-            throw new RepositoryException("Failed to parse issue from JSON", e);
+    static byte[] buildIssuesQuery(String repository, int pageSize, LocalDateTime since, String cursor) 
+            throws RepositoryException {
+        String[] ownerAndName = repository.split("/", 2);
+        if (ownerAndName.length != 2) {
+            throw new RepositoryException("Repository must be in owner/name form: " + repository);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("query", ISSUES_QUERY);
+            json.writeObjectFieldStart("variables");
+            json.writeStringField("owner", ownerAndName[0]);
+            json.writeStringField("name", ownerAndName[1]);
+            json.writeNumberField("first", pageSize);
+            json.writeStringField("after", cursor);
+            json.writeObjectFieldStart("orderBy");
+            json.writeStringField("field", since == null ? "CREATED_AT" : "UPDATED_AT");
+            json.writeStringField("direction", since == null ? "DESC" : "ASC");
+            json.writeEndObject();
+            json.writeObjectFieldStart("filterBy");
+            if (since == null) {
+                json.writeArrayFieldStart("states");
+                json.writeString("OPEN");
+                json.writeEndArray();
+            } else {
+                json.writeStringField("since", since.format(DATE_TIME_FORMATTER) + "Z");
+            }
+            json.writeEndObject();
+            json.writeEndObject();
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new RepositoryException("Failed to build GitHub GraphQL query", e);
+        }
+        return out.toByteArray();
+    }
+    
+    private String graphqlUrl() {
+        String url = config.getGithubGraphqlUrl();
+        return url == null || url.isBlank() ? config.getGithubApiUrl() + "/graphql" : url;
+    }
+    
+    /**
+     * Send the configured token, if any; required by the GraphQL API, and raises the REST rate limit
+     */
+    private Request authorize(Request request) {
+        String token = config.getGithubToken();
+        if (token != null && !token.isBlank()) {
+            request.addHeader("Authorization", "bearer " + token.trim());
+        }
+        return request;
+    }
+    
+    /**
+     * 429 is always a rate limit; GitHub also answers 403 for exhausted quota and secondary limits,
+     * told apart from permission errors by Retry-After or a zero X-RateLimit-Remaining
+     */
+    private static boolean isRateLimited(HttpResponse response) {
+        int status = response.getStatusLine().getStatusCode();
+        if (status == 429) {
+            return true;
         }
+        return status == HttpStatus.SC_FORBIDDEN && 
+                (headerValue(response, "Retry-After") != null || "0".equals(headerValue(response, "X-RateLimit-Remaining")));
+    }
+    
+    private Timer fetchTimer(String outcome) {
+        return Timer.builder("connector.github.page.fetch")
+                .description("Latency of a single GitHub issues page request")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    private static String headerValue(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+    
+    /**
+     * Incremental crawls include closed issues so state changes are picked up
+     */
+    private String buildIssuesQuery(int pageSize, LocalDateTime since) {
+        if (since == null) {
+            return "per_page=" + pageSize + "&sort=created&direction=desc";
+        }
+        return "per_page=" + pageSize + "&state=all&sort=updated&direction=asc&since=" + 
+                since.format(DATE_TIME_FORMATTER) + "Z";
+    }
+    
+    private String buildIssuesUrl(String repository, String query, int page) {
+        return config.getGithubApiUrl() + "/repos/" + repository + "/issues?" + query + "&page=" + page;
+    }
+    
+    /**
+     * Parse an RFC 5988 Link header into a rel -> url map
+     */
+    static Map<String, String> parseLinkHeader(String linkHeader) {
+        Map<String, String> links = new HashMap<>();
+        if (linkHeader == null) {
+            return links;
+        }
+        Matcher matcher = LINK_PATTERN.matcher(linkHeader);
+        while (matcher.find()) {
+            links.put(matcher.group(2), matcher.group(1));
+        }
+        return links;
+    }
+    
+    static int extractPageNumber(String url) throws RepositoryException {
+        Matcher matcher = PAGE_PARAM_PATTERN.matcher(url);
+        if (!matcher.find()) {
+            throw new RepositoryException("Missing page parameter in GitHub link: " + url);
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+    
+    /**
+     * Raw page body plus the pagination header and the time spent fetching it, retries included
+     */
+    @Data
+    @AllArgsConstructor
+    private static class PageResponse {
+        private byte[] body;
+        private String linkHeader;
+        private boolean notModified;
+        private long fetchNanos;
     }
 }
@@ -0,0 +1,68 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the pooled HTTP client used for GitHub requests
+ * Connections are kept alive and reused across page fetches, so parallel fetches do not repeat TCP and
+ * TLS handshakes; responses are requested gzip-compressed and decompressed transparently.
+ */
+public final class GitHubHttpClients {
+    
+    /** How long an idle pooled connection may sit before it is revalidated */
+    private static final int VALIDATE_AFTER_INACTIVITY_MS = 2_000;
+    
+    private GitHubHttpClients() {
+    }
+    
+    /**
+     * Connection pool sized from the configured total and per-route limits
+     */
+    public static PoolingHttpClientConnectionManager connectionManager(ConnectorConfig config) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                config.getGithubHttpKeepAliveMs(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(Math.max(1, config.getGithubHttpMaxConnections()));
+        connectionManager.setDefaultMaxPerRoute(Math.max(1, config.getGithubHttpMaxConnectionsPerRoute()));
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MS);
+        return connectionManager;
+    }
+    
+    /**
+     * Client over the given pool with connect, read and pool-wait timeouts; a server Keep-Alive
+     * hint shorter than the configured keep-alive wins
+     */
+    public static CloseableHttpClient create(ConnectorConfig config, PoolingHttpClientConnectionManager connectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(config.getGithubHttpConnectTimeoutMs())
+                .setConnectionRequestTimeout(config.getGithubHttpConnectTimeoutMs())
+                .setSocketTimeout(config.getGithubHttpReadTimeoutMs())
+                .build();
+        long keepAliveMs = config.getGithubHttpKeepAliveMs();
+        ConnectionKeepAliveStrategy keepAlive = (response, context) -> {
+            long serverHint = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverHint > 0 ? Math.min(serverHint, keepAliveMs) : keepAliveMs;
+        };
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAlive)
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+    
+    /**
+     * Client with its own pool, for callers outside the Spring context
+     */
+    public static CloseableHttpClient create(ConnectorConfig config) {
+        return create(config, connectionManager(config));
+    }
+}
@@ -0,0 +1,380 @@
+package com.connector.repository;
+
+import com.connector.model.Issue;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming parser for GitHub issue and repository list responses, GraphQL issue queries and issues webhook payloads
+ * Reads only the fields mapped onto Issue and skips every other subtree (bodies, users, labels, reactions)
+ */
+@Component
+@Slf4j
+public class GitHubIssueParser {
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    
+    /**
+     * Parse issues from a GitHub API response body
+     * @param body raw UTF-8 response body
+     * @param repository repository the issues belong to
+     * @return parsed issues in response order
+     * @throws RepositoryException if the body is not a valid issue array
+     */
+    public List<Issue> parseIssues(byte[] body, String repository) throws RepositoryException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return parseIssues(parser, repository);
+        } catch (IOException e) {
+            log.error("Failed to parse GitHub response: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to parse GitHub response", e);
+        }
+    }
+    
+    /**
+     * Parse issues directly from a GitHub API response stream
+     * @param body response stream; closed once parsing completes
+     * @param repository repository the issues belong to
+     * @return parsed issues in response order
+     * @throws RepositoryException if the stream is not a valid issue array
+     */
+    public List<Issue> parseIssues(InputStream body, String repository) throws RepositoryException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return parseIssues(parser, repository);
+        } catch (IOException e) {
+            log.error("Failed to parse GitHub response: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to parse GitHub response", e);
+        }
+    }
+    
+    /**
+     * Read the full_name of each repository in a GitHub repository list response
+     * @param body raw UTF-8 response body
+     * @return repository names in owner/name form, in response order
+     * @throws RepositoryException if the body is not a valid repository array
+     */
+    public List<String> parseRepositoryNames(byte[] body) throws RepositoryException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RepositoryException("Expected a JSON array of repositories");
+            }
+            List<String> names = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                names.add(parseFullName(parser));
+            }
+            return names;
+        } catch (IOException e) {
+            log.error("Failed to parse GitHub repository list: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to parse GitHub repository list", e);
+        }
+    }
+    
+    /**
+     * Parse the payload of an issues webhook event
+     * @param body raw UTF-8 request body
+     * @return the event action and the issue, which belongs to the payload's repository.full_name
+     * @throws RepositoryException if the body is not a valid issues event
+     */
+    public IssueEvent parseIssueEvent(byte[] body) throws RepositoryException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RepositoryException("Expected a JSON object for the issues event");
+            }
+            String action = null;
+            Issue issue = null;
+            String repository = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("action".equals(field)) {
+                    action = parser.getValueAsString();
+                } else if ("issue".equals(field) && value == JsonToken.START_OBJECT) {
+                    // The repository may come after the issue, so it is filled in below
+                    issue = parseIssue(parser, null);
+                } else if ("repository".equals(field) && value == JsonToken.START_OBJECT) {
+                    repository = parseFullName(parser);
+                } else if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                }
+            }
+            if (action == null || issue == null || repository == null) {
+                throw new RepositoryException("Failed to parse issues event: missing action, issue or repository");
+            }
+            issue.setRepository(repository);
+            return new IssueEvent(action, issue);
+        } catch (IOException e) {
+            log.error("Failed to parse GitHub webhook payload: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to parse GitHub webhook payload", e);
+        }
+    }
+    
+    /**
+     * Parse a GitHub GraphQL response to the issues query of GitHubApiClient
+     * @param body raw UTF-8 response body
+     * @param repository repository the issues belong to
+     * @return the page's issues in response order, and where the next page starts
+     * @throws RepositoryException if the query returned errors or the body is not a valid response
+     */
+    public IssueCursorPage parseIssueConnection(byte[] body, String repository) throws RepositoryException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RepositoryException("Expected a JSON object for the GraphQL response");
+            }
+            IssueCursorPage page = null;
+            String error = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                    page = parseRepositoryIssues(parser, repository);
+                } else if ("errors".equals(field) && value == JsonToken.START_ARRAY) {
+                    error = parseFirstErrorMessage(parser);
+                } else if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                }
+            }
+            if (error != null) {
+                throw new RepositoryException("GitHub GraphQL query failed: " + error);
+            }
+            if (page == null) {
+                throw new RepositoryException("GitHub GraphQL response has no issues for " + repository);
+            }
+            log.info("Successfully parsed {} issues from GitHub GraphQL response", page.getIssues().size());
+            return page;
+        } catch (IOException e) {
+            log.error("Failed to parse GitHub GraphQL response: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to parse GitHub GraphQL response", e);
+        }
+    }
+    
+    private List<Issue> parseIssues(JsonParser parser, String repository) throws IOException, RepositoryException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new RepositoryException("Expected a JSON array of issues");
+        }
+        
+        List<Issue> issues = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            issues.add(parseIssue(parser, repository));
+        }
+        
+        log.info("Successfully parsed {} issues from GitHub response", issues.size());
+        return issues;
+    }
+    
+    /**
+     * Parse a single issue object; the parser is positioned on its START_OBJECT
+     */
+    private Issue parseIssue(JsonParser parser, String repository) throws IOException, RepositoryException {
+        Long id = null;
+        String title = null;
+        String createdAt = null;
+        String updatedAt = null;
+        String state = null;
+        String htmlUrl = null;
+        
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    id = parser.getLongValue();
+                    break;
+                case "title":
+                    title = parser.getValueAsString();
+                    break;
+                case "created_at":
+                    createdAt = parser.getValueAsString();
+                    break;
+                case "updated_at":
+                    updatedAt = parser.getValueAsString();
+                    break;
+                case "state":
+                    state = parser.getValueAsString();
+                    break;
+                case "html_url":
+                    htmlUrl = parser.getValueAsString();
+                    break;
+                default:
+                    if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                    }
+            }
+        }
+        
+        if (id == null || title == null || createdAt == null || state == null || htmlUrl == null) {
+            throw new RepositoryException("Failed to parse issue from JSON: missing required field in issue " + id);
+        }
+        
+        return new Issue(id, title, parseTimestamp(createdAt), state, htmlUrl, repository,
+                updatedAt != null ? parseTimestamp(updatedAt) : null);
+    }
+    
+    /**
+     * Read data.repository.issues; the parser is positioned on the START_OBJECT of data
+     * @return null if the repository does not exist or is not visible to the token
+     */
+    private IssueCursorPage parseRepositoryIssues(JsonParser parser, String repository) throws IOException, RepositoryException {
+        IssueCursorPage page = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("repository".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String repositoryField = parser.getCurrentName();
+                    JsonToken repositoryValue = parser.nextToken();
+                    if ("issues".equals(repositoryField) && repositoryValue == JsonToken.START_OBJECT) {
+                        page = parseIssueConnection(parser, repository);
+                    } else if (repositoryValue == JsonToken.START_OBJECT || repositoryValue == JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            }
+        }
+        return page;
+    }
+    
+    /**
+     * Read an issue connection's nodes and pageInfo; the parser is positioned on its START_OBJECT
+     */
+    private IssueCursorPage parseIssueConnection(JsonParser parser, String repository) throws IOException, RepositoryException {
+        IssueCursorPage page = new IssueCursorPage(new ArrayList<>(), false, null);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("nodes".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    page.getIssues().add(parseIssueNode(parser, repository));
+                }
+            } else if ("pageInfo".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String pageInfoField = parser.getCurrentName();
+                    JsonToken pageInfoValue = parser.nextToken();
+                    if ("hasNextPage".equals(pageInfoField)) {
+                        page.setHasNextPage(pageInfoValue == JsonToken.VALUE_TRUE);
+                    } else if ("endCursor".equals(pageInfoField)) {
+                        page.setEndCursor(pageInfoValue == JsonToken.VALUE_NULL ? null : parser.getValueAsString());
+                    } else if (pageInfoValue == JsonToken.START_OBJECT || pageInfoValue == JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            }
+        }
+        return page;
+    }
+    
+    /**
+     * Parse a GraphQL issue node; the parser is positioned on its START_OBJECT
+     * databaseId is the same ID the REST API returns, and the state (OPEN, CLOSED) is lower-cased to match it
+     */
+    private Issue parseIssueNode(JsonParser parser, String repository) throws IOException, RepositoryException {
+        Long id = null;
+        String title = null;
+        String createdAt = null;
+        String updatedAt = null;
+        String state = null;
+        String url = null;
+        
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "databaseId":
+                    id = value == JsonToken.VALUE_NULL ? null : parser.getLongValue();
+                    break;
+                case "title":
+                    title = parser.getValueAsString();
+                    break;
+                case "createdAt":
+                    createdAt = parser.getValueAsString();
+                    break;
+                case "updatedAt":
+                    updatedAt = parser.getValueAsString();
+                    break;
+                case "state":
+                    state = parser.getValueAsString();
+                    break;
+                case "url":
+                    url = parser.getValueAsString();
+                    break;
+                default:
+                    if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                    }
+            }
+        }
+        
+        if (id == null || title == null || createdAt == null || state == null || url == null) {
+            throw new RepositoryException("Failed to parse issue from GraphQL response: missing required field in issue " + id);
+        }
+        
+        return new Issue(id, title, parseTimestamp(createdAt), state.toLowerCase(Locale.ROOT), url, repository,
+                updatedAt != null ? parseTimestamp(updatedAt) : null);
+    }
+    
+    /**
+     * Read the message of the first entry of a GraphQL errors array; the parser is positioned on its START_ARRAY
+     * @return null if the array is empty
+     */
+    private String parseFirstErrorMessage(JsonParser parser) throws IOException {
+        String message = null;
+        boolean hasErrors = false;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            hasErrors = true;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("message".equals(field) && message == null) {
+                    message = parser.getValueAsString();
+                } else if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (!hasErrors) {
+            return null;
+        }
+        return message != null ? message : "unknown error";
+    }
+    
+    /**
+     * Read the full_name of a repository object; the parser is positioned on its START_OBJECT
+     */
+    private String parseFullName(JsonParser parser) throws IOException, RepositoryException {
+        String fullName = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("full_name".equals(field)) {
+                fullName = parser.getValueAsString();
+            } else if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            }
+        }
+        if (fullName == null) {
+            throw new RepositoryException("Failed to parse repository from JSON: missing full_name");
+        }
+        return fullName;
+    }
+    
+    /**
+     * Parse a GitHub ISO 8601 UTC timestamp such as 2024-01-01T00:00:00Z
+     */
+    private static LocalDateTime parseTimestamp(String value) {
+        return LocalDateTime.parse(value.replace("Z", ""), DATE_TIME_FORMATTER);
+    }
+}
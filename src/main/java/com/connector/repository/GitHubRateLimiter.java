@@ -0,0 +1,211 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket governor for GitHub API requests
+ * Tracks the primary quota from X-RateLimit-* headers and refills the bucket so the remaining
+ * budget is spread evenly over the reset window; Retry-After on 403/429 blocks all requests
+ */
+@Component
+@Slf4j
+public class GitHubRateLimiter {
+    
+    /** GitHub asks clients to wait at least a minute after a secondary rate limit without Retry-After */
+    private static final long DEFAULT_SECONDARY_WAIT_MS = 60_000;
+    
+    private final int burst;
+    private final long maxWaitMs;
+    private final LongSupplier clock;
+    private final Sleeper sleeper;
+    private final Timer waitTimer;
+    
+    private double tokens;
+    private long lastRefillMs;
+    /** Requests per millisecond that spends the remaining quota by the reset time; 0 while unknown */
+    private double refillRatePerMs;
+    /** Remaining primary quota, -1 until GitHub has reported it */
+    private long remaining = -1;
+    private long limit = -1;
+    private long resetAtMs;
+    private long blockedUntilMs;
+    
+    @Autowired
+    public GitHubRateLimiter(ConnectorConfig config, MeterRegistry meterRegistry) {
+        this(config, meterRegistry, System::currentTimeMillis, Thread::sleep);
+    }
+    
+    GitHubRateLimiter(ConnectorConfig config, MeterRegistry meterRegistry, LongSupplier clock, Sleeper sleeper) {
+        this.burst = Math.max(1, config.getGithubRateLimitBurst());
+        this.maxWaitMs = config.getGithubRateLimitMaxWaitMs();
+        this.clock = clock;
+        this.sleeper = sleeper;
+        this.tokens = burst;
+        this.lastRefillMs = clock.getAsLong();
+        
+        Gauge.builder("connector.github.rate.limit.remaining", this, GitHubRateLimiter::getRemaining)
+                .description("Primary GitHub API quota left in the current window, -1 if unknown")
+                .register(meterRegistry);
+        Gauge.builder("connector.github.rate.limit.tokens", this, GitHubRateLimiter::getAvailableTokens)
+                .description("Requests the governor would admit right now without waiting")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("connector.github.rate.limit.wait")
+                .description("Time requests spent waiting for the rate-limit governor")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Block until a request may be sent
+     * @throws RepositoryException if the required wait exceeds the configured maximum or is interrupted
+     */
+    public void acquire() throws RepositoryException {
+        long waitedMs = 0;
+        long waitMs;
+        while ((waitMs = reserve()) > 0) {
+            if (maxWaitMs > 0 && waitedMs + waitMs > maxWaitMs) {
+                throw new RepositoryException("GitHub rate limit requires waiting " + waitMs + 
+                        "ms, more than the configured maximum of " + maxWaitMs + "ms");
+            }
+            log.debug("Rate limit governor delaying GitHub request by {}ms", waitMs);
+            try {
+                sleeper.sleep(waitMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RepositoryException("Interrupted while waiting for GitHub rate limit", e);
+            }
+            waitedMs += waitMs;
+        }
+        if (waitedMs > 0) {
+            waitTimer.record(waitedMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Update the quota from a response's X-RateLimit-Limit/Remaining/Reset headers
+     */
+    public synchronized void update(HttpResponse response) {
+        Long headerRemaining = longHeader(response, "X-RateLimit-Remaining");
+        Long headerReset = longHeader(response, "X-RateLimit-Reset");
+        if (headerRemaining == null || headerReset == null) {
+            return;
+        }
+        Long headerLimit = longHeader(response, "X-RateLimit-Limit");
+        if (headerLimit != null) {
+            limit = headerLimit;
+        }
+        
+        long now = clock.getAsLong();
+        long headerResetMs = TimeUnit.SECONDS.toMillis(headerReset);
+        // Responses of parallel requests arrive out of order; within a window the lowest count is the freshest
+        remaining = headerResetMs == resetAtMs && remaining >= 0 ? Math.min(remaining, headerRemaining) : headerRemaining;
+        resetAtMs = headerResetMs;
+        refill(now);
+        refillRatePerMs = (double) remaining / Math.max(1, resetAtMs - now);
+    }
+    
+    /**
+     * Record a 403/429 answer: block every request for Retry-After seconds, until the quota resets
+     * when it is exhausted, or a minute for a secondary limit that gives no hint
+     */
+    public synchronized void onRateLimited(HttpResponse response) {
+        update(response);
+        long now = clock.getAsLong();
+        Long retryAfter = longHeader(response, "Retry-After");
+        long until;
+        if (retryAfter != null) {
+            until = now + TimeUnit.SECONDS.toMillis(retryAfter);
+        } else if (remaining == 0 && resetAtMs > now) {
+            until = resetAtMs;
+        } else {
+            until = now + DEFAULT_SECONDARY_WAIT_MS;
+        }
+        blockedUntilMs = Math.max(blockedUntilMs, until);
+        tokens = 0;
+        log.warn("GitHub rate limit hit, pausing requests for {}ms", blockedUntilMs - now);
+    }
+    
+    public synchronized long getRemaining() {
+        return remaining;
+    }
+    
+    public synchronized long getLimit() {
+        return limit;
+    }
+    
+    public synchronized double getAvailableTokens() {
+        long now = clock.getAsLong();
+        if (blockedUntilMs > now || remaining == 0 && resetAtMs > now) {
+            return 0;
+        }
+        refill(now);
+        return tokens;
+    }
+    
+    /**
+     * Take a token if one is available
+     * @return 0 when the request may proceed, otherwise how long to wait before asking again
+     */
+    private synchronized long reserve() {
+        long now = clock.getAsLong();
+        refill(now);
+        if (blockedUntilMs > now) {
+            return blockedUntilMs - now;
+        }
+        if (remaining == 0 && resetAtMs > now) {
+            return resetAtMs - now;
+        }
+        if (remaining == 0) {
+            // The window has reset but no response has reported the new quota yet
+            remaining = -1;
+            refillRatePerMs = 0;
+        }
+        if (refillRatePerMs > 0 && tokens < 1) {
+            return (long) Math.ceil((1 - tokens) / refillRatePerMs);
+        }
+        tokens = Math.max(0, tokens - 1);
+        if (remaining > 0) {
+            remaining--;
+        }
+        return 0;
+    }
+    
+    private void refill(long now) {
+        if (refillRatePerMs <= 0) {
+            tokens = burst;
+        } else {
+            tokens = Math.min(burst, tokens + (now - lastRefillMs) * refillRatePerMs);
+        }
+        lastRefillMs = now;
+    }
+    
+    private static Long longHeader(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.getValue().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Sleep hook, replaced in tests
+     */
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+}
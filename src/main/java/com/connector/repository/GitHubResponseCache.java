@@ -0,0 +1,218 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded LRU cache of GitHub responses keyed by URL
+ * Stores ETag/Last-Modified validators so pages can be revalidated with conditional requests.
+ * Bounded by entry count and by the total size of the cached bodies, since a full issues page runs to
+ * hundreds of kilobytes. With a file configured, changes are written out periodically and at shutdown.
+ */
+@Component
+@Slf4j
+public class GitHubResponseCache {
+    
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    
+    private final int maxEntries;
+    private final long maxBytes;
+    private final String cacheFile;
+    private final long persistIntervalMs;
+    /** Access-ordered, least recently used first; guarded by itself */
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** Weight of all entries; guarded by entries */
+    private long totalBytes;
+    /** Whether entries changed since they were last persisted; guarded by entries */
+    private boolean dirty;
+    private ScheduledExecutorService persister;
+    
+    public GitHubResponseCache(ConnectorConfig config) {
+        this.maxEntries = config.getGithubCacheMaxEntries();
+        this.maxBytes = config.getGithubCacheMaxBytes();
+        this.cacheFile = config.getGithubCacheFile();
+        this.persistIntervalMs = config.getGithubCachePersistIntervalMs();
+    }
+    
+    /**
+     * Load persisted entries so a restarted connector can keep revalidating instead of refetching,
+     * then start writing changes out periodically
+     */
+    @PostConstruct
+    public void load() {
+        if (!isPersistent()) {
+            return;
+        }
+        if (new File(cacheFile).exists()) {
+            try {
+                Map<String, CachedResponse> persisted = OBJECT_MAPPER.readValue(new File(cacheFile),
+                        new TypeReference<LinkedHashMap<String, CachedResponse>>() { });
+                synchronized (entries) {
+                    persisted.forEach(this::putEntry);
+                    dirty = false;
+                }
+                log.info("Loaded {} cached GitHub responses from {}", size(), cacheFile);
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable GitHub response cache {}: {}", cacheFile, e.getMessage());
+            }
+        }
+        if (persistIntervalMs > 0) {
+            persister = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "github-cache-persister");
+                thread.setDaemon(true);
+                return thread;
+            });
+            persister.scheduleWithFixedDelay(this::persist, persistIntervalMs, persistIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (persister != null) {
+            persister.shutdownNow();
+        }
+        persist();
+    }
+    
+    /**
+     * Write the cache to disk if it changed since the last write
+     * The file is replaced atomically, so a crash while writing leaves the previous version
+     */
+    public void persist() {
+        if (!isPersistent()) {
+            return;
+        }
+        Map<String, CachedResponse> snapshot;
+        synchronized (entries) {
+            if (!dirty) {
+                return;
+            }
+            snapshot = new LinkedHashMap<>(entries);
+            dirty = false;
+        }
+        Path target = Paths.get(cacheFile);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            OBJECT_MAPPER.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Persisted {} cached GitHub responses to {}", snapshot.size(), cacheFile);
+        } catch (IOException e) {
+            synchronized (entries) {
+                dirty = true;
+            }
+            log.warn("Failed to persist GitHub response cache to {}: {}", cacheFile, e.getMessage());
+        }
+    }
+    
+    /**
+     * @return the cached response for a URL, or null when absent or caching is disabled
+     */
+    public CachedResponse get(String url) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        synchronized (entries) {
+            return entries.get(url);
+        }
+    }
+    
+    /**
+     * Cache a response if it carries at least one validator and fits within the byte bound
+     */
+    public void put(String url, CachedResponse response) {
+        if (maxEntries <= 0 || (response.getEtag() == null && response.getLastModified() == null)) {
+            return;
+        }
+        synchronized (entries) {
+            putEntry(url, response);
+        }
+    }
+    
+    /**
+     * Insert or replace an entry, then evict least recently used entries until both bounds hold
+     */
+    private void putEntry(String url, CachedResponse response) {
+        CachedResponse replaced = entries.remove(url);
+        if (replaced != null) {
+            totalBytes -= weigh(url, replaced);
+        }
+        dirty = true;
+        long weight = weigh(url, response);
+        if (weight > maxBytes) {
+            return;
+        }
+        entries.put(url, response);
+        totalBytes += weight;
+        Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || totalBytes > maxBytes) {
+            Map.Entry<String, CachedResponse> evicted = eldest.next();
+            totalBytes -= weigh(evicted.getKey(), evicted.getValue());
+            eldest.remove();
+        }
+    }
+    
+    /**
+     * Approximate heap held by an entry: the body plus the URL and validator strings
+     */
+    private static long weigh(String url, CachedResponse response) {
+        return (response.getBody() != null ? response.getBody().length : 0) + length(url) 
+                + length(response.getEtag()) + length(response.getLastModified()) + length(response.getLinkHeader());
+    }
+    
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+    
+    /**
+     * Bytes of the cached bodies and headers
+     */
+    public long weight() {
+        synchronized (entries) {
+            return totalBytes;
+        }
+    }
+    
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+    
+    private boolean isPersistent() {
+        return maxEntries > 0 && cacheFile != null && !cacheFile.isEmpty();
+    }
+    
+    /**
+     * Response body plus the headers needed to revalidate and paginate it
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CachedResponse {
+        private String etag;
+        private String lastModified;
+        private String linkHeader;
+        private byte[] body;
+    }
+}
@@ -0,0 +1,80 @@
+package com.connector.repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for blocking GitHub and Firestore calls
+ * With virtual threads requested and available (Java 21+), every task gets its own virtual thread and
+ * callers bound concurrency themselves; otherwise a fixed pool of named daemon platform threads is used.
+ * Virtual threads are looked up reflectively so the connector still builds and runs on Java 17.
+ */
+@Slf4j
+public final class IoExecutors {
+    
+    private static final Method OF_VIRTUAL = lookup(Thread.class, "ofVirtual");
+    private static final Method NAME = lookup("java.lang.Thread$Builder$OfVirtual", "name", String.class, long.class);
+    private static final Method FACTORY = lookup("java.lang.Thread$Builder", "factory");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR =
+            lookup(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+    
+    private IoExecutors() {
+    }
+    
+    /**
+     * True when the running JVM supports virtual threads
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return OF_VIRTUAL != null && NAME != null && FACTORY != null && NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+    
+    /**
+     * Create an executor for blocking calls
+     * @param name thread name prefix
+     * @param platformThreads pool size when platform threads are used
+     * @param virtual prefer one virtual thread per task; falls back to platform threads before Java 21
+     */
+    public static ExecutorService newExecutor(String name, int platformThreads, boolean virtual) {
+        if (virtual) {
+            if (isVirtualThreadsSupported()) {
+                try {
+                    Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name + "-", 0L);
+                    return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, FACTORY.invoke(builder));
+                } catch (ReflectiveOperationException e) {
+                    log.warn("Failed to create virtual thread executor for {}, using platform threads: {}",
+                            name, e.getMessage());
+                }
+            } else {
+                log.warn("Virtual threads need Java 21 or later (running {}), using platform threads for {}",
+                        Runtime.version().feature(), name);
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, platformThreads), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    private static Method lookup(String className, String methodName, Class<?>... parameterTypes) {
+        try {
+            return lookup(Class.forName(className), methodName, parameterTypes);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+    
+    private static Method lookup(Class<?> type, String methodName, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(methodName, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.connector.repository;
+
+import com.connector.model.Issue;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Callback receiving stored issues chunk by chunk while a collection is streamed
+ */
+@FunctionalInterface
+public interface IssueChunkHandler {
+    
+    /**
+     * Handle one chunk of issues; called in document ID order
+     * @throws IOException if the chunk cannot be written to its destination
+     */
+    void handle(List<Issue> issues) throws IOException;
+}
@@ -0,0 +1,21 @@
+package com.connector.repository;
+
+import com.connector.model.Issue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a GitHub GraphQL issues connection
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueCursorPage {
+    private List<Issue> issues;
+    private boolean hasNextPage;
+    /** Cursor to pass as after for the following page */
+    private String endCursor;
+}
@@ -0,0 +1,181 @@
+package com.connector.repository;
+
+import com.connector.model.Issue;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.FieldValue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps issues to and from their Firestore document representation
+ * Documents are written in schema version 2: short field names, native Timestamps for dates and no id field,
+ * since the document ID is the issue ID. Version 1 documents (no v field, snake_case names, ISO date strings)
+ * are still read until the schema migration has rewritten them.
+ */
+public final class IssueDocumentMapper {
+    
+    /** Schema version written by toDocument */
+    public static final int SCHEMA_VERSION = 2;
+    public static final String SCHEMA_VERSION_FIELD = "v";
+    
+    public static final String TITLE_FIELD = "t";
+    public static final String CREATED_AT_FIELD = "c";
+    public static final String STATE_FIELD = "s";
+    public static final String URL_FIELD = "u";
+    public static final String REPOSITORY_FIELD = "r";
+    public static final String UPDATED_AT_FIELD = "m";
+    /** Document field holding the content hash of the mapped fields */
+    public static final String CONTENT_HASH_FIELD = "h";
+    /** Content hash field of version 1 documents */
+    public static final String LEGACY_CONTENT_HASH_FIELD = "content_hash";
+    
+    /** Fields of version 1 documents, removed when a document is migrated */
+    public static final List<String> LEGACY_FIELDS = List.of(
+            "id", "title", "created_at", "state", "html_url", "repository", "updated_at", LEGACY_CONTENT_HASH_FIELD);
+    
+    /**
+     * Fields fromDocument reads, in either schema; projections of issue lists select these and skip the hashes
+     */
+    public static final List<String> ISSUE_FIELDS = List.of(
+            SCHEMA_VERSION_FIELD, TITLE_FIELD, CREATED_AT_FIELD, STATE_FIELD, URL_FIELD, REPOSITORY_FIELD, UPDATED_AT_FIELD,
+            "title", "created_at", "state", "html_url", "repository", "updated_at");
+    
+    /** Fields read by change detection, in either schema */
+    public static final List<String> CONTENT_HASH_FIELDS = List.of(CONTENT_HASH_FIELD, LEGACY_CONTENT_HASH_FIELD);
+    
+    /** Fields holding the issue's updated_at, in either schema */
+    public static final List<String> UPDATED_AT_FIELDS = List.of(UPDATED_AT_FIELD, "updated_at");
+    
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private IssueDocumentMapper() {
+    }
+    
+    /**
+     * Convert Issue object to a Firestore document in the current schema
+     */
+    public static Map<String, Object> toDocument(Issue issue) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(SCHEMA_VERSION_FIELD, SCHEMA_VERSION);
+        data.put(TITLE_FIELD, issue.getTitle());
+        data.put(CREATED_AT_FIELD, toTimestamp(issue.getCreatedAt()));
+        data.put(STATE_FIELD, issue.getState());
+        data.put(URL_FIELD, issue.getHtmlUrl());
+        data.put(REPOSITORY_FIELD, issue.getRepository());
+        if (issue.getUpdatedAt() != null) {
+            data.put(UPDATED_AT_FIELD, toTimestamp(issue.getUpdatedAt()));
+        }
+        data.put(CONTENT_HASH_FIELD, contentHash(issue));
+        return data;
+    }
+    
+    /**
+     * Fields to update a stored document in either schema with: the current schema's fields, plus deletes for
+     * the version 1 fields and for an updated_at the issue no longer has
+     */
+    public static Map<String, Object> toUpdate(Issue issue) {
+        Map<String, Object> update = toDocument(issue);
+        LEGACY_FIELDS.forEach(field -> update.put(field, FieldValue.delete()));
+        update.putIfAbsent(UPDATED_AT_FIELD, FieldValue.delete());
+        return update;
+    }
+    
+    /**
+     * 64-bit FNV-1a hash of the issue's content, so an unchanged issue maps to the same hash across syncs
+     * The hash covers the issue, not its document, so it is the same in every schema version. updated_at is left
+     * out: GitHub bumps it for comments, labels and reactions that change none of the stored fields, and it is
+     * only used to order writes. The stored updated_at is therefore that of the last content change.
+     * Never returns {@link IssueIdIndex#NO_HASH}
+     */
+    public static long contentHash(Issue issue) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = mix(hash, String.valueOf(issue.getId()));
+        hash = mix(hash, issue.getTitle());
+        hash = mix(hash, issue.getCreatedAt() != null ? issue.getCreatedAt().format(DATE_TIME_FORMATTER) : null);
+        hash = mix(hash, issue.getState());
+        hash = mix(hash, issue.getHtmlUrl());
+        hash = mix(hash, issue.getRepository());
+        return hash == IssueIdIndex.NO_HASH ? 1L : hash;
+    }
+    
+    /**
+     * Fold one field into the hash; a separator byte keeps ("ab", "c") and ("a", "bc") apart
+     */
+    private static long mix(long hash, String value) {
+        if (value != null) {
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+            }
+        }
+        return (hash ^ (value != null ? 0x1f : 0x00)) * FNV_PRIME;
+    }
+    
+    /**
+     * Schema version of a stored document; 1 for documents written before versioning
+     */
+    public static int schemaVersion(Map<String, Object> data) {
+        Object version = data.get(SCHEMA_VERSION_FIELD);
+        return version instanceof Number ? ((Number) version).intValue() : 1;
+    }
+    
+    /**
+     * updated_at of a stored document in either schema, or null if it has none
+     * @param data the document, or at least its UPDATED_AT_FIELDS
+     */
+    public static LocalDateTime updatedAt(Map<String, Object> data) {
+        Object updatedAt = data.get(UPDATED_AT_FIELD);
+        if (updatedAt instanceof Timestamp) {
+            return fromTimestamp((Timestamp) updatedAt);
+        }
+        Object legacyUpdatedAt = data.get("updated_at");
+        return legacyUpdatedAt instanceof String ? LocalDateTime.parse((String) legacyUpdatedAt, DATE_TIME_FORMATTER) : null;
+    }
+    
+    /**
+     * Convert a Firestore document in either schema to an Issue
+     */
+    public static Issue fromDocument(Map<String, Object> data, Long id) {
+        if (schemaVersion(data) >= SCHEMA_VERSION) {
+            return new Issue(id, (String) data.get(TITLE_FIELD),
+                    fromTimestamp((Timestamp) data.get(CREATED_AT_FIELD)),
+                    (String) data.get(STATE_FIELD),
+                    (String) data.get(URL_FIELD),
+                    (String) data.get(REPOSITORY_FIELD),
+                    fromTimestamp((Timestamp) data.get(UPDATED_AT_FIELD)));
+        }
+        return fromLegacyDocument(data, id);
+    }
+    
+    private static Issue fromLegacyDocument(Map<String, Object> data, Long id) {
+        String title = (String) data.get("title");
+        String createdAtStr = (String) data.get("created_at");
+        String state = (String) data.get("state");
+        String htmlUrl = (String) data.get("html_url");
+        String repository = (String) data.get("repository");
+        String updatedAtStr = (String) data.get("updated_at");
+        
+        LocalDateTime createdAt = LocalDateTime.parse(createdAtStr, DATE_TIME_FORMATTER);
+        LocalDateTime updatedAt = updatedAtStr != null ? LocalDateTime.parse(updatedAtStr, DATE_TIME_FORMATTER) : null;
+        
+        return new Issue(id, title, createdAt, state, htmlUrl, repository, updatedAt);
+    }
+    
+    /**
+     * Issue dates are UTC, as GitHub reports them
+     */
+    static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.ofTimeSecondsAndNanos(dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano()) : null;
+    }
+    
+    static LocalDateTime fromTimestamp(Timestamp timestamp) {
+        return timestamp != null ? LocalDateTime.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos(), ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.connector.repository;
+
+import com.connector.model.Issue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An issues event delivered by a GitHub webhook
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueEvent {
+    /** What happened to the issue: opened, edited, closed, reopened, labeled, deleted, ... */
+    private String action;
+    /** The issue as it is after the event, with its repository set from the payload */
+    private Issue issue;
+}
@@ -0,0 +1,244 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Local index of the issues stored in Firestore: issue ID to content hash of the stored document
+ * An open-addressing hash map of primitive longs, kept in a memory-mapped file when one is configured
+ * so it survives restarts without rescanning the collection. IDs must be positive; 0 marks a free slot.
+ * The index only learns about writes made by this process, so it is exact for a single writer.
+ */
+@Component
+@Slf4j
+public class IssueIdIndex {
+    
+    /** Hash recorded for a stored document whose content hash is not known */
+    public static final long NO_HASH = 0L;
+    
+    private static final long MAGIC = 0x4944_5849_4E44_0002L;
+    /** magic (8), capacity (4), size (4), complete flag (4), padding (4) */
+    private static final int HEADER_BYTES = 24;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int COMPLETE_OFFSET = 16;
+    private static final int MIN_CAPACITY = 1024;
+    /** Issue ID (8) followed by content hash (8) */
+    private static final int SLOT_BYTES = 16;
+    
+    private final boolean enabled;
+    private final String file;
+    
+    private ByteBuffer buffer;
+    private int capacity;
+    private int size;
+    private boolean complete;
+    
+    @Autowired
+    public IssueIdIndex(ConnectorConfig config) {
+        this(config.isIdIndexEnabled(), config.getIdIndexFile());
+    }
+    
+    public IssueIdIndex(boolean enabled, String file) {
+        this.enabled = enabled;
+        this.file = file;
+    }
+    
+    /**
+     * Open the index file, or start an empty index that still needs bootstrapping
+     */
+    @PostConstruct
+    public synchronized void load() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path path = path();
+        if (path != null && Files.isRegularFile(path) && Files.size(path) >= HEADER_BYTES) {
+            ByteBuffer existing = map(path, Files.size(path));
+            int storedCapacity = existing.getInt(CAPACITY_OFFSET);
+            if (existing.getLong(0) == MAGIC && Integer.bitCount(storedCapacity) == 1 
+                    && Files.size(path) == HEADER_BYTES + (long) storedCapacity * SLOT_BYTES) {
+                buffer = existing;
+                capacity = storedCapacity;
+                size = existing.getInt(SIZE_OFFSET);
+                complete = existing.getInt(COMPLETE_OFFSET) == 1;
+                log.info("Loaded issue ID index from {}: {} IDs, complete={}", path, size, complete);
+                return;
+            }
+            log.warn("Ignoring unreadable issue ID index at {}, it will be rebuilt", path);
+        }
+        allocate(MIN_CAPACITY);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * True once every ID in the collection has been loaded, so a missing ID means a new issue
+     */
+    public synchronized boolean isComplete() {
+        return enabled && complete;
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    public synchronized boolean contains(long id) {
+        if (!enabled || id <= 0) {
+            return false;
+        }
+        return buffer.getLong(slotOffset(findSlot(id))) == id;
+    }
+    
+    /**
+     * Content hash of the stored document, or {@link #NO_HASH} if the ID is absent or its hash unknown
+     */
+    public synchronized long hashOf(long id) {
+        if (!contains(id)) {
+            return NO_HASH;
+        }
+        return buffer.getLong(slotOffset(findSlot(id)) + Long.BYTES);
+    }
+    
+    /**
+     * Record that the issue is stored with the given content hash
+     */
+    public synchronized void put(long id, long contentHash) {
+        if (!enabled || id <= 0) {
+            return;
+        }
+        if ((size + 1) * 2L > capacity) {
+            resize(capacity * 2);
+        }
+        int offset = slotOffset(findSlot(id));
+        if (buffer.getLong(offset) != id) {
+            buffer.putLong(offset, id);
+            size++;
+            buffer.putInt(SIZE_OFFSET, size);
+        }
+        buffer.putLong(offset + Long.BYTES, contentHash);
+    }
+    
+    public synchronized void putAll(Map<Long, Long> contentHashes) {
+        contentHashes.forEach(this::put);
+    }
+    
+    /**
+     * Record that the index now covers the whole collection and flush it to disk
+     */
+    public synchronized void markComplete() {
+        if (!enabled) {
+            return;
+        }
+        complete = true;
+        buffer.putInt(COMPLETE_OFFSET, 1);
+        flush();
+    }
+    
+    @PreDestroy
+    public synchronized void flush() {
+        if (buffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) buffer).force();
+        }
+    }
+    
+    /**
+     * Linear probing from a mixed hash; returns the slot holding the ID or the free slot where it belongs
+     */
+    private int findSlot(long id) {
+        int mask = capacity - 1;
+        long hash = id * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (true) {
+            long value = buffer.getLong(slotOffset(slot));
+            if (value == 0 || value == id) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+    
+    private static int slotOffset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+    
+    private void resize(int newCapacity) {
+        long[] ids = new long[size];
+        long[] hashes = new long[size];
+        int count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            long value = buffer.getLong(slotOffset(slot));
+            if (value != 0) {
+                ids[count] = value;
+                hashes[count++] = buffer.getLong(slotOffset(slot) + Long.BYTES);
+            }
+        }
+        boolean wasComplete = complete;
+        allocate(newCapacity);
+        for (int i = 0; i < count; i++) {
+            int offset = slotOffset(findSlot(ids[i]));
+            buffer.putLong(offset, ids[i]);
+            buffer.putLong(offset + Long.BYTES, hashes[i]);
+        }
+        size = count;
+        buffer.putInt(SIZE_OFFSET, size);
+        complete = wasComplete;
+        buffer.putInt(COMPLETE_OFFSET, complete ? 1 : 0);
+    }
+    
+    /**
+     * Replace the table with an empty one of the given capacity; a file-backed index is recreated
+     * from scratch, so a crash mid-resize leaves an incomplete index that is rebuilt on restart
+     */
+    private void allocate(int newCapacity) {
+        long bytes = HEADER_BYTES + (long) newCapacity * SLOT_BYTES;
+        Path path = path();
+        if (path == null) {
+            buffer = ByteBuffer.allocate((int) bytes);
+        } else {
+            try {
+                Files.deleteIfExists(path);
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                buffer = map(path, bytes);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to create issue ID index file " + path, e);
+            }
+        }
+        capacity = newCapacity;
+        size = 0;
+        complete = false;
+        buffer.putLong(0, MAGIC);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putInt(SIZE_OFFSET, 0);
+        buffer.putInt(COMPLETE_OFFSET, 0);
+    }
+    
+    private static MappedByteBuffer map(Path path, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, 
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+    
+    private Path path() {
+        return file == null || file.isBlank() ? null : Paths.get(file);
+    }
+}
@@ -0,0 +1,29 @@
+package com.connector.repository;
+
+import com.connector.model.Issue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A single page of issues returned by the GitHub API
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssuePage {
+    private int pageNumber;
+    private List<Issue> issues;
+    /** True when GitHub answered 304 and the page was served from the response cache */
+    private boolean notModified;
+    /** Wall time spent fetching the page from GitHub, retries included */
+    private long fetchNanos;
+    /** Time spent parsing the page body into issues */
+    private long parseNanos;
+    
+    public IssuePage(int pageNumber, List<Issue> issues, boolean notModified) {
+        this(pageNumber, issues, notModified, 0, 0);
+    }
+}
@@ -0,0 +1,16 @@
+package com.connector.repository;
+
+/**
+ * Callback receiving issue pages as they are fetched from GitHub
+ * Pages are delivered in order on the calling thread
+ */
+@FunctionalInterface
+public interface IssuePageHandler {
+    
+    /**
+     * Handle a single page of issues
+     * @param page the fetched page
+     * @throws RepositoryException if the page cannot be processed; stops the crawl
+     */
+    void handle(IssuePage page) throws RepositoryException;
+}
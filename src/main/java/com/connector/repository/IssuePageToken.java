@@ -0,0 +1,40 @@
+package com.connector.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque page tokens wrapping the ID of the last document of a page
+ */
+public final class IssuePageToken {
+    
+    private static final String PREFIX = "after:";
+    
+    private IssuePageToken() {
+    }
+    
+    public static String encode(String lastDocumentId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastDocumentId).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * @return the document ID to start after, or null for the first page
+     * @throws IllegalArgumentException if the token was not issued by {@link #encode(String)}
+     */
+    public static String decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+        if (!value.startsWith(PREFIX) || value.length() == PREFIX.length()) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+        return value.substring(PREFIX.length());
+    }
+}
@@ -1,6 +1,7 @@
 package com.connector.repository;
 
 import com.connector.model.Issue;
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,12 +36,13 @@ public interface IssueRepository {
     boolean existsById(Long id) throws RepositoryException;
     
     /**
-     * Save multiple issues in batch
+     * Save multiple issues in batch: new issues are inserted, changed ones updated, and issues whose stored
+     * content is unchanged, or whose stored version is newer, are skipped
      * @param issues list of issues to save
-     * @return list of saved issues
+     * @return result containing the saved issues and per-chunk inserted, updated and unchanged counts
      * @throws RepositoryException if batch save operation fails
      */
-    List<Issue> saveAll(List<Issue> issues) throws RepositoryException;
+    BatchSaveResult saveAll(List<Issue> issues) throws RepositoryException;
     
     /**
      * Find all issues
@@ -48,5 +50,23 @@ public interface IssueRepository {
      * @throws RepositoryException if find operation fails
      */
     List<Issue> findAll() throws RepositoryException;
+    
+    /**
+     * Find one page of issues in document ID order
+     * @param limit maximum number of issues to return
+     * @param pageToken token from a previous page, or null for the first page
+     * @return the page and the token of the next one
+     * @throws IllegalArgumentException if the page token is invalid
+     * @throws RepositoryException if find operation fails
+     */
+    IssueSlice findPage(int limit, String pageToken) throws RepositoryException;
+    
+    /**
+     * Stream every issue to the handler in bounded chunks, so memory does not grow with the collection
+     * @param handler receives each chunk as it is read
+     * @throws RepositoryException if a chunk cannot be read
+     * @throws IOException if the handler fails to write a chunk
+     */
+    void streamAll(IssueChunkHandler handler) throws RepositoryException, IOException;
 }
 
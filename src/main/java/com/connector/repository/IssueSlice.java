@@ -0,0 +1,20 @@
+package com.connector.repository;
+
+import com.connector.model.Issue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of stored issues plus the token for the next page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueSlice {
+    private List<Issue> issues;
+    /** Opaque cursor for the following page, null on the last page */
+    private String nextPageToken;
+}
@@ -0,0 +1,446 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.model.Issue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped log of issue writes not yet committed to Firestore
+ * saveAll appends each chunk before reading or committing it and acknowledges it after the commit, so
+ * issues whose write failed survive a Firestore outage and a restart, and are replayed from here instead
+ * of being dropped. The write position in the header only moves past complete records, so a record torn
+ * by a process crash is never read back; the OS writes the mapped pages out, and they are forced at shutdown.
+ * Once every record is acknowledged the log starts over from the beginning; when it is full, the
+ * unacknowledged records are copied into a larger file that atomically replaces it. A record Firestore rejects
+ * for good is moved to a dead-letter file next to the log (the log's name plus .dead, one JSON line per write).
+ */
+@Component
+@Slf4j
+public class IssueWriteAheadLog {
+    
+    private static final long MAGIC = 0x4953_5355_4557_0001L;
+    /** magic (8), write position (4), padding (4) */
+    private static final int HEADER_BYTES = 16;
+    private static final int POSITION_OFFSET = 8;
+    /** status (1), padding (3), payload length (4), payload CRC32 (4) */
+    private static final int RECORD_HEADER_BYTES = 12;
+    private static final int LENGTH_OFFSET = 4;
+    private static final int CRC_OFFSET = 8;
+    private static final byte FREE = 0;
+    private static final byte PENDING = 1;
+    private static final byte ACKNOWLEDGED = 2;
+    private static final int MIN_CAPACITY = 1 << 20;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    
+    private final String file;
+    
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int writePosition;
+    private long nextSequence;
+    /** Unacknowledged records by sequence number, in log order */
+    private final Map<Long, Entry> pending = new LinkedHashMap<>();
+    /** Sequence number of the newest unacknowledged record of each issue */
+    private final Map<Long, Long> latestByIssue = new HashMap<>();
+    
+    /**
+     * A logged write handed out for replay
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class PendingWrite {
+        private final long sequence;
+        private final Issue issue;
+    }
+    
+    private static final class Entry {
+        private final long issueId;
+        private int position;
+        /** Owned by a save or replay in progress, which will acknowledge or release it */
+        private boolean inFlight;
+        
+        private Entry(long issueId, int position, boolean inFlight) {
+            this.issueId = issueId;
+            this.position = position;
+            this.inFlight = inFlight;
+        }
+    }
+    
+    @Autowired
+    public IssueWriteAheadLog(ConnectorConfig config) {
+        this(config.getWalFile());
+    }
+    
+    /**
+     * @param file log file; blank disables the log
+     */
+    public IssueWriteAheadLog(String file) {
+        this.file = file;
+    }
+    
+    /**
+     * Open the log file and recover its unacknowledged records, which become available for replay
+     */
+    @PostConstruct
+    public synchronized void load() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        Path path = path();
+        if (Files.isRegularFile(path) && Files.size(path) >= HEADER_BYTES) {
+            MappedByteBuffer existing = map(path, Files.size(path));
+            if (existing.getLong(0) == MAGIC) {
+                buffer = existing;
+                capacity = (int) Files.size(path);
+                recover(existing.getInt(POSITION_OFFSET));
+                log.info("Loaded write-ahead log from {}: {} unacknowledged writes", path, pending.size());
+                return;
+            }
+            Path corrupt = Paths.get(file + ".corrupt-" + System.currentTimeMillis());
+            Files.move(path, corrupt);
+            log.error("Moved unreadable write-ahead log {} aside to {}", path, corrupt);
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        rewrite(MIN_CAPACITY);
+    }
+    
+    public boolean isEnabled() {
+        return file != null && !file.isBlank();
+    }
+    
+    /**
+     * Unacknowledged writes, including those currently being committed
+     */
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+    
+    /**
+     * Log issues about to be written; the caller owns the records until it acknowledges or releases them
+     * An older unacknowledged record of the same issue is superseded and will not be replayed
+     * @return sequence numbers of the records, in input order
+     * @throws RepositoryException if the log cannot grow to hold the records
+     */
+    public synchronized long[] append(List<Issue> issues) throws RepositoryException {
+        if (!isEnabled()) {
+            return new long[0];
+        }
+        long[] sequences = new long[issues.size()];
+        for (int i = 0; i < issues.size(); i++) {
+            Issue issue = issues.get(i);
+            byte[] payload = encode(issue);
+            ensureCapacity(RECORD_HEADER_BYTES + payload.length);
+            int position = writePosition;
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            buffer.putInt(position + LENGTH_OFFSET, payload.length);
+            buffer.putInt(position + CRC_OFFSET, (int) crc.getValue());
+            buffer.put(position + RECORD_HEADER_BYTES, payload);
+            buffer.put(position, PENDING);
+            writePosition = position + RECORD_HEADER_BYTES + payload.length;
+            buffer.putInt(POSITION_OFFSET, writePosition);
+            
+            long sequence = nextSequence++;
+            pending.put(sequence, new Entry(issue.getId(), position, true));
+            Long superseded = latestByIssue.put(issue.getId(), sequence);
+            if (superseded != null && !pending.get(superseded).inFlight) {
+                acknowledge(superseded);
+            }
+            sequences[i] = sequence;
+        }
+        return sequences;
+    }
+    
+    /**
+     * Mark records as committed to Firestore
+     */
+    public synchronized void acknowledge(long[] sequences) {
+        for (long sequence : sequences) {
+            acknowledge(sequence);
+        }
+    }
+    
+    /**
+     * Hand records whose write failed back to the log, to be replayed later
+     */
+    public synchronized void release(long[] sequences) {
+        for (long sequence : sequences) {
+            Entry entry = pending.get(sequence);
+            if (entry == null) {
+                continue;
+            }
+            entry.inFlight = false;
+            if (!Long.valueOf(sequence).equals(latestByIssue.get(entry.issueId))) {
+                acknowledge(sequence);
+            }
+        }
+    }
+    
+    /**
+     * Take up to max unacknowledged records for replay, oldest first, skipping those owned by a save in progress
+     */
+    public synchronized List<PendingWrite> claim(int max) {
+        List<PendingWrite> claimed = new ArrayList<>();
+        for (Map.Entry<Long, Entry> record : pending.entrySet()) {
+            if (claimed.size() >= max) {
+                break;
+            }
+            Entry entry = record.getValue();
+            if (!entry.inFlight) {
+                entry.inFlight = true;
+                claimed.add(new PendingWrite(record.getKey(), decode(payload(entry.position))));
+            }
+        }
+        return claimed;
+    }
+    
+    /**
+     * Acknowledge claimed records that a newer record of the same issue has superseded since they were claimed,
+     * so a replay does not write them over the newer version
+     * @return the claimed records that are still the newest of their issue, in claim order
+     */
+    public synchronized List<PendingWrite> dropSuperseded(List<PendingWrite> claimed) {
+        List<PendingWrite> latest = new ArrayList<>(claimed.size());
+        for (PendingWrite write : claimed) {
+            if (Long.valueOf(write.getSequence()).equals(latestByIssue.get(write.getIssue().getId()))) {
+                latest.add(write);
+            } else {
+                acknowledge(write.getSequence());
+            }
+        }
+        return latest;
+    }
+    
+    /**
+     * Set aside a claimed record whose write Firestore rejects for good, so it stops blocking the records behind
+     * it: the write is appended to the dead-letter file with the reason, then acknowledged
+     * @throws RepositoryException if the dead-letter file cannot be written; the record stays claimed
+     */
+    public synchronized void quarantine(PendingWrite write, String reason) throws RepositoryException {
+        Issue issue = write.getIssue();
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("sequence", write.getSequence());
+        line.put("id", issue.getId());
+        line.put("title", issue.getTitle());
+        line.put("created_at", Objects.toString(issue.getCreatedAt(), null));
+        line.put("state", issue.getState());
+        line.put("html_url", issue.getHtmlUrl());
+        line.put("repository", issue.getRepository());
+        line.put("updated_at", Objects.toString(issue.getUpdatedAt(), null));
+        line.put("reason", reason);
+        line.put("quarantined_at", Instant.now().toString());
+        Path deadLetters = Paths.get(file + ".dead");
+        try {
+            Files.write(deadLetters, (OBJECT_MAPPER.writeValueAsString(line) + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new RepositoryException("Failed to write dead-letter file " + deadLetters, e);
+        }
+        acknowledge(write.getSequence());
+        log.error("Moved write of issue {} to {}: {}", issue.getId(), deadLetters, reason);
+    }
+    
+    @PreDestroy
+    public synchronized void flush() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+    
+    private void acknowledge(long sequence) {
+        Entry entry = pending.remove(sequence);
+        if (entry == null) {
+            return;
+        }
+        buffer.put(entry.position, ACKNOWLEDGED);
+        latestByIssue.remove(entry.issueId, sequence);
+        if (pending.isEmpty()) {
+            writePosition = HEADER_BYTES;
+            buffer.putInt(POSITION_OFFSET, writePosition);
+        }
+    }
+    
+    /**
+     * Scan the records up to the stored write position; the scan stops at a torn or corrupt record
+     */
+    private void recover(int storedPosition) {
+        int position = HEADER_BYTES;
+        int end = Math.min(Math.max(storedPosition, HEADER_BYTES), capacity);
+        while (position + RECORD_HEADER_BYTES <= end) {
+            byte status = buffer.get(position);
+            int length = buffer.getInt(position + LENGTH_OFFSET);
+            if (status == FREE || length <= 0 || position + RECORD_HEADER_BYTES + length > end) {
+                break;
+            }
+            byte[] payload = payload(position);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + CRC_OFFSET)) {
+                log.warn("Write-ahead log record at offset {} is corrupt; ignoring it and everything after it", position);
+                break;
+            }
+            if (status == PENDING) {
+                long sequence = nextSequence++;
+                long issueId = decode(payload).getId();
+                pending.put(sequence, new Entry(issueId, position, false));
+                Long superseded = latestByIssue.put(issueId, sequence);
+                if (superseded != null) {
+                    acknowledge(superseded);
+                }
+            }
+            position += RECORD_HEADER_BYTES + length;
+        }
+        writePosition = position;
+        buffer.putInt(POSITION_OFFSET, writePosition);
+    }
+    
+    private void ensureCapacity(int bytes) throws RepositoryException {
+        if (writePosition + bytes <= capacity) {
+            return;
+        }
+        long live = HEADER_BYTES + bytes;
+        for (Entry entry : pending.values()) {
+            live += RECORD_HEADER_BYTES + buffer.getInt(entry.position + LENGTH_OFFSET);
+        }
+        if (live * 2 > MAX_CAPACITY) {
+            throw new RepositoryException("Write-ahead log is full: " + pending.size() + " unacknowledged writes");
+        }
+        int newCapacity = Math.max(capacity, MIN_CAPACITY);
+        while (newCapacity < live * 2) {
+            newCapacity *= 2;
+        }
+        try {
+            rewrite(newCapacity);
+        } catch (IOException e) {
+            throw new RepositoryException("Failed to grow write-ahead log " + file, e);
+        }
+    }
+    
+    /**
+     * Copy the unacknowledged records into a new file of the given capacity and swap it in atomically,
+     * so a crash leaves either the old log or the new one
+     */
+    private void rewrite(int newCapacity) throws IOException {
+        Path path = path();
+        Path temporary = Paths.get(file + ".tmp");
+        Files.deleteIfExists(temporary);
+        MappedByteBuffer rewritten = map(temporary, newCapacity);
+        rewritten.putLong(0, MAGIC);
+        int position = HEADER_BYTES;
+        Iterator<Entry> entries = pending.values().iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            int recordBytes = RECORD_HEADER_BYTES + buffer.getInt(entry.position + LENGTH_OFFSET);
+            rewritten.put(position, buffer, entry.position, recordBytes);
+            entry.position = position;
+            position += recordBytes;
+        }
+        rewritten.putInt(POSITION_OFFSET, position);
+        rewritten.force();
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        buffer = rewritten;
+        capacity = newCapacity;
+        writePosition = position;
+        log.info("Write-ahead log {} now holds {} unacknowledged writes in {} bytes", path, pending.size(), capacity);
+    }
+    
+    private byte[] payload(int position) {
+        byte[] payload = new byte[buffer.getInt(position + LENGTH_OFFSET)];
+        buffer.get(position + RECORD_HEADER_BYTES, payload);
+        return payload;
+    }
+    
+    /**
+     * Binary form of an issue; the ID comes first
+     */
+    static byte[] encode(Issue issue) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(issue.getId());
+            writeString(out, issue.getTitle());
+            out.writeLong(toEpochSecond(issue.getCreatedAt()));
+            writeString(out, issue.getState());
+            writeString(out, issue.getHtmlUrl());
+            writeString(out, issue.getRepository());
+            out.writeLong(toEpochSecond(issue.getUpdatedAt()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode issue " + issue.getId(), e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    static Issue decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return new Issue(in.readLong(), readString(in), fromEpochSecond(in.readLong()), readString(in),
+                    readString(in), readString(in), fromEpochSecond(in.readLong()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode write-ahead log record", e);
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+    
+    private static long toEpochSecond(LocalDateTime timestamp) {
+        return timestamp == null ? NO_TIMESTAMP : timestamp.toEpochSecond(ZoneOffset.UTC);
+    }
+    
+    private static LocalDateTime fromEpochSecond(long epochSecond) {
+        return epochSecond == NO_TIMESTAMP ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+    
+    private static MappedByteBuffer map(Path path, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+    
+    private Path path() {
+        return Paths.get(file);
+    }
+}
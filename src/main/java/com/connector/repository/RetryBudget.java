@@ -0,0 +1,35 @@
+package com.connector.repository;
+
+/**
+ * Caps the retries sent to a target at a fraction of its calls, so a struggling target sees at most
+ * (1 + ratio) times its normal load instead of a retry storm
+ * Every call deposits ratio tokens and every retry spends one; the bucket holds a small reserve so
+ * infrequent callers can still retry.
+ */
+final class RetryBudget {
+    
+    private static final double RESERVE = 10;
+    
+    private final double ratio;
+    private double tokens = RESERVE;
+    
+    RetryBudget(double ratio) {
+        this.ratio = Math.max(0, ratio);
+    }
+    
+    synchronized void onCall() {
+        tokens = Math.min(RESERVE, tokens + ratio);
+    }
+    
+    /**
+     * Spend a token for a retry
+     * @return false if the budget is exhausted and the call should fail instead
+     */
+    synchronized boolean tryRetry() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+}
@@ -1,24 +1,80 @@
 package com.connector.repository;
 
+import com.connector.model.ConnectorConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.HttpResponseException;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 /**
  * Retry handler for handling transient failures
- * Implements exponential backoff strategy
+ * Each target (GitHub, Firestore) gets its own circuit breaker, retry budget and, once registered, an adaptive
+ * concurrency limit, so an outage of one does not slow down or trip the other. Only retryable failures are
+ * retried, with full-jitter exponential backoff capped at the max delay; fatal ones (404, auth, bad payloads)
+ * fail at once and do not count against the target's health.
  */
 @Component
 @Slf4j
 public class RetryHandler {
     
-    private final int maxRetries;
-    private final long baseDelayMs;
+    public static final String GITHUB = "github";
+    public static final String FIRESTORE = "firestore";
+    private static final String DEFAULT_TARGET = "default";
+    
+    /**
+     * How a failed attempt should be handled
+     */
+    enum Failure {
+        /** Retrying cannot help: the request itself is wrong, or the caller gave up */
+        FATAL,
+        /** The target failed or timed out; worth retrying and counts towards opening its circuit */
+        RETRYABLE,
+        /** The target is healthy but pushing back; worth retrying after a backoff, shrinks its concurrency */
+        THROTTLED
+    }
+    
+    private final ConnectorConfig config;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    /** Uniform in [0, 1) */
+    private final DoubleSupplier random;
+    private final GitHubRateLimiter.Sleeper sleeper;
+    private final Map<String, Target> targets = new ConcurrentHashMap<>();
     
     public RetryHandler(int maxRetries, long baseDelayMs) {
-        this.maxRetries = maxRetries;
-        this.baseDelayMs = baseDelayMs;
+        this(maxRetries, baseDelayMs, Metrics.globalRegistry);
+    }
+    
+    public RetryHandler(int maxRetries, long baseDelayMs, MeterRegistry meterRegistry) {
+        this(ConnectorConfig.builder().maxRetries(maxRetries).retryDelayMs(baseDelayMs).build(), meterRegistry);
+    }
+    
+    public RetryHandler(ConnectorConfig config, MeterRegistry meterRegistry) {
+        this(config, meterRegistry, System::nanoTime, () -> ThreadLocalRandom.current().nextDouble(), Thread::sleep);
+    }
+    
+    RetryHandler(ConnectorConfig config, MeterRegistry meterRegistry, LongSupplier clock, DoubleSupplier random,
+                 GitHubRateLimiter.Sleeper sleeper) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.random = random;
+        this.sleeper = sleeper;
     }
     
     /**
@@ -29,40 +85,286 @@ public class RetryHandler {
      * @throws Exception if all retries fail
      */
     public <T> T executeWithRetry(Supplier<T> operation) throws Exception {
-        Exception lastException = null;
+        return executeWithRetry(DEFAULT_TARGET, operation);
+    }
+    
+    /**
+     * Execute operation against a target with retry logic
+     * Every attempt passes the target's circuit breaker and holds a slot of its concurrency limit, if it has
+     * one; the slot is given back while backing off.
+     * @param target the downstream system the operation calls
+     * @param operation the operation to execute
+     * @param <T> return type
+     * @return result of the operation
+     * @throws CircuitOpenException if the target's circuit is open
+     * @throws Exception the operation's failure if it is fatal, or if all retries fail
+     */
+    public <T> T executeWithRetry(String target, Supplier<T> operation) throws Exception {
+        return executeWithRetry(target, null, operation);
+    }
+    
+    /**
+     * Execute operation against a target with retry logic, waiting for a throttle before every attempt
+     * The throttle, such as a rate-limit governor, is awaited before the attempt takes a concurrency slot, so
+     * its wait is neither held against the limit nor sampled as the target's latency. A throttled attempt
+     * (HTTP 429) is retried as soon as the throttle allows, which the throttle is expected to have learnt from
+     * the response: it takes no backoff, no retry budget and no latency sample, and does not count as a
+     * failure of the target, though it still counts towards the maximum number of attempts.
+     * @param throttle waits until an attempt may be sent; its exceptions fail the operation without a retry
+     * @throws CircuitOpenException if the target's circuit is open
+     * @throws Exception the operation's failure if it is fatal, or if all retries fail
+     */
+    public <T> T executeWithRetry(String target, Throttle throttle, Supplier<T> operation) throws Exception {
+        Target state = target(target);
+        int maxRetries = Math.max(0, config.getMaxRetries());
+        state.budget.onCall();
         
-        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+        for (int attempt = 0; ; attempt++) {
+            if (throttle != null) {
+                throttle.await();
+            }
+            state.checkCircuit();
+            AdaptiveConcurrencyLimit limit = state.limit;
+            if (limit != null) {
+                try {
+                    limit.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Retry interrupted", e);
+                }
+            }
+            long start = clock.getAsLong();
+            long delay;
             try {
-                return operation.get();
+                T result = operation.get();
+                state.breaker.onSuccess();
+                sample(limit, clock.getAsLong() - start, null);
+                return result;
             } catch (Exception e) {
-                lastException = e;
-                
+                Failure failure = classify(e);
+                state.onFailure(e, failure);
+                if (failure == Failure.THROTTLED && throttle != null && attempt < maxRetries) {
+                    state.throttledCounter.increment();
+                    log.warn("Operation against {} was throttled (attempt {}/{}). Retrying once the throttle allows",
+                            target, attempt + 1, maxRetries + 1);
+                    continue;
+                }
+                sample(limit, clock.getAsLong() - start, failure);
+                if (failure == Failure.FATAL) {
+                    state.fatalCounter.increment();
+                    log.error("Operation against {} failed with a non-retryable error: {}", target, e.getMessage());
+                    throw e;
+                }
                 if (attempt == maxRetries) {
-                    log.error("Operation failed after {} attempts. Last error: {}", maxRetries + 1, e.getMessage());
-                    break;
+                    state.exhaustedCounter.increment();
+                    log.error("Operation against {} failed after {} attempts. Last error: {}", target, maxRetries + 1, e.getMessage());
+                    throw new RuntimeException("Operation failed after all retries", e);
+                }
+                if (!state.budget.tryRetry()) {
+                    state.budgetExhaustedCounter.increment();
+                    log.error("Retry budget for {} exhausted, not retrying. Error: {}", target, e.getMessage());
+                    throw new RuntimeException("Operation failed and the retry budget is exhausted", e);
                 }
                 
-                long delay = calculateDelay(attempt);
-                log.warn("Operation failed (attempt {}/{}). Retrying in {}ms. Error: {}", 
-                        attempt + 1, maxRetries + 1, delay, e.getMessage());
-                
-                try {
-                    Thread.sleep(delay);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Retry interrupted", ie);
+                delay = calculateDelay(attempt);
+                state.retryCounter.increment();
+                log.warn("Operation against {} failed (attempt {}/{}). Retrying in {}ms. Error: {}",
+                        target, attempt + 1, maxRetries + 1, delay, e.getMessage());
+            } finally {
+                if (limit != null) {
+                    limit.release();
                 }
             }
+            
+            try {
+                sleeper.sleep(delay);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Retry interrupted", ie);
+            }
         }
-        
-        throw new RuntimeException("Operation failed after all retries", lastException);
     }
     
     /**
-     * Calculate delay with exponential backoff
+     * Run an asynchronous call through the target's circuit breaker, without retrying it
+     * For clients that already retry on their own, such as Firestore's. The call does not hold a slot of the
+     * target's concurrency limit: callers that batch several calls acquire it around the whole batch.
+     * @return the call's future, or a future failed with CircuitOpenException if the circuit is open
      */
-    private long calculateDelay(int attempt) {
-        return baseDelayMs * (long) Math.pow(2, attempt);
+    public <T> CompletableFuture<T> callAsync(String target, Supplier<CompletableFuture<T>> call) {
+        Target state = target(target);
+        try {
+            state.checkCircuit();
+        } catch (CircuitOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            state.onFailure(e, classify(e));
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, e) -> {
+            if (e == null) {
+                state.breaker.onSuccess();
+            } else {
+                state.onFailure(e, classify(e));
+            }
+        });
+    }
+    
+    /**
+     * The target's adaptive concurrency limit, created with the given maximum on first use
+     * Once created, executeWithRetry holds a slot for every attempt against the target.
+     */
+    AdaptiveConcurrencyLimit concurrencyLimit(String target, int maxLimit) {
+        Target state = target(target);
+        synchronized (state) {
+            if (state.limit == null) {
+                AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(maxLimit,
+                        config.getConcurrencyLatencyTolerance(), clock);
+                Gauge.builder("connector.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                        .description("Current adaptive limit of calls in flight to a target")
+                        .tag("target", target)
+                        .register(meterRegistry);
+                state.limit = limit;
+            }
+            return state.limit;
+        }
+    }
+    
+    CircuitBreaker.State circuitState(String target) {
+        return target(target).breaker.getState();
+    }
+    
+    /**
+     * Sort a failure by the first cause in its chain that says whether retrying can help
+     */
+    static Failure classify(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CircuitOpenException || cause instanceof InterruptedException) {
+                return Failure.FATAL;
+            }
+            if (cause instanceof HttpResponseException) {
+                int status = ((HttpResponseException) cause).getStatusCode();
+                if (status == 429) {
+                    return Failure.THROTTLED;
+                }
+                return status == 408 || status >= 500 ? Failure.RETRYABLE : Failure.FATAL;
+            }
+            if (cause instanceof ApiException) {
+                ApiException apiException = (ApiException) cause;
+                if (apiException.getStatusCode().getCode() == StatusCode.Code.RESOURCE_EXHAUSTED) {
+                    return Failure.THROTTLED;
+                }
+                return apiException.isRetryable() ? Failure.RETRYABLE : Failure.FATAL;
+            }
+            if (cause instanceof JsonProcessingException) {
+                return Failure.FATAL;
+            }
+            if (cause instanceof IOException) {
+                return Failure.RETRYABLE;
+            }
+        }
+        if (error instanceof IllegalArgumentException || error instanceof IllegalStateException) {
+            return Failure.FATAL;
+        }
+        return Failure.RETRYABLE;
+    }
+    
+    /**
+     * Full jitter: a uniform delay up to the capped exponential backoff, so clients that failed together
+     * do not retry together
+     */
+    long calculateDelay(int attempt) {
+        long baseDelayMs = Math.max(0, config.getRetryDelayMs());
+        long maxDelayMs = Math.max(baseDelayMs, config.getRetryMaxDelayMs());
+        long backoffMs = baseDelayMs << Math.min(attempt, 30);
+        if (backoffMs < 0 || backoffMs > maxDelayMs) {
+            backoffMs = maxDelayMs;
+        }
+        return (long) (random.getAsDouble() * backoffMs);
+    }
+    
+    /**
+     * Feed an attempt's latency to the limit; throttling and target failures count as drops, fatal errors say
+     * nothing about the target's load
+     */
+    private static void sample(AdaptiveConcurrencyLimit limit, long latencyNanos, Failure failure) {
+        if (limit != null && failure != Failure.FATAL) {
+            limit.onSample(latencyNanos, failure != null);
+        }
+    }
+    
+    /**
+     * Permission to send an attempt, such as a token from a rate-limit governor
+     */
+    @FunctionalInterface
+    public interface Throttle {
+        void await() throws Exception;
+    }
+    
+    private Target target(String name) {
+        return targets.computeIfAbsent(name, Target::new);
+    }
+    
+    /**
+     * Breaker, budget, limit and meters of one target
+     */
+    private final class Target {
+        
+        private final String name;
+        private final CircuitBreaker breaker;
+        private final RetryBudget budget;
+        private volatile AdaptiveConcurrencyLimit limit;
+        private volatile Throwable lastFailure;
+        private final Counter retryCounter;
+        private final Counter exhaustedCounter;
+        private final Counter budgetExhaustedCounter;
+        private final Counter fatalCounter;
+        private final Counter rejectedCounter;
+        private final Counter throttledCounter;
+        
+        private Target(String name) {
+            this.name = name;
+            this.breaker = new CircuitBreaker(name, config.getCircuitFailureThreshold(), config.getCircuitOpenMs(), clock);
+            this.budget = new RetryBudget(config.getRetryBudgetRatio());
+            this.retryCounter = counter("connector.retry.attempts", "Retries scheduled after a failed attempt");
+            this.exhaustedCounter = counter("connector.retry.exhausted", "Operations that failed after all retries");
+            this.budgetExhaustedCounter = counter("connector.retry.budget.exhausted",
+                    "Operations that failed without a retry because the target's retry budget was spent");
+            this.fatalCounter = counter("connector.retry.fatal", "Operations that failed with a non-retryable error");
+            this.rejectedCounter = counter("connector.circuit.rejected", "Calls failed fast because the target's circuit was open");
+            this.throttledCounter = counter("connector.retry.throttled",
+                    "Attempts the target throttled, retried once the caller's throttle allowed");
+            Gauge.builder("connector.circuit.state", breaker, b -> b.getState().ordinal())
+                    .description("Circuit breaker state of a target: 0 closed, 1 half-open, 2 open")
+                    .tag("target", name)
+                    .register(meterRegistry);
+        }
+        
+        private void checkCircuit() throws CircuitOpenException {
+            if (!breaker.tryAcquire()) {
+                rejectedCounter.increment();
+                throw new CircuitOpenException(name, lastFailure);
+            }
+        }
+        
+        private void onFailure(Throwable error, Failure failure) {
+            if (failure == Failure.RETRYABLE) {
+                lastFailure = error;
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+        
+        private Counter counter(String name, String description) {
+            return Counter.builder(name)
+                    .description(description)
+                    .tag("target", this.name)
+                    .register(meterRegistry);
+        }
     }
 }
-
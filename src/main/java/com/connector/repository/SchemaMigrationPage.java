@@ -0,0 +1,20 @@
+package com.connector.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of migrating one page of issue documents to the current schema
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaMigrationPage {
+    private int scanned;
+    private int migrated;
+    /** Where the next page starts; null if the collection is empty */
+    private String lastDocumentId;
+    /** True when the page reached the end of the collection */
+    private boolean last;
+}
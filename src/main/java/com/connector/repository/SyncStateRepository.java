@@ -0,0 +1,50 @@
+package com.connector.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for per-repository sync state
+ * Stores the high-water mark used by incremental syncs and the resume point of a backfill
+ */
+public interface SyncStateRepository {
+    
+    /**
+     * Find the last seen issue update time for a GitHub repository
+     * @param repository the GitHub repository in owner/name form
+     * @return Optional containing the watermark if a previous sync recorded one
+     * @throws RepositoryException if read operation fails
+     */
+    Optional<LocalDateTime> findWatermark(String repository) throws RepositoryException;
+    
+    /**
+     * Persist the last seen issue update time for a GitHub repository
+     * @param repository the GitHub repository in owner/name form
+     * @param watermark the latest updated_at value processed
+     * @throws RepositoryException if write operation fails
+     */
+    void saveWatermark(String repository, LocalDateTime watermark) throws RepositoryException;
+    
+    /**
+     * Find where an interrupted backfill of a GitHub repository should resume
+     * @param repository the GitHub repository in owner/name form
+     * @return Optional containing the updated_at of the last issue durably written by the backfill
+     * @throws RepositoryException if read operation fails
+     */
+    Optional<LocalDateTime> findBackfillCheckpoint(String repository) throws RepositoryException;
+    
+    /**
+     * Persist the progress of a running backfill
+     * @param repository the GitHub repository in owner/name form
+     * @param checkpoint the latest updated_at value durably written
+     * @throws RepositoryException if write operation fails
+     */
+    void saveBackfillCheckpoint(String repository, LocalDateTime checkpoint) throws RepositoryException;
+    
+    /**
+     * Remove the checkpoint once a backfill has completed
+     * @param repository the GitHub repository in owner/name form
+     * @throws RepositoryException if write operation fails
+     */
+    void clearBackfillCheckpoint(String repository) throws RepositoryException;
+}
@@ -0,0 +1,164 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.model.Issue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the write-ahead log into Firestore: once at startup, then every connector.wal.replay.interval.ms
+ * Each round replays batches of one commit each until the log is empty or a batch fails for a reason that may
+ * pass, such as Firestore still being unavailable, and the rest waits for the next round. Writes Firestore
+ * rejects for good, such as an invalid or oversized document, are isolated by splitting their batch, moved to
+ * the log's dead-letter file and counted as quarantined, so they never hold back the writes behind them. Replayed issues go through the
+ * usual change detection, so a write that did reach Firestore before a crash is skipped as unchanged, and a
+ * record older than the stored issue, because a sync wrote a newer version meanwhile, is skipped as well.
+ * Replayed issues are evicted from the issue lookup cache, which the replay bypasses.
+ */
+@Component
+@Slf4j
+public class WriteAheadLogReplayer {
+    
+    /** Firestore limits a single batch commit to 500 writes */
+    private static final int MAX_BATCH_SIZE = 500;
+    
+    private final FirestoreIssueRepository issueRepository;
+    private final IssueWriteAheadLog writeAheadLog;
+    private final CachingIssueRepository issueCache;
+    private final ConnectorConfig config;
+    private final ScheduledExecutorService executor;
+    private final Counter replayedCounter;
+    private final Counter failedCounter;
+    private final Counter quarantinedCounter;
+    
+    public WriteAheadLogReplayer(FirestoreIssueRepository issueRepository, IssueWriteAheadLog writeAheadLog,
+                                 CachingIssueRepository issueCache, ConnectorConfig config, MeterRegistry meterRegistry) {
+        this.issueRepository = issueRepository;
+        this.writeAheadLog = writeAheadLog;
+        this.issueCache = issueCache;
+        this.config = config;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wal-replayer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.replayedCounter = replayCounter(meterRegistry, "replayed");
+        this.failedCounter = replayCounter(meterRegistry, "failed");
+        this.quarantinedCounter = replayCounter(meterRegistry, "quarantined");
+        Gauge.builder("connector.wal.pending", writeAheadLog, IssueWriteAheadLog::pendingCount)
+                .description("Issue writes in the write-ahead log not yet committed to Firestore")
+                .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!writeAheadLog.isEnabled()) {
+            return;
+        }
+        long intervalMs = Math.max(100, config.getWalReplayIntervalMs());
+        executor.scheduleWithFixedDelay(this::replay, 0, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("Replaying the write-ahead log every {}ms", intervalMs);
+    }
+    
+    /**
+     * Replay logged writes in batches until the log is drained or a batch fails for a reason that may pass
+     * @return issues committed or found unchanged
+     */
+    int replay() {
+        int batchSize = Math.max(1, Math.min(config.getFirestoreBatchSize(), MAX_BATCH_SIZE));
+        int[] replayed = new int[1];
+        List<IssueWriteAheadLog.PendingWrite> batch;
+        while (!(batch = writeAheadLog.claim(batchSize)).isEmpty()) {
+            batch = writeAheadLog.dropSuperseded(batch);
+            if (!batch.isEmpty() && !replayBatch(batch, replayed)) {
+                break;
+            }
+        }
+        if (replayed[0] > 0) {
+            log.info("Replayed {} writes from the write-ahead log, {} still pending", replayed[0], writeAheadLog.pendingCount());
+        }
+        return replayed[0];
+    }
+    
+    /**
+     * Replay claimed writes in one commit. A batch rejected for good is split in halves until the rejected
+     * writes are isolated and quarantined, and the writes that did commit are acknowledged.
+     * @return false if a write failed for a reason that may pass, after releasing every write not yet settled
+     */
+    private boolean replayBatch(List<IssueWriteAheadLog.PendingWrite> batch, int[] replayed) {
+        long[] sequences = batch.stream().mapToLong(IssueWriteAheadLog.PendingWrite::getSequence).toArray();
+        List<Issue> issues = batch.stream().map(IssueWriteAheadLog.PendingWrite::getIssue).collect(Collectors.toList());
+        try {
+            issueRepository.replay(issues);
+            writeAheadLog.acknowledge(sequences);
+            replayedCounter.increment(issues.size());
+            replayed[0] += issues.size();
+            return true;
+        } catch (RepositoryException | RuntimeException e) {
+            if (!isRejected(e)) {
+                writeAheadLog.release(sequences);
+                failedCounter.increment(issues.size());
+                log.warn("Write-ahead log replay failed, {} writes still pending: {}", writeAheadLog.pendingCount(), e.getMessage());
+                return false;
+            }
+            if (batch.size() > 1) {
+                int half = batch.size() / 2;
+                List<IssueWriteAheadLog.PendingWrite> rest = batch.subList(half, batch.size());
+                if (!replayBatch(batch.subList(0, half), replayed)) {
+                    writeAheadLog.release(rest.stream().mapToLong(IssueWriteAheadLog.PendingWrite::getSequence).toArray());
+                    return false;
+                }
+                return replayBatch(rest, replayed);
+            }
+            try {
+                writeAheadLog.quarantine(batch.get(0), String.valueOf(e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+                quarantinedCounter.increment();
+                return true;
+            } catch (RepositoryException quarantineFailure) {
+                writeAheadLog.release(sequences);
+                failedCounter.increment();
+                log.error("Write-ahead log replay stopped: {}", quarantineFailure.getMessage());
+                return false;
+            }
+        } finally {
+            issueCache.invalidate(issues.stream().map(Issue::getId).collect(Collectors.toList()));
+        }
+    }
+    
+    /**
+     * Whether Firestore rejected the writes themselves, such as an invalid or oversized document, as opposed to
+     * an outage, an open circuit or losing a write race, which a later round can get past
+     */
+    static boolean isRejected(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CircuitOpenException || cause instanceof InterruptedException) {
+                return false;
+            }
+        }
+        return RetryHandler.classify(e) == RetryHandler.Failure.FATAL && !FirestoreIssueRepository.isWriteConflict(e);
+    }
+    
+    private static Counter replayCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("connector.wal.replay")
+                .description("Issue writes replayed from the write-ahead log, whose replay failed, or set aside as rejected")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,96 @@
+package com.connector.service;
+
+import com.connector.model.Issue;
+import com.connector.repository.IssuePage;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a queued or running backfill of one repository
+ * Written by the backfill worker and may be read from any request thread
+ */
+@Getter
+public class BackfillProgress {
+    
+    private final String repository;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private volatile SyncJob.Status status = SyncJob.Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    /** Checkpoint the backfill resumed from, or null when it started from scratch */
+    private volatile LocalDateTime resumedFrom;
+    /** Latest saved checkpoint: every issue updated before it has been written */
+    private volatile LocalDateTime checkpoint;
+    private volatile int pagesFetched;
+    private volatile long issuesQueued;
+    private volatile long issuesWritten;
+    /** Issues left as stored because they were unchanged, newer, or written by a sync first */
+    private volatile long issuesSkipped;
+    private volatile long issuesFailed;
+    private volatile double issuesPerSecond;
+    private volatile String error;
+    /** Latest updated_at among the fetched issues; the next checkpoint once they are written */
+    private volatile LocalDateTime latestUpdatedAt;
+    @Getter(AccessLevel.NONE)
+    private volatile long startNanos;
+    
+    public BackfillProgress(String repository) {
+        this.repository = repository;
+    }
+    
+    public boolean isDone() {
+        return status == SyncJob.Status.SUCCEEDED || status == SyncJob.Status.FAILED;
+    }
+    
+    void markRunning(LocalDateTime resumedFrom) {
+        this.resumedFrom = resumedFrom;
+        this.checkpoint = resumedFrom;
+        startNanos = System.nanoTime();
+        startedAt = LocalDateTime.now();
+        status = SyncJob.Status.RUNNING;
+    }
+    
+    /**
+     * Count a page handed to the bulk writer; only called from the backfill thread
+     */
+    void recordPage(IssuePage page) {
+        pagesFetched++;
+        issuesQueued += page.getIssues().size();
+        for (Issue issue : page.getIssues()) {
+            if (issue.getUpdatedAt() != null && (latestUpdatedAt == null || issue.getUpdatedAt().isAfter(latestUpdatedAt))) {
+                latestUpdatedAt = issue.getUpdatedAt();
+            }
+        }
+    }
+    
+    /**
+     * Record settled writes after a flush, and the throughput since the backfill started
+     */
+    void recordWrites(long written, long skipped, long failed) {
+        issuesWritten = written;
+        issuesSkipped = skipped;
+        issuesFailed = failed;
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        issuesPerSecond = seconds > 0 ? written / seconds : 0;
+    }
+    
+    void recordCheckpoint(LocalDateTime checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+    
+    void complete() {
+        if (issuesFailed > 0) {
+            error = issuesFailed + " issues failed to write; rerun the backfill to resume from the checkpoint";
+        }
+        finishedAt = LocalDateTime.now();
+        status = issuesFailed == 0 ? SyncJob.Status.SUCCEEDED : SyncJob.Status.FAILED;
+    }
+    
+    void fail(Throwable cause) {
+        error = cause.getMessage();
+        finishedAt = LocalDateTime.now();
+        status = SyncJob.Status.FAILED;
+    }
+}
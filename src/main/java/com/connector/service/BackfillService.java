@@ -0,0 +1,164 @@
+package com.connector.service;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.repository.FirestoreBulkImporter;
+import com.connector.repository.GitHubApiClient;
+import com.connector.repository.RepositoryException;
+import com.connector.repository.SyncStateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Initial import of a repository's issues through Firestore's BulkWriter
+ * Crawls every issue (open and closed) oldest update first and writes them without change detection.
+ * After every connector.backfill.checkpoint.pages pages the writes are flushed and the latest updated_at
+ * is saved as a checkpoint, so a backfill interrupted by a crash resumes from there instead of from scratch.
+ * Backfills run one at a time on a background worker.
+ */
+@Service
+@Slf4j
+public class BackfillService {
+    
+    /** Crawls from before the first GitHub issue, so the updated_at ordered crawl covers everything */
+    static final LocalDateTime BACKFILL_START = LocalDateTime.of(2000, 1, 1, 0, 0);
+    
+    private final GitHubApiClient githubClient;
+    private final FirestoreBulkImporter importer;
+    private final SyncStateRepository syncStateRepository;
+    private final ConnectorConfig config;
+    private final ExecutorService executor;
+    /** Latest backfill per repository; guarded by this */
+    private final Map<String, BackfillProgress> backfills = new HashMap<>();
+    
+    public BackfillService(GitHubApiClient githubClient, FirestoreBulkImporter importer, 
+                           SyncStateRepository syncStateRepository, ConnectorConfig config) {
+        this.githubClient = githubClient;
+        this.importer = importer;
+        this.syncStateRepository = syncStateRepository;
+        this.config = config;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "backfill-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Queue a backfill of the repository, or of the configured repository when none is given;
+     * returns the backfill already queued or running for it, if any
+     * @throws ConnectorException if no repository is given or configured, or the worker is shutting down
+     */
+    public synchronized BackfillProgress submit(String repository) throws ConnectorException {
+        String target = repository != null && !repository.isBlank() ? repository.trim() : config.getGithubRepository();
+        if (target == null || target.isBlank()) {
+            throw new ConnectorException("No repository to backfill");
+        }
+        BackfillProgress current = backfills.get(target);
+        if (current != null && !current.isDone()) {
+            log.info("Backfill of {} already {}, joining it", target, current.getStatus());
+            return current;
+        }
+        
+        BackfillProgress progress = new BackfillProgress(target);
+        try {
+            executor.execute(() -> run(progress));
+        } catch (RejectedExecutionException e) {
+            throw new ConnectorException("Backfill worker is not accepting work", e);
+        }
+        backfills.put(target, progress);
+        log.info("Queued backfill of {}", target);
+        return progress;
+    }
+    
+    /**
+     * Progress of the latest backfill of the repository, or of the configured repository when none is given
+     */
+    public synchronized Optional<BackfillProgress> findProgress(String repository) {
+        String target = repository != null && !repository.isBlank() ? repository.trim() : config.getGithubRepository();
+        return Optional.ofNullable(target).map(backfills::get);
+    }
+    
+    private void run(BackfillProgress progress) {
+        try {
+            backfill(progress);
+        } catch (ConnectorException | RuntimeException e) {
+            log.error("Backfill of {} failed: {}", progress.getRepository(), e.getMessage());
+            progress.fail(e);
+        }
+    }
+    
+    /**
+     * Run a backfill on the calling thread, resuming from the saved checkpoint if there is one
+     * @throws ConnectorException if GitHub or Firestore fails; the checkpoint keeps the progress made
+     */
+    void backfill(BackfillProgress progress) throws ConnectorException {
+        String repository = progress.getRepository();
+        try {
+            LocalDateTime resumeFrom = syncStateRepository.findBackfillCheckpoint(repository).orElse(null);
+            progress.markRunning(resumeFrom);
+            if (resumeFrom != null) {
+                log.info("Resuming backfill of {} from checkpoint {}", repository, resumeFrom);
+            } else {
+                log.info("Starting backfill of {}", repository);
+            }
+            
+            int checkpointPages = Math.max(1, config.getBackfillCheckpointPages());
+            try (FirestoreBulkImporter.Session session = importer.open()) {
+                githubClient.fetchIssuePages(repository, resumeFrom != null ? resumeFrom : BACKFILL_START, 0, page -> {
+                    session.write(page.getIssues());
+                    progress.recordPage(page);
+                    if (progress.getPagesFetched() % checkpointPages == 0) {
+                        checkpoint(session, progress);
+                    }
+                });
+                checkpoint(session, progress);
+            }
+            
+            if (progress.getIssuesFailed() == 0) {
+                // Incremental syncs carry on from where the backfill ended
+                if (progress.getLatestUpdatedAt() != null) {
+                    syncStateRepository.saveWatermark(repository, progress.getLatestUpdatedAt());
+                }
+                syncStateRepository.clearBackfillCheckpoint(repository);
+            }
+            progress.complete();
+            log.info("Backfill of {} finished: {} issues written, {} skipped, {} failed, {} issues/s", repository,
+                    progress.getIssuesWritten(), progress.getIssuesSkipped(), progress.getIssuesFailed(), Math.round(progress.getIssuesPerSecond()));
+            
+        } catch (RepositoryException e) {
+            throw new ConnectorException("Backfill of " + repository + " failed", e);
+        }
+    }
+    
+    /**
+     * Wait for the queued writes, report progress and, unless a write failed, advance the checkpoint
+     * A failed write holds the checkpoint back, so a rerun retries from before the failure
+     */
+    private void checkpoint(FirestoreBulkImporter.Session session, BackfillProgress progress) throws RepositoryException {
+        session.flush();
+        progress.recordWrites(session.getWritten(), session.getSkipped(), session.getFailed());
+        LocalDateTime checkpoint = progress.getLatestUpdatedAt();
+        if (session.getFailed() == 0 && checkpoint != null && !checkpoint.equals(progress.getCheckpoint())) {
+            syncStateRepository.saveBackfillCheckpoint(progress.getRepository(), checkpoint);
+            progress.recordCheckpoint(checkpoint);
+        }
+        log.info("Backfill of {}: {} pages, {} issues written, {} failed, {} issues/s, checkpoint {}", 
+                progress.getRepository(), progress.getPagesFetched(), progress.getIssuesWritten(), 
+                progress.getIssuesFailed(), Math.round(progress.getIssuesPerSecond()), progress.getCheckpoint());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        // Interrupting stops the crawl; writes past the last checkpoint are redone on resume
+        executor.shutdownNow();
+    }
+}
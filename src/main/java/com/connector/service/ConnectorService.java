@@ -2,14 +2,29 @@ package com.connector.service;
 
 import com.connector.model.ConnectorConfig;
 import com.connector.model.Issue;
+import com.connector.repository.AsyncIssueRepository;
+import com.connector.repository.BatchSaveResult;
 import com.connector.repository.GitHubApiClient;
-import com.connector.repository.IssueRepository;
+import com.connector.repository.IssueChunkHandler;
+import com.connector.repository.IssuePageHandler;
+import com.connector.repository.IssueSlice;
 import com.connector.repository.RepositoryException;
+import com.connector.repository.SyncStateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service class orchestrating the GitHub to Firestore sync process
@@ -21,8 +36,10 @@ import java.util.List;
 public class ConnectorService {
     
     private final GitHubApiClient githubClient;
-    private final IssueRepository issueRepository;
+    private final AsyncIssueRepository issueRepository;
+    private final SyncStateRepository syncStateRepository;
     private final ConnectorConfig config;
+    private final MeterRegistry meterRegistry;
     
     /**
      * Execute the complete sync process
@@ -30,53 +47,156 @@ public class ConnectorService {
      * @throws ConnectorException if sync operation fails
      */
     public SyncResult syncIssues() throws ConnectorException {
-        log.info("Starting GitHub to Firestore sync for repository: {}", config.getGithubRepository());
+        return syncIssues(config.getGithubRepository(), SyncProgressListener.NONE);
+    }
+    
+    /**
+     * Execute the complete sync process for one repository, reporting progress after each page
+     * @param repository repository in owner/name form
+     * @param listener notified once each page has been written
+     * @return SyncResult containing statistics about the sync operation
+     * @throws ConnectorException if sync operation fails
+     */
+    public SyncResult syncIssues(String repository, SyncProgressListener listener) throws ConnectorException {
+        log.info("Starting GitHub to Firestore sync for repository: {}", repository);
+        long syncStart = System.nanoTime();
+        String outcome = "error";
         
         try {
-            // Step 1: Fetch issues from GitHub
-            List<Issue> issues = fetchIssuesFromGitHub();
-            log.info("Fetched {} issues from GitHub", issues.size());
+            SyncResult result = SyncResult.builder()
+                    .repository(repository)
+                    .incremental(config.isIncrementalSync())
+                    .build();
+            LocalDateTime since = config.isIncrementalSync() ? loadWatermark(repository) : null;
             
-            // Step 2: Save issues to Firestore (with duplicate handling)
-            List<Issue> savedIssues = saveIssuesToFirestore(issues);
-            log.info("Saved {} new issues to Firestore", savedIssues.size());
+            // Stream pages from GitHub into concurrent Firestore writers (upserting only new and changed issues)
+            IssuePagePipeline pipeline = new IssuePagePipeline(config.getSyncPipelineWriters(), 
+                    config.getSyncPipelineQueueCapacity(), config.isVirtualThreadsEnabled(), page -> {
+                long writeStart = System.nanoTime();
+                BatchSaveResult saveResult = issueRepository.saveAll(page.getIssues());
+                long writeNanos = System.nanoTime() - writeStart;
+                log.info("Saved page {} to Firestore: {} inserted, {} updated, {} unchanged", page.getPageNumber(), 
+                        saveResult.getInsertedCount(), saveResult.getUpdatedCount(), saveResult.getUnchangedCount());
+                meterRegistry.counter("connector.sync.issues", "result", "inserted").increment(saveResult.getInsertedCount());
+                meterRegistry.counter("connector.sync.issues", "result", "updated").increment(saveResult.getUpdatedCount());
+                meterRegistry.counter("connector.sync.issues", "result", "unchanged").increment(saveResult.getUnchangedCount());
+                result.recordPage(page, saveResult, writeNanos);
+                listener.onPageSynced(page, saveResult);
+            });
+            try {
+                streamIssuesFromGitHub(repository, since, page -> {
+                    log.info("Fetched page {} with {} issues from GitHub", page.getPageNumber(), page.getIssues().size());
+                    pipeline.submit(page);
+                });
+                pipeline.finish();
+            } finally {
+                pipeline.close();
+            }
+            long backpressureNanos = pipeline.getBackpressureNanos();
+            result.setBackpressureTimeMs(SyncResult.toMillis(backpressureNanos));
+            meterRegistry.timer("connector.sync.pipeline.backpressure").record(backpressureNanos, TimeUnit.NANOSECONDS);
             
-            // Step 3: Create sync result
-            SyncResult result = new SyncResult(
-                issues.size(),
-                savedIssues.size(),
-                issues.size() - savedIssues.size(),
-                System.currentTimeMillis()
-            );
+            if (config.isIncrementalSync()) {
+                advanceWatermark(repository, result);
+            }
             
+            result.setSyncTimestamp(System.currentTimeMillis());
+            result.setTotalTimeMs(SyncResult.toMillis(System.nanoTime() - syncStart));
+            outcome = "success";
             log.info("Sync completed successfully: {}", result);
             return result;
             
         } catch (Exception e) {
             log.error("Sync operation failed: {}", e.getMessage(), e);
             throw new ConnectorException("Sync operation failed", e);
+        } finally {
+            Timer.builder("connector.sync.duration")
+                    .description("End-to-end duration of a sync run")
+                    .tag("repository", String.valueOf(repository))
+                    .tag("mode", config.isIncrementalSync() ? "incremental" : "full")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - syncStart, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * Fetch issues from GitHub API page by page, only those updated since the watermark if one is given
+     */
+    private void streamIssuesFromGitHub(String repository, LocalDateTime since, IssuePageHandler handler) 
+            throws ConnectorException {
+        try {
+            if (since != null) {
+                log.info("Incremental sync: fetching issues of {} updated since {}", repository, since);
+            }
+            githubClient.fetchIssuePages(repository, since, handler);
+        } catch (RepositoryException e) {
+            throw new ConnectorException("Failed to sync issues from GitHub", e);
         }
     }
     
     /**
-     * Fetch issues from GitHub API
+     * Load the high-water mark recorded by the last successful incremental sync
+     * Without one, the sync crawls every issue, open and closed, oldest update first, from before the first
+     * GitHub issue. A crawl capped at max.issues then saves a watermark the next sync continues from,
+     * instead of one past issues it never saw.
      */
-    private List<Issue> fetchIssuesFromGitHub() throws ConnectorException {
+    private LocalDateTime loadWatermark(String repository) throws ConnectorException {
         try {
-            return githubClient.fetchRecentIssues();
+            return syncStateRepository.findWatermark(repository).orElse(BackfillService.BACKFILL_START);
         } catch (RepositoryException e) {
-            throw new ConnectorException("Failed to fetch issues from GitHub", e);
+            throw new ConnectorException("Failed to load sync watermark", e);
         }
     }
     
     /**
-     * Save issues to Firestore with duplicate handling
+     * Persist the new high-water mark; held back when any write failed so the next sync retries those issues
+     * Deferred writes do not hold it back, since the write-ahead log replays them
      */
-    private List<Issue> saveIssuesToFirestore(List<Issue> issues) throws ConnectorException {
+    private void advanceWatermark(String repository, SyncResult result) throws ConnectorException {
+        if (result.getWatermark() == null) {
+            return;
+        }
+        if (result.getFailedIssues() > 0) {
+            log.warn("Not advancing sync watermark: {} issues failed to save", result.getFailedIssues());
+            return;
+        }
         try {
-            return issueRepository.saveAll(issues);
+            syncStateRepository.saveWatermark(repository, result.getWatermark());
         } catch (RepositoryException e) {
-            throw new ConnectorException("Failed to save issues to Firestore", e);
+            throw new ConnectorException("Failed to save sync watermark", e);
+        }
+    }
+    
+    /**
+     * Resolve the repositories to sync: the configured repository, the configured list,
+     * and every repository of the configured organization, without duplicates
+     * @throws ConnectorException if the organization's repositories cannot be listed
+     */
+    public List<String> resolveRepositories() throws ConnectorException {
+        Set<String> repositories = new LinkedHashSet<>();
+        addRepository(repositories, config.getGithubRepository());
+        if (config.getGithubRepositories() != null) {
+            config.getGithubRepositories().forEach(repository -> addRepository(repositories, repository));
+        }
+        if (config.getGithubOrganization() != null && !config.getGithubOrganization().isBlank()) {
+            try {
+                githubClient.fetchOrganizationRepositories(config.getGithubOrganization().trim())
+                        .forEach(repository -> addRepository(repositories, repository));
+            } catch (RepositoryException e) {
+                throw new ConnectorException("Failed to list repositories of organization " + 
+                        config.getGithubOrganization(), e);
+            }
+        }
+        if (repositories.isEmpty()) {
+            throw new ConnectorException("No repositories configured to sync");
+        }
+        return new ArrayList<>(repositories);
+    }
+    
+    private static void addRepository(Set<String> repositories, String repository) {
+        if (repository != null && !repository.isBlank()) {
+            repositories.add(repository.trim());
         }
     }
     
@@ -91,6 +211,30 @@ public class ConnectorService {
         }
     }
     
+    /**
+     * Get one page of issues from Firestore
+     * @throws IllegalArgumentException if the page token is invalid
+     */
+    public IssueSlice getIssuesPage(int limit, String pageToken) throws ConnectorException {
+        try {
+            return issueRepository.findPage(limit, pageToken);
+        } catch (RepositoryException e) {
+            throw new ConnectorException("Failed to retrieve issues from Firestore", e);
+        }
+    }
+    
+    /**
+     * Stream every issue from Firestore chunk by chunk
+     * @throws IOException if the handler fails to write a chunk
+     */
+    public void streamAllIssues(IssueChunkHandler handler) throws ConnectorException, IOException {
+        try {
+            issueRepository.streamAll(handler);
+        } catch (RepositoryException e) {
+            throw new ConnectorException("Failed to stream issues from Firestore", e);
+        }
+    }
+    
     /**
      * Check if an issue exists in Firestore
      */
@@ -101,5 +245,36 @@ public class ConnectorService {
             throw new ConnectorException("Failed to check issue existence", e);
         }
     }
+    
+    /**
+     * Check if an issue exists in Firestore without blocking the caller
+     * @return future completing exceptionally with a ConnectorException if the lookup fails
+     */
+    public CompletableFuture<Boolean> issueExistsAsync(Long issueId) {
+        return issueRepository.existsByIdAsync(issueId)
+                .handle((exists, e) -> {
+                    if (e != null) {
+                        throw new CompletionException(new ConnectorException("Failed to check issue existence", unwrap(e)));
+                    }
+                    return exists;
+                });
+    }
+    
+    /**
+     * Look up several issues in Firestore without blocking the caller; the reads are issued concurrently
+     * @return future of the issues found, in request order; completes exceptionally with a ConnectorException
+     */
+    public CompletableFuture<List<Issue>> findIssuesAsync(List<Long> issueIds) {
+        return issueRepository.findByIdsAsync(issueIds)
+                .handle((issues, e) -> {
+                    if (e != null) {
+                        throw new CompletionException(new ConnectorException("Failed to retrieve issues from Firestore", unwrap(e)));
+                    }
+                    return new ArrayList<>(issues.values());
+                });
+    }
+    
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
 }
-
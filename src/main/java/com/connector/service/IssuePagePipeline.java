@@ -0,0 +1,135 @@
+package com.connector.service;
+
+import com.connector.repository.IoExecutors;
+import com.connector.repository.IssuePage;
+import com.connector.repository.IssuePageHandler;
+import com.connector.repository.RepositoryException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bounded hand-off between the GitHub crawl and the Firestore writers of one sync
+ * The crawl thread submits parsed pages and blocks while the queue is full, so a slow Firestore throttles
+ * fetching instead of buffering pages without limit; writer threads drain the queue concurrently, so pages
+ * may be written out of order. When two pages carry copies of the same issue, the repository keeps the one
+ * updated most recently whichever commits last. The first writer failure stops the pipeline and is rethrown to the crawl.
+ */
+@Slf4j
+final class IssuePagePipeline implements AutoCloseable {
+    
+    /** Marks the end of the crawl; one is queued per writer */
+    private static final IssuePage END = new IssuePage(-1, List.of(), false);
+    /** How often a blocked submit checks whether the writers have failed */
+    private static final long FAILURE_CHECK_MS = 100;
+    
+    private final BlockingQueue<IssuePage> queue;
+    private final ExecutorService executor;
+    private final List<Future<?>> writers = new ArrayList<>();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    /** Time the crawl spent blocked on a full queue; only touched by the crawl thread */
+    private long backpressureNanos;
+    
+    /**
+     * Start the writers
+     * @param writerCount pages written concurrently
+     * @param queueCapacity parsed pages buffered between the crawl and the writers
+     * @param virtualThreads run the writers on virtual threads when available
+     * @param writer writes one page; called concurrently from the writer threads
+     */
+    IssuePagePipeline(int writerCount, int queueCapacity, boolean virtualThreads, IssuePageHandler writer) {
+        int writerThreads = Math.max(1, writerCount);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.executor = IoExecutors.newExecutor("sync-writer", writerThreads, virtualThreads);
+        for (int i = 0; i < writerThreads; i++) {
+            writers.add(executor.submit(() -> drain(writer)));
+        }
+    }
+    
+    /**
+     * Queue a page for writing, blocking while the queue is full
+     * @throws RepositoryException if a writer has failed or the crawl thread is interrupted
+     */
+    void submit(IssuePage page) throws RepositoryException {
+        rethrowFailure();
+        long start = System.nanoTime();
+        put(page);
+        backpressureNanos += System.nanoTime() - start;
+    }
+    
+    /**
+     * Wait for every queued page to be written
+     * @throws RepositoryException if any page failed to be written
+     */
+    void finish() throws RepositoryException {
+        for (int i = 0; i < writers.size(); i++) {
+            put(END);
+        }
+        try {
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("Interrupted while waiting for issues to be written", e);
+        } catch (ExecutionException e) {
+            throw new RepositoryException("Issue writer failed", e.getCause());
+        }
+        rethrowFailure();
+    }
+    
+    long getBackpressureNanos() {
+        return backpressureNanos;
+    }
+    
+    /**
+     * Stop the writers; pages still queued after a failure are dropped
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+    
+    private void put(IssuePage page) throws RepositoryException {
+        try {
+            while (!queue.offer(page, FAILURE_CHECK_MS, TimeUnit.MILLISECONDS)) {
+                rethrowFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("Interrupted while queueing issues for writing", e);
+        }
+    }
+    
+    private void drain(IssuePageHandler writer) {
+        try {
+            IssuePage page;
+            while ((page = queue.take()) != END) {
+                writer.handle(page);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RepositoryException | RuntimeException e) {
+            log.error("Failed to write page of issues: {}", e.getMessage());
+            failure.compareAndSet(null, e);
+        }
+    }
+    
+    private void rethrowFailure() throws RepositoryException {
+        Exception e = failure.get();
+        if (e instanceof RepositoryException) {
+            throw (RepositoryException) e;
+        }
+        if (e != null) {
+            throw new RepositoryException("Failed to write issues", e);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.connector.service;
+
+import com.connector.model.Issue;
+import com.connector.repository.BatchSaveResult;
+import com.connector.repository.IssueRepository;
+import com.connector.repository.RepositoryException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces bursts of single-issue updates into batched saves
+ * Issues are buffered until maxEvents have arrived or flushMs has passed since the first of them, then
+ * written with one saveAll, i.e. one multi-document read and one batch commit for up to 500 issues.
+ * Several updates of the same issue within a batch collapse into its newest version. Across batches, and
+ * against syncs writing at the same time, ordering comes from the repository: a version older than the
+ * stored one is skipped rather than written, so a late redelivery does not roll an issue back.
+ * The delivery IDs of a batch that fails to save are handed back, so GitHub's redeliveries are not dropped.
+ */
+@Slf4j
+final class IssueWriteBatcher implements AutoCloseable {
+    
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+    
+    private final IssueRepository issueRepository;
+    private final int maxEvents;
+    private final long flushMs;
+    private final ScheduledExecutorService executor;
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Consumer<List<String>> failedDeliveries;
+    /** How issues of a failed batch get written after all, for the failure log */
+    private final String recovery;
+    
+    /** Buffered issues by ID, in arrival order; guarded by this */
+    private final Map<Long, Issue> pending = new LinkedHashMap<>();
+    /** Delivery IDs of the buffered updates; guarded by this */
+    private final List<String> pendingDeliveries = new ArrayList<>();
+    /** Updates buffered since the last flush, counting repeats of the same issue; guarded by this */
+    private int pendingEvents;
+    /** The flush that will take the buffered issues, or null when nothing is buffered; guarded by this */
+    private Future<?> scheduledFlush;
+    private boolean flushDue;
+    
+    /**
+     * @param syncCatchesUp whether incremental sync or polling will write the issues of a failed batch anyway
+     * @param failedDeliveries receives the delivery IDs of each batch that fails to save
+     */
+    IssueWriteBatcher(IssueRepository issueRepository, int maxEvents, long flushMs, boolean syncCatchesUp,
+                      MeterRegistry meterRegistry, Consumer<List<String>> failedDeliveries) {
+        this.issueRepository = issueRepository;
+        this.failedDeliveries = failedDeliveries;
+        this.recovery = syncCatchesUp ? "the next sync will pick them up" 
+                : "redeliver them from GitHub, or run a full sync, to apply them";
+        this.maxEvents = Math.max(1, maxEvents);
+        this.flushMs = Math.max(0, flushMs);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "webhook-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushTimer = Timer.builder("connector.webhook.flush")
+                .description("Time to write one batch of webhook issue updates")
+                .register(meterRegistry);
+        this.writtenCounter = issueCounter(meterRegistry, "written");
+        this.failedCounter = issueCounter(meterRegistry, "failed");
+    }
+    
+    /**
+     * Buffer an issue for the next flush; returns without waiting for it to be written
+     * @param deliveryId delivery the update came in, or null
+     */
+    synchronized void add(Issue issue, String deliveryId) {
+        pending.merge(issue.getId(), issue, IssueWriteBatcher::newer);
+        if (deliveryId != null) {
+            pendingDeliveries.add(deliveryId);
+        }
+        pendingEvents++;
+        if (pendingEvents >= maxEvents && !flushDue) {
+            flushDue = true;
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+            }
+            scheduledFlush = executor.submit(this::flush);
+        } else if (scheduledFlush == null) {
+            scheduledFlush = executor.schedule(this::flush, flushMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Write every buffered issue; called on the writer thread
+     */
+    void flush() {
+        List<Issue> batch;
+        List<String> deliveries;
+        int events;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            deliveries = new ArrayList<>(pendingDeliveries);
+            events = pendingEvents;
+            pending.clear();
+            pendingDeliveries.clear();
+            pendingEvents = 0;
+            scheduledFlush = null;
+            flushDue = false;
+        }
+        
+        long start = System.nanoTime();
+        try {
+            BatchSaveResult result = issueRepository.saveAll(batch);
+            writtenCounter.increment(result.getInsertedCount() + result.getUpdatedCount());
+            failedCounter.increment(result.getFailedCount());
+            if (result.getFailedCount() > 0) {
+                failedDeliveries.accept(deliveries);
+                log.warn("Failed to write {} of {} issues from webhooks; {}", result.getFailedCount(), batch.size(), recovery);
+            }
+            log.info("Flushed {} webhook events as {} issues: {} inserted, {} updated, {} unchanged, {} deferred", events,
+                    batch.size(), result.getInsertedCount(), result.getUpdatedCount(), result.getUnchangedCount(),
+                    result.getDeferredCount());
+        } catch (RepositoryException | RuntimeException e) {
+            failedDeliveries.accept(deliveries);
+            failedCounter.increment(batch.size());
+            log.error("Failed to write {} issues from webhooks; {}: {}", batch.size(), recovery, e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * Write the buffered issues and stop the writer thread
+     * A pending timed flush is cancelled first, since the executor would otherwise wait for it after shutdown.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+            }
+        }
+        executor.execute(this::flush);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Webhook writer did not finish within {}s", CLOSE_TIMEOUT_SECONDS);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Keep the more recently updated version of an issue; the later arrival wins ties and missing timestamps
+     */
+    private static Issue newer(Issue buffered, Issue arrived) {
+        if (buffered.getUpdatedAt() != null && arrived.getUpdatedAt() != null
+                && buffered.getUpdatedAt().isAfter(arrived.getUpdatedAt())) {
+            return buffered;
+        }
+        return arrived;
+    }
+    
+    private static Counter issueCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("connector.webhook.issues")
+                .description("Issues from webhook events written to Firestore, or failed")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,84 @@
+package com.connector.service;
+
+import com.connector.model.ConnectorConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Syncs repositories in parallel on a shared, bounded pool
+ * Repositories from every job queue FIFO behind one another, so a large job cannot starve a later one
+ * of workers; GitHub requests are additionally bounded by the client's shared in-flight limit
+ */
+@Component
+@Slf4j
+public class RepositorySyncScheduler {
+    
+    private final ConnectorService connectorService;
+    private final ExecutorService executor;
+    /** Repositories currently being synced by any job */
+    private final Set<String> syncingRepositories = ConcurrentHashMap.newKeySet();
+    
+    public RepositorySyncScheduler(ConnectorService connectorService, ConnectorConfig config) {
+        this.connectorService = connectorService;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, config.getSyncRepositoryConcurrency()), runnable -> {
+            Thread thread = new Thread(runnable, "repository-sync-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Sync each repository and record its result or error on the job; blocks until all have finished
+     * A repository already being synced by another job is reported as an error rather than synced twice
+     */
+    public void syncAll(List<String> repositories, SyncJob job) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>();
+        for (String repository : repositories) {
+            futures.add(executor.submit(() -> syncRepository(repository, job)));
+        }
+        
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            // syncRepository records its own failures, so this only happens on an unexpected error
+            throw new IllegalStateException("Repository sync task failed", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+    
+    private void syncRepository(String repository, SyncJob job) {
+        if (!syncingRepositories.add(repository)) {
+            log.warn("Repository {} is already being synced, skipping it in job {}", repository, job.getJobId());
+            job.recordFailure(repository, "Sync already in progress for " + repository);
+            return;
+        }
+        try {
+            job.recordResult(repository, connectorService.syncIssues(repository, job::recordPage));
+        } catch (ConnectorException e) {
+            log.error("Sync of {} failed in job {}: {}", repository, job.getJobId(), e.getMessage());
+            job.recordFailure(repository, e.getMessage());
+        } finally {
+            syncingRepositories.remove(repository);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,58 @@
+package com.connector.service;
+
+import com.connector.repository.SchemaMigrationPage;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a queued or running migration of the issue collection to the current document schema
+ * Written by the migration worker and may be read from any request thread
+ */
+@Getter
+public class SchemaMigrationProgress {
+    
+    private final int targetVersion;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private volatile SyncJob.Status status = SyncJob.Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long documentsScanned;
+    private volatile long documentsMigrated;
+    /** Last document ID scanned; every document up to it is in the current schema */
+    private volatile String lastDocumentId;
+    private volatile String error;
+    
+    public SchemaMigrationProgress(int targetVersion) {
+        this.targetVersion = targetVersion;
+    }
+    
+    public boolean isDone() {
+        return status == SyncJob.Status.SUCCEEDED || status == SyncJob.Status.FAILED;
+    }
+    
+    void markRunning() {
+        startedAt = LocalDateTime.now();
+        status = SyncJob.Status.RUNNING;
+    }
+    
+    /**
+     * Count a migrated page; only called from the migration thread
+     */
+    void recordPage(SchemaMigrationPage page) {
+        documentsScanned += page.getScanned();
+        documentsMigrated += page.getMigrated();
+        lastDocumentId = page.getLastDocumentId();
+    }
+    
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        status = SyncJob.Status.SUCCEEDED;
+    }
+    
+    void fail(Throwable cause) {
+        error = cause.getMessage();
+        finishedAt = LocalDateTime.now();
+        status = SyncJob.Status.FAILED;
+    }
+}
@@ -0,0 +1,129 @@
+package com.connector.service;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.repository.FirestoreIssueRepository;
+import com.connector.repository.IssueDocumentMapper;
+import com.connector.repository.RepositoryException;
+import com.connector.repository.SchemaMigrationPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Rewrites issue documents stored in an older schema version in the current one
+ * Walks the collection in document ID order, one batch commit per page. Pages are independent and migrated
+ * documents are skipped, so a migration that failed or was interrupted can simply be run again.
+ * Migrations run one at a time on a background worker, alongside syncs.
+ */
+@Service
+@Slf4j
+public class SchemaMigrationService {
+    
+    /** A page whose commit lost a race with a sync write is read again and retried this often */
+    static final int MAX_PAGE_ATTEMPTS = 3;
+    /** Firestore limits a single batch commit to 500 writes */
+    private static final int MAX_PAGE_SIZE = 500;
+    
+    private final FirestoreIssueRepository issueRepository;
+    private final ConnectorConfig config;
+    private final ExecutorService executor;
+    private final Counter migratedCounter;
+    /** Latest migration; guarded by this */
+    private SchemaMigrationProgress current;
+    
+    public SchemaMigrationService(FirestoreIssueRepository issueRepository, ConnectorConfig config, 
+                                  MeterRegistry meterRegistry) {
+        this.issueRepository = issueRepository;
+        this.config = config;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schema-migration");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.migratedCounter = Counter.builder("connector.migration.documents")
+                .description("Issue documents rewritten in the current schema version")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Queue a migration of the issue collection; returns the migration already queued or running, if any
+     * @throws ConnectorException if the worker is shutting down
+     */
+    public synchronized SchemaMigrationProgress submit() throws ConnectorException {
+        if (current != null && !current.isDone()) {
+            log.info("Schema migration already {}, joining it", current.getStatus());
+            return current;
+        }
+        SchemaMigrationProgress progress = new SchemaMigrationProgress(IssueDocumentMapper.SCHEMA_VERSION);
+        try {
+            executor.execute(() -> run(progress));
+        } catch (RejectedExecutionException e) {
+            throw new ConnectorException("Schema migration worker is not accepting work", e);
+        }
+        current = progress;
+        log.info("Queued migration of issue documents to schema version {}", IssueDocumentMapper.SCHEMA_VERSION);
+        return progress;
+    }
+    
+    public synchronized Optional<SchemaMigrationProgress> findProgress() {
+        return Optional.ofNullable(current);
+    }
+    
+    private void run(SchemaMigrationProgress progress) {
+        try {
+            migrate(progress);
+        } catch (ConnectorException | RuntimeException e) {
+            log.error("Schema migration failed after {} documents: {}", progress.getDocumentsScanned(), e.getMessage());
+            progress.fail(e);
+        }
+    }
+    
+    /**
+     * Run a migration on the calling thread
+     * @throws ConnectorException if a page still fails after MAX_PAGE_ATTEMPTS reads
+     */
+    void migrate(SchemaMigrationProgress progress) throws ConnectorException {
+        progress.markRunning();
+        int pageSize = Math.max(1, Math.min(config.getMigrationPageSize(), MAX_PAGE_SIZE));
+        String startAfterId = null;
+        SchemaMigrationPage page;
+        do {
+            page = migratePage(startAfterId, pageSize);
+            progress.recordPage(page);
+            migratedCounter.increment(page.getMigrated());
+            startAfterId = page.getLastDocumentId();
+            log.debug("Schema migration: {} documents scanned, {} migrated", 
+                    progress.getDocumentsScanned(), progress.getDocumentsMigrated());
+        } while (!page.isLast());
+        progress.complete();
+        log.info("Schema migration finished: {} documents scanned, {} migrated to version {}", 
+                progress.getDocumentsScanned(), progress.getDocumentsMigrated(), progress.getTargetVersion());
+    }
+    
+    private SchemaMigrationPage migratePage(String startAfterId, int pageSize) throws ConnectorException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return issueRepository.migrateSchemaPage(startAfterId, pageSize);
+            } catch (RepositoryException e) {
+                if (attempt == MAX_PAGE_ATTEMPTS) {
+                    throw new ConnectorException("Failed to migrate issues after document " + startAfterId, e);
+                }
+                log.warn("Retrying schema migration page after document {} (attempt {}/{}): {}", 
+                        startAfterId, attempt + 1, MAX_PAGE_ATTEMPTS, e.getMessage());
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        // Interrupting stops between pages; a rerun skips what was already migrated
+        executor.shutdownNow();
+    }
+}
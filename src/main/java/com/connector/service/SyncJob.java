@@ -0,0 +1,103 @@
+package com.connector.service;
+
+import com.connector.repository.BatchSaveResult;
+import com.connector.repository.IssuePage;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A queued or running sync of one or more repositories
+ * Progress is written by the repository workers and may be read from any request thread
+ */
+@Getter
+public class SyncJob {
+    
+    /** Target of a job that syncs every configured repository */
+    public static final String ALL_REPOSITORIES = "*";
+    
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+    
+    private final String jobId;
+    /** Repository requested, or {@link #ALL_REPOSITORIES} */
+    private final String target;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile List<String> repositories = List.of();
+    private volatile int pagesFetched;
+    private volatile int issuesFetched;
+    private volatile int issuesWritten;
+    private final Map<String, SyncResult> results = new ConcurrentSkipListMap<>();
+    private final Map<String, String> errors = new ConcurrentSkipListMap<>();
+    private volatile String error;
+    @Getter(AccessLevel.NONE)
+    private final CompletableFuture<SyncJob> completion = new CompletableFuture<>();
+    
+    public SyncJob(String jobId, String target) {
+        this.jobId = jobId;
+        this.target = target;
+    }
+    
+    public boolean isDone() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+    
+    /**
+     * Completes with this job once it has succeeded or failed
+     */
+    public CompletionStage<SyncJob> whenDone() {
+        return completion.minimalCompletionStage();
+    }
+    
+    void markRunning() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+    
+    void setRepositories(List<String> repositories) {
+        this.repositories = List.copyOf(repositories);
+    }
+    
+    synchronized void recordPage(IssuePage page, BatchSaveResult saveResult) {
+        pagesFetched++;
+        issuesFetched += page.getIssues().size();
+        issuesWritten += saveResult.getSavedIssues().size();
+    }
+    
+    void recordResult(String repository, SyncResult result) {
+        results.put(repository, result);
+    }
+    
+    void recordFailure(String repository, String message) {
+        errors.put(repository, message);
+    }
+    
+    /**
+     * Finish the job; it fails if any repository failed, while results of the others stay available
+     */
+    void complete() {
+        if (!errors.isEmpty()) {
+            error = errors.size() + " of " + repositories.size() + " repositories failed to sync";
+        }
+        finishedAt = LocalDateTime.now();
+        status = errors.isEmpty() ? Status.SUCCEEDED : Status.FAILED;
+        completion.complete(this);
+    }
+    
+    void fail(Throwable cause) {
+        error = cause.getMessage();
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+        completion.complete(this);
+    }
+}
@@ -0,0 +1,139 @@
+package com.connector.service;
+
+import com.connector.model.ConnectorConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs syncs as background jobs on a bounded worker pool
+ * Concurrent requests for a target that already has a queued or running job join that job;
+ * the repositories of a job are synced in parallel by the RepositorySyncScheduler
+ */
+@Service
+@Slf4j
+public class SyncJobService {
+    
+    private final ConnectorService connectorService;
+    private final RepositorySyncScheduler scheduler;
+    private final ThreadPoolExecutor executor;
+    
+    /** Queued or running job per target; guarded by this */
+    private final Map<String, SyncJob> activeJobs = new HashMap<>();
+    /** Recent jobs by ID, oldest finished jobs evicted first; guarded by this */
+    private final Map<String, SyncJob> jobs;
+    
+    public SyncJobService(ConnectorService connectorService, RepositorySyncScheduler scheduler, ConnectorConfig config) {
+        this.connectorService = connectorService;
+        this.scheduler = scheduler;
+        
+        int threads = Math.max(1, config.getSyncWorkerThreads());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getSyncQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sync-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        
+        int historySize = Math.max(1, config.getSyncJobHistorySize());
+        this.jobs = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SyncJob> eldest) {
+                return size() > historySize && eldest.getValue().isDone();
+            }
+        };
+    }
+    
+    /**
+     * Queue a sync of every configured repository, or return the job already queued or running for them
+     * @throws ConnectorException if the worker queue is full
+     */
+    public SyncJob submit() throws ConnectorException {
+        return submit(SyncJob.ALL_REPOSITORIES);
+    }
+    
+    /**
+     * Queue a sync of one repository, or of every configured repository for {@link SyncJob#ALL_REPOSITORIES},
+     * or return the job already queued or running for that target
+     * @throws ConnectorException if the worker queue is full
+     */
+    public synchronized SyncJob submit(String target) throws ConnectorException {
+        SyncJob activeJob = activeJobs.get(target);
+        if (activeJob != null) {
+            log.info("Sync of {} already {} as job {}, joining it", target, activeJob.getStatus(), activeJob.getJobId());
+            return activeJob;
+        }
+        
+        SyncJob job = new SyncJob(UUID.randomUUID().toString(), target);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            throw new ConnectorException("Sync queue is full, try again later", e);
+        }
+        activeJobs.put(target, job);
+        jobs.put(job.getJobId(), job);
+        log.info("Queued sync job {} for {}", job.getJobId(), target);
+        return job;
+    }
+    
+    /**
+     * Look up a recent job by ID
+     */
+    public synchronized Optional<SyncJob> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+    
+    /**
+     * The job leaves the active set before it is marked done, so a client that sees it finish
+     * and resubmits always gets a fresh job
+     */
+    private void run(SyncJob job) {
+        job.markRunning();
+        Exception failure = null;
+        try {
+            job.setRepositories(SyncJob.ALL_REPOSITORIES.equals(job.getTarget()) 
+                    ? connectorService.resolveRepositories() : List.of(job.getTarget()));
+            scheduler.syncAll(job.getRepositories(), job);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        } catch (Exception e) {
+            failure = e;
+        }
+        
+        synchronized (this) {
+            activeJobs.remove(job.getTarget(), job);
+        }
+        if (failure == null) {
+            log.info("Sync job {} completed: {} repositories, {} failed", 
+                    job.getJobId(), job.getRepositories().size(), job.getErrors().size());
+            job.complete();
+        } else {
+            log.error("Sync job {} failed: {}", job.getJobId(), failure.getMessage());
+            job.fail(failure);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Sync workers did not finish within 30s, interrupting");
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.connector.service;
+
+import com.connector.model.ConnectorConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Polls every configured repository in the background, so no external cron has to call POST /sync
+ * Each repository keeps its own interval: a sync that writes changes resets it to the minimum, while a quiet
+ * sync (nothing new, or every page answered 304 Not Modified) or a failed one multiplies it, up to the maximum.
+ * Every delay is jittered so repositories drift apart instead of polling in lockstep. Polls go through
+ * SyncJobService, so they show up as jobs and join a sync of the same repository that is already running.
+ */
+@Component
+@Slf4j
+public class SyncPoller {
+    
+    private final SyncJobService syncJobService;
+    private final ConnectorService connectorService;
+    private final ConnectorConfig config;
+    private final MeterRegistry meterRegistry;
+    private final TaskScheduler scheduler;
+    /** Uniform in [0, 1) */
+    private final DoubleSupplier random;
+    /** Current poll interval per repository, before jitter */
+    private final Map<String, Duration> intervals = new ConcurrentHashMap<>();
+    private volatile boolean stopped;
+    
+    @Autowired
+    public SyncPoller(SyncJobService syncJobService, ConnectorService connectorService, ConnectorConfig config,
+                      MeterRegistry meterRegistry) {
+        this(syncJobService, connectorService, config, meterRegistry, createScheduler(),
+                () -> ThreadLocalRandom.current().nextDouble());
+    }
+    
+    SyncPoller(SyncJobService syncJobService, ConnectorService connectorService, ConnectorConfig config,
+               MeterRegistry meterRegistry, TaskScheduler scheduler, DoubleSupplier random) {
+        this.syncJobService = syncJobService;
+        this.connectorService = connectorService;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.scheduler = scheduler;
+        this.random = random;
+    }
+    
+    /**
+     * Schedule the first poll of every configured repository, spread over one minimum interval
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!config.isPollEnabled() || stopped) {
+            return;
+        }
+        List<String> repositories;
+        try {
+            repositories = connectorService.resolveRepositories();
+        } catch (ConnectorException e) {
+            log.error("Failed to resolve repositories to poll, retrying in {}: {}", minInterval(), e.getMessage());
+            scheduler.schedule(this::start, Instant.now().plus(minInterval()));
+            return;
+        }
+        for (String repository : repositories) {
+            if (intervals.putIfAbsent(repository, minInterval()) == null) {
+                Gauge.builder("connector.poll.interval", intervals, map -> map.get(repository).toSeconds())
+                        .description("Current poll interval of a repository in seconds, before jitter")
+                        .tag("repository", repository)
+                        .register(meterRegistry);
+                schedule(repository, Duration.ofMillis((long) (minInterval().toMillis() * random.getAsDouble())));
+            }
+        }
+        log.info("Polling {} repositories every {} to {}", repositories.size(), minInterval(), maxInterval());
+    }
+    
+    /**
+     * Current interval of a repository, before jitter; null if it is not polled
+     */
+    Duration currentInterval(String repository) {
+        return intervals.get(repository);
+    }
+    
+    private void schedule(String repository, Duration delay) {
+        if (!stopped) {
+            scheduler.schedule(() -> poll(repository), Instant.now().plus(delay));
+        }
+    }
+    
+    private void poll(String repository) {
+        try {
+            SyncJob job = syncJobService.submit(repository);
+            job.whenDone().whenComplete((done, e) -> reschedule(repository, job.getResults().get(repository)));
+        } catch (ConnectorException e) {
+            log.warn("Failed to queue poll of {}: {}", repository, e.getMessage());
+            reschedule(repository, null);
+        }
+    }
+    
+    /**
+     * Adapt the interval to the outcome of the last sync and schedule the next poll
+     * @param result the repository's sync result, or null if the sync failed
+     */
+    private void reschedule(String repository, SyncResult result) {
+        Duration interval = nextInterval(intervals.get(repository), result);
+        intervals.put(repository, interval);
+        Duration delay = jitter(interval);
+        log.info("Next poll of {} in {}s ({})", repository, delay.toSeconds(),
+                result == null ? "sync failed" : hasChanges(result) ? "changes found" : "quiet");
+        schedule(repository, delay);
+    }
+    
+    Duration nextInterval(Duration current, SyncResult result) {
+        if (result != null && hasChanges(result)) {
+            return minInterval();
+        }
+        double multiplier = Math.max(1.0, config.getPollBackoffMultiplier());
+        long backedOffMs = (long) Math.min(current.toMillis() * multiplier, maxInterval().toMillis());
+        return Duration.ofMillis(Math.max(backedOffMs, minInterval().toMillis()));
+    }
+    
+    /**
+     * Scale the interval by a random factor in [1 - jitter, 1 + jitter]
+     */
+    Duration jitter(Duration interval) {
+        double jitter = Math.min(1.0, Math.max(0.0, config.getPollJitter()));
+        double factor = 1.0 + jitter * (2.0 * random.getAsDouble() - 1.0);
+        return Duration.ofMillis(Math.round(interval.toMillis() * factor));
+    }
+    
+    private static boolean hasChanges(SyncResult result) {
+        return result.getIssuesInserted() + result.getIssuesUpdated() > 0;
+    }
+    
+    private Duration minInterval() {
+        return Duration.ofSeconds(Math.max(1, config.getPollMinIntervalSeconds()));
+    }
+    
+    private Duration maxInterval() {
+        return Duration.ofSeconds(Math.max(config.getPollMinIntervalSeconds(), config.getPollMaxIntervalSeconds()));
+    }
+    
+    private static ThreadPoolTaskScheduler createScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("sync-poller-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        return scheduler;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        if (scheduler instanceof ThreadPoolTaskScheduler) {
+            ((ThreadPoolTaskScheduler) scheduler).shutdown();
+        }
+    }
+}
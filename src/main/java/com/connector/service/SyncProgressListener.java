@@ -0,0 +1,18 @@
+package com.connector.service;
+
+import com.connector.repository.BatchSaveResult;
+import com.connector.repository.IssuePage;
+
+/**
+ * Callback notified after each page has been fetched and written during a sync
+ */
+@FunctionalInterface
+public interface SyncProgressListener {
+    
+    SyncProgressListener NONE = (page, saveResult) -> { };
+    
+    /**
+     * Called on the sync thread once a page has been saved to Firestore
+     */
+    void onPageSynced(IssuePage page, BatchSaveResult saveResult);
+}
@@ -1,16 +1,77 @@
 package com.connector.service;
 
+import com.connector.model.Issue;
+import com.connector.repository.BatchSaveResult;
+import com.connector.repository.IssuePage;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Result object containing statistics about a sync operation
  */
 @Data
+@Builder
+@NoArgsConstructor
 @AllArgsConstructor
 public class SyncResult {
+    private String repository;
+    private boolean incremental;
+    private int pagesFetched;
+    private int pagesNotModified;
     private int totalIssuesFetched;
-    private int newIssuesSaved;
-    private int duplicateIssuesSkipped;
+    private int issuesInserted;
+    private int issuesUpdated;
+    private int issuesUnchanged;
+    private int failedIssues;
+    /** Issues that failed to commit but are held in the write-ahead log for replay */
+    private int deferredIssues;
     private long syncTimestamp;
+    private LocalDateTime watermark;
+    /** Time spent fetching pages; with parallel fetching this sums per-page latency and can exceed the total */
+    private double fetchTimeMs;
+    private double parseTimeMs;
+    /** Time spent writing pages; pages are written concurrently, so this can also exceed the total */
+    private double writeTimeMs;
+    /** Time the crawl waited for writers to make room in the pipeline; high values mean Firestore is the bottleneck */
+    private double backpressureTimeMs;
+    private double totalTimeMs;
+    @Builder.Default
+    private List<BatchSaveResult.ChunkResult> chunkResults = new ArrayList<>();
+    
+    /**
+     * Accumulate the outcome of one fetched page; called concurrently by the pipeline's writers
+     * @param writeNanos time spent saving the page to Firestore
+     */
+    public synchronized void recordPage(IssuePage page, BatchSaveResult saveResult, long writeNanos) {
+        List<Issue> fetchedIssues = page.getIssues();
+        pagesFetched++;
+        if (page.isNotModified()) {
+            pagesNotModified++;
+        }
+        totalIssuesFetched += fetchedIssues.size();
+        issuesInserted += saveResult.getInsertedCount();
+        issuesUpdated += saveResult.getUpdatedCount();
+        issuesUnchanged += saveResult.getUnchangedCount();
+        failedIssues += saveResult.getFailedCount();
+        deferredIssues += saveResult.getDeferredCount();
+        chunkResults.addAll(saveResult.getChunks());
+        fetchTimeMs += toMillis(page.getFetchNanos());
+        parseTimeMs += toMillis(page.getParseNanos());
+        writeTimeMs += toMillis(writeNanos);
+        for (Issue issue : fetchedIssues) {
+            if (issue.getUpdatedAt() != null && (watermark == null || issue.getUpdatedAt().isAfter(watermark))) {
+                watermark = issue.getUpdatedAt();
+            }
+        }
+    }
+    
+    static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
 }
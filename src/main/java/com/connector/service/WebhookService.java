@@ -0,0 +1,198 @@
+package com.connector.service;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.repository.GitHubIssueParser;
+import com.connector.repository.IssueEvent;
+import com.connector.repository.IssueRepository;
+import com.connector.repository.RepositoryException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Applies GitHub issues webhook deliveries to Firestore
+ * Deliveries are authenticated with the X-Hub-Signature-256 HMAC of the raw body, deduplicated by their
+ * X-GitHub-Delivery ID (GitHub redelivers on timeouts and on request), and handed to a batching writer,
+ * so a burst of events costs one batch commit instead of one write per event. The IDs of deliveries whose
+ * write failed are forgotten again, so that a redelivery is applied rather than dropped as a duplicate.
+ * Only issues of the configured repositories, or of repositories owned by the configured organization, are
+ * written; a webhook installed more widely must not fill the shared collection with other repositories' issues.
+ */
+@Service
+@Slf4j
+public class WebhookService {
+    
+    static final String SIGNATURE_PREFIX = "sha256=";
+    /** Actions after which the issue is no longer part of its repository */
+    private static final Set<String> REMOVAL_ACTIONS = Set.of("deleted", "transferred");
+    
+    public enum Outcome {
+        /** The issue was queued for writing */
+        ACCEPTED,
+        /** The delivery ID was seen before */
+        DUPLICATE,
+        /** Not an issues event, or an action that is not applied */
+        IGNORED,
+        /** An issues event of a repository this connector does not sync */
+        UNCONFIGURED
+    }
+    
+    private final GitHubIssueParser parser;
+    private final byte[] secret;
+    private final IssueWriteBatcher batcher;
+    /** Recently seen delivery IDs, bounded to the configured size */
+    private final Cache<String, Boolean> deliveries;
+    private final MeterRegistry meterRegistry;
+    /** Configured repositories in lower case, since GitHub names are case-insensitive */
+    private final Set<String> repositories = new HashSet<>();
+    /** Owner prefix ("owner/") of the configured organization in lower case, or null */
+    private final String organizationPrefix;
+    
+    public WebhookService(IssueRepository issueRepository, GitHubIssueParser parser, ConnectorConfig config,
+                          MeterRegistry meterRegistry) {
+        this.parser = parser;
+        this.secret = config.getWebhookSecret().getBytes(StandardCharsets.UTF_8);
+        this.deliveries = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, config.getWebhookDeliveryCacheSize()))
+                .build();
+        this.batcher = new IssueWriteBatcher(issueRepository, config.getWebhookBatchMaxEvents(),
+                config.getWebhookBatchFlushMs(), config.isIncrementalSync() || config.isPollEnabled(),
+                meterRegistry, this::forgetDeliveries);
+        this.meterRegistry = meterRegistry;
+        addRepository(config.getGithubRepository());
+        if (config.getGithubRepositories() != null) {
+            config.getGithubRepositories().forEach(this::addRepository);
+        }
+        String organization = config.getGithubOrganization();
+        this.organizationPrefix = organization != null && !organization.isBlank() 
+                ? organization.trim().toLowerCase(Locale.ROOT) + "/" : null;
+    }
+    
+    /**
+     * Webhooks are accepted only once a secret is configured
+     */
+    public boolean isEnabled() {
+        return secret.length > 0;
+    }
+    
+    /**
+     * Check an X-Hub-Signature-256 header against the HMAC-SHA256 of the body, in constant time
+     * @return false if webhooks are disabled, or the header is missing or does not match
+     */
+    public boolean verifySignature(byte[] body, String signature) {
+        if (isEnabled() && signature != null && signature.startsWith(SIGNATURE_PREFIX)) {
+            byte[] expected = (SIGNATURE_PREFIX + sign(body)).getBytes(StandardCharsets.UTF_8);
+            if (MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.UTF_8))) {
+                return true;
+            }
+        }
+        count("unauthorized");
+        return false;
+    }
+    
+    /**
+     * Apply a verified delivery; issues events are queued for the batching writer, everything else is ignored
+     * @param event X-GitHub-Event header
+     * @param deliveryId X-GitHub-Delivery header; deliveries without one are not deduplicated
+     * @param body raw request body
+     * @throws ConnectorException if an issues event cannot be parsed
+     */
+    public Outcome handle(String event, String deliveryId, byte[] body) throws ConnectorException {
+        if (!"issues".equals(event)) {
+            log.debug("Ignoring {} webhook delivery {}", event, deliveryId);
+            return record(Outcome.IGNORED);
+        }
+        IssueEvent issueEvent;
+        try {
+            issueEvent = parser.parseIssueEvent(body);
+        } catch (RepositoryException e) {
+            count("invalid");
+            throw new ConnectorException("Invalid issues event in delivery " + deliveryId + ": " + e.getMessage(), e);
+        }
+        if (deliveryId != null && deliveries.asMap().putIfAbsent(deliveryId, Boolean.TRUE) != null) {
+            log.info("Ignoring redelivered webhook {}", deliveryId);
+            return record(Outcome.DUPLICATE);
+        }
+        String repository = issueEvent.getIssue().getRepository();
+        if (!isConfigured(repository)) {
+            log.warn("Ignoring webhook delivery {} for issue {} of {}: the repository is not configured to sync",
+                    deliveryId, issueEvent.getIssue().getId(), repository);
+            return record(Outcome.UNCONFIGURED);
+        }
+        if (REMOVAL_ACTIONS.contains(issueEvent.getAction())) {
+            log.info("Ignoring {} event for issue {}: removals are not applied", issueEvent.getAction(),
+                    issueEvent.getIssue().getId());
+            return record(Outcome.IGNORED);
+        }
+        batcher.add(issueEvent.getIssue(), deliveryId);
+        return record(Outcome.ACCEPTED);
+    }
+    
+    /**
+     * Whether the repository is synced: listed in the configuration, or owned by the configured organization
+     */
+    boolean isConfigured(String repository) {
+        if (repository == null) {
+            return false;
+        }
+        String name = repository.toLowerCase(Locale.ROOT);
+        return repositories.contains(name) || (organizationPrefix != null && name.startsWith(organizationPrefix));
+    }
+    
+    private void addRepository(String repository) {
+        if (repository != null && !repository.isBlank()) {
+            repositories.add(repository.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+    
+    /**
+     * Accept redeliveries of deliveries whose write failed
+     */
+    private void forgetDeliveries(List<String> deliveryIds) {
+        deliveries.invalidateAll(deliveryIds);
+        log.info("Forgot {} webhook deliveries whose write failed, so their redeliveries are applied", deliveryIds.size());
+    }
+    
+    String sign(byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+    
+    private Outcome record(Outcome outcome) {
+        count(outcome.name().toLowerCase());
+        return outcome;
+    }
+    
+    private void count(String outcome) {
+        Counter.builder("connector.webhook.deliveries")
+                .description("GitHub webhook deliveries by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        batcher.close();
+    }
+}
@@ -0,0 +1,213 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.model.Issue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CachingIssueRepository
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingIssueRepositoryTest {
+    
+    @Mock
+    private AsyncIssueRepository delegate;
+    
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CachingIssueRepository repository;
+    
+    @BeforeEach
+    void setUp() {
+        ConnectorConfig config = ConnectorConfig.builder()
+                .issueCacheMaxEntries(100)
+                .issueCacheTtlSeconds(60)
+                .build();
+        repository = new CachingIssueRepository(delegate, config, meterRegistry, nanos::get);
+    }
+    
+    @Test
+    void testFindById_CachesHitsAndServesExistsFromSameEntry() throws Exception {
+        // Arrange
+        Issue issue = createIssue(1L);
+        when(delegate.findById(1L)).thenReturn(Optional.of(issue));
+        
+        // Act
+        Optional<Issue> first = repository.findById(1L);
+        Optional<Issue> second = repository.findById(1L);
+        boolean exists = repository.existsById(1L);
+        
+        // Assert
+        assertEquals(Optional.of(issue), first);
+        assertEquals(first, second);
+        assertTrue(exists);
+        verify(delegate, times(1)).findById(1L);
+        verify(delegate, never()).existsById(any());
+        assertEquals(2, meterRegistry.get("cache.gets").tag("cache", "issues").tag("result", "hit").functionCounter().count());
+    }
+    
+    @Test
+    void testExistsById_CachesNegativeLookupsUntilTtl() throws Exception {
+        // Arrange
+        when(delegate.existsById(2L)).thenReturn(false);
+        
+        // Act & Assert
+        assertFalse(repository.existsById(2L));
+        assertFalse(repository.existsById(2L));
+        verify(delegate, times(1)).existsById(2L);
+        
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        assertFalse(repository.existsById(2L));
+        verify(delegate, times(2)).existsById(2L);
+        verify(delegate, never()).findById(any());
+    }
+    
+    @Test
+    void testExistsById_UsesTheIdOnlyReadWithoutCachingAHit() throws Exception {
+        // Arrange
+        when(delegate.existsById(7L)).thenReturn(true);
+        Issue issue = createIssue(7L);
+        when(delegate.findById(7L)).thenReturn(Optional.of(issue));
+        
+        when(delegate.existsByIdAsync(7L)).thenReturn(CompletableFuture.completedFuture(true));
+        
+        // Act & Assert: existence alone does not fill the entry findById needs
+        assertTrue(repository.existsById(7L));
+        assertTrue(repository.existsByIdAsync(7L).get());
+        assertEquals(Optional.of(issue), repository.findById(7L));
+        verify(delegate, times(1)).existsById(7L);
+        verify(delegate, times(1)).findById(7L);
+    }
+    
+    @Test
+    void testFindByIdAsync_ReadInFlightDuringSaveAllDoesNotCacheTheOlderVersion() throws Exception {
+        // Arrange: a read of issue 8 starts before a sync writes a newer version of it
+        Issue older = createIssue(8L);
+        Issue newer = createIssue(8L);
+        newer.setState("closed");
+        CompletableFuture<Optional<Issue>> read = new CompletableFuture<>();
+        when(delegate.findByIdAsync(8L)).thenReturn(read);
+        BatchSaveResult saveResult = new BatchSaveResult();
+        saveResult.getSavedIssues().add(newer);
+        when(delegate.saveAll(List.of(newer))).thenReturn(saveResult);
+        CompletableFuture<Optional<Issue>> inFlight = repository.findByIdAsync(8L);
+        
+        // Act
+        repository.saveAll(List.of(newer));
+        read.complete(Optional.of(older));
+        
+        // Assert: the caller gets what it read, the cache keeps the written version
+        assertEquals(Optional.of(older), inFlight.get());
+        assertEquals(Optional.of(newer), repository.findById(8L));
+        verify(delegate, never()).findById(any());
+    }
+    
+    @Test
+    void testFindByIdsAsync_ReadInFlightDuringInvalidateIsNotCached() throws Exception {
+        // Arrange: a webhook write lands while issue 9 is being read
+        CompletableFuture<Map<Long, Issue>> read = new CompletableFuture<>();
+        when(delegate.findByIdsAsync(List.of(9L))).thenReturn(read);
+        CompletableFuture<Map<Long, Issue>> inFlight = repository.findByIdsAsync(List.of(9L));
+        
+        // Act
+        repository.invalidate(List.of(9L));
+        read.complete(Map.of());
+        
+        // Assert: the miss read before the write is not cached, so the next lookup reads again
+        assertEquals(Map.of(), inFlight.get());
+        when(delegate.findById(9L)).thenReturn(Optional.of(createIssue(9L)));
+        assertTrue(repository.findById(9L).isPresent());
+        verify(delegate, times(1)).findById(9L);
+    }
+    
+    @Test
+    void testSaveAll_PopulatesSavedAndEvictsSkippedIssues() throws Exception {
+        // Arrange: both IDs cached as misses, then only issue 3 is written
+        when(delegate.findById(any())).thenReturn(Optional.empty());
+        repository.findById(3L);
+        repository.findById(4L);
+        List<Issue> issues = Arrays.asList(createIssue(3L), createIssue(4L));
+        BatchSaveResult saveResult = new BatchSaveResult();
+        saveResult.getSavedIssues().add(issues.get(0));
+        when(delegate.saveAll(issues)).thenReturn(saveResult);
+        
+        // Act
+        repository.saveAll(issues);
+        
+        // Assert
+        assertTrue(repository.existsById(3L));
+        verify(delegate, times(1)).findById(3L);
+        when(delegate.existsById(4L)).thenReturn(false);
+        assertFalse(repository.existsById(4L));
+        verify(delegate, times(1)).findById(4L);
+        verify(delegate, times(1)).existsById(4L);
+    }
+    
+    @Test
+    void testSave_UpdatesCachedEntry() throws Exception {
+        // Arrange
+        when(delegate.findById(5L)).thenReturn(Optional.empty());
+        Issue issue = createIssue(5L);
+        when(delegate.save(issue)).thenReturn(issue);
+        repository.findById(5L);
+        
+        // Act
+        repository.save(issue);
+        
+        // Assert
+        assertEquals(Optional.of(issue), repository.findById(5L));
+        verify(delegate, times(1)).findById(5L);
+    }
+    
+    @Test
+    void testFindById_PropagatesRepositoryFailureWithoutCaching() throws Exception {
+        // Arrange
+        when(delegate.findById(6L)).thenThrow(new RepositoryException("Firestore Error"));
+        
+        // Act & Assert
+        RepositoryException exception = assertThrows(RepositoryException.class, () -> repository.findById(6L));
+        assertEquals("Firestore Error", exception.getMessage());
+        assertThrows(RepositoryException.class, () -> repository.findById(6L));
+        verify(delegate, times(2)).findById(6L);
+    }
+    
+    @Test
+    void testFindByIdsAsync_ReadsOnlyUncachedIds() throws Exception {
+        // Arrange: issue 1 cached as a hit, 2 found and 3 missing in Firestore
+        Issue first = createIssue(1L);
+        Issue second = createIssue(2L);
+        when(delegate.findById(1L)).thenReturn(Optional.of(first));
+        repository.findById(1L);
+        when(delegate.findByIdsAsync(List.of(3L, 2L))).thenReturn(CompletableFuture.completedFuture(Map.of(2L, second)));
+        
+        // Act
+        Map<Long, Issue> found = repository.findByIdsAsync(List.of(3L, 2L, 1L)).get();
+        Map<Long, Issue> again = repository.findByIdsAsync(List.of(1L, 2L, 3L)).get();
+        
+        // Assert
+        assertEquals(List.of(2L, 1L), List.copyOf(found.keySet()));
+        assertEquals(Map.of(1L, first, 2L, second), again);
+        verify(delegate, times(1)).findByIdsAsync(any());
+    }
+    
+    private Issue createIssue(Long id) {
+        return new Issue(id, "Issue " + id, LocalDateTime.now(), "open", "http://example.com/" + id, "test/repo", LocalDateTime.now());
+    }
+}
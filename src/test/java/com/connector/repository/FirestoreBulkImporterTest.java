@@ -0,0 +1,186 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.model.Issue;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.ApiExceptionFactory;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.BulkWriterOptions;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.WriteResult;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FirestoreBulkImporter sessions over a mocked BulkWriter
+ */
+@ExtendWith(MockitoExtension.class)
+class FirestoreBulkImporterTest {
+    
+    private static final Timestamp STORED_UPDATE_TIME = Timestamp.ofTimeSecondsAndNanos(1_700_000_000L, 0);
+    
+    @Mock
+    private Firestore firestore;
+    
+    @Mock
+    private CollectionReference collection;
+    
+    @Mock
+    private BulkWriter bulkWriter;
+    
+    @Mock
+    private CachingIssueRepository issueCache;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    /** Documents served by getAll, by ID; every other ID is missing */
+    private final Map<String, DocumentSnapshot> stored = new HashMap<>();
+    private IssueIdIndex idIndex;
+    private FirestoreBulkImporter importer;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        ConnectorConfig config = ConnectorConfig.builder()
+                .firestoreCollection("github_issues")
+                .backfillInitialOpsPerSecond(500)
+                .backfillMaxOpsPerSecond(200)
+                .build();
+        idIndex = new IssueIdIndex(true, "");
+        idIndex.load();
+        importer = new FirestoreBulkImporter(firestore, config, idIndex, issueCache, meterRegistry);
+        
+        when(firestore.bulkWriter(any(BulkWriterOptions.class))).thenReturn(bulkWriter);
+        when(firestore.collection("github_issues")).thenReturn(collection);
+        lenient().when(collection.document(anyString())).thenAnswer(invocation -> {
+            DocumentReference docRef = mock(DocumentReference.class);
+            lenient().when(docRef.getId()).thenReturn(invocation.getArgument(0));
+            return docRef;
+        });
+        lenient().when(firestore.getAll(any(DocumentReference[].class), any(FieldMask.class))).thenAnswer(invocation -> {
+            List<DocumentSnapshot> snapshots = new ArrayList<>();
+            for (DocumentReference docRef : (DocumentReference[]) invocation.getRawArguments()[0]) {
+                snapshots.add(stored.getOrDefault(docRef.getId(), mock(DocumentSnapshot.class)));
+            }
+            return ApiFutures.immediateFuture(snapshots);
+        });
+    }
+    
+    @Test
+    void testOpen_CapsInitialRateAtMaxOpsPerSecond() {
+        // Act
+        importer.open();
+        
+        // Assert
+        ArgumentCaptor<BulkWriterOptions> options = ArgumentCaptor.forClass(BulkWriterOptions.class);
+        verify(firestore).bulkWriter(options.capture());
+        assertTrue(options.getValue().getThrottlingEnabled());
+        assertEquals(200, options.getValue().getInitialOpsPerSecond());
+        assertEquals(200, options.getValue().getMaxOpsPerSecond());
+    }
+    
+    @Test
+    void testFlush_CountsSettledWritesAndIndexesAndEvictsWrittenIssues() throws Exception {
+        // Arrange: the second write exhausts BulkWriter's retries
+        when(bulkWriter.create(any(DocumentReference.class), anyMap())).thenReturn(
+                ApiFutures.immediateFuture(mock(WriteResult.class)),
+                ApiFutures.immediateFailedFuture(new IllegalStateException("deadline exceeded")),
+                ApiFutures.immediateFuture(mock(WriteResult.class)));
+        when(bulkWriter.flush()).thenReturn(ApiFutures.immediateFuture(null));
+        
+        // Act
+        try (FirestoreBulkImporter.Session session = importer.open()) {
+            session.write(List.of(createIssue(1L), createIssue(2L), createIssue(3L)));
+            session.flush();
+            
+            // Assert
+            assertEquals(2, session.getWritten());
+            assertEquals(1, session.getFailed());
+        }
+        assertTrue(idIndex.contains(1L));
+        assertFalse(idIndex.contains(2L));
+        assertEquals(IssueDocumentMapper.contentHash(createIssue(3L)), idIndex.hashOf(3L));
+        assertEquals(1, meterRegistry.get("connector.backfill.issues").tag("result", "failed").counter().count());
+        verify(issueCache).invalidate(List.of(1L));
+        verify(issueCache).invalidate(List.of(3L));
+        verify(issueCache, never()).invalidate(List.of(2L));
+        verify(bulkWriter).close();
+    }
+    
+    @Test
+    void testWrite_KeepsVersionsOtherWritersStoredFirst() throws Exception {
+        // Arrange: a webhook stored a newer version of issue 1 before the backfill read it, issue 2 is stored
+        // unchanged, issue 3 is stored older, and a sync updates issue 3 between the backfill's read and write
+        Issue newer = createIssue(1L);
+        newer.setUpdatedAt(newer.getUpdatedAt().plusDays(1));
+        newer.setState("closed");
+        store(newer);
+        store(createIssue(2L));
+        Issue older = createIssue(3L);
+        older.setTitle("Old title");
+        store(older);
+        when(bulkWriter.update(any(DocumentReference.class), anyMap(), any(Precondition.class))).thenReturn(
+                ApiFutures.immediateFailedFuture(ApiExceptionFactory.createException(
+                        new RuntimeException("stale"), GrpcStatusCode.of(Status.Code.FAILED_PRECONDITION), false)));
+        when(bulkWriter.create(any(DocumentReference.class), anyMap())).thenReturn(
+                ApiFutures.immediateFuture(mock(WriteResult.class)));
+        when(bulkWriter.flush()).thenReturn(ApiFutures.immediateFuture(null));
+        
+        // Act
+        try (FirestoreBulkImporter.Session session = importer.open()) {
+            session.write(List.of(createIssue(1L), createIssue(2L), createIssue(3L), createIssue(4L)));
+            session.flush();
+            
+            // Assert: only the missing issue is written; the others keep what was stored first
+            assertEquals(1, session.getWritten());
+            assertEquals(3, session.getSkipped());
+            assertEquals(0, session.getFailed());
+        }
+        verify(bulkWriter, never()).set(any(DocumentReference.class), anyMap());
+        verify(bulkWriter, times(1)).create(any(DocumentReference.class), anyMap());
+        verify(bulkWriter, times(1)).update(any(DocumentReference.class), anyMap(), eq(Precondition.updatedAt(STORED_UPDATE_TIME)));
+        assertEquals(IssueDocumentMapper.contentHash(newer), idIndex.hashOf(1L));
+        assertFalse(idIndex.contains(3L));
+        assertEquals(3, meterRegistry.get("connector.backfill.issues").tag("result", "skipped").counter().count());
+        verify(issueCache, never()).invalidate(List.of(1L));
+    }
+    
+    private void store(Issue issue) {
+        DocumentSnapshot snapshot = mock(DocumentSnapshot.class);
+        when(snapshot.exists()).thenReturn(true);
+        when(snapshot.getId()).thenReturn(issue.getId().toString());
+        lenient().when(snapshot.getLong(IssueDocumentMapper.CONTENT_HASH_FIELD)).thenReturn(IssueDocumentMapper.contentHash(issue));
+        lenient().when(snapshot.getData()).thenReturn(IssueDocumentMapper.toDocument(issue));
+        lenient().when(snapshot.getUpdateTime()).thenReturn(STORED_UPDATE_TIME);
+        stored.put(issue.getId().toString(), snapshot);
+    }
+    
+    private Issue createIssue(Long id) {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        return new Issue(id, "Issue " + id, createdAt, "open", "http://example.com/" + id, "test/repo", createdAt);
+    }
+}
@@ -0,0 +1,718 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.model.Issue;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.ApiExceptionFactory;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.cloud.firestore.WriteResult;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the batched write path of FirestoreIssueRepository
+ */
+@ExtendWith(MockitoExtension.class)
+class FirestoreIssueRepositoryTest {
+    
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final Timestamp STORED_UPDATE_TIME = Timestamp.ofTimeSecondsAndNanos(1_700_000_000L, 0);
+    
+    @Mock
+    private Firestore firestore;
+    
+    @Mock
+    private CollectionReference collection;
+    
+    @Mock
+    private WriteBatch batch;
+    
+    @Mock
+    private Query query;
+    
+    @Mock
+    private CachingIssueRepository issueCache;
+    
+    /** Stored documents served by getAll: document ID to stored content hash */
+    private final Map<String, Long> existingHashes = new HashMap<>();
+    /** Stored documents updated a day after the issues createIssue builds */
+    private final Set<String> newerStoredIds = new HashSet<>();
+    /** Document IDs served by the mocked ordered query, in Firestore's lexicographic ID order */
+    private final TreeSet<String> storedIds = new TreeSet<>();
+    /** Document IDs the mocked ordered query serves in schema version 1 */
+    private final Set<String> legacyIds = new HashSet<>();
+    private String queryStartAfter;
+    private int queryLimit;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private IssueIdIndex idIndex;
+    private FirestoreIssueRepository repository;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        ConnectorConfig config = ConnectorConfig.builder()
+                .githubRepository("test/repo")
+                .firestoreCollection("github_issues")
+                .firestoreBatchSize(500)
+                .firestoreMaxInFlightChunks(2)
+                .build();
+        
+        repository = new FirestoreIssueRepository();
+        ReflectionTestUtils.setField(repository, "config", config);
+        ReflectionTestUtils.setField(repository, "firestore", firestore);
+        ReflectionTestUtils.setField(repository, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(repository, "writeAheadLog", new IssueWriteAheadLog(""));
+        ReflectionTestUtils.setField(repository, "retryHandler", new RetryHandler(config, meterRegistry));
+        repository.initialize();
+        // An empty, already bootstrapped index: every ID is unknown and verified with getAll
+        idIndex = new IssueIdIndex(true, "");
+        idIndex.load();
+        idIndex.markComplete();
+        ReflectionTestUtils.setField(repository, "idIndex", idIndex);
+        
+        when(firestore.collection("github_issues")).thenReturn(collection);
+        when(collection.document(anyString())).thenAnswer(invocation -> {
+            DocumentReference docRef = mock(DocumentReference.class);
+            when(docRef.getId()).thenReturn(invocation.getArgument(0));
+            return docRef;
+        });
+        lenient().when(firestore.getAll(any(DocumentReference[].class), any(FieldMask.class))).thenAnswer(invocation -> {
+            DocumentReference[] docRefs = (DocumentReference[]) invocation.getRawArguments()[0];
+            List<DocumentSnapshot> snapshots = new ArrayList<>();
+            for (DocumentReference docRef : docRefs) {
+                String id = docRef.getId();
+                DocumentSnapshot snapshot = mock(DocumentSnapshot.class);
+                boolean exists = existingHashes.containsKey(id);
+                when(snapshot.exists()).thenReturn(exists);
+                if (exists) {
+                    when(snapshot.getId()).thenReturn(id);
+                    // Lenient: saves read only the stored hash, findByIdsAsync only the stored fields
+                    lenient().when(snapshot.getLong(IssueDocumentMapper.CONTENT_HASH_FIELD)).thenReturn(existingHashes.get(id));
+                    Issue storedIssue = createIssue(Long.parseLong(id));
+                    if (newerStoredIds.contains(id)) {
+                        storedIssue.setUpdatedAt(CREATED_AT.plusDays(1));
+                    }
+                    lenient().when(snapshot.getData()).thenReturn(IssueDocumentMapper.toDocument(storedIssue));
+                    lenient().when(snapshot.getUpdateTime()).thenReturn(STORED_UPDATE_TIME);
+                }
+                snapshots.add(snapshot);
+            }
+            return ApiFutures.immediateFuture(snapshots);
+        });
+        lenient().when(firestore.batch()).thenReturn(batch);
+        lenient().when(batch.create(any(DocumentReference.class), anyMap())).thenReturn(batch);
+        lenient().when(batch.update(any(DocumentReference.class), anyMap(), any(Precondition.class))).thenReturn(batch);
+        lenient().when(batch.commit()).thenReturn(ApiFutures.immediateFuture(new ArrayList<>()));
+    }
+    
+    @Test
+    void testSaveAll_SplitsIntoChunksWithOneCommitEach() throws Exception {
+        // Arrange
+        List<Issue> issues = createIssues(1200);
+        
+        // Act
+        BatchSaveResult result = repository.saveAll(issues);
+        
+        // Assert
+        assertEquals(1200, result.getSavedIssues().size());
+        assertEquals(3, result.getChunks().size());
+        assertEquals(500, result.getChunks().get(0).getWritten());
+        assertEquals(200, result.getChunks().get(2).getWritten());
+        verify(firestore, never()).getAll(any(DocumentReference[].class), any(FieldMask.class));
+        verify(batch, times(3)).commit();
+        verify(batch, times(1200)).create(any(DocumentReference.class), anyMap());
+        assertEquals(1200, meterRegistry.get("connector.firestore.batch.size").summary().totalAmount());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        repository.shutdown();
+    }
+    
+    @Test
+    void testSaveAll_CommitsChunksConcurrentlyWithinTheInFlightLimit() throws Exception {
+        // Arrange
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(batch.commit()).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            inFlight.decrementAndGet();
+            return ApiFutures.immediateFuture(new ArrayList<>());
+        });
+        
+        // Act
+        BatchSaveResult result = repository.saveAll(createIssues(2000));
+        
+        // Assert
+        assertEquals(4, result.getChunks().size());
+        assertEquals(2, maxInFlight.get());
+        assertEquals(LongStream.rangeClosed(1, 2000).boxed().collect(Collectors.toList()),
+                result.getSavedIssues().stream().map(Issue::getId).collect(Collectors.toList()));
+    }
+    
+    @Test
+    void testSaveAllAsync_KeepsOneCommitInFlightPerLane() throws Exception {
+        // Arrange: commits complete only when the test completes them
+        List<SettableApiFuture<List<WriteResult>>> commits = new ArrayList<>();
+        when(batch.commit()).thenAnswer(invocation -> {
+            SettableApiFuture<List<WriteResult>> commit = SettableApiFuture.create();
+            commits.add(commit);
+            return commit;
+        });
+        
+        // Act
+        CompletableFuture<BatchSaveResult> future = repository.saveAllAsync(createIssues(2000));
+        
+        // Assert: two lanes issue their first commits without waiting, the rest follow as commits complete
+        assertEquals(2, commits.size());
+        for (int i = 0; i < 4; i++) {
+            assertFalse(future.isDone());
+            commits.get(i).set(new ArrayList<>());
+        }
+        BatchSaveResult result = future.get(5, TimeUnit.SECONDS);
+        assertEquals(4, commits.size());
+        assertEquals(2000, result.getInsertedCount());
+        assertEquals(LongStream.rangeClosed(1, 2000).boxed().collect(Collectors.toList()),
+                result.getSavedIssues().stream().map(Issue::getId).collect(Collectors.toList()));
+        assertEquals(4, meterRegistry.get("connector.firestore.rpc").tag("operation", "commit").timer().count());
+    }
+    
+    @Test
+    void testFindByIdsAsync_ReturnsFoundIssuesInRequestOrder() throws Exception {
+        // Arrange
+        storeUnchanged(1L, 3L);
+        
+        // Act
+        Map<Long, Issue> found = repository.findByIdsAsync(List.of(3L, 2L, 1L, 3L)).get();
+        
+        // Assert
+        assertEquals(List.of(3L, 1L), List.copyOf(found.keySet()));
+        assertEquals("Issue 3", found.get(3L).getTitle());
+        verify(firestore, times(1)).getAll(any(DocumentReference[].class), any(FieldMask.class));
+    }
+    
+    @Test
+    void testSaveAll_SkipsUnchangedAndRepeatedIssues() throws Exception {
+        // Arrange
+        storeUnchanged(1L, 2L);
+        List<Issue> issues = new ArrayList<>(createIssues(4));
+        issues.add(createIssue(3L));
+        
+        // Act
+        BatchSaveResult result = repository.saveAll(issues);
+        
+        // Assert
+        assertEquals(Arrays.asList(3L, 4L),
+                result.getSavedIssues().stream().map(Issue::getId).collect(Collectors.toList()));
+        assertEquals(2, result.getInsertedCount());
+        assertEquals(3, result.getUnchangedCount());
+        assertEquals(0, result.getFailedCount());
+        verify(batch, times(2)).create(any(DocumentReference.class), anyMap());
+    }
+    
+    @Test
+    void testSaveAll_SkipsIssuesWhoseOnlyChangeIsUpdatedAt() throws Exception {
+        // Arrange: a comment bumped updated_at on issue 1, and closed issue 2
+        storeUnchanged(1L, 2L);
+        Issue commented = createIssue(1L);
+        commented.setUpdatedAt(CREATED_AT.plusHours(1));
+        Issue closed = createIssue(2L);
+        closed.setUpdatedAt(CREATED_AT.plusHours(1));
+        closed.setState("closed");
+        
+        // Act
+        BatchSaveResult result = repository.saveAll(List.of(commented, closed));
+        
+        // Assert
+        assertEquals(IssueDocumentMapper.contentHash(createIssue(1L)), IssueDocumentMapper.contentHash(commented));
+        assertEquals(Arrays.asList(2L), result.getSavedIssues().stream().map(Issue::getId).collect(Collectors.toList()));
+        assertEquals(1, result.getUpdatedCount());
+        assertEquals(1, result.getUnchangedCount());
+        verify(batch, times(1)).update(any(DocumentReference.class), anyMap(), any(Precondition.class));
+    }
+    
+    @Test
+    void testSaveAll_UpsertsChangedIssues() throws Exception {
+        // Arrange
+        storeUnchanged(1L);
+        store(2L, IssueDocumentMapper.contentHash(createIssue(2L)) + 1);
+        // Stored before content hashes existed
+        store(3L, null);
+        
+        // Act
+        BatchSaveResult result = repository.saveAll(createIssues(4));
+        
+        // Assert
+        assertEquals(Arrays.asList(2L, 3L, 4L),
+                result.getSavedIssues().stream().map(Issue::getId).collect(Collectors.toList()));
+        assertEquals(1, result.getInsertedCount());
+        assertEquals(2, result.getUpdatedCount());
+        assertEquals(1, result.getUnchangedCount());
+        assertEquals(IssueDocumentMapper.contentHash(createIssue(2L)), idIndex.hashOf(2L));
+        verify(batch, times(2)).update(any(DocumentReference.class), anyMap(), eq(Precondition.updatedAt(STORED_UPDATE_TIME)));
+        verify(batch, times(1)).create(any(DocumentReference.class), anyMap());
+    }
+    
+    @Test
+    void testSaveAll_SkipsIssuesOlderThanTheStoredVersion() throws Exception {
+        // Arrange: a webhook already stored a newer version of issue 2
+        store(1L, IssueDocumentMapper.contentHash(createIssue(1L)) + 1);
+        store(2L, IssueDocumentMapper.contentHash(createIssue(2L)) + 1);
+        newerStoredIds.add("2");
+        
+        // Act
+        BatchSaveResult result = repository.saveAll(createIssues(2));
+        
+        // Assert
+        assertEquals(Arrays.asList(1L), result.getSavedIssues().stream().map(Issue::getId).collect(Collectors.toList()));
+        assertEquals(1, result.getUpdatedCount());
+        assertEquals(1, result.getUnchangedCount());
+        verify(batch, times(1)).update(any(DocumentReference.class), anyMap(), any(Precondition.class));
+    }
+    
+    @Test
+    void testSaveAll_DropsTheOlderCopyWhenAnotherWriterCommitsFirst() throws Exception {
+        // Arrange: another writer creates a newer issue 2 between this chunk's index check and its commit
+        AtomicInteger commits = new AtomicInteger();
+        when(batch.commit()).thenAnswer(invocation -> {
+            if (commits.getAndIncrement() > 0) {
+                return ApiFutures.immediateFuture(new ArrayList<>());
+            }
+            existingHashes.put("2", IssueDocumentMapper.contentHash(createIssue(2L)) + 1);
+            newerStoredIds.add("2");
+            return ApiFutures.immediateFailedFuture(ApiExceptionFactory.createException(
+                    new RuntimeException("document already exists"), GrpcStatusCode.of(Status.Code.ALREADY_EXISTS), false));
+        });
+        
+        // Act
+        BatchSaveResult result = repository.saveAll(createIssues(2));
+        
+        // Assert: the chunk is read again and only issue 1 is written
+        assertEquals(Arrays.asList(1L), result.getSavedIssues().stream().map(Issue::getId).collect(Collectors.toList()));
+        assertEquals(1, result.getInsertedCount());
+        assertEquals(1, result.getUnchangedCount());
+        assertEquals(0, result.getFailedCount());
+        verify(firestore, times(1)).getAll(any(DocumentReference[].class), any(FieldMask.class));
+        verify(batch, times(3)).create(any(DocumentReference.class), anyMap());
+        assertEquals(1, meterRegistry.get("connector.firestore.write.conflicts").counter().count());
+    }
+    
+    @Test
+    void testSaveAll_AllUnchangedSkipsCommit() throws Exception {
+        // Arrange
+        storeUnchanged(1L, 2L);
+        
+        // Act
+        BatchSaveResult result = repository.saveAll(createIssues(2));
+        
+        // Assert
+        assertTrue(result.getSavedIssues().isEmpty());
+        assertEquals(2, result.getUnchangedCount());
+        verify(batch, never()).commit();
+    }
+    
+    @Test
+    void testSaveAll_FailedCommitIsReportedPerChunk() throws Exception {
+        // Arrange
+        when(batch.commit()).thenReturn(ApiFutures.immediateFailedFuture(new RuntimeException("unavailable")));
+        
+        // Act
+        BatchSaveResult result = repository.saveAll(createIssues(3));
+        
+        // Assert
+        assertTrue(result.getSavedIssues().isEmpty());
+        assertEquals(3, result.getFailedCount());
+        assertEquals(3, result.getChunks().get(0).getFailed());
+        assertEquals(1, meterRegistry.get("connector.firestore.rpc")
+                .tag("operation", "commit").tag("outcome", "error").timer().count());
+    }
+    
+    @Test
+    void testSaveAll_FailedCommitIsDeferredToWriteAheadLogAndReplayed(@TempDir Path tempDir) throws Exception {
+        // Arrange: the first commit fails, the replayed one succeeds
+        IssueWriteAheadLog writeAheadLog = new IssueWriteAheadLog(tempDir.resolve("issues.wal").toString());
+        writeAheadLog.load();
+        ReflectionTestUtils.setField(repository, "writeAheadLog", writeAheadLog);
+        when(batch.commit())
+                .thenReturn(ApiFutures.immediateFailedFuture(new RuntimeException("unavailable")))
+                .thenReturn(ApiFutures.immediateFuture(new ArrayList<>()));
+        WriteAheadLogReplayer replayer = new WriteAheadLogReplayer(repository, writeAheadLog, issueCache,
+                ConnectorConfig.builder().firestoreBatchSize(500).build(), meterRegistry);
+        
+        // Act
+        BatchSaveResult result = repository.saveAll(createIssues(3));
+        int pendingAfterOutage = writeAheadLog.pendingCount();
+        int replayed = replayer.replay();
+        
+        // Assert
+        assertEquals(0, result.getFailedCount());
+        assertEquals(3, result.getDeferredCount());
+        assertEquals(3, pendingAfterOutage);
+        assertEquals(3, replayed);
+        assertEquals(0, writeAheadLog.pendingCount());
+        verify(batch, times(2)).commit();
+        assertEquals(IssueDocumentMapper.contentHash(createIssue(3L)), idIndex.hashOf(3L));
+        verify(issueCache).invalidate(List.of(1L, 2L, 3L));
+        replayer.shutdown();
+    }
+    
+    @Test
+    void testReplay_QuarantinesARejectedWriteAndCommitsTheWritesBehindIt(@TempDir Path tempDir) throws Exception {
+        // Arrange: an outage defers four writes; Firestore then rejects any commit that includes issue 1
+        IssueWriteAheadLog writeAheadLog = new IssueWriteAheadLog(tempDir.resolve("issues.wal").toString());
+        writeAheadLog.load();
+        ReflectionTestUtils.setField(repository, "writeAheadLog", writeAheadLog);
+        List<String> batched = new ArrayList<>();
+        when(batch.create(any(DocumentReference.class), anyMap())).thenAnswer(invocation -> {
+            batched.add(invocation.<DocumentReference>getArgument(0).getId());
+            return batch;
+        });
+        AtomicInteger commits = new AtomicInteger();
+        when(batch.commit()).thenAnswer(invocation -> {
+            boolean poisoned = batched.contains("1");
+            batched.clear();
+            if (commits.getAndIncrement() == 0) {
+                return ApiFutures.immediateFailedFuture(new RuntimeException("unavailable"));
+            }
+            if (poisoned) {
+                return ApiFutures.immediateFailedFuture(ApiExceptionFactory.createException(
+                        new RuntimeException("document too large"), GrpcStatusCode.of(Status.Code.INVALID_ARGUMENT), false));
+            }
+            return ApiFutures.immediateFuture(new ArrayList<>());
+        });
+        WriteAheadLogReplayer replayer = new WriteAheadLogReplayer(repository, writeAheadLog, issueCache,
+                ConnectorConfig.builder().firestoreBatchSize(500).build(), meterRegistry);
+        repository.saveAll(createIssues(4));
+        
+        // Act
+        int replayed = replayer.replay();
+        
+        // Assert: the poison record is set aside once, and the good records are committed and acknowledged
+        assertEquals(3, replayed);
+        assertEquals(0, writeAheadLog.pendingCount());
+        assertEquals(1, meterRegistry.get("connector.wal.replay").tag("result", "quarantined").counter().count());
+        List<String> deadLetters = Files.readAllLines(tempDir.resolve("issues.wal.dead"));
+        assertEquals(1, deadLetters.size());
+        assertTrue(deadLetters.get(0).contains("\"id\":1,"));
+        assertTrue(deadLetters.get(0).contains("document too large"));
+        assertEquals(IssueIdIndex.NO_HASH, idIndex.hashOf(1L));
+        assertEquals(IssueDocumentMapper.contentHash(createIssue(4L)), idIndex.hashOf(4L));
+        assertEquals(0, replayer.replay());
+        replayer.shutdown();
+    }
+    
+    @Test
+    void testReplay_TransientFailureKeepsEveryWritePending(@TempDir Path tempDir) throws Exception {
+        IssueWriteAheadLog writeAheadLog = new IssueWriteAheadLog(tempDir.resolve("issues.wal").toString());
+        writeAheadLog.load();
+        ReflectionTestUtils.setField(repository, "writeAheadLog", writeAheadLog);
+        when(batch.commit()).thenReturn(ApiFutures.immediateFailedFuture(new RuntimeException("unavailable")));
+        WriteAheadLogReplayer replayer = new WriteAheadLogReplayer(repository, writeAheadLog, issueCache,
+                ConnectorConfig.builder().firestoreBatchSize(500).build(), meterRegistry);
+        repository.saveAll(createIssues(4));
+        
+        assertEquals(0, replayer.replay());
+        
+        assertEquals(4, writeAheadLog.pendingCount());
+        assertFalse(Files.exists(tempDir.resolve("issues.wal.dead")));
+        verify(batch, times(2)).commit();
+        replayer.shutdown();
+    }
+    
+    @Test
+    void testSaveAll_CompleteIndexReadsOnlyIssuesItKnowsAsChanged() throws Exception {
+        // Arrange: 1 and 2 stored unchanged, 3 stored with another hash, 4 new
+        storeUnchanged(1L, 2L);
+        store(3L, IssueDocumentMapper.contentHash(createIssue(3L)) + 1);
+        List<String> readIds = new ArrayList<>();
+        when(firestore.getAll(any(DocumentReference[].class), any(FieldMask.class))).thenAnswer(invocation -> {
+            DocumentSnapshot snapshot = mock(DocumentSnapshot.class);
+            for (DocumentReference docRef : (DocumentReference[]) invocation.getRawArguments()[0]) {
+                readIds.add(docRef.getId());
+            }
+            when(snapshot.exists()).thenReturn(true);
+            when(snapshot.getId()).thenReturn("3");
+            when(snapshot.getData()).thenReturn(IssueDocumentMapper.toDocument(createIssue(3L)));
+            return ApiFutures.immediateFuture(List.of(snapshot));
+        });
+        
+        // Act
+        BatchSaveResult first = repository.saveAll(createIssues(4));
+        BatchSaveResult second = repository.saveAll(createIssues(4));
+        
+        // Assert
+        assertEquals(List.of("3"), readIds);
+        assertEquals(Arrays.asList(3L, 4L), first.getSavedIssues().stream().map(Issue::getId).collect(Collectors.toList()));
+        assertEquals(1, first.getInsertedCount());
+        assertEquals(1, first.getUpdatedCount());
+        assertEquals(4, second.getUnchangedCount());
+        verify(batch, times(1)).create(any(DocumentReference.class), anyMap());
+        verify(batch, times(1)).commit();
+        assertEquals(7, meterRegistry.get("connector.index.lookups").tag("result", "known").counter().count());
+    }
+    
+    @Test
+    void testSaveAll_DisabledIndexReadsEveryIssue() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(repository, "idIndex", new IssueIdIndex(false, ""));
+        existingHashes.put("1", IssueDocumentMapper.contentHash(createIssue(1L)));
+        
+        // Act
+        BatchSaveResult result = repository.saveAll(createIssues(2));
+        
+        // Assert
+        assertEquals(1, result.getUnchangedCount());
+        assertEquals(1, result.getInsertedCount());
+        verify(firestore, times(1)).getAll(any(DocumentReference[].class), any(FieldMask.class));
+        assertEquals(2, meterRegistry.get("connector.index.lookups").tag("result", "unknown").counter().count());
+    }
+    
+    @Test
+    void testSaveAll_BootstrapsIndexWithOneKeyScan() throws Exception {
+        // Arrange
+        idIndex = new IssueIdIndex(true, "");
+        idIndex.load();
+        ReflectionTestUtils.setField(repository, "idIndex", idIndex);
+        Query keysOnly = mock(Query.class);
+        when(collection.select(any(FieldPath[].class))).thenReturn(keysOnly);
+        stubOrderedQuery(keysOnly, 3);
+        
+        // Act
+        repository.saveAll(createIssues(3));
+        repository.saveAll(createIssues(3));
+        
+        // Assert
+        assertTrue(idIndex.isComplete());
+        assertEquals(3, idIndex.size());
+        verify(collection, times(1)).select(any(FieldPath[].class));
+        verify(firestore, never()).getAll(any(DocumentReference[].class), any(FieldMask.class));
+        verify(batch, never()).commit();
+    }
+    
+    @Test
+    void testFindPage_WalksCollectionWithPageTokens() throws Exception {
+        // Arrange
+        stubOrderedQuery(5);
+        
+        // Act
+        IssueSlice first = repository.findPage(2, null);
+        IssueSlice second = repository.findPage(2, first.getNextPageToken());
+        IssueSlice last = repository.findPage(2, second.getNextPageToken());
+        
+        // Assert
+        assertEquals(Arrays.asList(1L, 2L), ids(first));
+        assertEquals(Arrays.asList(3L, 4L), ids(second));
+        assertEquals(Arrays.asList(5L), ids(last));
+        assertNull(last.getNextPageToken());
+        assertEquals(3, queryLimit);
+    }
+    
+    @Test
+    void testStreamAll_ReadsCollectionInBoundedChunks() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(repository, "config", ConnectorConfig.builder().firestoreStreamChunkSize(2).build());
+        stubOrderedQuery(5);
+        List<List<Long>> chunks = new ArrayList<>();
+        
+        // Act
+        repository.streamAll(issues -> chunks.add(issues.stream().map(Issue::getId).collect(Collectors.toList())));
+        
+        // Assert
+        assertEquals(Arrays.asList(Arrays.asList(1L, 2L), Arrays.asList(3L, 4L), Arrays.asList(5L)), chunks);
+        verify(query, times(3)).get();
+    }
+    
+    @Test
+    void testFindPage_ReadsDocumentsInEitherSchemaVersion() throws Exception {
+        // Arrange
+        legacyIds.add("2");
+        stubOrderedQuery(3);
+        
+        // Act
+        IssueSlice first = repository.findPage(2, null);
+        IssueSlice last = repository.findPage(2, first.getNextPageToken());
+        
+        // Assert
+        assertEquals(Arrays.asList(createIssue(1L), createIssue(2L)), first.getIssues());
+        assertEquals(Arrays.asList(createIssue(3L)), last.getIssues());
+    }
+    
+    @Test
+    void testMigrateSchemaPage_RewritesOnlyLegacyDocumentsUnderPrecondition() throws Exception {
+        // Arrange
+        legacyIds.addAll(Arrays.asList("2", "4"));
+        stubOrderedQuery(collection, 5);
+        List<String> migratedIds = new ArrayList<>();
+        List<Map<String, Object>> updates = new ArrayList<>();
+        when(batch.update(any(DocumentReference.class), anyMap(), any(Precondition.class))).thenAnswer(invocation -> {
+            migratedIds.add(((DocumentReference) invocation.getArgument(0)).getId());
+            updates.add(invocation.getArgument(1));
+            return batch;
+        });
+        
+        // Act
+        SchemaMigrationPage first = repository.migrateSchemaPage(null, 3);
+        SchemaMigrationPage second = repository.migrateSchemaPage(first.getLastDocumentId(), 3);
+        
+        // Assert
+        assertEquals(new SchemaMigrationPage(3, 1, "3", false), first);
+        assertEquals(new SchemaMigrationPage(2, 1, "5", true), second);
+        assertEquals(Arrays.asList("2", "4"), migratedIds);
+        Map<String, Object> update = updates.get(0);
+        assertEquals(IssueDocumentMapper.SCHEMA_VERSION, update.get(IssueDocumentMapper.SCHEMA_VERSION_FIELD));
+        assertEquals(IssueDocumentMapper.contentHash(createIssue(2L)), update.get(IssueDocumentMapper.CONTENT_HASH_FIELD));
+        assertEquals(FieldValue.delete(), update.get("created_at"));
+        assertEquals(FieldValue.delete(), update.get(IssueDocumentMapper.LEGACY_CONTENT_HASH_FIELD));
+        assertEquals(createIssue(2L), IssueDocumentMapper.fromDocument(IssueDocumentMapper.toDocument(createIssue(2L)), 2L));
+        verify(batch, times(2)).commit();
+    }
+    
+    /**
+     * Serve documents 1..count from collection.select(fields).orderBy(documentId()).startAfter(ref).limit(n).get()
+     */
+    private void stubOrderedQuery(int count) {
+        Query projected = mock(Query.class);
+        when(collection.select(any(FieldPath[].class))).thenReturn(projected);
+        stubOrderedQuery(projected, count);
+    }
+    
+    /**
+     * Serve documents 1..count from source.orderBy(documentId()).startAfter(ref).limit(n).get()
+     */
+    private void stubOrderedQuery(Query source, int count) {
+        for (long id = 1; id <= count; id++) {
+            storedIds.add(String.valueOf(id));
+        }
+        when(source.orderBy(any(FieldPath.class))).thenAnswer(invocation -> {
+            queryStartAfter = null;
+            return query;
+        });
+        lenient().when(query.startAfter(any(Object[].class))).thenAnswer(invocation -> {
+            queryStartAfter = ((DocumentReference) invocation.getArgument(0)).getId();
+            return query;
+        });
+        when(query.limit(anyInt())).thenAnswer(invocation -> {
+            queryLimit = invocation.getArgument(0);
+            return query;
+        });
+        when(query.get()).thenAnswer(invocation -> {
+            Iterable<String> ids = queryStartAfter != null ? storedIds.tailSet(queryStartAfter, false) : storedIds;
+            List<QueryDocumentSnapshot> documents = new ArrayList<>();
+            for (String id : ids) {
+                if (documents.size() == queryLimit) {
+                    break;
+                }
+                // Lenient: the look-ahead document of findPage is only counted, never read
+                QueryDocumentSnapshot document = mock(QueryDocumentSnapshot.class);
+                lenient().when(document.getId()).thenReturn(id);
+                Issue issue = createIssue(Long.parseLong(id));
+                Map<String, Object> data = legacyIds.contains(id) ? legacyDocument(issue) : IssueDocumentMapper.toDocument(issue);
+                lenient().when(document.getData()).thenReturn(data);
+                lenient().when(document.getReference()).thenAnswer(reference -> collection.document(id));
+                lenient().when(document.getUpdateTime()).thenReturn(STORED_UPDATE_TIME);
+                lenient().when(document.getLong(IssueDocumentMapper.CONTENT_HASH_FIELD))
+                        .thenReturn((Long) data.get(IssueDocumentMapper.CONTENT_HASH_FIELD));
+                documents.add(document);
+            }
+            QuerySnapshot snapshot = mock(QuerySnapshot.class);
+            when(snapshot.getDocuments()).thenReturn(documents);
+            return ApiFutures.immediateFuture(snapshot);
+        });
+    }
+    
+    /**
+     * A document as written before schema versioning
+     */
+    private static Map<String, Object> legacyDocument(Issue issue) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", issue.getId());
+        data.put("title", issue.getTitle());
+        data.put("created_at", issue.getCreatedAt().toString());
+        data.put("state", issue.getState());
+        data.put("html_url", issue.getHtmlUrl());
+        data.put("repository", issue.getRepository());
+        data.put("updated_at", issue.getUpdatedAt().toString());
+        data.put(IssueDocumentMapper.LEGACY_CONTENT_HASH_FIELD, IssueDocumentMapper.contentHash(issue));
+        return data;
+    }
+    
+    /**
+     * Store the given issues exactly as createIssue builds them
+     */
+    private void storeUnchanged(Long... ids) {
+        for (Long id : ids) {
+            store(id, IssueDocumentMapper.contentHash(createIssue(id)));
+        }
+    }
+    
+    /**
+     * Store a document with the given content hash, null for none, and record it in the complete index
+     */
+    private void store(Long id, Long contentHash) {
+        existingHashes.put(id.toString(), contentHash);
+        idIndex.put(id, contentHash != null ? contentHash : IssueIdIndex.NO_HASH);
+    }
+    
+    private static List<Long> ids(IssueSlice slice) {
+        return slice.getIssues().stream().map(Issue::getId).collect(Collectors.toList());
+    }
+    
+    private List<Issue> createIssues(int count) {
+        List<Issue> issues = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            issues.add(createIssue(id));
+        }
+        return issues;
+    }
+    
+    private Issue createIssue(Long id) {
+        return new Issue(id, "Issue " + id, CREATED_AT, "open", "http://example.com/" + id, "test/repo", CREATED_AT);
+    }
+}
@@ -0,0 +1,508 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.model.Issue;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for GitHubApiClient pagination against a local HTTP stub serving canned REST pages and GraphQL queries
+ */
+class GitHubApiClientTest {
+    
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 2, 0, 0);
+    
+    private HttpServer server;
+    private String baseUrl;
+    private final List<Integer> requestedPages = Collections.synchronizedList(new ArrayList<>());
+    private final List<Integer> notModifiedPages = Collections.synchronizedList(new ArrayList<>());
+    private int totalPages;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private boolean includeLastLink;
+    private final AtomicInteger rateLimitedResponses = new AtomicInteger();
+    /** Client-side ports seen by the stub, one per TCP connection */
+    private final Set<Integer> connectionPorts = ConcurrentHashMap.newKeySet();
+    private CloseableHttpClient httpClient;
+    /** Request bodies and Authorization headers received by the GraphQL stub */
+    private final List<JsonNode> graphqlRequests = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> graphqlAuthorizations = Collections.synchronizedList(new ArrayList<>());
+    /** Issue IDs by updated_at, served oldest first by the sort=updated stub */
+    private final TreeMap<LocalDateTime, Long> updatedIssues = new TreeMap<>();
+    /** Runs once after the sort=updated stub serves its first page */
+    private Runnable afterFirstUpdatedPage = () -> { };
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/repos/test/repo/issues", this::servePage);
+        server.createContext("/repos/test/moving/issues", this::serveUpdatedIssues);
+        server.createContext("/orgs/test/repos", this::serveOrganizationRepositories);
+        server.createContext("/graphql", this::serveGraphqlPage);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        server.stop(0);
+    }
+    
+    @Test
+    void testFetchIssuePages_FetchesAllPagesInOrder() throws Exception {
+        // Arrange
+        totalPages = 6;
+        includeLastLink = true;
+        GitHubApiClient client = createClient(0, 3);
+        List<IssuePage> pages = new ArrayList<>();
+        
+        // Act
+        client.fetchIssuePages(pages::add);
+        
+        // Assert
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), pages.stream().map(IssuePage::getPageNumber).collect(Collectors.toList()));
+        assertEquals(LongStream.rangeClosed(1, 18).boxed().collect(Collectors.toList()), issueIds(pages));
+        assertEquals(6, requestedPages.size());
+        assertEquals(6, meterRegistry.get("connector.github.page.fetch").tag("outcome", "ok").timer().count());
+        assertEquals(6, meterRegistry.get("connector.github.page.parse").timer().count());
+        assertTrue(pages.stream().allMatch(page -> page.getFetchNanos() > 0));
+    }
+    
+    @Test
+    void testFetchIssuePages_ReusesPooledConnections() throws Exception {
+        // Arrange
+        totalPages = 12;
+        includeLastLink = true;
+        GitHubApiClient client = createClient(0, 3);
+        
+        // Act
+        client.fetchIssuePages(page -> { });
+        
+        // Assert: at most one connection per page in flight (first page plus a window of 3)
+        assertEquals(12, requestedPages.size());
+        assertTrue(connectionPorts.size() <= 4, "connections opened: " + connectionPorts.size());
+    }
+    
+    @Test
+    void testFetchIssuePages_FollowsNextLinkWithoutLastLink() throws Exception {
+        // Arrange
+        totalPages = 4;
+        includeLastLink = false;
+        GitHubApiClient client = createClient(0, 3);
+        List<IssuePage> pages = new ArrayList<>();
+        
+        // Act
+        client.fetchIssuePages(pages::add);
+        
+        // Assert
+        assertEquals(4, pages.size());
+        assertEquals(LongStream.rangeClosed(1, 12).boxed().collect(Collectors.toList()), issueIds(pages));
+        assertEquals(List.of(1, 2, 3, 4), requestedPages);
+    }
+    
+    @Test
+    void testFetchRecentIssues_StopsAtMaxIssues() throws Exception {
+        // Arrange
+        totalPages = 10;
+        includeLastLink = true;
+        GitHubApiClient client = createClient(5, 3);
+        
+        // Act
+        List<Issue> issues = client.fetchRecentIssues();
+        
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), issues.stream().map(Issue::getId).collect(Collectors.toList()));
+        assertEquals(2, requestedPages.size());
+    }
+    
+    @Test
+    void testFetchIssuePages_RevalidatesCachedPagesWithETag() throws Exception {
+        // Arrange
+        totalPages = 3;
+        includeLastLink = true;
+        GitHubApiClient client = createClient(0, 3);
+        client.fetchIssuePages(page -> { });
+        List<IssuePage> pages = new ArrayList<>();
+        
+        // Act
+        client.fetchIssuePages(pages::add);
+        
+        // Assert
+        assertEquals(Set.of(1, 2, 3), new HashSet<>(notModifiedPages));
+        assertTrue(pages.stream().allMatch(IssuePage::isNotModified));
+        assertEquals(3, meterRegistry.get("connector.github.page.fetch").tag("outcome", "not_modified").timer().count());
+        assertEquals(LongStream.rangeClosed(1, 9).boxed().collect(Collectors.toList()), issueIds(pages));
+    }
+    
+    @Test
+    void testFetchIssuePages_HonorsRetryAfterOnRateLimit() throws Exception {
+        // Arrange
+        totalPages = 1;
+        rateLimitedResponses.set(1);
+        GitHubApiClient client = createClient(0, 3);
+        List<IssuePage> pages = new ArrayList<>();
+        long start = System.currentTimeMillis();
+        
+        // Act
+        client.fetchIssuePages(pages::add);
+        
+        // Assert
+        assertTrue(System.currentTimeMillis() - start >= 1000);
+        assertEquals(List.of(1, 1), requestedPages);
+        assertEquals(1, pages.size());
+        assertEquals(1, meterRegistry.get("connector.github.page.fetch").tag("outcome", "rate_limited").timer().count());
+        assertEquals(4998, meterRegistry.get("connector.github.rate.limit.remaining").gauge().value());
+    }
+    
+    @Test
+    void testFetchIssuePages_IncrementalCrawlDeliversIssuesShiftedByAnUpdateMidCrawl() throws Exception {
+        // Arrange: issues 1-9 updated one second apart; issue 2 is updated again right after page 1 is served,
+        // which moves it to the end and shifts issue 4 onto page 1 of a by-page-number crawl
+        for (long id = 1; id <= 9; id++) {
+            updatedIssues.put(UPDATED_AT.plusSeconds(id), id);
+        }
+        afterFirstUpdatedPage = () -> {
+            updatedIssues.values().remove(2L);
+            updatedIssues.put(UPDATED_AT.plusSeconds(10), 2L);
+        };
+        GitHubApiClient client = createClient(0, 3);
+        List<IssuePage> pages = new ArrayList<>();
+        
+        // Act
+        client.fetchIssuePages("test/moving", UPDATED_AT, pages::add);
+        
+        // Assert: every issue is delivered, the moved one again with its new updated_at, and the crawl ends on it
+        List<Long> ids = issueIds(pages);
+        assertEquals(LongStream.rangeClosed(1, 9).boxed().collect(Collectors.toSet()), new HashSet<>(ids));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 2L), ids);
+        Issue last = pages.get(pages.size() - 1).getIssues().get(0);
+        assertEquals(UPDATED_AT.plusSeconds(10), last.getUpdatedAt());
+    }
+    
+    @Test
+    void testFetchOrganizationRepositories_FollowsNextLinks() throws Exception {
+        // Arrange
+        GitHubApiClient client = createClient(0, 3);
+        
+        // Act
+        List<String> repositories = client.fetchOrganizationRepositories("test");
+        
+        // Assert
+        assertEquals(List.of("test/repo", "test/other", "test/third"), repositories);
+    }
+    
+    @Test
+    void testFetchIssuePages_GraphqlFollowsCursorsAndRequestsOnlyStoredFields() throws Exception {
+        // Arrange
+        totalPages = 3;
+        GitHubApiClient client = createGraphqlClient(0);
+        List<IssuePage> pages = new ArrayList<>();
+        
+        // Act
+        client.fetchIssuePages(pages::add);
+        
+        // Assert
+        assertEquals(List.of(1, 2, 3), pages.stream().map(IssuePage::getPageNumber).collect(Collectors.toList()));
+        assertEquals(LongStream.rangeClosed(1, 300).boxed().collect(Collectors.toList()), issueIds(pages));
+        Issue first = pages.get(0).getIssues().get(0);
+        assertEquals("open", first.getState());
+        assertEquals("https://github.com/test/repo/issues/1", first.getHtmlUrl());
+        assertEquals("test/repo", first.getRepository());
+        
+        assertEquals(3, graphqlRequests.size());
+        assertTrue(graphqlRequests.get(0).get("variables").get("after").isNull());
+        assertEquals("cursor-1", graphqlRequests.get(1).get("variables").get("after").asText());
+        assertEquals("cursor-2", graphqlRequests.get(2).get("variables").get("after").asText());
+        JsonNode variables = graphqlRequests.get(0).get("variables");
+        assertEquals(100, variables.get("first").asInt());
+        assertEquals("test", variables.get("owner").asText());
+        assertEquals("repo", variables.get("name").asText());
+        assertEquals("CREATED_AT", variables.get("orderBy").get("field").asText());
+        assertEquals("OPEN", variables.get("filterBy").get("states").get(0).asText());
+        assertTrue(graphqlRequests.get(0).get("query").asText()
+                .contains("nodes { databaseId title createdAt updatedAt state url }"));
+        assertEquals(List.of("bearer test-token"), graphqlAuthorizations.stream().distinct().collect(Collectors.toList()));
+        assertTrue(requestedPages.isEmpty());
+        assertEquals(3, meterRegistry.get("connector.github.page.fetch").tag("outcome", "ok").timer().count());
+    }
+    
+    @Test
+    void testFetchIssuePages_GraphqlIncrementalCrawlStopsAtMaxIssues() throws Exception {
+        // Arrange
+        totalPages = 5;
+        GitHubApiClient client = createGraphqlClient(150);
+        List<IssuePage> pages = new ArrayList<>();
+        
+        // Act
+        client.fetchIssuePages("test/repo", LocalDateTime.of(2024, 1, 1, 0, 0), 150, pages::add);
+        
+        // Assert
+        assertEquals(LongStream.rangeClosed(1, 150).boxed().collect(Collectors.toList()), issueIds(pages));
+        assertEquals(2, graphqlRequests.size());
+        JsonNode variables = graphqlRequests.get(0).get("variables");
+        assertEquals("UPDATED_AT", variables.get("orderBy").get("field").asText());
+        assertEquals("ASC", variables.get("orderBy").get("direction").asText());
+        assertEquals("2024-01-01T00:00:00Z", variables.get("filterBy").get("since").asText());
+    }
+    
+    @Test
+    void testFetchIssuePages_GraphqlErrorsFail() throws Exception {
+        // Arrange: the stub reports an unknown repository as GraphQL does, with HTTP 200 and an errors array
+        totalPages = 1;
+        GitHubApiClient client = createGraphqlClient(0);
+        
+        // Act / Assert
+        RepositoryException e = assertThrows(RepositoryException.class, 
+                () -> client.fetchIssuePages("test/missing", null, 0, page -> { }));
+        assertTrue(e.getMessage().contains("Could not resolve to a Repository"), e.getMessage());
+    }
+    
+    @Test
+    void testParseLinkHeader() throws Exception {
+        Map<String, String> links = GitHubApiClient.parseLinkHeader(
+                "<https://api.github.com/repositories/1/issues?page=2>; rel=\"next\", " +
+                "<https://api.github.com/repositories/1/issues?page=34>; rel=\"last\"");
+        
+        assertEquals("https://api.github.com/repositories/1/issues?page=2", links.get("next"));
+        assertEquals(34, GitHubApiClient.extractPageNumber(links.get("last")));
+        assertTrue(GitHubApiClient.parseLinkHeader(null).isEmpty());
+    }
+    
+    private GitHubApiClient createClient(int maxIssues, int pageSize) {
+        ConnectorConfig config = ConnectorConfig.builder()
+                .githubRepository("test/repo")
+                .githubApiUrl(baseUrl)
+                .maxIssues(maxIssues)
+                .githubPageSize(pageSize)
+                .githubFetchParallelism(3)
+                .build();
+        httpClient = GitHubHttpClients.create(config);
+        return new GitHubApiClient(config, httpClient, new RetryHandler(1, 0), new GitHubResponseCache(config), 
+                new GitHubIssueParser(), new GitHubRateLimiter(config, meterRegistry), meterRegistry);
+    }
+    
+    private GitHubApiClient createGraphqlClient(int maxIssues) {
+        ConnectorConfig config = ConnectorConfig.builder()
+                .githubRepository("test/repo")
+                .githubApiUrl(baseUrl)
+                .githubFetchMode("graphql")
+                .githubToken("test-token")
+                .maxIssues(maxIssues)
+                .build();
+        httpClient = GitHubHttpClients.create(config);
+        return new GitHubApiClient(config, httpClient, new RetryHandler(1, 0), new GitHubResponseCache(config), 
+                new GitHubIssueParser(), new GitHubRateLimiter(config, meterRegistry), meterRegistry);
+    }
+    
+    private List<Long> issueIds(List<IssuePage> pages) {
+        return pages.stream()
+                .flatMap(page -> page.getIssues().stream())
+                .map(Issue::getId)
+                .collect(Collectors.toList());
+    }
+    
+    private void servePage(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        int page = Integer.parseInt(queryParam(query, "page"));
+        int perPage = Integer.parseInt(queryParam(query, "per_page"));
+        requestedPages.add(page);
+        connectionPorts.add(exchange.getRemoteAddress().getPort());
+        
+        if (rateLimitedResponses.getAndDecrement() > 0) {
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().add("X-RateLimit-Limit", "5000");
+        exchange.getResponseHeaders().add("X-RateLimit-Remaining", String.valueOf(5000 - requestedPages.size()));
+        exchange.getResponseHeaders().add("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 3600));
+        
+        String etag = "\"page-" + page + "\"";
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModifiedPages.add(page);
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        
+        try {
+            // Later pages answer first so ordering must come from the client, not the network
+            Thread.sleep((totalPages - page) * 10L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < perPage; i++) {
+            long id = (long) (page - 1) * perPage + i + 1;
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"id\":").append(id)
+                    .append(",\"title\":\"Issue ").append(id)
+                    .append("\",\"created_at\":\"2024-01-01T00:00:00Z\",\"state\":\"open\"")
+                    .append(",\"html_url\":\"https://github.com/test/repo/issues/").append(id).append("\"}");
+        }
+        body.append(']');
+        
+        List<String> links = new ArrayList<>();
+        String pageUrl = baseUrl + "/repos/test/repo/issues?per_page=" + perPage + "&page=";
+        if (page < totalPages) {
+            links.add("<" + pageUrl + (page + 1) + ">; rel=\"next\"");
+            if (includeLastLink) {
+                links.add("<" + pageUrl + totalPages + ">; rel=\"last\"");
+            }
+        }
+        if (!links.isEmpty()) {
+            exchange.getResponseHeaders().add("Link", String.join(", ", links));
+        }
+        
+        exchange.getResponseHeaders().add("ETag", etag);
+        
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    /**
+     * Serve totalPages pages of the issues connection, with cursor-N as the end cursor of page N
+     */
+    private void serveGraphqlPage(HttpExchange exchange) throws IOException {
+        JsonNode request = OBJECT_MAPPER.readTree(exchange.getRequestBody());
+        graphqlRequests.add(request);
+        graphqlAuthorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+        JsonNode variables = request.get("variables");
+        
+        StringBuilder body = new StringBuilder();
+        if (!"repo".equals(variables.get("name").asText())) {
+            body.append("{\"data\":{\"repository\":null},\"errors\":[{\"type\":\"NOT_FOUND\",")
+                    .append("\"message\":\"Could not resolve to a Repository with the name 'test/missing'.\"}]}");
+        } else {
+            String after = variables.get("after").isNull() ? null : variables.get("after").asText();
+            int page = after == null ? 1 : Integer.parseInt(after.substring("cursor-".length())) + 1;
+            int first = variables.get("first").asInt();
+            body.append("{\"data\":{\"repository\":{\"issues\":{\"nodes\":[");
+            for (int i = 0; i < first; i++) {
+                long id = (long) (page - 1) * first + i + 1;
+                if (i > 0) {
+                    body.append(',');
+                }
+                body.append("{\"databaseId\":").append(id)
+                        .append(",\"title\":\"Issue ").append(id)
+                        .append("\",\"createdAt\":\"2024-01-01T00:00:00Z\",\"updatedAt\":\"2024-01-02T00:00:00Z\"")
+                        .append(",\"state\":\"OPEN\",\"url\":\"https://github.com/test/repo/issues/").append(id).append("\"}");
+            }
+            body.append("],\"pageInfo\":{\"hasNextPage\":").append(page < totalPages)
+                    .append(",\"endCursor\":\"cursor-").append(page).append("\"}}}}}");
+        }
+        
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    /**
+     * Serve updatedIssues filtered by since, oldest update first, page by page number like GitHub's sort=updated
+     */
+    private void serveUpdatedIssues(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        int page = Integer.parseInt(queryParam(query, "page"));
+        int perPage = Integer.parseInt(queryParam(query, "per_page"));
+        LocalDateTime since = LocalDateTime.parse(queryParam(query, "since").replace("Z", ""));
+        List<Map.Entry<LocalDateTime, Long>> matching;
+        synchronized (updatedIssues) {
+            matching = new ArrayList<>(updatedIssues.tailMap(since, true).entrySet());
+        }
+        int from = Math.min((page - 1) * perPage, matching.size());
+        int to = Math.min(from + perPage, matching.size());
+        
+        StringBuilder body = new StringBuilder("[");
+        for (Map.Entry<LocalDateTime, Long> entry : matching.subList(from, to)) {
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            body.append("{\"id\":").append(entry.getValue())
+                    .append(",\"title\":\"Issue ").append(entry.getValue())
+                    .append("\",\"created_at\":\"2024-01-01T00:00:00Z\",\"updated_at\":\"").append(entry.getKey()).append("Z\"")
+                    .append(",\"state\":\"open\",\"html_url\":\"https://github.com/test/moving/issues/").append(entry.getValue()).append("\"}");
+        }
+        body.append(']');
+        if (to < matching.size()) {
+            exchange.getResponseHeaders().add("Link", "<" + baseUrl + "/repos/test/moving/issues?" 
+                    + "page=" + (page + 1) + ">; rel=\"next\"");
+        }
+        
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        synchronized (updatedIssues) {
+            afterFirstUpdatedPage.run();
+            afterFirstUpdatedPage = () -> { };
+        }
+    }
+    
+    private void serveOrganizationRepositories(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        String body;
+        if (query.contains("page=2")) {
+            body = "[{\"full_name\":\"test/third\",\"owner\":{\"login\":\"test\"}}]";
+        } else {
+            body = "[{\"full_name\":\"test/repo\",\"topics\":[\"a\"]},{\"full_name\":\"test/other\"}]";
+            exchange.getResponseHeaders().add("Link", "<" + baseUrl + "/orgs/test/repos?per_page=100&page=2>; rel=\"next\"");
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    private static String queryParam(String query, String name) {
+        for (String pair : query.split("&")) {
+            String[] parts = pair.split("=", 2);
+            if (parts[0].equals(name)) {
+                return parts[1];
+            }
+        }
+        throw new IllegalArgumentException("Missing query parameter " + name);
+    }
+}
@@ -0,0 +1,133 @@
+package com.connector.repository;
+
+import com.connector.model.Issue;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the streaming GitHub issue parser
+ */
+class GitHubIssueParserTest {
+    
+    private final GitHubIssueParser parser = new GitHubIssueParser();
+    
+    @Test
+    void testParseIssues_ReadsMappedFieldsAndSkipsNestedSubtrees() throws Exception {
+        // Arrange
+        String json = "[{\"url\":\"https://api.github.com/repos/test/repo/issues/1\"," +
+                "\"user\":{\"login\":\"octocat\",\"id\":99,\"html_url\":\"https://github.com/octocat\"}," +
+                "\"labels\":[{\"id\":7,\"name\":\"bug\",\"title\":\"not the issue title\"}]," +
+                "\"id\":1001,\"number\":1,\"title\":\"Found a bug\",\"state\":\"open\"," +
+                "\"html_url\":\"https://github.com/test/repo/issues/1\"," +
+                "\"reactions\":{\"total_count\":2,\"+1\":2},\"body\":\"Steps: {\\\"id\\\": 5}\"," +
+                "\"created_at\":\"2024-01-02T03:04:05Z\",\"updated_at\":\"2024-02-03T04:05:06Z\"," +
+                "\"closed_at\":null}]";
+        
+        // Act
+        List<Issue> issues = parser.parseIssues(json.getBytes(StandardCharsets.UTF_8), "test/repo");
+        
+        // Assert
+        assertEquals(1, issues.size());
+        Issue issue = issues.get(0);
+        assertEquals(1001L, issue.getId());
+        assertEquals("Found a bug", issue.getTitle());
+        assertEquals("open", issue.getState());
+        assertEquals("https://github.com/test/repo/issues/1", issue.getHtmlUrl());
+        assertEquals("test/repo", issue.getRepository());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5), issue.getCreatedAt());
+        assertEquals(LocalDateTime.of(2024, 2, 3, 4, 5, 6), issue.getUpdatedAt());
+    }
+    
+    @Test
+    void testParseIssues_FromInputStream() throws Exception {
+        String json = "[{\"id\":1,\"title\":\"a\",\"state\":\"open\",\"html_url\":\"u1\",\"created_at\":\"2024-01-01T00:00:00Z\"}," +
+                "{\"id\":2,\"title\":\"b\",\"state\":\"closed\",\"html_url\":\"u2\",\"created_at\":\"2024-01-01T00:00:00Z\"}]";
+        
+        List<Issue> issues = parser.parseIssues(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), "test/repo");
+        
+        assertEquals(2, issues.size());
+        assertEquals(2L, issues.get(1).getId());
+        assertNull(issues.get(0).getUpdatedAt());
+    }
+    
+    @Test
+    void testParseIssues_MissingRequiredFieldFails() {
+        String json = "[{\"id\":1,\"state\":\"open\",\"html_url\":\"u1\",\"created_at\":\"2024-01-01T00:00:00Z\"}]";
+        
+        assertThrows(RepositoryException.class,
+                () -> parser.parseIssues(json.getBytes(StandardCharsets.UTF_8), "test/repo"));
+    }
+    
+    @Test
+    void testParseIssues_NonArrayBodyFails() {
+        String json = "{\"message\":\"Not Found\"}";
+        
+        assertThrows(RepositoryException.class,
+                () -> parser.parseIssues(json.getBytes(StandardCharsets.UTF_8), "test/repo"));
+    }
+    
+    @Test
+    void testParseIssueConnection_ReadsNodesAndPageInfo() throws Exception {
+        // Arrange: pageInfo after the nodes, and an extra field the query did not ask for
+        String json = "{\"data\":{\"repository\":{\"issues\":{\"nodes\":[" +
+                "{\"databaseId\":1001,\"title\":\"Found a bug\",\"createdAt\":\"2024-01-02T03:04:05Z\"," +
+                "\"updatedAt\":\"2024-02-03T04:05:06Z\",\"state\":\"CLOSED\",\"url\":\"https://github.com/test/repo/issues/1\"," +
+                "\"labels\":{\"nodes\":[{\"name\":\"bug\"}]}}]," +
+                "\"pageInfo\":{\"hasNextPage\":true,\"endCursor\":\"Y3Vyc29yOjE=\"}}}}}";
+        
+        // Act
+        IssueCursorPage page = parser.parseIssueConnection(json.getBytes(StandardCharsets.UTF_8), "test/repo");
+        
+        // Assert
+        assertTrue(page.isHasNextPage());
+        assertEquals("Y3Vyc29yOjE=", page.getEndCursor());
+        assertEquals(1, page.getIssues().size());
+        Issue issue = page.getIssues().get(0);
+        assertEquals(1001L, issue.getId());
+        assertEquals("Found a bug", issue.getTitle());
+        assertEquals("closed", issue.getState());
+        assertEquals("https://github.com/test/repo/issues/1", issue.getHtmlUrl());
+        assertEquals("test/repo", issue.getRepository());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5), issue.getCreatedAt());
+        assertEquals(LocalDateTime.of(2024, 2, 3, 4, 5, 6), issue.getUpdatedAt());
+    }
+    
+    @Test
+    void testParseIssueConnection_ErrorsFail() {
+        String json = "{\"errors\":[{\"type\":\"RATE_LIMITED\",\"message\":\"API rate limit exceeded\"}]}";
+        
+        RepositoryException e = assertThrows(RepositoryException.class, 
+                () -> parser.parseIssueConnection(json.getBytes(StandardCharsets.UTF_8), "test/repo"));
+        assertTrue(e.getMessage().contains("API rate limit exceeded"));
+    }
+    
+    @Test
+    void testParseIssueEvent_ReadsRecordedPayload() throws Exception {
+        // Arrange: the repository comes after the issue in this recording
+        byte[] body = GitHubIssueParserTest.class.getResourceAsStream("/webhooks/issues-closed.json").readAllBytes();
+        
+        // Act
+        IssueEvent event = parser.parseIssueEvent(body);
+        
+        // Assert
+        assertEquals("closed", event.getAction());
+        Issue issue = event.getIssue();
+        assertEquals(2046813907L, issue.getId());
+        assertEquals("closed", issue.getState());
+        assertEquals("octo-org/widgets", issue.getRepository());
+        assertEquals(LocalDateTime.of(2024, 3, 18, 11, 2, 44), issue.getUpdatedAt());
+    }
+    
+    @Test
+    void testParseIssueEvent_NonIssuePayloadFails() throws Exception {
+        byte[] body = GitHubIssueParserTest.class.getResourceAsStream("/webhooks/ping.json").readAllBytes();
+        
+        assertThrows(RepositoryException.class, () -> parser.parseIssueEvent(body));
+    }
+}
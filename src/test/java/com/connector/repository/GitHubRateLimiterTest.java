@@ -0,0 +1,125 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for GitHubRateLimiter using a fake clock and sleeper
+ */
+class GitHubRateLimiterTest {
+    
+    private long now = 1_700_000_000_000L;
+    private final List<Long> sleeps = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GitHubRateLimiter rateLimiter;
+    
+    @BeforeEach
+    void setUp() {
+        ConnectorConfig config = ConnectorConfig.builder()
+                .githubRateLimitBurst(2)
+                .githubRateLimitMaxWaitMs(120_000)
+                .build();
+        rateLimiter = new GitHubRateLimiter(config, meterRegistry, () -> now, millis -> {
+            sleeps.add(millis);
+            now += millis;
+        });
+    }
+    
+    @Test
+    void testAcquire_UnthrottledUntilQuotaIsKnown() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.acquire();
+        }
+        
+        assertTrue(sleeps.isEmpty());
+        assertEquals(-1, meterRegistry.get("connector.github.rate.limit.remaining").gauge().value());
+    }
+    
+    @Test
+    void testAcquire_SpreadsRemainingQuotaOverResetWindow() throws Exception {
+        // Arrange: 10 requests left, window resets in 10 seconds -> one request per second
+        rateLimiter.update(response(200, "10", secondsFromNow(10), null));
+        
+        // Act
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.acquire();
+        }
+        
+        // Assert: the burst of 2 goes straight through, then requests are paced
+        assertEquals(2, sleeps.size());
+        assertTrue(sleeps.stream().allMatch(millis -> millis >= 900 && millis <= 1000), sleeps.toString());
+        assertEquals(6, rateLimiter.getRemaining());
+    }
+    
+    @Test
+    void testAcquire_WaitsForResetWhenQuotaExhausted() throws Exception {
+        // Arrange
+        rateLimiter.update(response(200, "0", secondsFromNow(30), null));
+        
+        // Act
+        rateLimiter.acquire();
+        
+        // Assert
+        assertEquals(List.of(30_000L), sleeps);
+    }
+    
+    @Test
+    void testOnRateLimited_HonorsRetryAfter() throws Exception {
+        // Arrange
+        rateLimiter.onRateLimited(response(429, null, null, "5"));
+        
+        // Act
+        rateLimiter.acquire();
+        
+        // Assert
+        assertEquals(List.of(5_000L), sleeps);
+        assertEquals(1, meterRegistry.get("connector.github.rate.limit.wait").timer().count());
+    }
+    
+    @Test
+    void testAcquire_FailsWhenWaitExceedsMaximum() {
+        // Arrange
+        rateLimiter.update(response(200, "0", secondsFromNow(3600), null));
+        
+        // Act & Assert
+        assertThrows(RepositoryException.class, () -> rateLimiter.acquire());
+        assertTrue(sleeps.isEmpty());
+    }
+    
+    @Test
+    void testUpdate_KeepsLowestRemainingWithinWindow() {
+        String reset = secondsFromNow(60);
+        rateLimiter.update(response(200, "40", reset, null));
+        rateLimiter.update(response(200, "42", reset, null));
+        
+        assertEquals(40, rateLimiter.getRemaining());
+        assertEquals(5000, rateLimiter.getLimit());
+    }
+    
+    private String secondsFromNow(long seconds) {
+        return String.valueOf(now / 1000 + seconds);
+    }
+    
+    private static HttpResponse response(int status, String remaining, String reset, String retryAfter) {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, status, "status");
+        if (remaining != null) {
+            response.addHeader("X-RateLimit-Limit", "5000");
+            response.addHeader("X-RateLimit-Remaining", remaining);
+            response.addHeader("X-RateLimit-Reset", reset);
+        }
+        if (retryAfter != null) {
+            response.addHeader("Retry-After", retryAfter);
+        }
+        return response;
+    }
+}
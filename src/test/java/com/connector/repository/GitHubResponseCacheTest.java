@@ -0,0 +1,122 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GitHubResponseCache eviction and persistence
+ */
+class GitHubResponseCacheTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testPut_EvictsLeastRecentlyUsedEntry() {
+        // Arrange
+        GitHubResponseCache cache = new GitHubResponseCache(ConnectorConfig.builder().githubCacheMaxEntries(2).build());
+        cache.put("a", response("\"a\""));
+        cache.put("b", response("\"b\""));
+        cache.get("a");
+        
+        // Act
+        cache.put("c", response("\"c\""));
+        
+        // Assert
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+    
+    @Test
+    void testPut_IgnoresResponsesWithoutValidators() {
+        GitHubResponseCache cache = new GitHubResponseCache(ConnectorConfig.builder().build());
+        
+        cache.put("a", new GitHubResponseCache.CachedResponse(null, null, null, "[]".getBytes(StandardCharsets.UTF_8)));
+        
+        assertNull(cache.get("a"));
+    }
+    
+    @Test
+    void testPersist_RestoresEntriesAfterRestart() {
+        // Arrange
+        ConnectorConfig config = ConnectorConfig.builder()
+                .githubCacheFile(tempDir.resolve("github-cache.json").toString())
+                .build();
+        GitHubResponseCache cache = new GitHubResponseCache(config);
+        cache.put("https://api.github.com/repos/test/repo/issues?page=1", response("\"etag-1\""));
+        
+        // Act
+        cache.persist();
+        GitHubResponseCache restarted = new GitHubResponseCache(config);
+        restarted.load();
+        
+        // Assert
+        assertEquals("\"etag-1\"", restarted.get("https://api.github.com/repos/test/repo/issues?page=1").getEtag());
+        restarted.shutdown();
+    }
+    
+    @Test
+    void testPut_EvictsLeastRecentlyUsedEntriesBeyondMaxBytes() {
+        // Arrange: room for two 1 KB bodies
+        GitHubResponseCache cache = new GitHubResponseCache(ConnectorConfig.builder().githubCacheMaxBytes(2500).build());
+        cache.put("a", response("\"a\"", 1000));
+        cache.put("b", response("\"b\"", 1000));
+        cache.get("a");
+        
+        // Act
+        cache.put("c", response("\"c\"", 1000));
+        cache.put("too-large", response("\"d\"", 3000));
+        
+        // Assert
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertNull(cache.get("too-large"));
+        assertTrue(cache.weight() <= 2500);
+    }
+    
+    @Test
+    void testLoad_PersistsChangesPeriodically() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("github-cache.json");
+        ConnectorConfig config = ConnectorConfig.builder()
+                .githubCacheFile(file.toString())
+                .githubCachePersistIntervalMs(20)
+                .build();
+        GitHubResponseCache cache = new GitHubResponseCache(config);
+        cache.load();
+        
+        // Act: no shutdown, as after a crash
+        cache.put("https://api.github.com/repos/test/repo/issues?page=1", response("\"etag-1\""));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Files.exists(file) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        GitHubResponseCache restarted = new GitHubResponseCache(ConnectorConfig.builder().githubCacheFile(file.toString()).build());
+        restarted.load();
+        
+        // Assert
+        assertEquals("\"etag-1\"", restarted.get("https://api.github.com/repos/test/repo/issues?page=1").getEtag());
+        cache.shutdown();
+        restarted.shutdown();
+    }
+    
+    private GitHubResponseCache.CachedResponse response(String etag) {
+        return new GitHubResponseCache.CachedResponse(etag, null, null, "[]".getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private GitHubResponseCache.CachedResponse response(String etag, int bodyBytes) {
+        return new GitHubResponseCache.CachedResponse(etag, null, null, new byte[bodyBytes]);
+    }
+}
@@ -0,0 +1,39 @@
+package com.connector.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for IoExecutors, on both virtual-thread capable and older JVMs
+ */
+class IoExecutorsTest {
+    
+    @Test
+    void testPlatformExecutorUsesNamedDaemonThreads() throws Exception {
+        ExecutorService executor = IoExecutors.newExecutor("test-io", 2, false);
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get();
+            
+            assertTrue(thread.getName().startsWith("test-io-"));
+            assertTrue(thread.isDaemon());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void testVirtualExecutorRunsTasksOrFallsBack() throws Exception {
+        ExecutorService executor = IoExecutors.newExecutor("test-io", 2, true);
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get();
+            
+            assertTrue(thread.getName().startsWith("test-io-"));
+            assertEquals(IoExecutors.isVirtualThreadsSupported(), Runtime.version().feature() >= 21);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.connector.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the open-addressing issue ID to content hash index, on heap and memory-mapped
+ */
+class IssueIdIndexTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testAddAndContains() throws Exception {
+        IssueIdIndex index = new IssueIdIndex(true, "");
+        index.load();
+        
+        index.put(42L, 1L);
+        index.put(42L, 2L);
+        index.putAll(Map.of(7L, 3L, 9L, IssueIdIndex.NO_HASH));
+        index.put(0L, 4L);
+        
+        assertTrue(index.contains(42L));
+        assertEquals(2L, index.hashOf(42L));
+        assertTrue(index.contains(9L));
+        assertEquals(IssueIdIndex.NO_HASH, index.hashOf(9L));
+        assertFalse(index.contains(8L));
+        assertEquals(IssueIdIndex.NO_HASH, index.hashOf(8L));
+        assertEquals(3, index.size());
+    }
+    
+    @Test
+    void testGrowsPastInitialCapacity() throws Exception {
+        IssueIdIndex index = new IssueIdIndex(true, "");
+        index.load();
+        
+        for (long id = 1; id <= 5000; id++) {
+            index.put(id * 7919, -id);
+        }
+        
+        assertEquals(5000, index.size());
+        for (long id = 1; id <= 5000; id++) {
+            assertEquals(-id, index.hashOf(id * 7919));
+        }
+        assertFalse(index.contains(7920L));
+    }
+    
+    @Test
+    void testFileBackedIndexSurvivesReload() throws Exception {
+        String file = tempDir.resolve("issue-ids.idx").toString();
+        IssueIdIndex index = new IssueIdIndex(true, file);
+        index.load();
+        for (long id = 1; id <= 2000; id++) {
+            index.put(id, id + 1);
+        }
+        index.markComplete();
+        index.flush();
+        
+        IssueIdIndex reopened = new IssueIdIndex(true, file);
+        reopened.load();
+        
+        assertTrue(reopened.isComplete());
+        assertEquals(2000, reopened.size());
+        assertEquals(1235L, reopened.hashOf(1234L));
+        assertFalse(reopened.contains(2001L));
+    }
+    
+    @Test
+    void testCorruptFileIsRebuilt() throws Exception {
+        Path file = tempDir.resolve("issue-ids.idx");
+        Files.write(file, new byte[] {1, 2, 3});
+        
+        IssueIdIndex index = new IssueIdIndex(true, file.toString());
+        index.load();
+        
+        assertFalse(index.isComplete());
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,36 @@
+package com.connector.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for IssuePageToken
+ */
+class IssuePageTokenTest {
+    
+    @Test
+    void testRoundTrip() {
+        String token = IssuePageToken.encode("3415053916");
+        
+        assertEquals("3415053916", IssuePageToken.decode(token));
+        assertFalse(token.contains("3415053916"));
+    }
+    
+    @Test
+    void testDecode_EmptyTokenStartsAtFirstPage() {
+        assertNull(IssuePageToken.decode(null));
+        assertNull(IssuePageToken.decode(" "));
+    }
+    
+    @Test
+    void testDecode_RejectsForeignTokens() {
+        String foreign = Base64.getUrlEncoder().encodeToString("before:1".getBytes(StandardCharsets.UTF_8));
+        
+        assertThrows(IllegalArgumentException.class, () -> IssuePageToken.decode("not a token!"));
+        assertThrows(IllegalArgumentException.class, () -> IssuePageToken.decode(foreign));
+    }
+}
@@ -0,0 +1,113 @@
+package com.connector.repository;
+
+import com.connector.model.Issue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the memory-mapped issue write-ahead log
+ */
+class IssueWriteAheadLogTest {
+    
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testAcknowledgedWritesAreNotReplayed() throws Exception {
+        IssueWriteAheadLog writeAheadLog = open("issues.wal");
+        
+        long[] committed = writeAheadLog.append(List.of(createIssue(1L, "a"), createIssue(2L, "b")));
+        long[] failed = writeAheadLog.append(List.of(createIssue(3L, "c")));
+        writeAheadLog.acknowledge(committed);
+        
+        // In flight until released
+        assertTrue(writeAheadLog.claim(10).isEmpty());
+        writeAheadLog.release(failed);
+        List<IssueWriteAheadLog.PendingWrite> claimed = writeAheadLog.claim(10);
+        assertEquals(1, claimed.size());
+        assertEquals(createIssue(3L, "c"), claimed.get(0).getIssue());
+        assertEquals(1, writeAheadLog.pendingCount());
+    }
+    
+    @Test
+    void testUnacknowledgedWritesSurviveReload() throws Exception {
+        IssueWriteAheadLog writeAheadLog = open("issues.wal");
+        writeAheadLog.append(List.of(createIssue(1L, "first"), createIssue(2L, "b")));
+        writeAheadLog.acknowledge(writeAheadLog.append(List.of(createIssue(3L, "c"))));
+        // A newer version of issue 1 supersedes the older one
+        writeAheadLog.append(List.of(createIssue(1L, "second")));
+        writeAheadLog.flush();
+        
+        // Act: reopen without releasing anything, as after a crash
+        IssueWriteAheadLog reloaded = open("issues.wal");
+        List<IssueWriteAheadLog.PendingWrite> claimed = reloaded.claim(10);
+        
+        // Assert
+        assertEquals(List.of(createIssue(2L, "b"), createIssue(1L, "second")),
+                claimed.stream().map(IssueWriteAheadLog.PendingWrite::getIssue).collect(Collectors.toList()));
+        reloaded.acknowledge(claimed.stream().mapToLong(IssueWriteAheadLog.PendingWrite::getSequence).toArray());
+        assertEquals(0, open("issues.wal").pendingCount());
+    }
+    
+    @Test
+    void testClaimedWriteSupersededBeforeReplayIsDropped() throws Exception {
+        IssueWriteAheadLog writeAheadLog = open("issues.wal");
+        writeAheadLog.release(writeAheadLog.append(List.of(createIssue(1L, "old"), createIssue(2L, "b"))));
+        List<IssueWriteAheadLog.PendingWrite> claimed = writeAheadLog.claim(10);
+        
+        // A sync logs a newer version of issue 1 while the replay holds the older one
+        long[] newer = writeAheadLog.append(List.of(createIssue(1L, "new")));
+        List<IssueWriteAheadLog.PendingWrite> latest = writeAheadLog.dropSuperseded(claimed);
+        
+        assertEquals(List.of(createIssue(2L, "b")),
+                latest.stream().map(IssueWriteAheadLog.PendingWrite::getIssue).collect(Collectors.toList()));
+        writeAheadLog.acknowledge(newer);
+        writeAheadLog.acknowledge(new long[] {latest.get(0).getSequence()});
+        assertEquals(0, writeAheadLog.pendingCount());
+    }
+    
+    @Test
+    void testGrowsWhileKeepingUnacknowledgedWrites() throws Exception {
+        IssueWriteAheadLog writeAheadLog = open("issues.wal");
+        String title = "x".repeat(1000);
+        List<Issue> issues = LongStream.rangeClosed(1, 3000)
+                .mapToObj(id -> createIssue(id, title))
+                .collect(Collectors.toList());
+        
+        long[] sequences = writeAheadLog.append(issues);
+        writeAheadLog.release(sequences);
+        
+        assertTrue(Files.size(tempDir.resolve("issues.wal")) > 3000L * 1000);
+        assertEquals(3000, open("issues.wal").claim(5000).size());
+    }
+    
+    @Test
+    void testDisabledLogRecordsNothing() throws Exception {
+        IssueWriteAheadLog writeAheadLog = new IssueWriteAheadLog("");
+        writeAheadLog.load();
+        
+        assertEquals(0, writeAheadLog.append(List.of(createIssue(1L, "a"))).length);
+        assertEquals(0, writeAheadLog.pendingCount());
+    }
+    
+    private IssueWriteAheadLog open(String name) throws Exception {
+        IssueWriteAheadLog writeAheadLog = new IssueWriteAheadLog(tempDir.resolve(name).toString());
+        writeAheadLog.load();
+        return writeAheadLog;
+    }
+    
+    private static Issue createIssue(Long id, String title) {
+        return new Issue(id, title, CREATED_AT, "open", "http://example.com/" + id, "test/repo", null);
+    }
+}
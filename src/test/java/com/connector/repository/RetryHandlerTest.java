@@ -0,0 +1,250 @@
+package com.connector.repository;
+
+import com.connector.model.ConnectorConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.client.HttpResponseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RetryHandler using a fake clock, random source and sleeper
+ */
+class RetryHandlerTest {
+    
+    private long now = 1_000_000_000L;
+    private double random = 0.5;
+    private final List<Long> sleeps = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RetryHandler retryHandler;
+    
+    @BeforeEach
+    void setUp() {
+        retryHandler = handler(ConnectorConfig.builder()
+                .maxRetries(3)
+                .retryDelayMs(1000)
+                .retryMaxDelayMs(5000)
+                .circuitFailureThreshold(3)
+                .circuitOpenMs(10_000)
+                .build());
+    }
+    
+    @Test
+    void testExecuteWithRetry_RetriesTransientFailures() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        
+        String result = retryHandler.executeWithRetry(RetryHandler.GITHUB, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new RuntimeException(new HttpResponseException(502, "Bad Gateway"));
+            }
+            return "ok";
+        });
+        
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(List.of(500L, 1000L), sleeps);
+        assertEquals(2, meterRegistry.get("connector.retry.attempts").tag("target", "github").counter().count());
+    }
+    
+    @Test
+    void testExecuteWithRetry_DoesNotRetryFatalFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        
+        RuntimeException e = assertThrows(RuntimeException.class, () -> retryHandler.executeWithRetry(RetryHandler.GITHUB, () -> {
+            calls.incrementAndGet();
+            throw new RuntimeException(new HttpResponseException(404, "Not Found"));
+        }));
+        
+        assertInstanceOf(HttpResponseException.class, e.getCause());
+        assertEquals(1, calls.get());
+        assertTrue(sleeps.isEmpty());
+        assertEquals(1, meterRegistry.get("connector.retry.fatal").tag("target", "github").counter().count());
+        assertEquals(CircuitBreaker.State.CLOSED, retryHandler.circuitState(RetryHandler.GITHUB));
+    }
+    
+    @Test
+    void testClassify() {
+        assertEquals(RetryHandler.Failure.THROTTLED, RetryHandler.classify(new RuntimeException(new HttpResponseException(429, "Too Many Requests"))));
+        assertEquals(RetryHandler.Failure.RETRYABLE, RetryHandler.classify(new HttpResponseException(503, "Unavailable")));
+        assertEquals(RetryHandler.Failure.RETRYABLE, RetryHandler.classify(new RuntimeException(new IOException("reset"))));
+        assertEquals(RetryHandler.Failure.FATAL, RetryHandler.classify(new HttpResponseException(401, "Unauthorized")));
+        assertEquals(RetryHandler.Failure.FATAL, RetryHandler.classify(new IllegalStateException("interrupted")));
+        assertEquals(RetryHandler.Failure.FATAL, RetryHandler.classify(new CircuitOpenException("github", null)));
+    }
+    
+    @Test
+    void testCalculateDelay_FullJitterCappedAtMaxDelay() {
+        random = 0.999;
+        
+        assertEquals(999, retryHandler.calculateDelay(0));
+        assertEquals(3996, retryHandler.calculateDelay(2));
+        assertEquals(4995, retryHandler.calculateDelay(3));
+        assertEquals(4995, retryHandler.calculateDelay(62));
+        
+        random = 0.0;
+        assertEquals(0, retryHandler.calculateDelay(3));
+    }
+    
+    @Test
+    void testCircuit_OpensAfterConsecutiveFailuresAndRecoversAfterTrialCall() throws Exception {
+        // Arrange: three failed attempts in a row open the circuit, and the next retry is rejected
+        CircuitOpenException open = assertThrows(CircuitOpenException.class, () -> retryHandler.executeWithRetry(RetryHandler.FIRESTORE, () -> {
+            throw new RuntimeException(new IOException("unavailable"));
+        }));
+        assertInstanceOf(IOException.class, open.getCause().getCause());
+        assertEquals(CircuitBreaker.State.OPEN, retryHandler.circuitState(RetryHandler.FIRESTORE));
+        
+        // Act / Assert: calls fail fast without reaching the target, other targets are unaffected
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(CircuitOpenException.class, () -> retryHandler.executeWithRetry(RetryHandler.FIRESTORE, calls::incrementAndGet));
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> retryHandler.callAsync(RetryHandler.FIRESTORE, () -> CompletableFuture.completedFuture(calls.incrementAndGet())).get());
+        assertInstanceOf(CircuitOpenException.class, rejected.getCause());
+        assertEquals(0, calls.get());
+        assertEquals(3, meterRegistry.get("connector.circuit.rejected").tag("target", "firestore").counter().count());
+        assertEquals("ok", retryHandler.executeWithRetry(RetryHandler.GITHUB, () -> "ok"));
+        
+        // After the open interval a trial call goes through and closes the circuit
+        now += TimeUnit.SECONDS.toNanos(10);
+        assertEquals(1, retryHandler.executeWithRetry(RetryHandler.FIRESTORE, calls::incrementAndGet));
+        assertEquals(CircuitBreaker.State.CLOSED, retryHandler.circuitState(RetryHandler.FIRESTORE));
+    }
+    
+    @Test
+    void testCircuit_FailedTrialCallReopens() {
+        CircuitBreaker breaker = new CircuitBreaker("github", 2, 1000, () -> now);
+        breaker.onFailure();
+        breaker.onFailure();
+        assertFalse(breaker.tryAcquire());
+        
+        now += TimeUnit.SECONDS.toNanos(1);
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "only one trial call while half-open");
+        breaker.onFailure();
+        
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+    
+    @Test
+    void testRetryBudget_StopsRetriesOnceSpent() {
+        RetryHandler handler = handler(ConnectorConfig.builder()
+                .maxRetries(100)
+                .retryDelayMs(0)
+                .retryBudgetRatio(0.2)
+                .circuitFailureThreshold(1000)
+                .build());
+        AtomicInteger calls = new AtomicInteger();
+        
+        assertThrows(RuntimeException.class, () -> handler.executeWithRetry(RetryHandler.GITHUB, () -> {
+            calls.incrementAndGet();
+            throw new RuntimeException(new IOException("reset"));
+        }));
+        
+        // The first attempt plus the 10 retries held in reserve
+        assertEquals(11, calls.get());
+        assertEquals(1, meterRegistry.get("connector.retry.budget.exhausted").tag("target", "github").counter().count());
+    }
+    
+    @Test
+    void testConcurrencyLimit_ShrinksWhenLatencyClimbsAndGrowsBack() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 2.0, () -> now);
+        long baseline = TimeUnit.MILLISECONDS.toNanos(100);
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(baseline, false);
+        }
+        assertEquals(8, limit.getLimit());
+        
+        // Slow calls shrink the limit multiplicatively, at most once per baseline latency
+        now += baseline;
+        limit.onSample(baseline * 5, false);
+        limit.onSample(baseline * 5, false);
+        assertEquals(6, limit.getLimit());
+        now += 2 * baseline;
+        limit.onSample(baseline, true);
+        assertEquals(4, limit.getLimit());
+        
+        // Fast calls add about one slot per round trip of the current limit
+        for (int i = 0; i < 5; i++) {
+            limit.onSample(baseline, false);
+        }
+        assertEquals(5, limit.getLimit());
+    }
+    
+    @Test
+    void testConcurrencyLimit_HeldPerAttempt() throws Exception {
+        AdaptiveConcurrencyLimit limit = retryHandler.concurrencyLimit(RetryHandler.GITHUB, 4);
+        AtomicInteger inFlight = new AtomicInteger();
+        
+        retryHandler.executeWithRetry(RetryHandler.GITHUB, () -> inFlight.addAndGet(limit.getInFlight()));
+        
+        assertEquals(1, inFlight.get());
+        assertEquals(0, limit.getInFlight());
+        assertSame(limit, retryHandler.concurrencyLimit(RetryHandler.GITHUB, 16));
+        assertEquals(4, meterRegistry.get("connector.concurrency.limit").tag("target", "github").gauge().value());
+    }
+    
+    @Test
+    void testThrottle_LongGovernorWaitLeavesTheLimitAndBreakerUnchanged() throws Exception {
+        // Arrange: a baseline of 100ms calls
+        AdaptiveConcurrencyLimit limit = retryHandler.concurrencyLimit(RetryHandler.GITHUB, 4);
+        long latency = TimeUnit.MILLISECONDS.toNanos(100);
+        for (int i = 0; i < 5; i++) {
+            retryHandler.executeWithRetry(RetryHandler.GITHUB, () -> now += latency);
+        }
+        AtomicInteger slotsHeldWhileWaiting = new AtomicInteger();
+        
+        // Act: the governor makes each call wait 15 minutes
+        for (int i = 0; i < 3; i++) {
+            retryHandler.executeWithRetry(RetryHandler.GITHUB, () -> {
+                slotsHeldWhileWaiting.addAndGet(limit.getInFlight());
+                now += TimeUnit.SECONDS.toNanos(900);
+            }, () -> now += latency);
+        }
+        
+        // Assert: the wait held no slot and was not sampled as latency
+        assertEquals(0, slotsHeldWhileWaiting.get());
+        assertEquals(4, limit.getLimit());
+        assertEquals(CircuitBreaker.State.CLOSED, retryHandler.circuitState(RetryHandler.GITHUB));
+        assertTrue(sleeps.isEmpty());
+    }
+    
+    @Test
+    void testThrottle_RateLimitedAttemptIsRetriedAfterTheThrottleWithoutBackoffOrDrop() throws Exception {
+        AdaptiveConcurrencyLimit limit = retryHandler.concurrencyLimit(RetryHandler.GITHUB, 4);
+        AtomicInteger waits = new AtomicInteger();
+        AtomicInteger calls = new AtomicInteger();
+        
+        String result = retryHandler.executeWithRetry(RetryHandler.GITHUB, waits::incrementAndGet, () -> {
+            now += TimeUnit.MILLISECONDS.toNanos(100);
+            if (calls.incrementAndGet() == 1) {
+                throw new RuntimeException(new HttpResponseException(429, "Too Many Requests"));
+            }
+            return "ok";
+        });
+        
+        assertEquals("ok", result);
+        assertEquals(2, waits.get());
+        assertTrue(sleeps.isEmpty());
+        assertEquals(4, limit.getLimit());
+        assertEquals(1, meterRegistry.get("connector.retry.throttled").tag("target", "github").counter().count());
+        assertEquals(0, meterRegistry.get("connector.retry.attempts").tag("target", "github").counter().count());
+        assertEquals(CircuitBreaker.State.CLOSED, retryHandler.circuitState(RetryHandler.GITHUB));
+    }
+    
+    private RetryHandler handler(ConnectorConfig config) {
+        return new RetryHandler(config, meterRegistry, () -> now, () -> random, millis -> {
+            sleeps.add(millis);
+            now += TimeUnit.MILLISECONDS.toNanos(millis);
+        });
+    }
+}
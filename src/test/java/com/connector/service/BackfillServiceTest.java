@@ -0,0 +1,148 @@
+package com.connector.service;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.model.Issue;
+import com.connector.repository.FirestoreBulkImporter;
+import com.connector.repository.GitHubApiClient;
+import com.connector.repository.IssuePage;
+import com.connector.repository.IssuePageHandler;
+import com.connector.repository.SyncStateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BackfillService checkpointing and resume
+ */
+@ExtendWith(MockitoExtension.class)
+class BackfillServiceTest {
+    
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+    
+    @Mock
+    private GitHubApiClient githubClient;
+    
+    @Mock
+    private FirestoreBulkImporter importer;
+    
+    @Mock
+    private FirestoreBulkImporter.Session session;
+    
+    @Mock
+    private SyncStateRepository syncStateRepository;
+    
+    private BackfillService backfillService;
+    
+    @BeforeEach
+    void setUp() {
+        ConnectorConfig config = ConnectorConfig.builder()
+                .githubRepository("test/repo")
+                .backfillCheckpointPages(2)
+                .build();
+        backfillService = new BackfillService(githubClient, importer, syncStateRepository, config);
+        when(importer.open()).thenReturn(session);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        backfillService.shutdown();
+    }
+    
+    @Test
+    void testBackfill_CheckpointsEveryNPagesAndHandsOverToIncrementalSync() throws Exception {
+        // Arrange: three pages of two issues, updated one day apart
+        when(syncStateRepository.findBackfillCheckpoint("test/repo")).thenReturn(Optional.empty());
+        stubPages(BackfillService.BACKFILL_START, 3);
+        when(session.getWritten()).thenReturn(4L, 6L);
+        BackfillProgress progress = new BackfillProgress("test/repo");
+        
+        // Act
+        backfillService.backfill(progress);
+        
+        // Assert
+        InOrder inOrder = inOrder(session, syncStateRepository);
+        inOrder.verify(session).flush();
+        inOrder.verify(syncStateRepository).saveBackfillCheckpoint("test/repo", UPDATED_AT.plusDays(4));
+        inOrder.verify(session).flush();
+        inOrder.verify(syncStateRepository).saveBackfillCheckpoint("test/repo", UPDATED_AT.plusDays(6));
+        inOrder.verify(session).close();
+        inOrder.verify(syncStateRepository).saveWatermark("test/repo", UPDATED_AT.plusDays(6));
+        inOrder.verify(syncStateRepository).clearBackfillCheckpoint("test/repo");
+        verify(session, times(3)).write(any());
+        assertEquals(SyncJob.Status.SUCCEEDED, progress.getStatus());
+        assertEquals(6, progress.getIssuesQueued());
+        assertEquals(6, progress.getIssuesWritten());
+        assertNull(progress.getResumedFrom());
+    }
+    
+    @Test
+    void testBackfill_ResumesFromSavedCheckpoint() throws Exception {
+        // Arrange
+        LocalDateTime checkpoint = UPDATED_AT.plusDays(4);
+        when(syncStateRepository.findBackfillCheckpoint("test/repo")).thenReturn(Optional.of(checkpoint));
+        stubPages(checkpoint, 1);
+        when(session.getWritten()).thenReturn(2L);
+        BackfillProgress progress = new BackfillProgress("test/repo");
+        
+        // Act
+        backfillService.backfill(progress);
+        
+        // Assert
+        verify(githubClient).fetchIssuePages(eq("test/repo"), eq(checkpoint), eq(0), any());
+        assertEquals(checkpoint, progress.getResumedFrom());
+        assertEquals(SyncJob.Status.SUCCEEDED, progress.getStatus());
+    }
+    
+    @Test
+    void testBackfill_FailedWritesHoldTheCheckpointBack() throws Exception {
+        // Arrange
+        when(syncStateRepository.findBackfillCheckpoint("test/repo")).thenReturn(Optional.empty());
+        stubPages(BackfillService.BACKFILL_START, 2);
+        when(session.getWritten()).thenReturn(3L);
+        when(session.getFailed()).thenReturn(1L);
+        BackfillProgress progress = new BackfillProgress("test/repo");
+        
+        // Act
+        backfillService.backfill(progress);
+        
+        // Assert
+        verify(syncStateRepository, never()).saveBackfillCheckpoint(any(), any());
+        verify(syncStateRepository, never()).saveWatermark(any(), any());
+        verify(syncStateRepository, never()).clearBackfillCheckpoint(any());
+        assertEquals(SyncJob.Status.FAILED, progress.getStatus());
+        assertEquals(1, progress.getIssuesFailed());
+    }
+    
+    /**
+     * Serve pages of two issues each; page n holds issues updated on days 2n-1 and 2n after UPDATED_AT
+     */
+    private void stubPages(LocalDateTime since, int pageCount) throws Exception {
+        doAnswer(invocation -> {
+            IssuePageHandler handler = invocation.getArgument(3);
+            for (int page = 1; page <= pageCount; page++) {
+                List<Issue> issues = new ArrayList<>();
+                for (long day = 2L * page - 1; day <= 2L * page; day++) {
+                    issues.add(new Issue(day, "Issue " + day, UPDATED_AT, "open", "http://example.com/" + day, 
+                            "test/repo", UPDATED_AT.plusDays(day)));
+                }
+                handler.handle(new IssuePage(page, issues, false));
+            }
+            return null;
+        }).when(githubClient).fetchIssuePages(eq("test/repo"), eq(since), anyInt(), any());
+    }
+}
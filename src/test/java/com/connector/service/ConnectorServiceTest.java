@@ -2,9 +2,14 @@ package com.connector.service;
 
 import com.connector.model.ConnectorConfig;
 import com.connector.model.Issue;
+import com.connector.repository.AsyncIssueRepository;
+import com.connector.repository.BatchSaveResult;
 import com.connector.repository.GitHubApiClient;
-import com.connector.repository.IssueRepository;
+import com.connector.repository.IssuePage;
+import com.connector.repository.IssuePageHandler;
 import com.connector.repository.RepositoryException;
+import com.connector.repository.SyncStateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,11 +17,19 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,10 +43,14 @@ class ConnectorServiceTest {
     private GitHubApiClient githubClient;
     
     @Mock
-    private IssueRepository issueRepository;
+    private AsyncIssueRepository issueRepository;
+    
+    @Mock
+    private SyncStateRepository syncStateRepository;
     
     private ConnectorService connectorService;
     private ConnectorConfig config;
+    private SimpleMeterRegistry meterRegistry;
     
     @BeforeEach
     void setUp() {
@@ -42,15 +59,16 @@ class ConnectorServiceTest {
                 .maxIssues(5)
                 .build();
         
-        connectorService = new ConnectorService(githubClient, issueRepository, config);
+        meterRegistry = new SimpleMeterRegistry();
+        connectorService = new ConnectorService(githubClient, issueRepository, syncStateRepository, config, meterRegistry);
     }
     
     @Test
     void testSyncIssues_Success() throws Exception {
         // Arrange
         List<Issue> mockIssues = createMockIssues();
-        when(githubClient.fetchRecentIssues()).thenReturn(mockIssues);
-        when(issueRepository.saveAll(any())).thenReturn(mockIssues);
+        stubPages(mockIssues);
+        when(issueRepository.saveAll(any())).thenReturn(createSaveResult(mockIssues));
         
         // Act
         SyncResult result = connectorService.syncIssues();
@@ -58,24 +76,211 @@ class ConnectorServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(2, result.getTotalIssuesFetched());
-        assertEquals(2, result.getNewIssuesSaved());
-        assertEquals(0, result.getDuplicateIssuesSkipped());
+        assertEquals(2, result.getIssuesInserted());
+        assertEquals(0, result.getIssuesUpdated());
+        assertEquals(0, result.getIssuesUnchanged());
+        assertEquals(1, result.getChunkResults().size());
         
-        verify(githubClient).fetchRecentIssues();
+        verify(githubClient).fetchIssuePages(eq("test/repo"), isNull(), any());
         verify(issueRepository).saveAll(mockIssues);
     }
     
+    @Test
+    void testSyncIssues_StreamsEachPageIntoRepository() throws Exception {
+        // Arrange
+        List<Issue> firstPage = createMockIssues();
+        List<Issue> secondPage = Arrays.asList(
+            new Issue(3L, "Test Issue 3", LocalDateTime.now(), "open", "http://example.com/3", "test/repo", LocalDateTime.now()));
+        stubPages(firstPage, secondPage);
+        when(issueRepository.saveAll(firstPage)).thenReturn(createSaveResult(firstPage));
+        when(issueRepository.saveAll(secondPage)).thenReturn(createSaveResult(secondPage));
+        
+        // Act
+        SyncResult result = connectorService.syncIssues();
+        
+        // Assert
+        assertEquals(2, result.getPagesFetched());
+        assertEquals(3, result.getTotalIssuesFetched());
+        assertEquals(3, result.getIssuesInserted());
+        verify(issueRepository, times(2)).saveAll(any());
+    }
+    
+    @Test
+    void testSyncIssues_OverlapsFetchingWithWriting() throws Exception {
+        // Arrange
+        List<Issue> firstPage = createMockIssues();
+        List<Issue> secondPage = Arrays.asList(
+            new Issue(3L, "Test Issue 3", LocalDateTime.now(), "open", "http://example.com/3", "test/repo", LocalDateTime.now()));
+        CountDownLatch secondPageFetched = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            IssuePageHandler handler = invocation.getArgument(2);
+            handler.handle(new IssuePage(1, firstPage, false));
+            handler.handle(new IssuePage(2, secondPage, false));
+            secondPageFetched.countDown();
+            return null;
+        }).when(githubClient).fetchIssuePages(eq("test/repo"), isNull(), any());
+        when(issueRepository.saveAll(firstPage)).thenAnswer(invocation -> {
+            // The crawl must get past the first page while it is still being written
+            assertTrue(secondPageFetched.await(5, TimeUnit.SECONDS));
+            return createSaveResult(firstPage);
+        });
+        when(issueRepository.saveAll(secondPage)).thenReturn(createSaveResult(secondPage));
+        
+        // Act
+        SyncResult result = connectorService.syncIssues();
+        
+        // Assert
+        assertEquals(2, result.getPagesFetched());
+        assertEquals(3, result.getIssuesInserted());
+    }
+    
+    @Test
+    void testSyncIssues_ReportsStageTimingsAndMetrics() throws Exception {
+        // Arrange
+        List<Issue> mockIssues = createMockIssues();
+        doAnswer(invocation -> {
+            IssuePageHandler handler = invocation.getArgument(2);
+            handler.handle(new IssuePage(1, mockIssues, false, 3_000_000L, 1_500_000L));
+            return null;
+        }).when(githubClient).fetchIssuePages(eq("test/repo"), isNull(), any());
+        BatchSaveResult saveResult = createSaveResult(mockIssues.subList(0, 1));
+        saveResult.addChunk(new BatchSaveResult.ChunkResult(1, 2, 0, 1, 1, 0));
+        when(issueRepository.saveAll(any())).thenReturn(saveResult);
+        
+        // Act
+        SyncResult result = connectorService.syncIssues();
+        
+        // Assert
+        assertEquals(3.0, result.getFetchTimeMs());
+        assertEquals(1.5, result.getParseTimeMs());
+        assertTrue(result.getWriteTimeMs() > 0);
+        assertTrue(result.getTotalTimeMs() >= result.getWriteTimeMs());
+        assertEquals(1, result.getIssuesUpdated());
+        assertEquals(1, result.getIssuesUnchanged());
+        assertEquals(1, meterRegistry.get("connector.sync.issues").tag("result", "inserted").counter().count());
+        assertEquals(1, meterRegistry.get("connector.sync.issues").tag("result", "updated").counter().count());
+        assertEquals(1, meterRegistry.get("connector.sync.issues").tag("result", "unchanged").counter().count());
+        assertEquals(1, meterRegistry.get("connector.sync.duration")
+                .tag("mode", "full").tag("outcome", "success").timer().count());
+    }
+    
+    @Test
+    void testSyncIssues_SyncsRequestedRepository() throws Exception {
+        // Arrange
+        List<Issue> mockIssues = createMockIssues();
+        doAnswer(invocation -> {
+            IssuePageHandler handler = invocation.getArgument(2);
+            handler.handle(new IssuePage(1, mockIssues, false));
+            return null;
+        }).when(githubClient).fetchIssuePages(eq("test/other"), isNull(), any());
+        when(issueRepository.saveAll(any())).thenReturn(createSaveResult(mockIssues));
+        List<IssuePage> reported = new ArrayList<>();
+        
+        // Act
+        SyncResult result = connectorService.syncIssues("test/other", (page, saveResult) -> reported.add(page));
+        
+        // Assert
+        assertEquals("test/other", result.getRepository());
+        assertEquals(2, result.getIssuesInserted());
+        assertEquals(1, reported.size());
+    }
+    
+    @Test
+    void testResolveRepositories_MergesListAndOrganization() throws Exception {
+        // Arrange
+        config.setGithubRepositories(Arrays.asList("test/second", " test/repo ", ""));
+        config.setGithubOrganization("test");
+        when(githubClient.fetchOrganizationRepositories("test")).thenReturn(Arrays.asList("test/repo", "test/third"));
+        
+        // Act
+        List<String> repositories = connectorService.resolveRepositories();
+        
+        // Assert
+        assertEquals(Arrays.asList("test/repo", "test/second", "test/third"), repositories);
+    }
+    
+    @Test
+    void testSyncIssues_IncrementalUsesAndAdvancesWatermark() throws Exception {
+        // Arrange
+        config.setIncrementalSync(true);
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime latest = LocalDateTime.of(2024, 3, 1, 12, 0);
+        List<Issue> changedIssues = Arrays.asList(
+            new Issue(1L, "Test Issue 1", since, "open", "http://example.com/1", "test/repo", since.plusDays(1)),
+            new Issue(2L, "Test Issue 2", since, "closed", "http://example.com/2", "test/repo", latest));
+        when(syncStateRepository.findWatermark("test/repo")).thenReturn(Optional.of(since));
+        doAnswer(invocation -> {
+            IssuePageHandler handler = invocation.getArgument(2);
+            handler.handle(new IssuePage(1, changedIssues, false));
+            return null;
+        }).when(githubClient).fetchIssuePages(eq("test/repo"), eq(since), any());
+        when(issueRepository.saveAll(any())).thenReturn(createSaveResult(changedIssues));
+        
+        // Act
+        SyncResult result = connectorService.syncIssues();
+        
+        // Assert
+        assertTrue(result.isIncremental());
+        assertEquals(latest, result.getWatermark());
+        verify(syncStateRepository).saveWatermark("test/repo", latest);
+    }
+    
+    @Test
+    void testSyncIssues_FirstIncrementalSyncCrawlsFromTheStartOldestUpdateFirst() throws Exception {
+        // Arrange: no watermark yet
+        config.setIncrementalSync(true);
+        LocalDateTime oldest = LocalDateTime.of(2019, 5, 1, 0, 0);
+        List<Issue> oldestIssues = Arrays.asList(
+            new Issue(7L, "Old Issue", oldest, "closed", "http://example.com/7", "test/repo", oldest));
+        when(syncStateRepository.findWatermark("test/repo")).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            IssuePageHandler handler = invocation.getArgument(2);
+            handler.handle(new IssuePage(1, oldestIssues, false));
+            return null;
+        }).when(githubClient).fetchIssuePages(eq("test/repo"), eq(BackfillService.BACKFILL_START), any());
+        when(issueRepository.saveAll(any())).thenReturn(createSaveResult(oldestIssues));
+        
+        // Act
+        connectorService.syncIssues();
+        
+        // Assert: the next sync continues after the oldest issues rather than after the newest
+        verify(syncStateRepository).saveWatermark("test/repo", oldest);
+    }
+    
+    @Test
+    void testSyncIssues_IncrementalHoldsWatermarkOnFailedWrites() throws Exception {
+        // Arrange
+        config.setIncrementalSync(true);
+        List<Issue> mockIssues = createMockIssues();
+        when(syncStateRepository.findWatermark("test/repo")).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            IssuePageHandler handler = invocation.getArgument(2);
+            handler.handle(new IssuePage(1, mockIssues, false));
+            return null;
+        }).when(githubClient).fetchIssuePages(eq("test/repo"), eq(BackfillService.BACKFILL_START), any());
+        BatchSaveResult saveResult = new BatchSaveResult();
+        saveResult.addChunk(new BatchSaveResult.ChunkResult(0, 2, 0, 0, 0, 2));
+        when(issueRepository.saveAll(any())).thenReturn(saveResult);
+        
+        // Act
+        SyncResult result = connectorService.syncIssues();
+        
+        // Assert
+        assertEquals(2, result.getFailedIssues());
+        verify(syncStateRepository, never()).saveWatermark(any(), any());
+    }
+    
     @Test
     void testSyncIssues_GitHubApiFailure() throws Exception {
         // Arrange
-        when(githubClient.fetchRecentIssues()).thenThrow(new RepositoryException("API Error"));
+        doThrow(new RepositoryException("API Error")).when(githubClient).fetchIssuePages(eq("test/repo"), isNull(), any());
         
         // Act & Assert
         ConnectorException exception = assertThrows(ConnectorException.class, 
             () -> connectorService.syncIssues());
         
         assertTrue(exception.getMessage().contains("Sync operation failed"));
-        verify(githubClient).fetchRecentIssues();
+        verify(githubClient).fetchIssuePages(eq("test/repo"), isNull(), any());
         verify(issueRepository, never()).saveAll(any());
     }
     
@@ -83,7 +288,7 @@ class ConnectorServiceTest {
     void testSyncIssues_FirestoreFailure() throws Exception {
         // Arrange
         List<Issue> mockIssues = createMockIssues();
-        when(githubClient.fetchRecentIssues()).thenReturn(mockIssues);
+        stubPages(mockIssues);
         when(issueRepository.saveAll(any())).thenThrow(new RepositoryException("Firestore Error"));
         
         // Act & Assert
@@ -91,7 +296,7 @@ class ConnectorServiceTest {
             () -> connectorService.syncIssues());
         
         assertTrue(exception.getMessage().contains("Sync operation failed"));
-        verify(githubClient).fetchRecentIssues();
+        verify(githubClient).fetchIssuePages(eq("test/repo"), isNull(), any());
         verify(issueRepository).saveAll(mockIssues);
     }
     
@@ -138,10 +343,43 @@ class ConnectorServiceTest {
         verify(issueRepository).existsById(issueId);
     }
     
+    @Test
+    void testIssueExistsAsync_WrapsRepositoryFailure() throws Exception {
+        // Arrange
+        when(issueRepository.existsByIdAsync(123L))
+                .thenReturn(CompletableFuture.failedFuture(new RepositoryException("Firestore Error")));
+        
+        // Act
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> connectorService.issueExistsAsync(123L).get());
+        
+        // Assert
+        assertInstanceOf(ConnectorException.class, exception.getCause());
+        assertInstanceOf(RepositoryException.class, exception.getCause().getCause());
+    }
+    
+    @SafeVarargs
+    private void stubPages(List<Issue>... pages) throws RepositoryException {
+        doAnswer(invocation -> {
+            IssuePageHandler handler = invocation.getArgument(2);
+            for (int i = 0; i < pages.length; i++) {
+                handler.handle(new IssuePage(i + 1, pages[i], false));
+            }
+            return null;
+        }).when(githubClient).fetchIssuePages(eq("test/repo"), isNull(), any());
+    }
+    
+    private BatchSaveResult createSaveResult(List<Issue> savedIssues) {
+        BatchSaveResult result = new BatchSaveResult();
+        result.getSavedIssues().addAll(savedIssues);
+        result.addChunk(new BatchSaveResult.ChunkResult(0, savedIssues.size(), savedIssues.size(), 0, 0, 0));
+        return result;
+    }
+    
     private List<Issue> createMockIssues() {
         return Arrays.asList(
-            new Issue(1L, "Test Issue 1", LocalDateTime.now(), "open", "http://example.com/1", "test/repo"),
-            new Issue(2L, "Test Issue 2", LocalDateTime.now(), "closed", "http://example.com/2", "test/repo")
+            new Issue(1L, "Test Issue 1", LocalDateTime.now(), "open", "http://example.com/1", "test/repo", LocalDateTime.now()),
+            new Issue(2L, "Test Issue 2", LocalDateTime.now(), "closed", "http://example.com/2", "test/repo", LocalDateTime.now())
         );
     }
 }
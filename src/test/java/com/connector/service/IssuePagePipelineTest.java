@@ -0,0 +1,91 @@
+package com.connector.service;
+
+import com.connector.model.Issue;
+import com.connector.repository.IssuePage;
+import com.connector.repository.RepositoryException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the bounded hand-off between the GitHub crawl and the Firestore writers
+ */
+class IssuePagePipelineTest {
+    
+    @Test
+    void testSubmitBlocksWhileWritersAreBehind() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        IssuePagePipeline pipeline = new IssuePagePipeline(1, 1, false, page -> {
+            awaitQuietly(release);
+            written.add(page.getPageNumber());
+        });
+        
+        try {
+            // Act: page 1 is taken by the writer, page 2 fills the queue, page 3 has to wait
+            CompletableFuture<Void> crawl = CompletableFuture.runAsync(() -> {
+                try {
+                    for (int pageNumber = 1; pageNumber <= 3; pageNumber++) {
+                        pipeline.submit(page(pageNumber));
+                    }
+                } catch (RepositoryException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            
+            // Assert
+            assertThrows(TimeoutException.class, () -> crawl.get(300, TimeUnit.MILLISECONDS));
+            release.countDown();
+            crawl.get(5, TimeUnit.SECONDS);
+            pipeline.finish();
+            assertEquals(List.of(1, 2, 3), written);
+            assertTrue(pipeline.getBackpressureNanos() >= TimeUnit.MILLISECONDS.toNanos(100));
+        } finally {
+            pipeline.close();
+        }
+    }
+    
+    @Test
+    void testWriterFailureStopsTheCrawl() throws Exception {
+        // Arrange
+        IssuePagePipeline pipeline = new IssuePagePipeline(2, 1, false, page -> {
+            throw new RepositoryException("Firestore unavailable");
+        });
+        
+        try {
+            // Act & Assert
+            RepositoryException exception = assertThrows(RepositoryException.class, () -> {
+                for (int pageNumber = 1; pageNumber <= 100; pageNumber++) {
+                    pipeline.submit(page(pageNumber));
+                }
+                pipeline.finish();
+            });
+            assertEquals("Firestore unavailable", exception.getMessage());
+        } finally {
+            pipeline.close();
+        }
+    }
+    
+    private static IssuePage page(int pageNumber) {
+        List<Issue> issues = List.of(new Issue((long) pageNumber, "Issue " + pageNumber, null, "open", 
+                "http://example.com/" + pageNumber, "test/repo", null));
+        return new IssuePage(pageNumber, issues, false);
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
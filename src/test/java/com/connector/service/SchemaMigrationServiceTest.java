@@ -0,0 +1,111 @@
+package com.connector.service;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.repository.FirestoreIssueRepository;
+import com.connector.repository.IssueDocumentMapper;
+import com.connector.repository.RepositoryException;
+import com.connector.repository.SchemaMigrationPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SchemaMigrationService paging and retries
+ */
+@ExtendWith(MockitoExtension.class)
+class SchemaMigrationServiceTest {
+    
+    @Mock
+    private FirestoreIssueRepository issueRepository;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SchemaMigrationService migrationService;
+    
+    @BeforeEach
+    void setUp() {
+        ConnectorConfig config = ConnectorConfig.builder()
+                .migrationPageSize(2)
+                .build();
+        migrationService = new SchemaMigrationService(issueRepository, config, meterRegistry);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        migrationService.shutdown();
+    }
+    
+    @Test
+    void testMigrate_WalksPagesUntilTheLastAndRetriesAFailedPage() throws Exception {
+        // Arrange: the second page loses a race with a sync write once
+        when(issueRepository.migrateSchemaPage(null, 2)).thenReturn(new SchemaMigrationPage(2, 2, "2", false));
+        when(issueRepository.migrateSchemaPage("2", 2))
+                .thenThrow(new RepositoryException("Failed to migrate issues", null))
+                .thenReturn(new SchemaMigrationPage(2, 1, "4", false));
+        when(issueRepository.migrateSchemaPage("4", 2)).thenReturn(new SchemaMigrationPage(1, 0, "5", true));
+        SchemaMigrationProgress progress = new SchemaMigrationProgress(IssueDocumentMapper.SCHEMA_VERSION);
+        
+        // Act
+        migrationService.migrate(progress);
+        
+        // Assert
+        InOrder inOrder = inOrder(issueRepository);
+        inOrder.verify(issueRepository).migrateSchemaPage(null, 2);
+        inOrder.verify(issueRepository, times(2)).migrateSchemaPage("2", 2);
+        inOrder.verify(issueRepository).migrateSchemaPage("4", 2);
+        assertEquals(SyncJob.Status.SUCCEEDED, progress.getStatus());
+        assertEquals(5, progress.getDocumentsScanned());
+        assertEquals(3, progress.getDocumentsMigrated());
+        assertEquals("5", progress.getLastDocumentId());
+        assertEquals(3, meterRegistry.get("connector.migration.documents").counter().count());
+    }
+    
+    @Test
+    void testMigrate_GivesUpAfterMaxPageAttempts() throws Exception {
+        // Arrange
+        when(issueRepository.migrateSchemaPage(any(), anyInt()))
+                .thenThrow(new RepositoryException("Failed to migrate issues", null));
+        SchemaMigrationProgress progress = new SchemaMigrationProgress(IssueDocumentMapper.SCHEMA_VERSION);
+        
+        // Act / Assert
+        assertThrows(ConnectorException.class, () -> migrationService.migrate(progress));
+        verify(issueRepository, times(SchemaMigrationService.MAX_PAGE_ATTEMPTS)).migrateSchemaPage(null, 2);
+        assertEquals(0, progress.getDocumentsScanned());
+    }
+    
+    @Test
+    void testSubmit_JoinsARunningMigration() throws Exception {
+        // Arrange: hold the only page until both submissions are in
+        CountDownLatch release = new CountDownLatch(1);
+        when(issueRepository.migrateSchemaPage(null, 2)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new SchemaMigrationPage(0, 0, null, true);
+        });
+        
+        // Act
+        SchemaMigrationProgress first = migrationService.submit();
+        SchemaMigrationProgress second = migrationService.submit();
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!first.isDone() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        
+        // Assert
+        assertSame(first, second);
+        assertEquals(SyncJob.Status.SUCCEEDED, first.getStatus());
+        assertSame(first, migrationService.findProgress().orElseThrow());
+    }
+}
@@ -0,0 +1,159 @@
+package com.connector.service;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.model.Issue;
+import com.connector.repository.BatchSaveResult;
+import com.connector.repository.IssuePage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SyncJobService
+ */
+@ExtendWith(MockitoExtension.class)
+class SyncJobServiceTest {
+    
+    @Mock
+    private ConnectorService connectorService;
+    
+    private RepositorySyncScheduler scheduler;
+    private SyncJobService syncJobService;
+    private final CountDownLatch pageSynced = new CountDownLatch(1);
+    private final CountDownLatch releaseSync = new CountDownLatch(1);
+    
+    @BeforeEach
+    void setUp() {
+        ConnectorConfig config = ConnectorConfig.builder()
+                .githubRepository("test/repo")
+                .syncWorkerThreads(1)
+                .syncQueueCapacity(1)
+                .syncRepositoryConcurrency(2)
+                .build();
+        scheduler = new RepositorySyncScheduler(connectorService, config);
+        syncJobService = new SyncJobService(connectorService, scheduler, config);
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        releaseSync.countDown();
+        syncJobService.shutdown();
+        scheduler.shutdown();
+    }
+    
+    @Test
+    void testSubmit_CoalescesConcurrentRequestsAndReportsProgress() throws Exception {
+        // Arrange
+        SyncResult syncResult = SyncResult.builder().repository("test/repo").pagesFetched(1).issuesInserted(1).build();
+        when(connectorService.resolveRepositories()).thenReturn(List.of("test/repo"));
+        when(connectorService.syncIssues(eq("test/repo"), any())).thenAnswer(invocation -> {
+            SyncProgressListener listener = invocation.getArgument(1);
+            List<Issue> issues = List.of(new Issue(1L, "Issue 1", LocalDateTime.now(), "open", 
+                    "http://example.com/1", "test/repo", LocalDateTime.now()));
+            BatchSaveResult saveResult = new BatchSaveResult();
+            saveResult.getSavedIssues().addAll(issues);
+            listener.onPageSynced(new IssuePage(1, issues, false), saveResult);
+            pageSynced.countDown();
+            releaseSync.await(5, TimeUnit.SECONDS);
+            return syncResult;
+        });
+        
+        // Act
+        SyncJob first = syncJobService.submit();
+        assertTrue(pageSynced.await(5, TimeUnit.SECONDS));
+        SyncJob second = syncJobService.submit();
+        
+        // Assert
+        assertSame(first, second);
+        assertEquals(SyncJob.Status.RUNNING, first.getStatus());
+        assertEquals(1, first.getPagesFetched());
+        assertEquals(1, first.getIssuesWritten());
+        
+        releaseSync.countDown();
+        awaitDone(first);
+        assertEquals(SyncJob.Status.SUCCEEDED, first.getStatus());
+        assertSame(syncResult, first.getResults().get("test/repo"));
+        assertSame(first, syncJobService.findJob(first.getJobId()).orElseThrow());
+        verify(connectorService, times(1)).syncIssues(eq("test/repo"), any());
+        
+        SyncJob next = syncJobService.submit();
+        assertNotEquals(first.getJobId(), next.getJobId());
+    }
+    
+    @Test
+    void testSubmit_SyncsEachRepositoryAndReportsPerRepositoryResults() throws Exception {
+        // Arrange
+        when(connectorService.resolveRepositories()).thenReturn(List.of("test/one", "test/two", "test/three"));
+        when(connectorService.syncIssues(anyString(), any())).thenAnswer(invocation -> 
+                SyncResult.builder().repository(invocation.getArgument(0)).build());
+        when(connectorService.syncIssues(eq("test/two"), any())).thenThrow(new ConnectorException("Sync operation failed"));
+        
+        // Act
+        SyncJob job = syncJobService.submit();
+        awaitDone(job);
+        
+        // Assert
+        assertEquals(SyncJob.Status.FAILED, job.getStatus());
+        assertEquals(List.of("test/one", "test/three"), List.copyOf(job.getResults().keySet()));
+        assertEquals("test/one", job.getResults().get("test/one").getRepository());
+        assertEquals("Sync operation failed", job.getErrors().get("test/two"));
+        assertEquals("1 of 3 repositories failed to sync", job.getError());
+    }
+    
+    @Test
+    void testSubmit_SingleRepositorySkipsResolution() throws Exception {
+        // Arrange
+        when(connectorService.syncIssues(eq("test/other"), any())).thenReturn(SyncResult.builder().build());
+        
+        // Act
+        SyncJob job = syncJobService.submit("test/other");
+        awaitDone(job);
+        
+        // Assert
+        assertEquals(SyncJob.Status.SUCCEEDED, job.getStatus());
+        assertEquals(List.of("test/other"), job.getRepositories());
+        verify(connectorService, never()).resolveRepositories();
+    }
+    
+    @Test
+    void testSubmit_FailsWhenRepositoriesCannotBeResolved() throws Exception {
+        // Arrange
+        when(connectorService.resolveRepositories()).thenThrow(new ConnectorException("No repositories configured to sync"));
+        
+        // Act
+        SyncJob job = syncJobService.submit();
+        awaitDone(job);
+        
+        // Assert
+        assertEquals(SyncJob.Status.FAILED, job.getStatus());
+        assertEquals("No repositories configured to sync", job.getError());
+        assertNotNull(job.getFinishedAt());
+    }
+    
+    @Test
+    void testFindJob_UnknownId() {
+        assertTrue(syncJobService.findJob("missing").isEmpty());
+    }
+    
+    private void awaitDone(SyncJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isDone(), "job did not finish in time");
+    }
+}
@@ -0,0 +1,116 @@
+package com.connector.service;
+
+import com.connector.model.ConnectorConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SyncPoller interval adaptation, driven through a mocked TaskScheduler
+ */
+@ExtendWith(MockitoExtension.class)
+class SyncPollerTest {
+    
+    @Mock
+    private SyncJobService syncJobService;
+    
+    @Mock
+    private ConnectorService connectorService;
+    
+    @Mock
+    private TaskScheduler scheduler;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<SyncJob> jobs = new ArrayList<>();
+    private ConnectorConfig config;
+    
+    @BeforeEach
+    void setUp() {
+        config = ConnectorConfig.builder()
+                .pollEnabled(true)
+                .pollMinIntervalSeconds(60)
+                .pollMaxIntervalSeconds(240)
+                .pollBackoffMultiplier(2.0)
+                .pollJitter(0.2)
+                .build();
+    }
+    
+    @Test
+    void testPoll_BacksOffWhileQuietAndResetsOnChanges() throws Exception {
+        // Arrange: no jitter at the midpoint of the random range
+        SyncPoller poller = new SyncPoller(syncJobService, connectorService, config, meterRegistry, scheduler, () -> 0.5);
+        when(connectorService.resolveRepositories()).thenReturn(List.of("test/repo"));
+        when(syncJobService.submit("test/repo")).thenAnswer(invocation -> {
+            SyncJob job = new SyncJob("job-" + jobs.size(), "test/repo");
+            jobs.add(job);
+            return job;
+        });
+        poller.start();
+        
+        // Act & Assert: quiet, 304, quiet (capped), then a sync that writes changes
+        assertEquals(Duration.ofSeconds(120), pollOnce(poller, SyncResult.builder().issuesUnchanged(3).build()));
+        assertEquals(Duration.ofSeconds(240), pollOnce(poller, SyncResult.builder().pagesFetched(1).pagesNotModified(1).build()));
+        assertEquals(Duration.ofSeconds(240), pollOnce(poller, SyncResult.builder().build()));
+        assertEquals(Duration.ofSeconds(60), pollOnce(poller, SyncResult.builder().issuesUpdated(1).build()));
+        assertEquals(60, meterRegistry.get("connector.poll.interval").tag("repository", "test/repo").gauge().value());
+    }
+    
+    @Test
+    void testPoll_FailedSyncBacksOff() throws Exception {
+        // Arrange
+        SyncPoller poller = new SyncPoller(syncJobService, connectorService, config, meterRegistry, scheduler, () -> 0.5);
+        when(connectorService.resolveRepositories()).thenReturn(List.of("test/repo"));
+        when(syncJobService.submit("test/repo")).thenThrow(new ConnectorException("Sync queue is full"));
+        poller.start();
+        
+        // Act
+        runLastScheduledTask();
+        
+        // Assert
+        assertEquals(Duration.ofSeconds(120), poller.currentInterval("test/repo"));
+        verify(scheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+    
+    @Test
+    void testJitter_StaysWithinConfiguredFraction() {
+        // Arrange
+        SyncPoller low = new SyncPoller(syncJobService, connectorService, config, meterRegistry, scheduler, () -> 0.0);
+        SyncPoller high = new SyncPoller(syncJobService, connectorService, config, meterRegistry, scheduler, () -> 0.999);
+        
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(80), low.jitter(Duration.ofSeconds(100)));
+        assertTrue(high.jitter(Duration.ofSeconds(100)).compareTo(Duration.ofSeconds(120)) <= 0);
+        assertTrue(high.jitter(Duration.ofSeconds(100)).compareTo(Duration.ofSeconds(119)) > 0);
+    }
+    
+    /**
+     * Run the pending poll, finish its job with the given result and return the repository's new interval
+     */
+    private Duration pollOnce(SyncPoller poller, SyncResult result) {
+        runLastScheduledTask();
+        SyncJob job = jobs.get(jobs.size() - 1);
+        job.recordResult("test/repo", result);
+        job.complete();
+        return poller.currentInterval("test/repo");
+    }
+    
+    private void runLastScheduledTask() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, atLeastOnce()).schedule(task.capture(), any(Instant.class));
+        task.getValue().run();
+    }
+}
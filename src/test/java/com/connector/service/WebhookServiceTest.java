@@ -0,0 +1,189 @@
+package com.connector.service;
+
+import com.connector.model.ConnectorConfig;
+import com.connector.model.Issue;
+import com.connector.repository.BatchSaveResult;
+import com.connector.repository.GitHubIssueParser;
+import com.connector.repository.IssueRepository;
+import com.connector.repository.RepositoryException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WebhookService, replaying recorded GitHub webhook payloads
+ */
+@ExtendWith(MockitoExtension.class)
+class WebhookServiceTest {
+    
+    private static final String SECRET = "It's a Secret to Everybody";
+    
+    @Mock
+    private IssueRepository issueRepository;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WebhookService webhookService;
+    
+    @AfterEach
+    void tearDown() {
+        if (webhookService != null) {
+            webhookService.shutdown();
+        }
+    }
+    
+    @Test
+    void testVerifySignature_AcceptsOnlyMatchingHmac() throws Exception {
+        // Arrange
+        webhookService = createService(SECRET, 100, 60_000);
+        byte[] body = payload("issues-opened.json");
+        String signature = WebhookService.SIGNATURE_PREFIX + webhookService.sign(body);
+        WebhookService disabled = createService("", 100, 60_000);
+        byte[] tampered = new String(body, StandardCharsets.UTF_8).replace("crashes", "works")
+                .getBytes(StandardCharsets.UTF_8);
+        
+        // Act & Assert
+        assertTrue(webhookService.verifySignature(body, signature));
+        assertFalse(webhookService.verifySignature(tampered, signature));
+        assertFalse(webhookService.verifySignature(body, null));
+        assertFalse(webhookService.verifySignature(body, webhookService.sign(body)));
+        assertFalse(disabled.verifySignature(body, signature));
+        assertFalse(disabled.isEnabled());
+        disabled.shutdown();
+        assertEquals(4, meterRegistry.get("connector.webhook.deliveries").tag("outcome", "unauthorized").counter().count());
+    }
+    
+    @Test
+    void testSign_MatchesGitHubReferenceSignature() {
+        // Example from GitHub's webhook validation documentation
+        webhookService = createService(SECRET, 100, 60_000);
+        
+        assertEquals("757107ea0eb2509fc211221cce984b8a37570b6d7586c22c46f4379c8b043e17",
+                webhookService.sign("Hello, World!".getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    @Test
+    void testHandle_CoalescesBurstIntoOneBatchAndDropsRedeliveries() throws Exception {
+        // Arrange: the size trigger fires on the third event, long before the timer
+        webhookService = createService(SECRET, 3, 60_000);
+        when(issueRepository.saveAll(anyList())).thenReturn(new BatchSaveResult());
+        
+        // Act
+        assertEquals(WebhookService.Outcome.ACCEPTED, webhookService.handle("issues", "d-1", payload("issues-opened.json")));
+        assertEquals(WebhookService.Outcome.DUPLICATE, webhookService.handle("issues", "d-1", payload("issues-opened.json")));
+        assertEquals(WebhookService.Outcome.IGNORED, webhookService.handle("ping", "d-2", payload("ping.json")));
+        assertEquals(WebhookService.Outcome.IGNORED, webhookService.handle("issues", "d-3", payload("issues-deleted.json")));
+        assertEquals(WebhookService.Outcome.ACCEPTED, webhookService.handle("issues", "d-4", payload("issues-closed.json")));
+        assertEquals(WebhookService.Outcome.ACCEPTED, webhookService.handle("issues", "d-5", payload("issues-opened.json")));
+        
+        // Assert: three events for one issue become a single write of its newest version
+        ArgumentCaptor<List<Issue>> batch = captor();
+        verify(issueRepository, timeout(5000)).saveAll(batch.capture());
+        assertEquals(1, batch.getValue().size());
+        assertEquals("closed", batch.getValue().get(0).getState());
+        assertEquals("octo-org/widgets", batch.getValue().get(0).getRepository());
+        assertEquals(1, meterRegistry.get("connector.webhook.deliveries").tag("outcome", "duplicate").counter().count());
+    }
+    
+    @Test
+    void testHandle_FlushesPartialBatchAfterInterval() throws Exception {
+        // Arrange
+        webhookService = createService(SECRET, 100, 50);
+        when(issueRepository.saveAll(anyList())).thenReturn(new BatchSaveResult());
+        
+        // Act
+        webhookService.handle("issues", "d-1", payload("issues-opened.json"));
+        
+        // Assert
+        verify(issueRepository, timeout(5000)).saveAll(anyList());
+        assertEquals(1, meterRegistry.get("connector.webhook.flush").timer().count());
+    }
+    
+    @Test
+    void testHandle_AppliesRedeliveryOfADeliveryWhoseWriteFailed() throws Exception {
+        // Arrange: the first flush fails
+        webhookService = createService(SECRET, 1, 60_000);
+        when(issueRepository.saveAll(anyList()))
+                .thenThrow(new RepositoryException("unavailable"))
+                .thenReturn(new BatchSaveResult());
+        webhookService.handle("issues", "d-1", payload("issues-opened.json"));
+        verify(issueRepository, timeout(5000)).saveAll(anyList());
+        
+        // Act: GitHub redelivers the same delivery
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        WebhookService.Outcome outcome;
+        while ((outcome = webhookService.handle("issues", "d-1", payload("issues-opened.json"))) 
+                == WebhookService.Outcome.DUPLICATE && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        
+        // Assert
+        assertEquals(WebhookService.Outcome.ACCEPTED, outcome);
+        verify(issueRepository, timeout(5000).times(2)).saveAll(anyList());
+    }
+    
+    @Test
+    void testHandle_IgnoresIssuesOfUnconfiguredRepositories() throws Exception {
+        // Arrange: the payloads belong to octo-org/widgets
+        webhookService = createService(ConnectorConfig.builder()
+                .githubRepository("octo-org/gadgets")
+                .githubOrganization("other-org"), SECRET, 1, 60_000);
+        WebhookService organizationWide = createService(ConnectorConfig.builder()
+                .githubOrganization("Octo-Org"), SECRET, 100, 60_000);
+        when(issueRepository.saveAll(anyList())).thenReturn(new BatchSaveResult());
+        
+        // Act & Assert
+        assertEquals(WebhookService.Outcome.UNCONFIGURED, webhookService.handle("issues", "d-1", payload("issues-opened.json")));
+        assertEquals(WebhookService.Outcome.ACCEPTED, organizationWide.handle("issues", "d-2", payload("issues-opened.json")));
+        organizationWide.shutdown();
+        assertEquals(1, meterRegistry.get("connector.webhook.deliveries").tag("outcome", "unconfigured").counter().count());
+        assertTrue(webhookService.isConfigured("Octo-Org/Gadgets"));
+        assertFalse(webhookService.isConfigured("octo-org/widgets"));
+        verify(issueRepository, times(1)).saveAll(anyList());
+    }
+    
+    @Test
+    void testHandle_MalformedIssuesEventFails() {
+        webhookService = createService(SECRET, 100, 60_000);
+        
+        assertThrows(ConnectorException.class,
+                () -> webhookService.handle("issues", "d-1", "{\"action\":\"opened\"}".getBytes(StandardCharsets.UTF_8)));
+        verifyNoInteractions(issueRepository);
+    }
+    
+    private WebhookService createService(String secret, int maxEvents, long flushMs) {
+        return createService(ConnectorConfig.builder().githubRepository("octo-org/widgets"), secret, maxEvents, flushMs);
+    }
+    
+    private WebhookService createService(ConnectorConfig.ConnectorConfigBuilder builder, String secret, int maxEvents, 
+                                         long flushMs) {
+        ConnectorConfig config = builder
+                .webhookSecret(secret)
+                .webhookBatchMaxEvents(maxEvents)
+                .webhookBatchFlushMs(flushMs)
+                .webhookDeliveryCacheSize(100)
+                .build();
+        return new WebhookService(issueRepository, new GitHubIssueParser(), config, meterRegistry);
+    }
+    
+    private static byte[] payload(String name) throws IOException {
+        return WebhookServiceTest.class.getResourceAsStream("/webhooks/" + name).readAllBytes();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Issue>> captor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}